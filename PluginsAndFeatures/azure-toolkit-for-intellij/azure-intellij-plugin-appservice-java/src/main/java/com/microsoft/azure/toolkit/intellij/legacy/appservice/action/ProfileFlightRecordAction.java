@@ -5,9 +5,16 @@
 
 package com.microsoft.azure.toolkit.intellij.legacy.appservice.action;
 
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.TextEditorWithPreview;
+import com.intellij.openapi.fileTypes.ex.FileTypeManagerEx;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.testFramework.LightVirtualFile;
 import com.intellij.util.PlatformUtils;
+import com.microsoft.azure.toolkit.intellij.legacy.appservice.jfr.FlightRecordingSummary;
 import com.microsoft.azure.toolkit.intellij.legacy.appservice.jfr.RunFlightRecorderDialog;
 import com.microsoft.azure.toolkit.lib.appservice.AppServiceAppBase;
 import com.microsoft.azure.toolkit.lib.appservice.model.OperatingSystem;
@@ -22,6 +29,7 @@ import com.microsoft.azure.toolkit.lib.legacy.appservice.jfr.FlightRecorderManag
 import com.microsoft.azure.toolkit.lib.legacy.appservice.jfr.FlightRecorderStarterBase;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
@@ -29,6 +37,7 @@ import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.util.Objects;
+import java.util.Optional;
 
 import static com.microsoft.azure.toolkit.intellij.common.AzureBundle.message;
 
@@ -104,20 +113,47 @@ public class ProfileFlightRecordAction {
             }
             AzureMessager.getMessager().info(message("webapp.flightRecord.hint.profileCompletedOnAzure"));
             AzureMessager.getMessager().info(message("webapp.flightRecord.hint.downloadingJfr"));
-            final byte[] content = starter.downloadJFRFile(file.getName());
-            if (content != null) {
-                FileUtils.writeByteArrayToFile(file, content);
-                AzureMessager.getMessager().info(message("webapp.flightRecord.hint.downloadingJfrDone"));
-                AzureMessager.getMessager().info(getActionOnJfrFile(file.getAbsolutePath()), message("webapp.flightRecord.hint.profileRecorderComplete"));
-            } else {
-                throw new AzureToolkitRuntimeException(message("webapp.flightRecord.error.jfrDownload.title"), message("webapp.flightRecord.error.jfrDownload.message"));
+            final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+            try {
+                starter.downloadJFRFile(file.getName(), file.toPath(), bytes -> Optional.ofNullable(indicator)
+                    .ifPresent(i -> i.setText2(message("webapp.flightRecord.hint.downloadingJfrProgress", FileUtils.byteCountToDisplaySize(bytes)))));
+            } catch (final RuntimeException e) {
+                // nothing downloaded or retries exhausted
+                throw new AzureToolkitRuntimeException(message("webapp.flightRecord.error.jfrDownload.title"), e, message("webapp.flightRecord.error.jfrDownload.message"));
             }
-
+            AzureMessager.getMessager().info(message("webapp.flightRecord.hint.downloadingJfrDone"));
+            AzureMessager.getMessager().info(getActionOnJfrFile(file.getAbsolutePath()), message("webapp.flightRecord.hint.profileRecorderComplete"));
+            showSummary(file);
         } catch (final IOException e) {
             throw new AzureToolkitRuntimeException(message("webapp.flightRecord.error.profileFlightRecorderFailed.title"), e);
         }
     }
 
+    private void showSummary(@Nonnull final File file) {
+        if (Objects.isNull(project)) {
+            return;
+        }
+        final String summary;
+        try {
+            AzureMessager.getMessager().info(message("webapp.flightRecord.hint.summarizingJfr"));
+            summary = FlightRecordingSummary.parse(file.toPath()).toMarkdown(String.format("Flight Recording of %s", appService.getName()));
+        } catch (final IOException | RuntimeException | LinkageError e) {
+            // e.g. jdk.jfr is missing in the runtime, the recording can still be opened by the profiler
+            log.warn("failed to summarize flight recording {}", file.getAbsolutePath(), e);
+            return;
+        }
+        final LightVirtualFile virtualFile = new LightVirtualFile(FilenameUtils.getBaseName(file.getName()) + ".md");
+        virtualFile.setFileType(FileTypeManagerEx.getInstance().getFileTypeByExtension("md"));
+        virtualFile.setContent(null, summary, true);
+        virtualFile.setWritable(false);
+        virtualFile.putUserData(TextEditorWithPreview.DEFAULT_LAYOUT_FOR_FILE, TextEditorWithPreview.Layout.SHOW_PREVIEW);
+        AzureTaskManager.getInstance().runLater(() -> {
+            if (!project.isDisposed()) {
+                FileEditorManager.getInstance(project).openFile(virtualFile, true);
+            }
+        });
+    }
+
     private String getActionOnJfrFile(String filePath) {
         if (PlatformUtils.isIdeaUltimate()) {
             return String.format(message("webapp.flightRecord.hint.openJfrIntelliJ"), filePath);
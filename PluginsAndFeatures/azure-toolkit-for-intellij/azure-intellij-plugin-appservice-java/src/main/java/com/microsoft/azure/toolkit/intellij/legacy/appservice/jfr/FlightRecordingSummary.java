@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.legacy.appservice.jfr;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.commons.io.FileUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Summary of a flight recording: hot methods by CPU execution samples, allocation hot spots, GC pauses and lock
+ * contention. The recording is read event by event in one pass, so only the aggregates are kept in memory.
+ */
+public class FlightRecordingSummary {
+    private static final int TOP = 20;
+    private static final String UNKNOWN = "<unknown>";
+
+    private final Map<String, Stat> executionSamples = new HashMap<>();
+    // allocations are taken from the weighted samples (JDK 16+) if any, otherwise from the TLAB events, which sample
+    // the same allocations, so they are not added up
+    private final Allocations sampledAllocations = new Allocations();
+    private final Allocations tlabAllocations = new Allocations();
+    private final Map<String, Stat> gcPauses = new HashMap<>();
+    private final Map<String, Stat> contentions = new HashMap<>();
+    private long totalExecutionSamples;
+
+    @Nonnull
+    public static FlightRecordingSummary parse(@Nonnull Path jfrFile) throws IOException {
+        final FlightRecordingSummary summary = new FlightRecordingSummary();
+        try (final RecordingFile recording = new RecordingFile(jfrFile)) {
+            while (recording.hasMoreEvents()) {
+                summary.accept(recording.readEvent());
+            }
+        }
+        return summary;
+    }
+
+    private void accept(@Nonnull RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample" -> {
+                this.totalExecutionSamples++;
+                add(this.executionSamples, topFrame(event), 1);
+            }
+            case "jdk.ObjectAllocationInNewTLAB", "jdk.ObjectAllocationOutsideTLAB" -> this.tlabAllocations.add(event, "allocationSize");
+            case "jdk.ObjectAllocationSample" -> this.sampledAllocations.add(event, "weight");
+            case "jdk.GarbageCollection" -> {
+                final Duration pause = event.hasField("sumOfPauses") ? event.getDuration("sumOfPauses") : event.getDuration();
+                final String name = event.hasField("name") ? event.getString("name") : UNKNOWN;
+                add(this.gcPauses, Optional.ofNullable(name).orElse(UNKNOWN), pause.toNanos());
+            }
+            case "jdk.JavaMonitorEnter" -> addContention(event, "monitorClass", "monitor enter");
+            case "jdk.ThreadPark" -> addContention(event, "parkedClass", "park");
+            default -> {
+            }
+        }
+    }
+
+    private void addContention(@Nonnull RecordedEvent event, @Nonnull String classField, @Nonnull String kind) {
+        add(this.contentions, kind + " on " + className(event, classField) + " at " + topFrame(event), event.getDuration().toNanos());
+    }
+
+    private static void add(@Nonnull Map<String, Stat> stats, @Nonnull String key, long value) {
+        stats.computeIfAbsent(key, k -> new Stat()).add(value);
+    }
+
+    @Nonnull
+    private static String className(@Nonnull RecordedEvent event, @Nonnull String field) {
+        final RecordedClass clazz = event.hasField(field) ? event.getClass(field) : null;
+        return Optional.ofNullable(clazz).map(RecordedClass::getName).orElse(UNKNOWN);
+    }
+
+    @Nonnull
+    private static String topFrame(@Nonnull RecordedEvent event) {
+        final RecordedStackTrace stackTrace = event.getStackTrace();
+        final List<RecordedFrame> frames = Optional.ofNullable(stackTrace).map(RecordedStackTrace::getFrames).orElse(List.of());
+        return frames.stream().filter(RecordedFrame::isJavaFrame).findFirst()
+            .map(f -> methodName(f.getMethod()) + ":" + f.getLineNumber())
+            .orElse(UNKNOWN);
+    }
+
+    @Nonnull
+    private static String methodName(@Nullable RecordedMethod method) {
+        if (method == null) {
+            return UNKNOWN;
+        }
+        return Optional.ofNullable(method.getType()).map(RecordedClass::getName).orElse(UNKNOWN) + "." + method.getName();
+    }
+
+    /**
+     * @return the summary in markdown
+     */
+    @Nonnull
+    public String toMarkdown(@Nonnull String title) {
+        final StringBuilder md = new StringBuilder();
+        md.append("# ").append(title).append("\n\n");
+
+        md.append("## Hot Methods (CPU)\n\n");
+        md.append(String.format("%d execution samples in total.%n%n", this.totalExecutionSamples));
+        table(md, new String[]{"Method", "Samples", "%"}, this.executionSamples, s -> new String[]{
+            String.valueOf(s.count), percentage(s.count, this.totalExecutionSamples)});
+
+        md.append("## Allocation Hot Spots\n\n");
+        final Allocations allocations = this.sampledAllocations.stats.isEmpty() ? this.tlabAllocations : this.sampledAllocations;
+        md.append(String.format("%s allocated in total (estimated from samples).%n%n", FileUtils.byteCountToDisplaySize(allocations.total)));
+        table(md, new String[]{"Class and Allocation Site", "Allocated", "%"}, allocations.stats, s -> new String[]{
+            FileUtils.byteCountToDisplaySize(s.total), percentage(s.total, allocations.total)});
+
+        md.append("## GC Pauses\n\n");
+        table(md, new String[]{"Collector", "Collections", "Total Pause", "Max Pause"}, this.gcPauses, s -> new String[]{
+            String.valueOf(s.count), millis(s.total), millis(s.max)});
+
+        md.append("## Lock Contention\n\n");
+        table(md, new String[]{"Lock and Site", "Events", "Total Blocked", "Max Blocked"}, this.contentions, s -> new String[]{
+            String.valueOf(s.count), millis(s.total), millis(s.max)});
+        return md.toString();
+    }
+
+    private static void table(@Nonnull StringBuilder md, @Nonnull String[] headers, @Nonnull Map<String, Stat> stats,
+                              @Nonnull Function<Stat, String[]> columns) {
+        if (stats.isEmpty()) {
+            md.append("No events recorded.\n\n");
+            return;
+        }
+        md.append("| ").append(String.join(" | ", headers)).append(" |\n");
+        md.append("|").append(" --- |".repeat(headers.length)).append("\n");
+        stats.entrySet().stream()
+            .sorted(Map.Entry.<String, Stat>comparingByValue(Comparator.comparingLong(s -> s.total)).reversed())
+            .limit(TOP)
+            .forEach(e -> md.append("| `").append(e.getKey()).append("` | ")
+                .append(String.join(" | ", columns.apply(e.getValue()))).append(" |\n"));
+        md.append("\n");
+    }
+
+    @Nonnull
+    private static String percentage(long value, long total) {
+        return total == 0 ? "-" : String.format("%.1f", value * 100.0 / total);
+    }
+
+    @Nonnull
+    private static String millis(long nanos) {
+        return String.format("%.1f ms", nanos / 1_000_000.0);
+    }
+
+    private static class Stat {
+        private long count;
+        private long total;
+        private long max;
+
+        void add(long value) {
+            this.count++;
+            this.total += value;
+            this.max = Math.max(this.max, value);
+        }
+    }
+
+    private static class Allocations {
+        private final Map<String, Stat> stats = new HashMap<>();
+        private long total;
+
+        void add(@Nonnull RecordedEvent event, @Nonnull String sizeField) {
+            if (!event.hasField(sizeField)) {
+                return;
+            }
+            final long size = event.getLong(sizeField);
+            this.total += size;
+            FlightRecordingSummary.add(this.stats, className(event, "objectClass") + " at " + topFrame(event), size);
+        }
+    }
+}
@@ -9,7 +9,9 @@ import com.intellij.codeInsight.AnnotationUtil;
 import com.intellij.codeInsight.MetaAnnotationUtil;
 import com.intellij.lang.jvm.JvmAnnotation;
 import com.intellij.lang.jvm.JvmParameter;
+import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.compiler.CompilerPaths;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleManager;
 import com.intellij.openapi.module.ModuleUtil;
@@ -21,6 +23,7 @@ import com.intellij.openapi.roots.OrderEnumerator;
 import com.intellij.openapi.roots.OrderRootType;
 import com.intellij.openapi.roots.libraries.Library;
 import com.intellij.openapi.util.SystemInfo;
+import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiAnnotation;
@@ -73,11 +76,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -93,6 +98,10 @@ public class FunctionUtils {
     private static final String AZURE_FUNCTION_ANNOTATION_CLASS =
             "com.microsoft.azure.functions.annotation.FunctionName";
     private static final String FUNCTION_JSON = "function.json";
+    private static final String LOCAL_SETTINGS_JSON = "local.settings.json";
+    private static final String LIB_FOLDER = "lib";
+    private static final String APP_JAR_KEY = "app.jar";
+    private static final String FUNCTION_JSON_KEY_PREFIX = "function.";
     private static final String HTTP_OUTPUT_DEFAULT_NAME = "$return";
     private static final String DEFAULT_HOST_JSON = "{\"version\":\"2.0\",\"extensionBundle\":" +
             "{\"id\":\"Microsoft.Azure.Functions.ExtensionBundle\",\"version\":\"[4.*, 5.0.0)\"}}\n";
@@ -154,6 +163,15 @@ public class FunctionUtils {
         }
     }
 
+    /**
+     * clean up the local settings, which may contain secrets, from a staging folder kept between runs
+     */
+    public static void cleanUpLocalSettings(File stagingFolder) {
+        if (stagingFolder != null) {
+            FileUtils.deleteQuietly(new File(stagingFolder, LOCAL_SETTINGS_JSON));
+        }
+    }
+
     @AzureOperation(name = "boundary/function.list_function_modules.project", params = {"project.getName()"})
     public static Module[] listFunctionModules(Project project) {
         final Module[] modules = ModuleManager.getInstance(project).getModules();
@@ -232,22 +250,48 @@ public class FunctionUtils {
     public static void copyLocalSettingsToStagingFolder(@Nonnull final Path stagingFolder,
                                                         @Nullable final Path localSettingJson,
                                                         @Nullable Map<String, String> appSettings, boolean useLocalSettings) throws IOException {
-        final File localSettingsFile = new File(stagingFolder.toFile(), "local.settings.json");
+        final File localSettingsFile = new File(stagingFolder.toFile(), LOCAL_SETTINGS_JSON);
         copyFilesWithDefaultContent(localSettingJson, localSettingsFile, DEFAULT_LOCAL_SETTINGS_JSON);
         if (MapUtils.isNotEmpty(appSettings)) {
             updateLocalSettingValues(localSettingsFile, appSettings, useLocalSettings);
         }
     }
 
+    /**
+     * @return the staging folder of the run configuration, which is kept between runs so that it can be updated
+     * incrementally, see {@link #prepareStagingFolder(Path, Path, Project, Module, PsiMethod[], boolean)}
+     */
+    @Nonnull
+    public static File getPersistentStagingFolder(@Nonnull final Project project, @Nonnull final String configurationName) {
+        final Path path = Paths.get(PathManager.getSystemPath(), AZURE_FUNCTIONS, project.getLocationHash(),
+                FileUtil.sanitizeFileName(configurationName));
+        return path.toFile();
+    }
+
     @Nonnull
-    @AzureOperation(name = "boundary/function.prepare_staging_folder")
     public static Map<String, FunctionConfiguration> prepareStagingFolder(@Nonnull final Path stagingFolder, @Nullable final Path hostJson,
                                                                           @Nonnull final Project project, @Nonnull final Module module, PsiMethod[] methods)
             throws AzureExecutionException, IOException {
+        return prepareStagingFolder(stagingFolder, hostJson, project, module, methods, false);
+    }
+
+    /**
+     * @param incremental true to update the staging folder of a previous run rather than cleaning it: dependencies are
+     *                    synced by size and modification time (hard linked where possible), the app jar is rebuilt
+     *                    (uncompressed) only when the compiled classes changed, and function.json is rewritten only
+     *                    for the functions whose configuration changed
+     */
+    @Nonnull
+    @AzureOperation(name = "boundary/function.prepare_staging_folder")
+    public static Map<String, FunctionConfiguration> prepareStagingFolder(@Nonnull final Path stagingFolder, @Nullable final Path hostJson,
+                                                                          @Nonnull final Project project, @Nonnull final Module module, PsiMethod[] methods,
+                                                                          boolean incremental)
+            throws AzureExecutionException, IOException {
         final Map<String, FunctionConfiguration> configMap = ReadAction.compute(() -> generateConfigurations(methods));
-        if (stagingFolder.toFile().isDirectory()) {
+        if (!incremental && stagingFolder.toFile().isDirectory()) {
             FileUtils.cleanDirectory(stagingFolder.toFile());
         }
+        final IncrementalStagingFolder staging = incremental ? new IncrementalStagingFolder(stagingFolder) : null;
 
         final Path jarFile;
         // test if it is gradle project
@@ -259,7 +303,20 @@ public class FunctionUtils {
                 final String error = String.format("Failed generate jar file for project(%s)", gradleProject.getName());
                 throw new AzureToolkitRuntimeException(error);
             }
-            FileUtils.copyFileToDirectory(gradleProject.getArtifactFile(), stagingFolder.toFile());
+            if (staging != null) {
+                IncrementalStagingFolder.syncFile(gradleProject.getArtifactFile(), stagingFolder.toFile());
+            } else {
+                FileUtils.copyFileToDirectory(gradleProject.getArtifactFile(), stagingFolder.toFile());
+            }
+        } else if (staging != null) {
+            final String classes = IncrementalStagingFolder.fingerprint(Paths.get(CompilerPaths.getModuleOutputPath(module, false)));
+            final Path stagedJar = stagingFolder.resolve(module.getName() + ".jar");
+            if (staging.isUpToDate(APP_JAR_KEY, classes) && Files.isRegularFile(stagedJar)) {
+                jarFile = stagedJar;
+            } else {
+                jarFile = JarUtils.buildJarFileToStagingPath(stagingFolder.toString(), module, false);
+                staging.update(APP_JAR_KEY, classes);
+            }
         } else {
             jarFile = JarUtils.buildJarFileToStagingPath(stagingFolder.toString(), module);
         }
@@ -270,7 +327,14 @@ public class FunctionUtils {
             if (StringUtils.isNotBlank(config.getKey())) {
                 final File functionJsonFile = Paths.get(stagingFolder.toString(), config.getKey(), FUNCTION_JSON)
                                                    .toFile();
-                writeFunctionJsonFile(functionJsonFile, config.getValue());
+                final Map<String, Object> json = toFunctionJson(config.getValue());
+                final String key = FUNCTION_JSON_KEY_PREFIX + config.getKey();
+                final String fingerprint = IncrementalStagingFolder.fingerprint(JsonUtils.toJson(json));
+                if (staging == null || !staging.isUpToDate(key, fingerprint) || !functionJsonFile.isFile()) {
+                    functionJsonFile.getParentFile().mkdirs();
+                    JsonUtils.writeToJsonFile(functionJsonFile, json);
+                    Optional.ofNullable(staging).ifPresent(s -> s.update(key, fingerprint));
+                }
             }
         }
 
@@ -297,14 +361,34 @@ public class FunctionUtils {
                 .filter(name -> StringUtils.equalsAnyIgnoreCase(name, AZURE_FUNCTIONS_JAVA_CORE_LIBRARY))
                 .findFirst().orElse(AZURE_FUNCTIONS_JAVA_LIBRARY);
 
-        final File libFolder = new File(stagingFolder.toFile(), "lib");
+        final File libFolder = new File(stagingFolder.toFile(), LIB_FOLDER);
+        final Set<String> libraries = new HashSet<>();
         for (final File file : dependencies) {
             if (!StringUtils.equalsIgnoreCase(getArtifactIdFromFile(file), libraryToExclude)) {
                 if (!file.exists()) {
                     throw new AzureToolkitRuntimeException(String.format("Dependency artifact (%s) not found, please correct the dependency and try again", file.getAbsolutePath()));
                 }
-                FileUtils.copyFileToDirectory(file, libFolder);
+                if (staging != null) {
+                    IncrementalStagingFolder.syncFile(file, libFolder);
+                    libraries.add(file.getName());
+                } else {
+                    FileUtils.copyFileToDirectory(file, libFolder);
+                }
+            }
+        }
+        if (staging != null) {
+            // remove what's left by the previous run, e.g. removed dependencies and functions
+            if (libFolder.isDirectory()) {
+                IncrementalStagingFolder.removeStale(libFolder, libraries);
+            }
+            final File[] functionFolders = Optional.ofNullable(stagingFolder.toFile().listFiles(f -> new File(f, FUNCTION_JSON).isFile())).orElse(new File[0]);
+            for (final File functionFolder : functionFolders) {
+                if (!configMap.containsKey(functionFolder.getName())) {
+                    FileUtils.deleteDirectory(functionFolder);
+                    staging.update(FUNCTION_JSON_KEY_PREFIX + functionFolder.getName(), null);
+                }
             }
+            staging.save();
         }
         return configMap;
     }
@@ -380,7 +464,7 @@ public class FunctionUtils {
                         .collect(Collectors.toList());
     }
 
-    private static void writeFunctionJsonFile(File file, FunctionConfiguration config) throws IOException {
+    private static Map<String, Object> toFunctionJson(FunctionConfiguration config) {
         final Map<String, Object> json = new LinkedHashMap<>();
         json.put("scriptFile", config.getScriptFile());
         json.put("entryPoint", config.getEntryPoint());
@@ -403,8 +487,7 @@ public class FunctionUtils {
             }
             json.put("bindings", lists.toArray());
         }
-        file.getParentFile().mkdirs();
-        JsonUtils.writeToJsonFile(file, json);
+        return json;
     }
 
     private static String stripExtraCharacters(String fileName) {
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.legacy.function.runner.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Staging folder kept between runs, which only updates what changed since the last run. The fingerprints of the
+ * staged content (e.g. the compiled classes of the app jar, the function configurations) are saved in the folder.
+ */
+@Slf4j
+class IncrementalStagingFolder {
+    private static final String STATE_FILE = ".azure-staging.properties";
+
+    @Nonnull
+    private final Path folder;
+    private final Properties state = new Properties();
+
+    IncrementalStagingFolder(@Nonnull final Path folder) throws IOException {
+        this.folder = folder;
+        Files.createDirectories(folder);
+        final Path stateFile = folder.resolve(STATE_FILE);
+        if (Files.isRegularFile(stateFile)) {
+            try (final InputStream input = Files.newInputStream(stateFile)) {
+                this.state.load(input);
+            }
+        }
+    }
+
+    /**
+     * @return true if the content staged for the key has the given fingerprint
+     */
+    boolean isUpToDate(@Nonnull final String key, @Nonnull final String fingerprint) {
+        return Objects.equals(this.state.getProperty(key), fingerprint);
+    }
+
+    void update(@Nonnull final String key, @Nullable final String fingerprint) {
+        if (fingerprint == null) {
+            this.state.remove(key);
+        } else {
+            this.state.setProperty(key, fingerprint);
+        }
+    }
+
+    void save() throws IOException {
+        try (final OutputStream output = Files.newOutputStream(folder.resolve(STATE_FILE))) {
+            this.state.store(output, null);
+        }
+    }
+
+    /**
+     * sync the file into the target folder, skipping it if the staged copy has the same size and modification time.
+     * the file is hard linked where the file system supports it, and copied otherwise.
+     *
+     * @return true if the file is staged, false if it's up-to-date
+     */
+    static boolean syncFile(@Nonnull final File source, @Nonnull final File targetFolder) throws IOException {
+        final Path src = source.toPath();
+        final Path target = targetFolder.toPath().resolve(source.getName());
+        if (Files.isRegularFile(target)) {
+            final BasicFileAttributes srcAttributes = Files.readAttributes(src, BasicFileAttributes.class);
+            final BasicFileAttributes targetAttributes = Files.readAttributes(target, BasicFileAttributes.class);
+            if (srcAttributes.size() == targetAttributes.size() &&
+                srcAttributes.lastModifiedTime().equals(targetAttributes.lastModifiedTime())) {
+                return false;
+            }
+            Files.delete(target);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.createLink(target, src);
+        } catch (final IOException | UnsupportedOperationException e) {
+            // e.g. across file systems or volumes
+            log.debug("failed to link {}, copy it instead", src, e);
+            Files.copy(src, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+        return true;
+    }
+
+    /**
+     * delete the files and folders of the folder, except those named in {@code names} and the state file
+     */
+    static void removeStale(@Nonnull final File folder, @Nonnull final Set<String> names) throws IOException {
+        final File[] files = Optional.ofNullable(folder.listFiles()).orElse(new File[0]);
+        for (final File file : files) {
+            if (!names.contains(file.getName()) && !STATE_FILE.equals(file.getName())) {
+                FileUtils.forceDelete(file);
+            }
+        }
+    }
+
+    /**
+     * @return fingerprint of the relative paths, sizes and modification times of all files in the folder
+     */
+    @Nonnull
+    static String fingerprint(@Nonnull final Path folder) throws IOException {
+        if (!Files.isDirectory(folder)) {
+            return "";
+        }
+        final StringBuilder builder = new StringBuilder();
+        try (final Stream<Path> files = Files.walk(folder)) {
+            final Path[] sorted = files.filter(Files::isRegularFile).sorted().toArray(Path[]::new);
+            for (final Path file : sorted) {
+                final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                builder.append(folder.relativize(file)).append('|')
+                    .append(attributes.size()).append('|')
+                    .append(attributes.lastModifiedTime().toMillis()).append('\n');
+            }
+        }
+        return DigestUtils.sha256Hex(builder.toString());
+    }
+
+    @Nonnull
+    static String fingerprint(@Nonnull final String... values) {
+        return DigestUtils.sha256Hex(String.join("\n", Arrays.asList(values)));
+    }
+}
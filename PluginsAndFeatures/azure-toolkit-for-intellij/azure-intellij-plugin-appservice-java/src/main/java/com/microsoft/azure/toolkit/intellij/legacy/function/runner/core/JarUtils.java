@@ -21,6 +21,13 @@ import java.util.jar.Attributes;
 
 public class JarUtils {
     public static Path buildJarFileToStagingPath(@Nonnull final String stagingFolder, @Nonnull final Module module) throws IOException {
+        return buildJarFileToStagingPath(stagingFolder, module, true);
+    }
+
+    /**
+     * @param compress false to store the entries uncompressed, which is faster to build when the jar is only run locally
+     */
+    public static Path buildJarFileToStagingPath(@Nonnull final String stagingFolder, @Nonnull final Module module, boolean compress) throws IOException {
         final File stagingFolderFile = new File(stagingFolder);
         if (!stagingFolderFile.exists()) {
             stagingFolderFile.mkdirs();
@@ -29,7 +36,8 @@ public class JarUtils {
         final String path = CompilerPaths.getModuleOutputPath(module, false);
         final Path outputFile = Paths.get(stagingFolder, moduleName + ".jar");
         final JarArchiver jar = new JarArchiver();
-        jar.setCompress(true);
+        jar.setCompress(compress);
+        jar.setForced(true);
         jar.setDestFile(outputFile.toFile());
         jar.addDirectory(new File(path));
         final Manifest manifest = new Manifest();
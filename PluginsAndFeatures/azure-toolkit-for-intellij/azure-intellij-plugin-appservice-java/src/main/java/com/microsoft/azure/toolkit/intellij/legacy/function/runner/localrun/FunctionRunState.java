@@ -148,7 +148,7 @@ public class FunctionRunState extends AzureRunProfileState<Boolean> {
         // Prepare staging Folder
         OperationContext.current().setMessager(getProcessHandlerMessenger());
         validateFunctionRuntime();
-        stagingFolder = FunctionUtils.getTempStagingFolder();
+        stagingFolder = FunctionUtils.getPersistentStagingFolder(project, functionRunConfiguration.getName());
         addProcessTerminatedListener(processHandler);
         prepareStagingFolder(stagingFolder, processHandler, operation);
         // Run Function Host
@@ -348,7 +348,7 @@ public class FunctionRunState extends AzureRunProfileState<Boolean> {
         final Path folder = stagingFolder.toPath();
         try {
             final Map<String, FunctionConfiguration> configMap =
-                    FunctionUtils.prepareStagingFolder(folder, hostJsonPath, project, module, methods);
+                    FunctionUtils.prepareStagingFolder(folder, hostJsonPath, project, module, methods, true);
             final List<BindingEnum> functionBindingList = FunctionUtils.getFunctionBindingList(configMap);
             operation.trackProperty(TelemetryConstants.TRIGGER_TYPE, StringUtils.join(functionBindingList, ","));
             final Map<String, String> configurationAppSettings = FunctionUtils.loadAppSettingsFromSecurityStorage(functionRunConfiguration.getAppSettingsKey());
@@ -467,14 +467,14 @@ public class FunctionRunState extends AzureRunProfileState<Boolean> {
             processHandler.setText(message("function.run.hint.succeed"));
             processHandler.notifyComplete();
         }
-        FunctionUtils.cleanUpStagingFolder(stagingFolder);
+        FunctionUtils.cleanUpLocalSettings(stagingFolder);
     }
 
     @Override
     protected void onFail(@NotNull Throwable error, @NotNull RunProcessHandler processHandler) {
         super.onFail(error, processHandler);
         stopProcessIfAlive(process);
-        FunctionUtils.cleanUpStagingFolder(stagingFolder);
+        FunctionUtils.cleanUpLocalSettings(stagingFolder);
     }
 
     private boolean isInstallingExtensionNeeded(Set<BindingEnum> bindingTypes, RunProcessHandler processHandler) {
@@ -11,11 +11,25 @@ import com.microsoft.azure.toolkit.lib.appservice.model.ProcessInfo;
 import com.microsoft.azure.toolkit.lib.appservice.model.CommandOutput;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 public abstract class FlightRecorderStarterBase {
+    private static final int MAX_DOWNLOAD_RETRIES = 3;
+
     protected AppServiceAppBase<?, ?, ?> appService;
 
     public FlightRecorderStarterBase(@NotNull AppServiceAppBase<?, ?, ?> appService) {
@@ -26,6 +40,13 @@ public abstract class FlightRecorderStarterBase {
 
     abstract String getFinalJfrPath(String fileName);
 
+    /**
+     * path of the jfr file for the file content api of the app service
+     */
+    String getDownloadPath(String fileName) {
+        return getFinalJfrPath(fileName);
+    }
+
     protected String constructJcmdCommand(int pid, int timeInSeconds, String fileName) {
         return String.format("jcmd %d JFR.start name=TimedRecording settings=profile duration=%ds filename=%s", pid,
                              timeInSeconds, getFinalJfrPath(fileName));
@@ -34,7 +55,54 @@ public abstract class FlightRecorderStarterBase {
     public abstract CommandOutput startFlightRecorder(int pid, int timeInSeconds, String fileName) throws IOException;
 
     public byte[] downloadJFRFile(String fileName) {
-        return FluxUtil.collectBytesInByteBufferStream(appService.getFileContent(getFinalJfrPath(fileName))).blockOptional()
+        return FluxUtil.collectBytesInByteBufferStream(appService.getFileContent(getDownloadPath(fileName))).blockOptional()
                 .orElseThrow(() -> new AzureToolkitRuntimeException(String.format("Failed to download JFR file %s from %s", fileName, appService.name())));
     }
+
+    /**
+     * download the jfr file to {@code target} chunk by chunk, without holding the whole file in memory. the download
+     * is retried on failure, and the content already written is kept rather than written again.
+     *
+     * @param onProgress notified with the number of bytes written so far
+     */
+    public void downloadJFRFile(@NotNull String fileName, @NotNull Path target, @Nullable LongConsumer onProgress) throws IOException {
+        final String path = getDownloadPath(fileName);
+        final AtomicLong written = new AtomicLong();
+        try (final FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Flux.defer(() -> {
+                // the file content api doesn't support range requests, so bytes written by previous attempts are skipped
+                final AtomicLong received = new AtomicLong();
+                return appService.getFileContent(path).doOnNext(buffer -> {
+                    final long start = received.getAndAdd(buffer.remaining());
+                    final long end = start + buffer.remaining();
+                    final long skip = written.get() - start;
+                    if (skip >= buffer.remaining()) {
+                        return;
+                    }
+                    if (skip > 0) {
+                        buffer.position(buffer.position() + (int) skip);
+                    }
+                    write(channel, buffer);
+                    written.set(end);
+                    Optional.ofNullable(onProgress).ifPresent(c -> c.accept(end));
+                });
+            }).retryWhen(Retry.backoff(MAX_DOWNLOAD_RETRIES, Duration.ofSeconds(1)).filter(e -> !(e instanceof UncheckedIOException)))
+                .blockLast();
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (written.get() == 0) {
+            throw new AzureToolkitRuntimeException(String.format("Failed to download JFR file %s from %s", fileName, appService.name()));
+        }
+    }
+
+    private static void write(@NotNull FileChannel channel, @NotNull ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
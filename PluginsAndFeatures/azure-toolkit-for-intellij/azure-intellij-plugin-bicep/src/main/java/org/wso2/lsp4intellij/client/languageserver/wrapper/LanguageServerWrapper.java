@@ -87,6 +87,7 @@ import org.wso2.lsp4intellij.listeners.DocumentListenerImpl;
 import org.wso2.lsp4intellij.listeners.EditorMouseListenerImpl;
 import org.wso2.lsp4intellij.listeners.EditorMouseMotionListenerImpl;
 import org.wso2.lsp4intellij.listeners.LSPCaretListenerImpl;
+import org.wso2.lsp4intellij.requests.RequestTracker;
 import org.wso2.lsp4intellij.requests.Timeouts;
 import org.wso2.lsp4intellij.statusbar.LSPServerStatusWidgetFactory;
 import org.wso2.lsp4intellij.utils.ApplicationUtils;
@@ -153,6 +154,7 @@ public class LanguageServerWrapper {
     private volatile boolean alreadyShownTimeout = false;
     private volatile boolean alreadyShownCrash = false;
     private volatile ServerStatus status = STOPPED;
+    private final RequestTracker requestTracker = new RequestTracker(this::notifyLatency);
     private static final Map<Pair<String, String>, LanguageServerWrapper> uriToLanguageServerWrapper = new ConcurrentHashMap<>();
     private static final Map<Project, LanguageServerWrapper> projectToLanguageServerWrapper = new ConcurrentHashMap<>();
     private static final Logger LOG = Logger.getInstance(LanguageServerWrapper.class);
@@ -267,6 +269,17 @@ public class LanguageServerWrapper {
         notifyResult(timeouts, false);
     }
 
+    public void notifyLatency(Timeouts timeouts, long latencyMs) {
+        Optional.ofNullable(getWidget()).ifPresent(w -> w.notifyLatency(timeouts, latencyMs));
+    }
+
+    /**
+     * Returns the tracker of in-flight requests, to cancel superseded requests and record latencies
+     */
+    public RequestTracker getRequestTracker() {
+        return requestTracker;
+    }
+
     /**
      * Returns the EditorEventManager for a given uri
      * <p>
@@ -435,6 +448,7 @@ public class LanguageServerWrapper {
             return;
         }
         setStatus(STOPPING);
+        requestTracker.cancelAll();
 
         if (initializeFuture != null) {
             initializeFuture.cancel(true);
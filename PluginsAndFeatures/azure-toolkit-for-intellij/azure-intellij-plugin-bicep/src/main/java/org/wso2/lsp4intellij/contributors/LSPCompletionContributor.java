@@ -70,7 +70,7 @@ class LSPCompletionContributor extends CompletionContributor {
 
                         EditorEventManager manager = EditorEventManagerBase.forEditor(editor);
                         if (manager != null) {
-                            result.addAllElements(manager.completion(serverPos));
+                            manager.completion(serverPos, result::addElement);
                         }
                         return null;
                     }, ProgressIndicatorProvider.getGlobalProgressIndicator());
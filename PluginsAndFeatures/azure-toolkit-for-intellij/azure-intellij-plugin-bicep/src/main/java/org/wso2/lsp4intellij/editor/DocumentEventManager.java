@@ -22,6 +22,7 @@ import com.intellij.openapi.editor.event.DocumentEvent;
 import com.intellij.openapi.editor.event.DocumentListener;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.eclipse.lsp4j.DidChangeTextDocumentParams;
 import org.eclipse.lsp4j.DidCloseTextDocumentParams;
 import org.eclipse.lsp4j.DidOpenTextDocumentParams;
@@ -34,23 +35,32 @@ import org.eclipse.lsp4j.TextDocumentSyncKind;
 import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
 import org.wso2.lsp4intellij.client.languageserver.requestmanager.RequestManager;
 import org.wso2.lsp4intellij.client.languageserver.wrapper.LanguageServerWrapper;
-import org.wso2.lsp4intellij.utils.ApplicationUtils;
 import org.wso2.lsp4intellij.utils.DocumentUtils;
 import org.wso2.lsp4intellij.utils.FileUtils;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DocumentEventManager {
+    public static final long CHANGES_COALESCING_WINDOW_MS = 50;
     private final Document document;
     private final DocumentListener documentListener;
     private final TextDocumentSyncKind syncKind;
     private final LanguageServerWrapper wrapper;
     private final TextDocumentIdentifier identifier;
     private int version = -1;
+    // incremental edits not sent yet, guarded by this
+    private final List<TextDocumentContentChangeEvent> pendingChanges = new ArrayList<>();
+    private ScheduledFuture<?> pendingFlush;
+    private final AtomicLong editCount = new AtomicLong();
+    private final AtomicLong notificationCount = new AtomicLong();
     protected Logger LOG = Logger.getInstance(EditorEventManager.class);
     private static final Map<String, DocumentEventManager> uriToDocumentEventManager = new HashMap<>();
 
@@ -92,59 +102,110 @@ public class DocumentEventManager {
         return this.version;
     }
 
+    /**
+     * Records the change and schedules sending it. Incremental changes made within {@link #CHANGES_COALESCING_WINDOW_MS}
+     * are sent in one {@code didChange} notification, in which the server applies them in order. Positions of a change
+     * are computed right away against the document state it was made on.
+     */
     public void documentChanged(DocumentEvent event) {
-
-        DidChangeTextDocumentParams changesParams = new DidChangeTextDocumentParams(new VersionedTextDocumentIdentifier(),
-                Collections.singletonList(new TextDocumentContentChangeEvent()));
-        changesParams.getTextDocument().setUri(identifier.getUri());
-
-
-        changesParams.getTextDocument().setVersion(++version);
-
+        TextDocumentContentChangeEvent changeEvent;
         if (syncKind == TextDocumentSyncKind.Incremental) {
-            TextDocumentContentChangeEvent changeEvent = changesParams.getContentChanges().get(0);
-            CharSequence newText = event.getNewFragment();
-            int offset = event.getOffset();
-            int newTextLength = event.getNewLength();
-            Set<EditorEventManager> managersForUri = EditorEventManagerBase.managersForUri(FileUtils.documentToUri(document));
-            if (managersForUri == null || managersForUri.isEmpty()) {
-                LOG.warn("no manager associated with uri");
+            changeEvent = toIncrementalChange(event);
+            if (changeEvent == null) {
                 return;
             }
-            EditorEventManager editorEventManager = EditorEventManagerBase.managersForUri(FileUtils.documentToUri(document)).iterator().next();
-            if (editorEventManager == null) {
-                LOG.warn("no editor associated with document");
-                return;
-            }
-            Editor editor = editorEventManager.editor;
-            Position lspPosition = DocumentUtils.offsetToLSPPos(editor, offset);
-            if (lspPosition == null) {
-                return;
+        } else if (syncKind == TextDocumentSyncKind.Full) {
+            changeEvent = new TextDocumentContentChangeEvent(document.getText());
+        } else {
+            return;
+        }
+        synchronized (this) {
+            if (syncKind == TextDocumentSyncKind.Full) {
+                // only the latest full text matters
+                pendingChanges.clear();
             }
-            int startLine = lspPosition.getLine();
-            int startColumn = lspPosition.getCharacter();
-            CharSequence oldText = event.getOldFragment();
-
-            //if text was deleted/replaced, calculate the end position of inserted/deleted text
-            int endLine, endColumn;
-            if (oldText.length() > 0) {
-                endLine = startLine + StringUtil.countNewLines(oldText);
-                String content = oldText.toString();
-                String[] oldLines = content.split("\n");
-                int oldTextLength = oldLines.length == 0 ? 0 : oldLines[oldLines.length - 1].length();
-                endColumn = content.endsWith("\n") ? 0 : oldLines.length == 1 ? startColumn + oldTextLength : oldTextLength;
-            } else { //if insert or no text change, the end position is the same
-                endLine = startLine;
-                endColumn = startColumn;
+            pendingChanges.add(changeEvent);
+            editCount.incrementAndGet();
+            if (pendingFlush == null) {
+                pendingFlush = AppExecutorUtil.getAppScheduledExecutorService()
+                        .schedule(this::flushPendingChanges, CHANGES_COALESCING_WINDOW_MS, TimeUnit.MILLISECONDS);
             }
-            Range range = new Range(new Position(startLine, startColumn), new Position(endLine, endColumn));
-            changeEvent.setRange(range);
-            changeEvent.setRangeLength(newTextLength);
-            changeEvent.setText(newText.toString());
-        } else if (syncKind == TextDocumentSyncKind.Full) {
-            changesParams.getContentChanges().get(0).setText(document.getText());
         }
-        ApplicationUtils.pool(() -> wrapper.getRequestManager().didChange(changesParams));
+    }
+
+    /**
+     * Sends the pending changes right away, should be called before any request depending on the document content,
+     * e.g. completion, hover and definition. Notifications are sent under the lock so that versions are strictly
+     * ordered.
+     */
+    public synchronized void flushPendingChanges() {
+        if (pendingFlush != null) {
+            pendingFlush.cancel(false);
+            pendingFlush = null;
+        }
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier(identifier.getUri(), ++version);
+        DidChangeTextDocumentParams changesParams = new DidChangeTextDocumentParams(textDocument, new ArrayList<>(pendingChanges));
+        pendingChanges.clear();
+        notificationCount.incrementAndGet();
+        wrapper.getRequestManager().didChange(changesParams);
+    }
+
+    /**
+     * @return the number of document edits received
+     */
+    public long getEditCount() {
+        return editCount.get();
+    }
+
+    /**
+     * @return the number of {@code didChange} notifications sent, each carrying one or more edits
+     */
+    public long getNotificationCount() {
+        return notificationCount.get();
+    }
+
+    /**
+     * @return the number of edits merged into the notification of a previous edit
+     */
+    public long getMergedEditCount() {
+        return Math.max(0, editCount.get() - notificationCount.get());
+    }
+
+    private TextDocumentContentChangeEvent toIncrementalChange(DocumentEvent event) {
+        Set<EditorEventManager> managersForUri = EditorEventManagerBase.managersForUri(FileUtils.documentToUri(document));
+        if (managersForUri == null || managersForUri.isEmpty()) {
+            LOG.warn("no manager associated with uri");
+            return null;
+        }
+        EditorEventManager editorEventManager = managersForUri.iterator().next();
+        if (editorEventManager == null) {
+            LOG.warn("no editor associated with document");
+            return null;
+        }
+        Editor editor = editorEventManager.editor;
+        Position lspPosition = DocumentUtils.offsetToLSPPos(editor, event.getOffset());
+        if (lspPosition == null) {
+            return null;
+        }
+        int startLine = lspPosition.getLine();
+        int startColumn = lspPosition.getCharacter();
+        CharSequence oldText = event.getOldFragment();
+
+        //if text was deleted/replaced, calculate the end position of inserted/deleted text
+        int endLine, endColumn;
+        if (oldText.length() > 0) {
+            endLine = startLine + StringUtil.countNewLines(oldText);
+            int lastLineBreak = StringUtil.lastIndexOf(oldText, '\n', 0, oldText.length());
+            endColumn = lastLineBreak < 0 ? startColumn + oldText.length() : oldText.length() - lastLineBreak - 1;
+        } else { //if insert or no text change, the end position is the same
+            endLine = startLine;
+            endColumn = startColumn;
+        }
+        Range range = new Range(new Position(startLine, startColumn), new Position(endLine, endColumn));
+        return new TextDocumentContentChangeEvent(range, oldText.length(), event.getNewFragment().toString());
     }
 
     public void documentOpened() {
@@ -167,6 +228,7 @@ public class DocumentEventManager {
             LOG.warn("trying to close document which is still open in another editor!");
         } else {
             openDocuments.remove(document);
+            flushPendingChanges();
             wrapper.getRequestManager().didClose(new DidCloseTextDocumentParams(identifier));
         }
     }
@@ -48,6 +48,8 @@ import com.intellij.openapi.editor.markup.HighlighterTargetArea;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.TextRange;
@@ -105,6 +107,7 @@ import org.wso2.lsp4intellij.contributors.psi.LSPPsiElement;
 import org.wso2.lsp4intellij.contributors.rename.LSPRenameProcessor;
 import org.wso2.lsp4intellij.listeners.LSPCaretListenerImpl;
 import org.wso2.lsp4intellij.requests.HoverHandler;
+import org.wso2.lsp4intellij.requests.RequestTracker;
 import org.wso2.lsp4intellij.requests.Timeouts;
 import org.wso2.lsp4intellij.requests.WorkspaceEditHandler;
 import org.wso2.lsp4intellij.utils.DocumentUtils;
@@ -119,12 +122,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -183,9 +190,17 @@ public class EditorEventManager {
 
     private boolean mouseInEditor = true;
     private Hint currentHint;
+    // hover results by document version and position
+    private final Map<String, Hover> hoverCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Hover> eldest) {
+            return size() > HOVER_CACHE_SIZE;
+        }
+    };
 
     private final List<Diagnostic> diagnostics = new ArrayList<>();
 
+    private static final int HOVER_CACHE_SIZE = 64;
     private static final long CTRL_THRESH = EditorSettingsExternalizable.getInstance().getTooltipsDelay() * 1000000L;
 
     public static final String SNIPPET_PLACEHOLDER_REGEX = "(\\$\\{\\d+:?([^{^}]*)}|\\$\\d+)";
@@ -369,8 +384,9 @@ public class EditorEventManager {
      */
     private Location requestDefinition(Position position) {
         DefinitionParams params = new DefinitionParams(identifier, position);
-        CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> request =
-                wrapper.getRequestManager().definition(params);
+        documentEventManager.flushPendingChanges();
+        CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> request = wrapper.getRequestTracker()
+                .track(Timeouts.DEFINITION, identifier.getUri(), wrapper.getRequestManager().definition(params));
 
         if (request == null) {
             return null;
@@ -379,7 +395,7 @@ public class EditorEventManager {
             // for now we only get Location, so we only check the left, but in future we might need to support
             // right as well which will return LocationLink
             Either<List<? extends Location>, List<? extends LocationLink>> definition =
-                    request.get(getTimeout(DEFINITION), TimeUnit.MILLISECONDS);
+                    RequestTracker.await(request, getTimeout(DEFINITION));
             wrapper.notifySuccess(Timeouts.DEFINITION);
             if (definition.isLeft() && !definition.getLeft().isEmpty()) {
                 return definition.getLeft().get(0);
@@ -391,6 +407,9 @@ public class EditorEventManager {
             LOG.warn(e);
             wrapper.notifyFailure(Timeouts.DEFINITION);
             return null;
+        } catch (CancellationException e) {
+            // superseded by a later request
+            return null;
         } catch (InterruptedException | JsonRpcException | ExecutionException e) {
             LOG.warn(e);
             wrapper.crashed(e);
@@ -416,6 +435,7 @@ public class EditorEventManager {
         ReferenceParams params = new ReferenceParams(textDocumentIdentifier, lspPos, new ReferenceContext(getOriginalElement));
         params.setPosition(lspPos);
         params.setTextDocument(identifier);
+        documentEventManager.flushPendingChanges();
         CompletableFuture<List<? extends Location>> request = wrapper.getRequestManager().references(params);
         if (request != null) {
             try {
@@ -508,12 +528,14 @@ public class EditorEventManager {
         Point point = editor.logicalPositionToXY(lPos);
         SignatureHelpParams params = new SignatureHelpParams(identifier, DocumentUtils.logicalToLSPPos(lPos, editor));
         pool(() -> {
-            CompletableFuture<SignatureHelp> future = wrapper.getRequestManager().signatureHelp(params);
+            documentEventManager.flushPendingChanges();
+            CompletableFuture<SignatureHelp> future = wrapper.getRequestTracker()
+                    .track(Timeouts.SIGNATURE, identifier.getUri(), wrapper.getRequestManager().signatureHelp(params));
             if (future == null) {
                 return;
             }
             try {
-                SignatureHelp signatureResp = future.get(getTimeout(SIGNATURE), TimeUnit.MILLISECONDS);
+                SignatureHelp signatureResp = RequestTracker.await(future, getTimeout(SIGNATURE));
                 wrapper.notifySuccess(Timeouts.SIGNATURE);
                 if (signatureResp == null) {
                     return;
@@ -553,6 +575,8 @@ public class EditorEventManager {
             } catch (TimeoutException e) {
                 LOG.warn(e);
                 wrapper.notifyFailure(Timeouts.SIGNATURE);
+            } catch (CancellationException ignored) {
+                // superseded by a later request
             } catch (JsonRpcException | ExecutionException | InterruptedException e) {
                 LOG.warn(e);
                 wrapper.crashed(e);
@@ -587,6 +611,7 @@ public class EditorEventManager {
             options.setInsertSpaces(DocumentUtils.shouldUseSpaces(editor));
             params.setOptions(options);
 
+            documentEventManager.flushPendingChanges();
             CompletableFuture<List<? extends TextEdit>> request = wrapper.getRequestManager().formatting(params);
             if (request == null) {
                 return;
@@ -621,6 +646,7 @@ public class EditorEventManager {
             options.setInsertSpaces(DocumentUtils.shouldUseSpaces(editor));
             params.setOptions(options);
 
+            documentEventManager.flushPendingChanges();
             CompletableFuture<List<? extends TextEdit>> request = wrapper.getRequestManager().rangeFormatting(params);
             if (request == null) {
                 return;
@@ -654,6 +680,7 @@ public class EditorEventManager {
             }
             Position servPos = DocumentUtils.offsetToLSPPos(editor, offset);
             RenameParams params = new RenameParams(identifier, servPos, renameTo);
+            documentEventManager.flushPendingChanges();
             CompletableFuture<WorkspaceEdit> request = wrapper.getRequestManager().rename(params);
             if (request != null) {
                 request.thenAccept(res -> {
@@ -690,13 +717,27 @@ public class EditorEventManager {
      */
     private void requestAndShowDoc(LogicalPosition editorPos, Point point) {
         Position serverPos = computableReadAction(() -> DocumentUtils.logicalToLSPPos(editorPos, editor));
-        CompletableFuture<Hover> request = wrapper.getRequestManager().hover(new HoverParams(identifier, serverPos));
+        documentEventManager.flushPendingChanges();
+        String hoverKey = documentEventManager.getDocumentVersion() + ":" + serverPos.getLine() + ":" + serverPos.getCharacter();
+        Hover cached;
+        synchronized (hoverCache) {
+            cached = hoverCache.get(hoverKey);
+        }
+        CompletableFuture<Hover> request = cached != null ? CompletableFuture.completedFuture(cached) : wrapper.getRequestTracker()
+                .track(Timeouts.HOVER, identifier.getUri(), wrapper.getRequestManager().hover(new HoverParams(identifier, serverPos)));
         if (request == null) {
             return;
         }
         try {
-            Hover hover = request.get(getTimeout(HOVER), TimeUnit.MILLISECONDS);
-            wrapper.notifySuccess(Timeouts.HOVER);
+            Hover hover = RequestTracker.await(request, getTimeout(HOVER));
+            if (cached == null) {
+                wrapper.notifySuccess(Timeouts.HOVER);
+                if (hover != null) {
+                    synchronized (hoverCache) {
+                        hoverCache.put(hoverKey, hover);
+                    }
+                }
+            }
 
             if (hover == null) {
                 LOG.debug(String.format("Hover is null for file %s and pos (%d;%d)", identifier.getUri(),
@@ -727,6 +768,8 @@ public class EditorEventManager {
         } catch (TimeoutException e) {
             LOG.warn(e);
             wrapper.notifyFailure(Timeouts.HOVER);
+        } catch (CancellationException ignored) {
+            // superseded by a later request
         } catch (InterruptedException | JsonRpcException | ExecutionException e) {
             LOG.warn(e);
             wrapper.crashed(e);
@@ -740,43 +783,51 @@ public class EditorEventManager {
      * @return The suggestions
      */
     public Iterable<? extends LookupElement> completion(Position pos) {
-
         List<LookupElement> lookupItems = new ArrayList<>();
-        CompletableFuture<Either<List<CompletionItem>, CompletionList>> request = wrapper.getRequestManager()
-                .completion(new CompletionParams(identifier, pos));
+        completion(pos, lookupItems::add);
+        return lookupItems;
+    }
+
+    /**
+     * Requests the completion suggestions given a position, and passes each suggestion to the consumer once it's
+     * converted, so that the suggestions show up without waiting for the whole list. The request supersedes the
+     * previous completion request of the document, and is cancelled if the completion progress is cancelled.
+     *
+     * @param pos      The LSP position
+     * @param consumer The consumer of the suggestions, e.g. the completion result set
+     * @throws ProcessCanceledException if the completion progress is cancelled
+     */
+    public void completion(Position pos, Consumer<LookupElement> consumer) {
+        documentEventManager.flushPendingChanges();
+        CompletableFuture<Either<List<CompletionItem>, CompletionList>> request = wrapper.getRequestTracker()
+                .track(Timeouts.COMPLETION, identifier.getUri(), wrapper.getRequestManager().completion(new CompletionParams(identifier, pos)));
         if (request == null) {
-            return lookupItems;
+            return;
         }
 
         try {
-            Either<List<CompletionItem>, CompletionList> res = request.get(getTimeout(COMPLETION), TimeUnit.MILLISECONDS);
+            Either<List<CompletionItem>, CompletionList> res = RequestTracker.await(request, getTimeout(COMPLETION));
             wrapper.notifySuccess(Timeouts.COMPLETION);
             if (res == null) {
-                return lookupItems;
+                return;
             }
-            if (res.getLeft() != null) {
-                for (CompletionItem item : res.getLeft()) {
-                    LookupElement lookupElement = createLookupItem(item);
-                    if (lookupElement != null) {
-                        lookupItems.add(lookupElement);
-                    }
-                }
-            } else if (res.getRight() != null) {
-                for (CompletionItem item : res.getRight().getItems()) {
-                    LookupElement lookupElement = createLookupItem(item);
-                    if (lookupElement != null) {
-                        lookupItems.add(lookupElement);
-                    }
+            List<CompletionItem> items = res.getLeft() != null ? res.getLeft() :
+                    res.getRight() != null ? res.getRight().getItems() : Collections.emptyList();
+            for (CompletionItem item : items) {
+                ProgressManager.checkCanceled();
+                LookupElement lookupElement = createLookupItem(item);
+                if (lookupElement != null) {
+                    consumer.accept(lookupElement);
                 }
             }
         } catch (TimeoutException | InterruptedException e) {
             LOG.warn(e);
             wrapper.notifyFailure(Timeouts.COMPLETION);
+        } catch (CancellationException ignored) {
+            // superseded by a later request
         } catch (JsonRpcException | ExecutionException e) {
             LOG.warn(e);
             wrapper.crashed(e);
-        } finally {
-            return lookupItems;
         }
     }
 
@@ -1235,6 +1286,7 @@ public class EditorEventManager {
         pool(() -> {
             if (!editor.isDisposed()) {
                 DidSaveTextDocumentParams params = new DidSaveTextDocumentParams(identifier, editor.getDocument().getText());
+                documentEventManager.flushPendingChanges();
                 wrapper.getRequestManager().didSave(params);
             }
         });
@@ -1250,6 +1302,7 @@ public class EditorEventManager {
         } else
             pool(() -> {
                 if (!editor.isDisposed()) {
+                    documentEventManager.flushPendingChanges();
                     wrapper.getRequestManager().willSave(new WillSaveTextDocumentParams(identifier, TextDocumentSaveReason.Manual));
                 }
             });
@@ -1267,6 +1320,7 @@ public class EditorEventManager {
                 }
                 WillSaveTextDocumentParams params = new WillSaveTextDocumentParams(identifier,
                         TextDocumentSaveReason.Manual);
+                documentEventManager.flushPendingChanges();
                 CompletableFuture<List<TextEdit>> future = wrapper.getRequestManager().willSaveWaitUntil(params);
                 if (future != null) {
                     try {
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package org.wso2.lsp4intellij.requests;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+/**
+ * Tracks the in-flight requests of a language server. A request supersedes the previous one of the same type and key
+ * (e.g. the completion of the same document), which gets cancelled, and the future returned by lsp4j sends
+ * {@code $/cancelRequest} to the server on cancellation.
+ */
+public class RequestTracker {
+
+    private static final long CANCELLATION_CHECK_INTERVAL_MS = 20;
+
+    private final Map<String, CompletableFuture<?>> inFlightRequests = new ConcurrentHashMap<>();
+    private final BiConsumer<Timeouts, Long> latencyListener;
+
+    /**
+     * @param latencyListener notified with the latency in milliseconds of every request completed but not cancelled
+     */
+    public RequestTracker(BiConsumer<Timeouts, Long> latencyListener) {
+        this.latencyListener = latencyListener;
+    }
+
+    /**
+     * Tracks the request, cancelling the previous in-flight request of the same type and key
+     *
+     * @param type    The request type
+     * @param key     The request key, e.g. the document uri
+     * @param request The request future, returned by the request manager
+     * @return The given request future
+     */
+    public <T> CompletableFuture<T> track(Timeouts type, String key, CompletableFuture<T> request) {
+        if (request == null) {
+            return null;
+        }
+        String id = type.name() + "|" + key;
+        CompletableFuture<?> previous = inFlightRequests.put(id, request);
+        if (previous != null && previous != request && !previous.isDone()) {
+            previous.cancel(true);
+        }
+        long start = System.nanoTime();
+        request.whenComplete((result, error) -> {
+            inFlightRequests.remove(id, request);
+            if (!(error instanceof CancellationException)) {
+                latencyListener.accept(type, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        });
+        return request;
+    }
+
+    /**
+     * Cancels all in-flight requests, e.g. when the server is stopped
+     */
+    public void cancelAll() {
+        inFlightRequests.values().forEach(r -> r.cancel(true));
+        inFlightRequests.clear();
+    }
+
+    /**
+     * Waits for the result of the request like {@link CompletableFuture#get(long, TimeUnit)}, but cancels the request
+     * once the progress of the calling thread (e.g. completion or highlighting) is cancelled, rather than blocking the
+     * thread until timeout.
+     *
+     * @throws ProcessCanceledException if the progress is cancelled
+     */
+    public static <T> T await(CompletableFuture<T> request, long timeoutMs)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (true) {
+            try {
+                ProgressManager.checkCanceled();
+            } catch (ProcessCanceledException e) {
+                request.cancel(true);
+                throw e;
+            }
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                request.cancel(true);
+                throw new TimeoutException();
+            }
+            try {
+                return request.get(Math.min(remaining, CANCELLATION_CHECK_INTERVAL_MS), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ignored) {
+                // check cancellation and wait again
+            }
+        }
+    }
+}
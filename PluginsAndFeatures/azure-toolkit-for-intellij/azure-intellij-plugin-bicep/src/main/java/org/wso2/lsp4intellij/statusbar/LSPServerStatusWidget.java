@@ -45,17 +45,23 @@ import org.wso2.lsp4intellij.utils.GUIUtils;
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import javax.swing.*;
 
 public class LSPServerStatusWidget implements StatusBarWidget {
 
+    private static final long[] LATENCY_BUCKETS_MS = {50, 100, 250, 500, 1000, 2000};
+
     private final Map<Timeouts, Pair<Integer, Integer>> timeouts = new HashMap<>();
+    // request latency histograms, the last bucket counts the latencies beyond all bounds
+    private final Map<Timeouts, AtomicLongArray> latencies = new EnumMap<>(Timeouts.class);
     private final Project project;
     private final String projectName;
     private ServerStatus status = ServerStatus.STOPPED;
@@ -66,6 +72,7 @@ public class LSPServerStatusWidget implements StatusBarWidget {
 
         for (Timeouts t : Timeouts.values()) {
             timeouts.put(t, new MutablePair<>(0, 0));
+            latencies.put(t, new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1));
         }
     }
 
@@ -78,6 +85,14 @@ public class LSPServerStatusWidget implements StatusBarWidget {
         }
     }
 
+    public void notifyLatency(Timeouts timeout, long latencyMs) {
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKETS_MS.length && latencyMs > LATENCY_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        latencies.get(timeout).incrementAndGet(bucket);
+    }
+
     public IconPresentation getPresentation() {
         return new IconPresentation();
     }
@@ -153,6 +168,7 @@ public class LSPServerStatusWidget implements StatusBarWidget {
                     actions.add(new ShowConnectedFiles());
                 }
                 actions.add(new ShowTimeouts());
+                actions.add(new ShowLatencies());
                 String title = "Server Actions";
                 DataContext context = DataManager.getInstance().getDataContext(component);
                 DefaultActionGroup group = new DefaultActionGroup(actions);
@@ -221,6 +237,44 @@ public class LSPServerStatusWidget implements StatusBarWidget {
             }
         }
 
+        class ShowLatencies extends AnAction implements DumbAware {
+            ShowLatencies() {
+                super("Show &Latencies", "Show the latency histograms of the requests to the server", null);
+            }
+
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                StringBuilder message = new StringBuilder();
+                message.append("<html>");
+                message.append("Request latencies (ms) :<br><table><tr><td></td>");
+                for (long bound : LATENCY_BUCKETS_MS) {
+                    message.append("<td>&le;").append(bound).append("</td>");
+                }
+                message.append("<td>&gt;").append(LATENCY_BUCKETS_MS[LATENCY_BUCKETS_MS.length - 1]).append("</td></tr>");
+                latencies.forEach((t, histogram) -> {
+                    long total = 0;
+                    for (int i = 0; i < histogram.length(); i++) {
+                        total += histogram.get(i);
+                    }
+                    if (total == 0) {
+                        return;
+                    }
+                    message.append("<tr><td>").append(t.name(), 0, 1).append(t.name().substring(1).toLowerCase()).append("</td>");
+                    for (int i = 0; i < histogram.length(); i++) {
+                        message.append("<td>").append(histogram.get(i)).append("</td>");
+                    }
+                    message.append("</tr>");
+                });
+                message.append("</table></html>");
+                Messages.showInfoMessage(message.toString(), "Latencies");
+            }
+
+            @Override
+            public @NotNull ActionUpdateThread getActionUpdateThread() {
+                return ActionUpdateThread.BGT;
+            }
+        }
+
         class Restart extends AnAction implements DumbAware {
 
             Restart() {
@@ -10,6 +10,7 @@ import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.*;
 import com.github.dockerjava.api.exception.DockerException;
+import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.*;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientBuilder;
@@ -29,6 +30,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.net.ServerSocket;
@@ -36,6 +38,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -46,19 +49,31 @@ import static com.microsoft.azure.toolkit.intellij.container.model.DockerHost.DE
 public class AzureDockerClient {
     public static final Pattern PORT_PATTERN = Pattern.compile("EXPOSE\\s+(\\d+).*");
     public static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(5);
+    private static final String NONE_TAG = "<none>:<none>";
     private final DefaultDockerClientConfig config;
-    private final DockerClient client;
+    // opened on first use, and reopened if it's used again after being closed
+    @Nullable
+    private DockerClient client;
+    // number of commands in progress, an evicted client is closed only when none is
+    private int running = 0;
+    private boolean evicted = false;
+    private volatile boolean connected = false;
+    // local images by lower-cased repo:tag, kept current by the image events of the host. null if not loaded yet.
+    @Nullable
+    private volatile Map<String, Image> imageIndex = null;
+    @Nullable
+    private Closeable imageEvents = null;
+    // image events received while the index is being loaded, replayed once it's loaded
+    private final List<Event> pendingImageEvents = new ArrayList<>();
+    private boolean indexing = false;
 
     private static AzureDockerClient DEFAULT = null;
+    private static final int MAX_CACHED_CLIENTS = 8;
+    // clients are cached per host (least recently used ones are closed), to reuse their connections and image index
+    private static final Map<String, AzureDockerClient> CLIENTS = new LinkedHashMap<>(16, 0.75f, true);
 
     private AzureDockerClient() {
         this.config = DefaultDockerClientConfig.createDefaultConfigBuilder().build();
-        final DockerHttpClient httpClient = new ZerodepDockerHttpClient.Builder()
-            .dockerHost(config.getDockerHost())
-            .sslConfig(config.getSSLConfig())
-            .connectionTimeout(CONNECTION_TIMEOUT)
-            .build();
-        this.client = DockerClientBuilder.getInstance(config).withDockerHttpClient(httpClient).build();
     }
 
     private AzureDockerClient(String dockerHost, boolean tlsEnabled, String certPath) {
@@ -67,12 +82,18 @@ public class AzureDockerClient {
             builder.withDockerCertPath(certPath).build();
         }
         this.config = builder.build();
-        final ZerodepDockerHttpClient httpClient = new ZerodepDockerHttpClient.Builder()
-            .dockerHost(config.getDockerHost())
-            .sslConfig(config.getSSLConfig())
-            .connectionTimeout(CONNECTION_TIMEOUT)
-            .build();
-        this.client = DockerClientBuilder.getInstance(config).withDockerHttpClient(httpClient).build();
+    }
+
+    private synchronized DockerClient getClient() {
+        if (this.client == null) {
+            final DockerHttpClient httpClient = new ZerodepDockerHttpClient.Builder()
+                .dockerHost(config.getDockerHost())
+                .sslConfig(config.getSSLConfig())
+                .connectionTimeout(CONNECTION_TIMEOUT)
+                .build();
+            this.client = DockerClientBuilder.getInstance(config).withDockerHttpClient(httpClient).build();
+        }
+        return this.client;
     }
 
     public static AzureDockerClient from(@Nonnull final DockerHost dockerHost) {
@@ -80,7 +101,34 @@ public class AzureDockerClient {
     }
 
     public static AzureDockerClient from(String dockerHost, boolean tlsEnabled, String certPath) {
-        return new AzureDockerClient(dockerHost, tlsEnabled, certPath);
+        final List<AzureDockerClient> evicted = new ArrayList<>();
+        final AzureDockerClient client;
+        synchronized (CLIENTS) {
+            client = CLIENTS.computeIfAbsent(getClientKey(dockerHost, tlsEnabled, certPath), k -> new AzureDockerClient(dockerHost, tlsEnabled, certPath));
+            final Iterator<AzureDockerClient> iterator = CLIENTS.values().iterator();
+            while (CLIENTS.size() > MAX_CACHED_CLIENTS && iterator.hasNext()) {
+                evicted.add(iterator.next());
+                iterator.remove();
+            }
+        }
+        evicted.forEach(AzureDockerClient::close);
+        return client;
+    }
+
+    /**
+     * removes the cached client of the host (e.g. the host is removed or failed validation) and closes it once the
+     * commands in progress are done.
+     */
+    public static void evict(@Nonnull final DockerHost dockerHost) {
+        final AzureDockerClient client;
+        synchronized (CLIENTS) {
+            client = CLIENTS.remove(getClientKey(dockerHost.getDockerHost(), dockerHost.isTlsEnabled(), dockerHost.getDockerCertPath()));
+        }
+        Optional.ofNullable(client).ifPresent(AzureDockerClient::close);
+    }
+
+    private static String getClientKey(String dockerHost, boolean tlsEnabled, String certPath) {
+        return String.format("%s|%s", dockerHost, tlsEnabled ? certPath : "");
     }
 
     public static synchronized AzureDockerClient getDefault() {
@@ -92,97 +140,313 @@ public class AzureDockerClient {
 
     @AzureOperation(name = "boundary/docker.create_container.image", params = {"imageNameWithTag"})
     public String createContainer(@Nonnull String imageNameWithTag, @Nullable Integer... ports) {
-        this.ping();
         final List<Integer> exposedPortsOfImage = getExposedPortsOfImage(this, imageNameWithTag);
         final List<PortBinding> portBindings = Stream.concat(exposedPortsOfImage.stream(), ports == null ? Stream.empty() : Arrays.stream(ports)).distinct()
                 .map(p -> new PortBinding(Ports.Binding.bindPort(findFreePort()), new ExposedPort(p))).collect(Collectors.toList());
         final List<ExposedPort> exposedPorts = ports == null ? Collections.emptyList() : Arrays.stream(ports).map(ExposedPort::new).collect(Collectors.toList());
         //noinspection deprecation
-        final CreateContainerResponse container = this.client.createContainerCmd(imageNameWithTag)
+        final CreateContainerResponse container = this.exec(() -> this.getClient().createContainerCmd(imageNameWithTag)
                 .withExposedPorts(exposedPorts)
-                .withPortBindings(portBindings).exec();
+                .withPortBindings(portBindings).exec());
         return container.getId();
     }
 
     @AzureOperation(name = "boundary/docker.run_container.container", params = {"containerId"})
     public Container runContainer(@Nonnull String containerId) {
-        this.ping();
-        this.client.startContainerCmd(containerId).exec();
-        final List<Container> containers = this.client.listContainersCmd().exec();
+        final List<Container> containers = this.exec(() -> {
+            this.getClient().startContainerCmd(containerId).exec();
+            return this.getClient().listContainersCmd().exec();
+        });
         return containers.stream().filter(item -> item.getId().equals(containerId)).findFirst()
             .orElseThrow(() -> new DockerException("Error in starting container.", 404));
     }
 
     @AzureOperation(name = "boundary/docker.stop_container.container", params = {"containerId"})
     public void stopContainer(@Nonnull String containerId) {
-        this.ping();
-        this.client.stopContainerCmd(containerId).exec();
-        this.client.removeContainerCmd(containerId).exec();
+        this.exec(() -> {
+            this.getClient().stopContainerCmd(containerId).exec();
+            return this.getClient().removeContainerCmd(containerId).exec();
+        });
     }
 
     @AzureOperation(name = "boundary/docker.build_image.image|file", params = {"imageNameWithTag", "dockerFile"})
     public void buildImage(String imageNameWithTag, @Nonnull File dockerFile, @Nullable File baseDir, @Nullable BuildImageResultCallback callback) {
-        this.ping();
-        baseDir = Optional.ofNullable(baseDir).orElseGet(dockerFile::getParentFile);
-        final String imageId = this.client.buildImageCmd()
+        final File base = Optional.ofNullable(baseDir).orElseGet(dockerFile::getParentFile);
+        final String imageId = this.exec(() -> this.getClient().buildImageCmd()
             .withDockerfile(dockerFile)
-            .withBaseDirectory(baseDir)
+            .withBaseDirectory(base)
             .withTags(Set.of(imageNameWithTag))
-            .exec(Optional.ofNullable(callback).orElseGet(BuildImageResultCallback::new)).awaitImageId();
+            .exec(Optional.ofNullable(callback).orElseGet(BuildImageResultCallback::new)).awaitImageId());
     }
 
     @AzureOperation(name = "boundary/acr.push_image.image|registry", params = {"targetImageName", "registryUrl"})
     public void pushImage(@Nonnull String registryUrl, String username, String password, @Nonnull String targetImageName, @Nullable ResultCallback.Adapter<PushResponseItem> callback)
         throws InterruptedException {
-        this.ping();
         final AuthConfig authConfig = new AuthConfig().withUsername(username).withPassword(password).withRegistryAddress(registryUrl);
-        final PushImageCmd cmd = this.client.pushImageCmd(targetImageName).withAuthConfig(authConfig);
-        cmd.exec(Optional.ofNullable(callback).orElseGet(ResultCallback.Adapter::new)).awaitCompletion();
+        this.exec(() -> {
+            final PushImageCmd cmd = this.getClient().pushImageCmd(targetImageName).withAuthConfig(authConfig);
+            return cmd.exec(Optional.ofNullable(callback).orElseGet(ResultCallback.Adapter::new)).awaitCompletion();
+        });
     }
 
     @AzureOperation(name = "boundary/acr.pull_image.image|registry", params = {"repository", "registryUrl"})
     public void pullImage(@Nonnull String registryUrl, String username, String password, @Nonnull String repository, @Nonnull String tag)
         throws InterruptedException {
-        this.ping();
         final AuthConfig authConfig = new AuthConfig().withUsername(username).withPassword(password).withRegistryAddress(registryUrl);
         final String fullRepositoryName = String.format("%s/%s", registryUrl, repository);
-        final PullImageCmd cmd = this.client.pullImageCmd(fullRepositoryName).withRegistry(registryUrl).withTag(tag).withAuthConfig(authConfig);
-        final ResultCallback.Adapter<PullResponseItem> adapter = cmd.exec(new ResultCallback.Adapter<>()).awaitCompletion();
+        final ResultCallback.Adapter<PullResponseItem> adapter = this.exec(() -> {
+            final PullImageCmd cmd = this.getClient().pullImageCmd(fullRepositoryName).withRegistry(registryUrl).withTag(tag).withAuthConfig(authConfig);
+            return cmd.exec(new ResultCallback.Adapter<PullResponseItem>()).awaitCompletion();
+        });
     }
 
     @AzureOperation(name = "boundary/docker.inspect_image.image", params = {"imageId"})
     public InspectImageResponse inspectImage(String imageId) {
-        this.ping();
-        return this.client.inspectImageCmd(imageId).exec();
+        return this.exec(() -> this.getClient().inspectImageCmd(imageId).exec());
     }
 
     public void tagImage(String imageName, String fullRepositoryName, String tagName) {
-        this.ping();
-        this.client.tagImageCmd(imageName, fullRepositoryName, tagName).exec();
+        this.exec(() -> this.getClient().tagImageCmd(imageName, fullRepositoryName, tagName).exec());
     }
 
     public List<Image> listLocalImages() {
-        this.ping();
-        return this.client.listImagesCmd().withDanglingFilter(false).exec();
+        final List<Image> images = this.exec(() -> this.getClient().listImagesCmd().withDanglingFilter(false).exec());
+        if (this.imageIndex != null) {
+            this.imageIndex = indexImages(images);
+        }
+        return images;
     }
 
+    @Nullable
     @AzureOperation(name = "boundary/docker.find_image.image|host", params = {"tag.getImageName()", "this.config.getDockerHost().toString()"})
     public Image getImage(Tag tag) {
-        this.ping();
-        final List<Image> images = this.client.listImagesCmd().exec();
-        return images.stream()
-            .filter(i -> ArrayUtils.isNotEmpty(i.getRepoTags()))
-            .filter(i -> Arrays.stream(i.getRepoTags()).anyMatch(t -> t.equalsIgnoreCase(tag.getFullName())))
-            .findAny().orElse(null);
+        return this.getImageIndex().get(tag.getFullName().toLowerCase());
     }
 
     @AzureOperation(name = "boundary/docker.ping_host.host", params = {"this.config.getDockerHost().toString()"})
     public void ping() {
+        this.acquire();
         try {
-            this.client.pingCmd().exec();
+            this.getClient().pingCmd().exec();
+            this.connected = true;
         } catch (final Throwable t) {
+            this.connected = false;
             final String message = String.format("failed to ping docker host at \"%s\"", config.getDockerHost());
             throw new AzureToolkitRuntimeException(message, t, "Docker host is not running or Docker is not installed.");
+        } finally {
+            this.release();
+        }
+    }
+
+    /**
+     * ping the host only when it's first connected, or after the connection is found broken.
+     */
+    private void connect() {
+        if (!this.connected) {
+            this.ping();
+        }
+    }
+
+    /**
+     * connects and runs the command. the connection is taken as broken if the command fails other than by an error
+     * response of the host (e.g. connection refused), so that the host is pinged again by the next command.
+     */
+    private <T, E extends Exception> T exec(@Nonnull DockerCommand<T, E> command) throws E {
+        this.acquire();
+        try {
+            this.connect();
+            return command.exec();
+        } catch (final RuntimeException e) {
+            if (!(e instanceof DockerException)) {
+                this.connected = false;
+            }
+            throw e;
+        } finally {
+            this.release();
+        }
+    }
+
+    private synchronized void acquire() {
+        this.running++;
+    }
+
+    private synchronized void release() {
+        this.running--;
+        // a holder may still use it after it's evicted from the cache, it's reopened then and closed again when idle
+        if (this.running == 0 && this.evicted) {
+            this.doClose();
+        }
+    }
+
+    @FunctionalInterface
+    private interface DockerCommand<T, E extends Exception> {
+        T exec() throws E;
+    }
+
+    /**
+     * closes the evicted client right away if it's idle, otherwise after the commands in progress are done.
+     */
+    private synchronized void close() {
+        this.evicted = true;
+        if (this.running == 0) {
+            this.doClose();
+        }
+    }
+
+    private synchronized void doClose() {
+        Optional.ofNullable(this.imageEvents).ifPresent(AzureDockerClient::closeQuietly);
+        this.imageEvents = null;
+        this.imageIndex = null;
+        this.connected = false;
+        Optional.ofNullable(this.client).ifPresent(AzureDockerClient::closeQuietly);
+        this.client = null;
+    }
+
+    private static void closeQuietly(@Nonnull Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (final IOException | RuntimeException ignored) {
+        }
+    }
+
+    private Map<String, Image> getImageIndex() {
+        Map<String, Image> index = this.imageIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = this.imageIndex;
+                if (index == null) {
+                    // subscribe before listing, so that no change is missed in between
+                    this.exec(() -> {
+                        this.subscribeImageEvents();
+                        return null;
+                    });
+                    synchronized (this.pendingImageEvents) {
+                        // changes received before listing are in the listed images
+                        this.pendingImageEvents.clear();
+                        this.indexing = true;
+                    }
+                    final List<Image> images;
+                    try {
+                        images = this.exec(() -> this.getClient().listImagesCmd().exec());
+                    } catch (final RuntimeException e) {
+                        synchronized (this.pendingImageEvents) {
+                            this.indexing = false;
+                            this.pendingImageEvents.clear();
+                        }
+                        throw e;
+                    }
+                    index = indexImages(images);
+                    final List<Event> pending;
+                    synchronized (this.pendingImageEvents) {
+                        this.indexing = false;
+                        this.imageIndex = index;
+                        pending = new ArrayList<>(this.pendingImageEvents);
+                        this.pendingImageEvents.clear();
+                    }
+                    // replay changes received while listing
+                    pending.forEach(this::onImageEvent);
+                }
+            }
+        }
+        return index;
+    }
+
+    private static Map<String, Image> indexImages(@Nonnull final List<Image> images) {
+        final Map<String, Image> index = new ConcurrentHashMap<>();
+        images.forEach(image -> indexImage(index, image));
+        return index;
+    }
+
+    private static void indexImage(@Nonnull final Map<String, Image> index, @Nonnull final Image image) {
+        Optional.ofNullable(image.getRepoTags()).map(Arrays::stream).orElseGet(Stream::empty)
+            .filter(t -> !StringUtils.equals(t, NONE_TAG))
+            .forEach(t -> index.put(t.toLowerCase(), image));
+    }
+
+    private synchronized void subscribeImageEvents() {
+        if (this.imageEvents != null) {
+            return;
+        }
+        this.imageEvents = this.getClient().eventsCmd().withEventTypeFilter(EventType.IMAGE).exec(new ResultCallback.Adapter<>() {
+            @Override
+            public void onNext(Event event) {
+                try {
+                    AzureDockerClient.this.onImageEvent(event);
+                } catch (final RuntimeException e) {
+                    // fall back to listing all images on next lookup
+                    AzureDockerClient.this.imageIndex = null;
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                AzureDockerClient.this.onImageEventsClosed();
+            }
+
+            @Override
+            public void onComplete() {
+                AzureDockerClient.this.onImageEventsClosed();
+            }
+        });
+    }
+
+    private synchronized void onImageEventsClosed() {
+        // the index can't be kept current without events, it's reloaded and resubscribed on next lookup
+        this.imageEvents = null;
+        this.imageIndex = null;
+        this.connected = false;
+    }
+
+    private void onImageEvent(@Nonnull final Event event) {
+        final Map<String, Image> index;
+        synchronized (this.pendingImageEvents) {
+            index = this.imageIndex;
+            if (index == null) {
+                if (this.indexing) {
+                    this.pendingImageEvents.add(event);
+                }
+                return;
+            }
+        }
+        final String action = event.getAction();
+        final String id = event.getId();
+        if (StringUtils.isBlank(action) || StringUtils.isBlank(id)) {
+            return;
+        }
+        this.acquire();
+        try {
+            this.updateImageIndex(index, action, id, event);
+        } finally {
+            this.release();
+        }
+    }
+
+    private void updateImageIndex(@Nonnull final Map<String, Image> index, @Nonnull final String action, @Nonnull final String id, @Nonnull final Event event) {
+        switch (action) {
+            case "delete" -> index.values().removeIf(i -> StringUtils.equals(i.getId(), id));
+            case "untag" -> {
+                // id is the image id, and its remaining tags are not in the event
+                final Set<String> tags = this.findImageTags(id).stream().map(String::toLowerCase).collect(Collectors.toSet());
+                index.entrySet().removeIf(e -> StringUtils.equals(e.getValue().getId(), id) && !tags.contains(e.getKey()));
+            }
+            default -> {
+                // e.g. pull, tag, import, load, in which the name attribute refers to the image by repo:tag, otherwise
+                // the image is looked up by id for its tags
+                final Collection<String> references = Optional.ofNullable(event.getActor()).map(EventActor::getAttributes)
+                    .map(a -> a.get("name")).filter(StringUtils::isNotBlank).map(List::of).orElseGet(() -> this.findImageTags(id));
+                references.forEach(r -> this.getClient().listImagesCmd().withReferenceFilter(r).exec().forEach(image -> indexImage(index, image)));
+            }
+        }
+    }
+
+    @Nonnull
+    private Set<String> findImageTags(@Nonnull final String imageId) {
+        try {
+            final List<String> tags = this.getClient().inspectImageCmd(imageId).exec().getRepoTags();
+            return Optional.ofNullable(tags).orElse(Collections.emptyList()).stream()
+                .filter(t -> !StringUtils.equals(t, NONE_TAG)).collect(Collectors.toSet());
+        } catch (final NotFoundException e) {
+            return Collections.emptySet();
         }
     }
 
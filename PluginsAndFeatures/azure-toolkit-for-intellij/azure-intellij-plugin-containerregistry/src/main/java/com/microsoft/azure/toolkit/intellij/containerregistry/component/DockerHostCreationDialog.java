@@ -143,15 +143,20 @@ public class DockerHostCreationDialog extends AzureDialog<DockerHost>
         outputContainer.setVisible(true);
         outputPanel.setText("Connecting...");
         outputStatusIcon.setIcon(AnimatedIcon.Default.INSTANCE);
+        final DockerHost host = getValue();
         Mono.fromRunnable(() -> {
-                final AzureDockerClient dockerClient = AzureDockerClient.from(getValue());
+                final AzureDockerClient dockerClient = AzureDockerClient.from(host);
                 dockerClient.ping();
             }).subscribeOn(Schedulers.boundedElastic())
-            .doOnError(e -> AzureTaskManager.getInstance().runLater(() -> {
-                outputContainer.setVisible(true);
-                outputPanel.setText(ExceptionUtils.getRootCauseMessage(e));
-                outputStatusIcon.setIcon(AllIcons.General.Error);
-            }, AzureTask.Modality.ANY))
+            .doOnError(e -> {
+                // don't keep the client of a host that can't be connected
+                AzureDockerClient.evict(host);
+                AzureTaskManager.getInstance().runLater(() -> {
+                    outputContainer.setVisible(true);
+                    outputPanel.setText(ExceptionUtils.getRootCauseMessage(e));
+                    outputStatusIcon.setIcon(AllIcons.General.Error);
+                }, AzureTask.Modality.ANY);
+            })
             .doOnSuccess(e -> AzureTaskManager.getInstance().runLater(() -> {
                 outputContainer.setVisible(true);
                 outputPanel.setText(CONNECTION_SUCCEEDED);
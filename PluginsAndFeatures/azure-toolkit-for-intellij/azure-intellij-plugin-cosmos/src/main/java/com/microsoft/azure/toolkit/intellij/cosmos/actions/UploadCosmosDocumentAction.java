@@ -1,38 +1,80 @@
 package com.microsoft.azure.toolkit.intellij.cosmos.actions;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.intellij.openapi.fileChooser.FileChooserDescriptor;
-import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
 import com.intellij.openapi.fileChooser.FileChooserDialog;
 import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.microsoft.azure.toolkit.intellij.cosmos.actions.bulk.CosmosBulkImporter;
+import com.microsoft.azure.toolkit.intellij.cosmos.actions.bulk.CosmosDocumentWriter;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
-import com.microsoft.azure.toolkit.lib.cosmos.ICosmosDocument;
 import com.microsoft.azure.toolkit.lib.cosmos.ICosmosDocumentContainer;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 
 public class UploadCosmosDocumentAction {
     public static void importDocument(@Nonnull ICosmosDocumentContainer<?> container, @Nonnull Project project) {
-        final FileChooserDescriptor json = FileChooserDescriptorFactory.createSingleFileDescriptor("json");
-        json.setTitle("Select the document to import");
+        // json files with a document or an array of documents, ndjson/jsonl files with a document per line, or folders of them
+        final FileChooserDescriptor json = new FileChooserDescriptor(true, true, false, false, false, true)
+            .withFileFilter(file -> CosmosBulkImporter.EXTENSIONS.contains(StringUtils.lowerCase(file.getExtension())));
+        json.setTitle("Select the documents to import");
         final VirtualFile[] virtualFiles = AzureTaskManager.getInstance().runLater(() -> {
             final FileChooserDialog fileChooser = FileChooserFactory.getInstance().createFileChooser(json, project, null);
             return fileChooser.choose(project, LocalFileSystem.getInstance().findFileByPath(System.getProperty("user.home")));
         }).join();
-        if (virtualFiles != null && virtualFiles.length > 0) {
-            try (final InputStream stream = virtualFiles[0].getInputStream()) {
-                final ObjectNode jsonNodes = new ObjectMapper().readValue(stream, ObjectNode.class);
-                final ICosmosDocument sqlDocument = container.importDocument(jsonNodes);
-            } catch (IOException e) {
+        if (virtualFiles == null || virtualFiles.length == 0) {
+            return;
+        }
+        final List<Path> sources = Arrays.stream(virtualFiles).map(VirtualFile::toNioPath).collect(Collectors.toList());
+        final CosmosBulkImporter importer = new CosmosBulkImporter(CosmosDocumentWriter.of(container), CosmosBulkImporter.Config.builder().build());
+        final AzureString title = AzureString.format("Importing documents into (%s)", container.getName());
+        AzureTaskManager.getInstance().runInBackground(new AzureTask<>(project, title, true, () -> {
+            final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+            try {
+                final File report = FileUtil.createTempFile(String.format("import-%s-", container.getName()), ".ndjson", false);
+                final CosmosBulkImporter.Progress result = importer.run(sources, report.toPath(),
+                    progress -> Optional.ofNullable(indicator).ifPresent(i -> i.setText2(progress.toString())),
+                    Optional.ofNullable(indicator).<BooleanSupplier>map(i -> i::isCanceled).orElse(null));
+                final String summary = String.format("%s documents into %s, %s. Report: %s",
+                    importer.isStopped() ? "Stopped importing" : "Imported", container.getName(), result, report.getAbsolutePath());
+                if (result.getFailed() > 0) {
+                    AzureMessager.getMessager().warning(summary);
+                    openReport(project, report);
+                } else {
+                    AzureMessager.getMessager().info(summary);
+                }
+            } catch (final IOException e) {
                 AzureMessager.getMessager().error(e);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        }
+        }));
+    }
+
+    private static void openReport(@Nonnull final Project project, @Nonnull final File report) {
+        AzureTaskManager.getInstance().runLater(() -> {
+            final VirtualFile file = LocalFileSystem.getInstance().refreshAndFindFileByIoFile(report);
+            if (!project.isDisposed() && Objects.nonNull(file)) {
+                FileEditorManager.getInstance(project).openFile(file, true);
+            }
+        });
     }
 }
@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cosmos.actions.bulk;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports documents from JSON files into a container through a {@link CosmosDocumentWriter}. A file may contain a
+ * JSON array of documents, or documents one after another (NDJSON), and a folder is imported file by file. Files are
+ * parsed in a streaming way, so only a bounded number of documents are in memory however large the files are.
+ * <p>
+ * Documents are written by {@code config.concurrency} writers, the number of writes in flight is adapted to throttling:
+ * it's halved and all writers pause for the "retry after" duration once a write is throttled, and grows back by one
+ * every time as many writes succeed in a row. Progress, request units consumed and documents failed to import are
+ * appended to a report file (one JSON object per line).
+ * <p>
+ * Neither the reader nor the writers block longer than {@link #POLL_INTERVAL_MS} without checking whether the import is
+ * stopped or cancelled, and writes still in flight once it's stopped are waited for at most {@link #STOP_TIMEOUT_MS}.
+ */
+@Slf4j
+public class CosmosBulkImporter {
+    public static final Set<String> EXTENSIONS = Set.of("json", "ndjson", "jsonl");
+    private static final int PENDING_PER_WRITER = 4;
+    private static final long PROGRESS_INTERVAL_MS = 500;
+    private static final long REPORT_INTERVAL_MS = 5000;
+    static final long POLL_INTERVAL_MS = 100;
+    static final long STOP_TIMEOUT_MS = 10000;
+    private static final Duration MIN_BACKOFF = Duration.ofMillis(100);
+    private static final Item END = new Item("", null);
+
+    @Nonnull
+    private final CosmosDocumentWriter writer;
+    @Getter
+    @Nonnull
+    private final Config config;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Throttle throttle;
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final DoubleAdder requestCharge = new DoubleAdder();
+    private JsonGenerator report;
+    private long startNanos;
+    private volatile boolean stopped;
+    @Nullable
+    private volatile BooleanSupplier canceled;
+
+    public CosmosBulkImporter(@Nonnull CosmosDocumentWriter writer, @Nonnull Config config) {
+        this.writer = writer;
+        this.config = config;
+        this.throttle = new Throttle(Math.max(1, config.concurrency));
+    }
+
+    /**
+     * imports documents of the given files and folders, returns once all documents are imported or stopped.
+     *
+     * @param onProgress called with the progress periodically while importing
+     * @param canceled   polled while importing (also while waiting on throttled writes), the import is stopped once
+     *                   it returns true, e.g. {@code indicator::isCanceled}
+     */
+    @Nonnull
+    public Progress run(@Nonnull List<Path> sources, @Nonnull Path reportFile, @Nullable Consumer<Progress> onProgress,
+                        @Nullable BooleanSupplier canceled) throws IOException, InterruptedException {
+        final int concurrency = Math.max(1, this.config.concurrency);
+        final BlockingQueue<Item> queue = new ArrayBlockingQueue<>(concurrency * PENDING_PER_WRITER);
+        final ExecutorService writers = AppExecutorUtil.createBoundedApplicationPoolExecutor("Azure Cosmos Bulk Import", concurrency);
+        this.canceled = canceled;
+        this.startNanos = System.nanoTime();
+        try (final JsonGenerator report = this.mapper.getFactory().createGenerator(reportFile.toFile(), JsonEncoding.UTF8)) {
+            report.setPrettyPrinter(new MinimalPrettyPrinter(System.lineSeparator()));
+            this.report = report;
+            for (int i = 0; i < concurrency; i++) {
+                writers.execute(() -> this.consume(queue));
+            }
+            try {
+                final Consumer<Progress> progress = onProgress == null ? p -> {
+                } : onProgress;
+                final long[] last = {System.currentTimeMillis(), System.currentTimeMillis()};
+                for (final Path file : listFiles(sources)) {
+                    if (this.isStopped()) {
+                        break;
+                    }
+                    this.read(file, item -> {
+                        this.offer(queue, item);
+                        final long now = System.currentTimeMillis();
+                        if (now - last[0] >= PROGRESS_INTERVAL_MS) {
+                            last[0] = now;
+                            progress.accept(this.getProgress());
+                        }
+                        if (now - last[1] >= REPORT_INTERVAL_MS) {
+                            last[1] = now;
+                            this.writeRecord("progress", this.getProgress(), null, null, null);
+                        }
+                    });
+                }
+            } finally {
+                this.finish(queue, writers, concurrency);
+            }
+            final Progress result = this.getProgress();
+            this.writeRecord(this.isStopped() ? "stopped" : "summary", result, null, null, null);
+            return result;
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    public void stop() {
+        this.stopped = true;
+    }
+
+    public boolean isStopped() {
+        if (!this.stopped) {
+            final BooleanSupplier canceled = this.canceled;
+            if (canceled != null && canceled.getAsBoolean()) {
+                this.stopped = true;
+            }
+        }
+        return this.stopped;
+    }
+
+    /**
+     * puts the item into the queue, the item is dropped if the import is stopped while waiting for space (e.g. all
+     * writers are paused by throttling).
+     */
+    private void offer(@Nonnull BlockingQueue<Item> queue, @Nonnull Item item) throws InterruptedException {
+        while (!this.isStopped()) {
+            if (queue.offer(item, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * tells the writers to quit once the queued documents are written (or dropped, if stopped), and waits for them,
+     * at most {@link #STOP_TIMEOUT_MS} once stopped.
+     */
+    private void finish(@Nonnull BlockingQueue<Item> queue, @Nonnull ExecutorService writers, int concurrency) throws InterruptedException {
+        int ends = 0;
+        while (ends < concurrency) {
+            if (this.isStopped()) {
+                // documents not written yet are not needed, which also makes room for the end markers
+                queue.clear();
+            }
+            if (queue.offer(END, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                ends++;
+            }
+        }
+        writers.shutdown();
+        long stopDeadline = 0;
+        while (!writers.awaitTermination(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            if (this.isStopped()) {
+                final long now = System.currentTimeMillis();
+                stopDeadline = stopDeadline == 0 ? now + STOP_TIMEOUT_MS : stopDeadline;
+                if (now >= stopDeadline) {
+                    log.warn("writes still in flight are abandoned {}ms after the import is stopped", STOP_TIMEOUT_MS);
+                    writers.shutdownNow();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Nonnull
+    public Progress getProgress() {
+        final long elapsed = this.startNanos == 0 ? 0 : System.nanoTime() - this.startNanos;
+        return new Progress(this.read.get(), this.imported.get(), this.failed.get(), this.throttled.get(),
+            this.requestCharge.sum(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    @Nonnull
+    private static List<Path> listFiles(@Nonnull List<Path> sources) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        for (final Path source : sources) {
+            if (Files.isDirectory(source)) {
+                try (final Stream<Path> stream = Files.walk(source)) {
+                    files.addAll(stream.filter(Files::isRegularFile)
+                        .filter(f -> EXTENSIONS.contains(FilenameUtils.getExtension(f.toString()).toLowerCase()))
+                        .sorted().collect(Collectors.toList()));
+                }
+            } else {
+                files.add(source);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * parses documents of the file one by one, an array at root is unwrapped, values at root or in the array that are
+     * not objects are reported as failed.
+     */
+    private void read(@Nonnull Path file, @Nonnull ItemConsumer consumer) throws IOException, InterruptedException {
+        long index = 0;
+        try (final JsonParser parser = this.mapper.getFactory().createParser(file.toFile())) {
+            JsonToken token;
+            while (!this.isStopped() && (token = parser.nextToken()) != null) {
+                if (token == JsonToken.START_ARRAY) {
+                    while (!this.isStopped() && (token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                        this.accept(parser, token, source(file, index++), consumer);
+                    }
+                } else {
+                    this.accept(parser, token, source(file, index++), consumer);
+                }
+            }
+        } catch (final JsonProcessingException e) {
+            // the rest of the file can't be parsed reliably once it's malformed
+            this.read.incrementAndGet();
+            this.fail(source(file, index), null, e);
+        }
+    }
+
+    private void accept(@Nonnull JsonParser parser, @Nonnull JsonToken token, @Nonnull String source, @Nonnull ItemConsumer consumer) throws IOException, InterruptedException {
+        this.read.incrementAndGet();
+        if (token == JsonToken.START_OBJECT) {
+            consumer.accept(new Item(source, parser.readValueAsTree()));
+        } else {
+            parser.skipChildren();
+            this.fail(source, null, new IllegalArgumentException(String.format("document must be a JSON object, but got %s", token)));
+        }
+    }
+
+    @Nonnull
+    private static String source(@Nonnull Path file, long index) {
+        return file + "#" + index;
+    }
+
+    private void consume(@Nonnull BlockingQueue<Item> queue) {
+        try {
+            Item item;
+            while ((item = queue.take()) != END) {
+                if (!this.isStopped()) {
+                    this.write(item);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(@Nonnull Item item) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            if (!this.throttle.acquire(this::isStopped)) {
+                return;
+            }
+            try {
+                final double charge = this.writer.write(item.document);
+                this.throttle.onSuccess();
+                this.imported.incrementAndGet();
+                this.addRequestCharge(charge);
+                return;
+            } catch (final CosmosDocumentWriter.ThrottledException e) {
+                this.throttled.incrementAndGet();
+                this.addRequestCharge(e.getRequestCharge());
+                this.throttle.onThrottled(e.getRetryAfter());
+                if (attempt >= this.config.maxRetries) {
+                    this.fail(item.source, item.document, e);
+                    return;
+                }
+            } catch (final Exception e) {
+                this.fail(item.source, item.document, e);
+                return;
+            } finally {
+                this.throttle.release();
+            }
+        }
+    }
+
+    private void addRequestCharge(double charge) {
+        if (!Double.isNaN(charge)) {
+            this.requestCharge.add(charge);
+        }
+    }
+
+    private void fail(@Nonnull String source, @Nullable ObjectNode document, @Nonnull Throwable error) {
+        log.debug("failed to import document {}", source, error);
+        this.failed.incrementAndGet();
+        this.writeRecord("failure", null, source, document, error);
+    }
+
+    private void writeRecord(@Nonnull String type, @Nullable Progress progress, @Nullable String source, @Nullable ObjectNode document, @Nullable Throwable error) {
+        synchronized (this.report) {
+            try {
+                this.report.writeStartObject();
+                this.report.writeStringField("type", type);
+                if (progress != null) {
+                    this.report.writeNumberField("read", progress.read);
+                    this.report.writeNumberField("imported", progress.imported);
+                    this.report.writeNumberField("failed", progress.failed);
+                    this.report.writeNumberField("throttled", progress.throttled);
+                    this.report.writeNumberField("requestCharge", progress.requestCharge);
+                    this.report.writeNumberField("elapsedMillis", progress.elapsedMillis);
+                }
+                if (source != null) {
+                    this.report.writeStringField("source", source);
+                }
+                if (error != null) {
+                    this.report.writeStringField("error", ExceptionUtils.getRootCauseMessage(error));
+                }
+                if (document != null) {
+                    this.report.writeFieldName("document");
+                    this.report.writeTree(document);
+                }
+                this.report.writeEndObject();
+                this.report.flush();
+            } catch (final IOException e) {
+                log.warn("failed to write import report", e);
+            }
+        }
+    }
+
+    /**
+     * limits writes in flight, the limit is halved and all writers pause once throttled (multiplicative decrease),
+     * and grows by one after {@code limit} writes succeed in a row (additive increase).
+     */
+    static class Throttle {
+        private final int max;
+        private int limit;
+        private int inFlight;
+        private int successes;
+        private long resumeAt;
+
+        Throttle(int max) {
+            this.max = max;
+            this.limit = max;
+        }
+
+        /**
+         * @return false if stopped while waiting, in which case nothing is acquired
+         */
+        synchronized boolean acquire(@Nonnull BooleanSupplier stopped) throws InterruptedException {
+            while (!stopped.getAsBoolean()) {
+                final long wait = this.resumeAt - System.currentTimeMillis();
+                if (wait > 0) {
+                    this.wait(Math.min(wait, POLL_INTERVAL_MS));
+                } else if (this.inFlight < this.limit) {
+                    this.inFlight++;
+                    return true;
+                } else {
+                    this.wait(POLL_INTERVAL_MS);
+                }
+            }
+            return false;
+        }
+
+        synchronized void release() {
+            this.inFlight--;
+            this.notifyAll();
+        }
+
+        synchronized void onSuccess() {
+            if (this.limit < this.max && ++this.successes >= this.limit) {
+                this.limit++;
+                this.successes = 0;
+            }
+        }
+
+        synchronized int getLimit() {
+            return this.limit;
+        }
+
+        synchronized void onThrottled(@Nonnull Duration retryAfter) {
+            this.limit = Math.max(1, this.limit / 2);
+            this.successes = 0;
+            final long backoff = Math.max(retryAfter.toMillis(), MIN_BACKOFF.toMillis());
+            this.resumeAt = Math.max(this.resumeAt, System.currentTimeMillis() + backoff);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ItemConsumer {
+        void accept(@Nonnull Item item) throws InterruptedException;
+    }
+
+    @RequiredArgsConstructor
+    private static class Item {
+        private final String source;
+        private final ObjectNode document;
+    }
+
+    @Getter
+    @Builder
+    public static class Config {
+        @Builder.Default
+        private final int concurrency = 8;
+        /**
+         * times to retry writing a document once it's throttled before giving up.
+         */
+        @Builder.Default
+        private final int maxRetries = 10;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Progress {
+        private final long read;
+        private final long imported;
+        private final long failed;
+        private final long throttled;
+        /**
+         * request units consumed, only counts charges known to the writer
+         */
+        private final double requestCharge;
+        private final long elapsedMillis;
+
+        public double getThroughput() {
+            return this.elapsedMillis == 0 ? 0 : this.imported * 1000.0 / this.elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("read: %d, imported: %d, failed: %d, throttled: %d, request units: %.1f, elapsed: %.1fs, throughput: %.1f docs/s",
+                this.read, this.imported, this.failed, this.throttled, this.requestCharge, this.elapsedMillis / 1000.0, this.getThroughput());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cosmos.actions.bulk;
+
+import com.azure.cosmos.CosmosException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.azure.toolkit.lib.cosmos.ICosmosDocumentContainer;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes one document into a container. {@link CosmosBulkImporter} only talks to this interface, so the way
+ * documents are written can be replaced, e.g. by an in-memory fake in tests.
+ */
+@FunctionalInterface
+public interface CosmosDocumentWriter {
+    /**
+     * writes the document.
+     *
+     * @return request units charged for the write, {@link Double#NaN} if unknown
+     * @throws ThrottledException if the write is rejected because the request rate is too large, it can be retried
+     *                            after {@link ThrottledException#getRetryAfter()}
+     */
+    double write(@Nonnull ObjectNode document) throws Exception;
+
+    /**
+     * a writer that imports documents into the container, throttling errors of all APIs (status code 429 of SQL API,
+     * error 16500 of Mongo API...) are translated into {@link ThrottledException}.
+     */
+    @Nonnull
+    static CosmosDocumentWriter of(@Nonnull ICosmosDocumentContainer<?> container) {
+        return document -> {
+            try {
+                container.importDocument(document);
+                return Double.NaN;
+            } catch (final RuntimeException e) {
+                final ThrottledException throttled = ThrottledException.from(e);
+                if (throttled != null) {
+                    throw throttled;
+                }
+                throw e;
+            }
+        };
+    }
+
+    @Getter
+    class ThrottledException extends Exception {
+        private static final int TOO_MANY_REQUESTS = 429;
+        private static final Pattern RETRY_AFTER = Pattern.compile("RetryAfterMs=(\\d+)");
+
+        @Nonnull
+        private final Duration retryAfter;
+        /**
+         * request units charged for the rejected request, {@link Double#NaN} if unknown
+         */
+        private final double requestCharge;
+
+        public ThrottledException(@Nonnull Duration retryAfter, double requestCharge, @Nullable Throwable cause) {
+            super("Request rate is large, retry after " + retryAfter.toMillis() + "ms", cause);
+            this.retryAfter = retryAfter;
+            this.requestCharge = requestCharge;
+        }
+
+        @Nullable
+        static ThrottledException from(@Nonnull Throwable error) {
+            for (final Throwable t : ExceptionUtils.getThrowableList(error)) {
+                if (t instanceof CosmosException && ((CosmosException) t).getStatusCode() == TOO_MANY_REQUESTS) {
+                    final CosmosException e = (CosmosException) t;
+                    final Duration retryAfter = e.getRetryAfterDuration();
+                    return new ThrottledException(retryAfter == null ? Duration.ZERO : retryAfter, e.getRequestCharge(), error);
+                }
+                // Mongo and Cassandra API report throttling only in the message, e.g. "Error=16500, RetryAfterMs=12, Details='Request rate is large'"
+                final String message = t.getMessage();
+                if (StringUtils.containsIgnoreCase(message, "Request rate is large") || StringUtils.contains(message, "TooManyRequests")) {
+                    final Matcher matcher = RETRY_AFTER.matcher(message);
+                    final Duration retryAfter = matcher.find() ? Duration.ofMillis(Long.parseLong(matcher.group(1))) : Duration.ZERO;
+                    return new ThrottledException(retryAfter, Double.NaN, error);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cosmos.actions.bulk;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CosmosBulkImporterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void importsDocumentsOfArrayAndNdjsonFiles() throws IOException, InterruptedException {
+        final Path array = this.write("array.json", "[{\"id\": \"1\"}, {\"id\": \"2\"}, 3]");
+        final Path ndjson = this.write("docs.ndjson", "{\"id\": \"3\"}\n{\"id\": \"4\"}\n");
+        final Set<String> ids = ConcurrentHashMap.newKeySet();
+        final CosmosDocumentWriter writer = document -> {
+            ids.add(document.get("id").asText());
+            return 1.0;
+        };
+        final CosmosBulkImporter importer = new CosmosBulkImporter(writer, CosmosBulkImporter.Config.builder().concurrency(2).build());
+        final Path report = this.report();
+
+        final CosmosBulkImporter.Progress result = importer.run(List.of(array, ndjson), report, null, null);
+
+        Assert.assertEquals(5, result.getRead());
+        Assert.assertEquals(4, result.getImported());
+        Assert.assertEquals(1, result.getFailed());
+        Assert.assertEquals(4.0, result.getRequestCharge(), 0.001);
+        Assert.assertEquals(Set.of("1", "2", "3", "4"), ids);
+        final String records = Files.readString(report);
+        Assert.assertTrue(records.contains("\"type\":\"failure\""));
+        Assert.assertTrue(records.contains("\"type\":\"summary\""));
+    }
+
+    @Test
+    public void retriesThrottledWrites() throws IOException, InterruptedException {
+        final Path docs = this.write("docs.ndjson", "{\"id\": \"1\"}\n{\"id\": \"2\"}\n{\"id\": \"3\"}\n");
+        final AtomicInteger calls = new AtomicInteger();
+        final CosmosDocumentWriter writer = document -> {
+            if (calls.incrementAndGet() <= 3) {
+                throw new CosmosDocumentWriter.ThrottledException(Duration.ofMillis(1), 2.0, null);
+            }
+            return 1.0;
+        };
+        final CosmosBulkImporter importer = new CosmosBulkImporter(writer, CosmosBulkImporter.Config.builder().concurrency(1).build());
+
+        final CosmosBulkImporter.Progress result = importer.run(List.of(docs), this.report(), null, null);
+
+        Assert.assertEquals(3, result.getImported());
+        Assert.assertEquals(0, result.getFailed());
+        Assert.assertEquals(3, result.getThrottled());
+        Assert.assertEquals(3 * 2.0 + 3 * 1.0, result.getRequestCharge(), 0.001);
+    }
+
+    @Test
+    public void failsDocumentThrottledMoreThanMaxRetries() throws IOException, InterruptedException {
+        final Path docs = this.write("docs.ndjson", "{\"id\": \"1\"}\n");
+        final CosmosDocumentWriter writer = document -> {
+            throw new CosmosDocumentWriter.ThrottledException(Duration.ZERO, Double.NaN, null);
+        };
+        final CosmosBulkImporter importer = new CosmosBulkImporter(writer, CosmosBulkImporter.Config.builder().concurrency(1).maxRetries(2).build());
+
+        final CosmosBulkImporter.Progress result = importer.run(List.of(docs), this.report(), null, null);
+
+        Assert.assertEquals(0, result.getImported());
+        Assert.assertEquals(1, result.getFailed());
+        Assert.assertEquals(3, result.getThrottled());
+    }
+
+    @Test(timeout = CosmosBulkImporter.STOP_TIMEOUT_MS)
+    public void stopsOnceCanceledWhileWritersArePausedByThrottling() throws IOException, InterruptedException {
+        // more documents than the queue holds, so that the reader is blocked on the full queue as well
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("{\"id\": \"").append(i).append("\"}\n");
+        }
+        final Path docs = this.write("docs.ndjson", content.toString());
+        final CosmosDocumentWriter writer = document -> {
+            throw new CosmosDocumentWriter.ThrottledException(Duration.ofHours(1), Double.NaN, null);
+        };
+        final CosmosBulkImporter importer = new CosmosBulkImporter(writer, CosmosBulkImporter.Config.builder().concurrency(1).build());
+        final long start = System.currentTimeMillis();
+
+        final CosmosBulkImporter.Progress result = importer.run(List.of(docs), this.report(), null, () -> System.currentTimeMillis() - start > 300);
+
+        Assert.assertTrue(importer.isStopped());
+        Assert.assertEquals(0, result.getImported());
+        Assert.assertEquals(1, result.getThrottled());
+        Assert.assertTrue(result.getRead() < 100);
+    }
+
+    @Test
+    public void throttleHalvesLimitOnThrottlingAndGrowsItBackByOne() {
+        final CosmosBulkImporter.Throttle throttle = new CosmosBulkImporter.Throttle(8);
+        throttle.onThrottled(Duration.ZERO);
+        Assert.assertEquals(4, throttle.getLimit());
+        for (int i = 0; i < 3; i++) {
+            throttle.onSuccess();
+        }
+        Assert.assertEquals(4, throttle.getLimit());
+        throttle.onSuccess();
+        Assert.assertEquals(5, throttle.getLimit());
+        throttle.onThrottled(Duration.ZERO);
+        throttle.onThrottled(Duration.ZERO);
+        throttle.onThrottled(Duration.ZERO);
+        Assert.assertEquals(1, throttle.getLimit());
+        for (int i = 0; i < 100; i++) {
+            throttle.onSuccess();
+        }
+        Assert.assertEquals(8, throttle.getLimit());
+    }
+
+    @Test
+    public void throttleLimitsWritesInFlightAndPausesForRetryAfter() throws InterruptedException {
+        final CosmosBulkImporter.Throttle throttle = new CosmosBulkImporter.Throttle(2);
+        Assert.assertTrue(throttle.acquire(() -> false));
+        Assert.assertTrue(throttle.acquire(() -> false));
+        // the third waits until one is released, and gives up once stopped
+        final long start = System.currentTimeMillis();
+        Assert.assertFalse(throttle.acquire(() -> System.currentTimeMillis() - start > 200));
+        throttle.release();
+        throttle.release();
+
+        throttle.onThrottled(Duration.ofMillis(300));
+        final long paused = System.currentTimeMillis();
+        Assert.assertTrue(throttle.acquire(() -> false));
+        Assert.assertTrue(System.currentTimeMillis() - paused >= 250);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        final Path file = this.folder.getRoot().toPath().resolve(name);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private Path report() {
+        return this.folder.getRoot().toPath().resolve("report.ndjson");
+    }
+}
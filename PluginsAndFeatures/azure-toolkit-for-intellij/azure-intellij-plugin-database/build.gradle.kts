@@ -39,6 +39,8 @@ dependencies {
     implementation("mysql:mysql-connector-java:8.0.29")
     implementation("com.microsoft.sqlserver:mssql-jdbc:9.3.1.jre8-preview")
     implementation("org.postgresql:postgresql:42.4.1")
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("com.h2database:h2:2.2.224")
 
     compileOnly(libs.lombok)
     compileOnly("org.jetbrains:annotations:24.0.0")
@@ -115,6 +115,9 @@ public class PasswordDialog extends AzureDialog<char[]> implements AzureForm<cha
         if (result.isConnected()) {
             messageBuilder.append("Connected successfully.").append(System.lineSeparator());
             messageBuilder.append("Version: ").append(result.getServerVersion()).append(System.lineSeparator());
+            if (result.getConnectCost() != null) {
+                messageBuilder.append("Connect cost: ").append(result.getConnectCost()).append("ms").append(System.lineSeparator());
+            }
             messageBuilder.append("Ping cost: ").append(result.getPingCost()).append("ms");
         } else {
             messageBuilder.append("Failed to connect with above parameters.").append(System.lineSeparator());
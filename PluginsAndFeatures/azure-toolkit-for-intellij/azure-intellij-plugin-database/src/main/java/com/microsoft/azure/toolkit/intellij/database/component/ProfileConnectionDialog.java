@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.database.component;
+
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.FormBuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Asks for how to profile a database connection: number of pings and an optional sample query.
+ */
+public class ProfileConnectionDialog extends DialogWrapper {
+    private final JBIntSpinner pingsInput = new JBIntSpinner(20, 1, 1000, 10);
+    private final JBTextField sampleQueryInput = new JBTextField();
+
+    public ProfileConnectionDialog(@Nullable Component parent) {
+        super(parent, true);
+        this.sampleQueryInput.getEmptyText().setText("Optional, e.g. select * from my_table limit 100");
+        setTitle("Profile Connection");
+        setOKButtonText("Profile");
+        init();
+    }
+
+    @Nonnull
+    @Override
+    protected JComponent createCenterPanel() {
+        return FormBuilder.createFormBuilder()
+            .addLabeledComponent("Pings:", this.pingsInput)
+            .addLabeledComponent("Sample query:", this.sampleQueryInput)
+            .getPanel();
+    }
+
+    public int getPings() {
+        return this.pingsInput.getNumber();
+    }
+
+    @Nullable
+    public String getSampleQuery() {
+        return this.sampleQueryInput.getText();
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.database.connection;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small pool of JDBC connections per data source (url, username and password), so that testing and profiling a
+ * connection repeatedly reuses connections instead of opening (and leaking) a new one every time. At most
+ * {@link #MAX_IDLE_PER_DATA_SOURCE} idle connections are kept per data source, and idle connections are closed after
+ * {@link #IDLE_TIMEOUT_MS}, checked periodically and whenever a connection is borrowed or returned. All idle connections
+ * are closed when the application is disposed.
+ */
+@Slf4j
+public class DatabaseConnectionPool implements Disposable {
+    static final int MAX_IDLE_PER_DATA_SOURCE = 2;
+    static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long EVICTION_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final Map<DataSource, Deque<Idle>> idles = new HashMap<>();
+    private final ScheduledFuture<?> eviction;
+
+    public DatabaseConnectionPool() {
+        this.eviction = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+            () -> this.evict(System.currentTimeMillis()).forEach(DatabaseConnectionPool::closeQuietly),
+            EVICTION_INTERVAL_MS, EVICTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static DatabaseConnectionPool getInstance() {
+        return ApplicationManager.getApplication().getService(DatabaseConnectionPool.class);
+    }
+
+    /**
+     * borrows an idle connection of the data source if there is a valid one, opens a new one otherwise. The connection
+     * is returned to the pool once the lease is closed.
+     */
+    @Nonnull
+    public Lease borrow(@Nonnull String url, String username, String password) throws SQLException {
+        final DataSource source = DataSource.of(url, username, password);
+        this.evict(System.currentTimeMillis()).forEach(DatabaseConnectionPool::closeQuietly);
+        Idle idle;
+        while ((idle = this.poll(source)) != null) {
+            if (isValid(idle.connection)) {
+                return new Lease(source, idle.connection, 0);
+            }
+            closeQuietly(idle.connection);
+        }
+        final long start = System.nanoTime();
+        final Connection connection = DriverManager.getConnection(url, username, password);
+        return new Lease(source, connection, System.nanoTime() - start);
+    }
+
+    /**
+     * closes all idle connections, connections borrowed are closed once returned.
+     */
+    public void closeAll() {
+        final List<Connection> connections = new ArrayList<>();
+        synchronized (this.idles) {
+            this.idles.values().forEach(d -> d.forEach(i -> connections.add(i.connection)));
+            this.idles.clear();
+        }
+        connections.forEach(DatabaseConnectionPool::closeQuietly);
+    }
+
+    @Override
+    public void dispose() {
+        this.eviction.cancel(false);
+        this.closeAll();
+    }
+
+    private Idle poll(@Nonnull DataSource source) {
+        synchronized (this.idles) {
+            final Deque<Idle> idles = this.idles.get(source);
+            return idles == null ? null : idles.pollFirst();
+        }
+    }
+
+    private void release(@Nonnull DataSource source, @Nonnull Connection connection, boolean broken) {
+        boolean pooled = false;
+        if (!broken && !isClosed(connection)) {
+            synchronized (this.idles) {
+                final Deque<Idle> idles = this.idles.computeIfAbsent(source, k -> new ArrayDeque<>());
+                if (idles.size() < MAX_IDLE_PER_DATA_SOURCE) {
+                    idles.addFirst(new Idle(connection, System.currentTimeMillis()));
+                    pooled = true;
+                }
+            }
+        }
+        if (!pooled) {
+            closeQuietly(connection);
+        }
+        this.evict(System.currentTimeMillis()).forEach(DatabaseConnectionPool::closeQuietly);
+    }
+
+    @Nonnull
+    private List<Connection> evict(long now) {
+        final List<Connection> expired = new ArrayList<>();
+        synchronized (this.idles) {
+            this.idles.values().forEach(idles -> idles.removeIf(i -> {
+                final boolean isExpired = now - i.idleSince > IDLE_TIMEOUT_MS;
+                if (isExpired) {
+                    expired.add(i.connection);
+                }
+                return isExpired;
+            }));
+            this.idles.values().removeIf(Deque::isEmpty);
+        }
+        return expired;
+    }
+
+    private static boolean isValid(@Nonnull Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (final SQLException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean isClosed(@Nonnull Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (final SQLException e) {
+            return true;
+        }
+    }
+
+    private static void closeQuietly(@Nonnull Connection connection) {
+        try {
+            connection.close();
+        } catch (final SQLException | RuntimeException e) {
+            log.debug("failed to close connection", e);
+        }
+    }
+
+    /**
+     * keyed by the hash of the password, so that passwords are not kept in memory by the pool.
+     */
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class DataSource {
+        private final String url;
+        private final String username;
+        private final String passwordHash;
+
+        @Nonnull
+        static DataSource of(@Nonnull String url, @Nullable String username, @Nullable String password) {
+            return new DataSource(url, username, password == null ? null : DigestUtils.sha256Hex(password));
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Idle {
+        private final Connection connection;
+        private final long idleSince;
+    }
+
+    /**
+     * a connection borrowed from the pool, returned to the pool once closed.
+     */
+    public class Lease implements AutoCloseable {
+        private final DataSource source;
+        @Getter
+        private final Connection connection;
+        /**
+         * nanoseconds spent to open the connection, 0 if it's reused
+         */
+        @Getter
+        private final long connectNanos;
+        private boolean broken;
+        private boolean closed;
+
+        private Lease(@Nonnull DataSource source, @Nonnull Connection connection, long connectNanos) {
+            this.source = source;
+            this.connection = connection;
+            this.connectNanos = connectNanos;
+        }
+
+        public boolean isReused() {
+            return this.connectNanos == 0;
+        }
+
+        /**
+         * marks the connection broken (e.g. a query failed because of network), so it's closed instead of being
+         * returned to the pool.
+         */
+        public void invalidate() {
+            this.broken = true;
+        }
+
+        @Override
+        public void close() {
+            if (!this.closed) {
+                this.closed = true;
+                DatabaseConnectionPool.this.release(this.source, this.connection, this.broken);
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@
 
 package com.microsoft.azure.toolkit.intellij.database.connection;
 
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.microsoft.azure.toolkit.lib.database.JdbcUrl;
 import com.microsoft.azuretools.ActionConstants;
 import com.microsoft.azuretools.telemetrywrapper.EventType;
@@ -14,13 +15,16 @@ import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 public class DatabaseConnectionUtils {
 
@@ -32,12 +36,14 @@ public class DatabaseConnectionUtils {
     public static final int ACCESS_DENIED_ERROR_CODE = 1045;
     private static final int CLASS_NOT_FOUND_ERROR_CODE = -1000;
     private static final int UNKNOWN_EXCEPTION_ERROR_CODE = -1;
+    private static final String PING_QUERY = "select 1";
 
     public static boolean connect(JdbcUrl url, String username, String password) {
         try {
             Class.forName(getDriverClassName(url));
-            DriverManager.getConnection(url.toString(), username, password);
-            return true;
+            try (final DatabaseConnectionPool.Lease ignored = DatabaseConnectionPool.getInstance().borrow(url.toString(), username, password)) {
+                return true;
+            }
         } catch (final ClassNotFoundException | SQLException ignored) {
         }
         return false;
@@ -47,30 +53,30 @@ public class DatabaseConnectionUtils {
         int errorCode = 0;
         boolean connected = false;
         String errorMessage = null;
+        Long connectCost = null;
         Long pingCost = null;
         String serverVersion = null;
         // refresh property
         try {
             Class.forName(getDriverClassName(url));
-            final long start = System.currentTimeMillis();
-            final Connection connection = DriverManager.getConnection(url.toString(), username, password);
-            connected = true;
-            final Statement statement = connection.createStatement();
-            final ResultSet resultSet = statement.executeQuery("select 'hi'");
-            if (resultSet.next()) {
-                final String result = resultSet.getString(1);
-                connected = "hi".equals(result);
-            }
-            pingCost = System.currentTimeMillis() - start;
-            if (StringUtils.startsWith(url.toString(), SQL_SERVER_URL_PREFIX)) {
-                try {
-                    serverVersion = (String) FieldUtils.readField(connection, "sqlServerVersion", true);
-                } catch (final IllegalAccessException e) {
-                    serverVersion = "unknown";
+            try (final DatabaseConnectionPool.Lease lease = DatabaseConnectionPool.getInstance().borrow(url.toString(), username, password)) {
+                final Connection connection = lease.getConnection();
+                // a reused connection costs nothing to connect, so connecting is reported apart from the ping
+                connectCost = lease.isReused() ? null : TimeUnit.NANOSECONDS.toMillis(lease.getConnectNanos());
+                connected = true;
+                final long start = System.currentTimeMillis();
+                try (final Statement statement = connection.createStatement();
+                     final ResultSet resultSet = statement.executeQuery("select 'hi'")) {
+                    if (resultSet.next()) {
+                        final String result = resultSet.getString(1);
+                        connected = "hi".equals(result);
+                    }
+                } catch (final SQLException e) {
+                    lease.invalidate();
+                    throw e;
                 }
-            } else {
-                final DatabaseMetaData meta = connection.getMetaData();
-                serverVersion = meta == null ? "unknown" : String.format("%d.%d", meta.getDatabaseMajorVersion(), meta.getDatabaseMinorVersion());
+                pingCost = System.currentTimeMillis() - start;
+                serverVersion = getServerVersion(url, connection);
             }
         } catch (final SQLException exception) {
             errorCode = exception.getErrorCode();
@@ -83,7 +89,91 @@ public class DatabaseConnectionUtils {
         EventUtil.logEvent(EventType.info, ActionConstants.parse(ActionConstants.MySQL.TEST_CONNECTION).getServiceName(),
             ActionConstants.parse(ActionConstants.MySQL.TEST_CONNECTION).getOperationName(),
             Collections.singletonMap("result", String.valueOf(connected)));
-        return new ConnectResult(connected, errorMessage, pingCost, serverVersion, errorCode);
+        return new ConnectResult(connected, errorMessage, connectCost, pingCost, serverVersion, errorCode);
+    }
+
+    /**
+     * connects with a new connection, then runs {@code pings} pings and the sample query (if any) through it, to
+     * tell how long connecting and round trips take, and how stable round trips are. The connection is not pooled
+     * but closed afterwards.
+     *
+     * @param indicator shows the progress of pings, profiling stops once it's canceled, with the pings done so far.
+     */
+    public static ProfileResult profile(JdbcUrl url, String username, String password, int pings, @Nullable String sampleQuery,
+                                        @Nullable ProgressIndicator indicator) {
+        try {
+            Class.forName(getDriverClassName(url));
+        } catch (final ClassNotFoundException e) {
+            return ProfileResult.failed(e.getMessage());
+        }
+        final long connectStart = System.nanoTime();
+        try (final Connection connection = DriverManager.getConnection(url.toString(), username, password)) {
+            return profile(connection, System.nanoTime() - connectStart, pings, sampleQuery, indicator);
+        } catch (final SQLException e) {
+            return ProfileResult.failed(e.getErrorCode() == CONNECTION_ERROR_CODE ? String.format(CONNECTION_ISSUE_MESSAGE, e.getMessage()) : e.getMessage());
+        }
+    }
+
+    /**
+     * runs the pings and the sample query through the connected {@code connection}, a failed sample query is reported
+     * along with the ping stats.
+     */
+    static ProfileResult profile(Connection connection, long connectNanos, int pings, @Nullable String sampleQuery,
+                                 @Nullable ProgressIndicator indicator) throws SQLException {
+        final long[] roundTrips = new long[Math.max(1, pings)];
+        int done = 0;
+        try (final Statement statement = connection.createStatement()) {
+            for (; done < roundTrips.length; done++) {
+                if (done > 0 && indicator != null && indicator.isCanceled()) {
+                    final long[] partial = Arrays.copyOf(roundTrips, done);
+                    return ProfileResult.of(connectNanos, partial, -1, 0, null,
+                        String.format("Canceled after %d of %d pings.", done, roundTrips.length));
+                }
+                if (indicator != null) {
+                    indicator.setFraction((double) done / roundTrips.length);
+                    indicator.setText2(String.format("Ping %d of %d", done + 1, roundTrips.length));
+                }
+                final long start = System.nanoTime();
+                try (final ResultSet resultSet = statement.executeQuery(PING_QUERY)) {
+                    while (resultSet.next()) {
+                        // drain results
+                    }
+                }
+                roundTrips[done] = System.nanoTime() - start;
+            }
+            long sampleQueryNanos = -1;
+            long sampleQueryRows = 0;
+            String sampleQueryError = null;
+            if (StringUtils.isNotBlank(sampleQuery) && (indicator == null || !indicator.isCanceled())) {
+                if (indicator != null) {
+                    indicator.setText2("Running sample query");
+                }
+                final long start = System.nanoTime();
+                try (final ResultSet resultSet = statement.executeQuery(sampleQuery)) {
+                    while (resultSet.next()) {
+                        sampleQueryRows++;
+                    }
+                    sampleQueryNanos = System.nanoTime() - start;
+                } catch (final SQLException e) {
+                    sampleQueryRows = 0;
+                    sampleQueryError = e.getMessage();
+                }
+            }
+            return ProfileResult.of(connectNanos, roundTrips, sampleQueryNanos, sampleQueryRows, sampleQueryError, null);
+        }
+    }
+
+    private static String getServerVersion(JdbcUrl url, Connection connection) throws SQLException {
+        if (StringUtils.startsWith(url.toString(), SQL_SERVER_URL_PREFIX)) {
+            try {
+                return (String) FieldUtils.readField(connection, "sqlServerVersion", true);
+            } catch (final IllegalAccessException e) {
+                return "unknown";
+            }
+        } else {
+            final DatabaseMetaData meta = connection.getMetaData();
+            return meta == null ? "unknown" : String.format("%d.%d", meta.getDatabaseMajorVersion(), meta.getDatabaseMinorVersion());
+        }
     }
 
     private static String getDriverClassName(JdbcUrl url) {
@@ -102,8 +192,71 @@ public class DatabaseConnectionUtils {
     public static class ConnectResult {
         private final boolean connected;
         private final String message;
+        /**
+         * null if an idle connection is reused
+         */
+        private final Long connectCost;
         private final Long pingCost;
         private final String serverVersion;
         private final int errorCode;
     }
+
+    /**
+     * times are in milliseconds
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ProfileResult {
+        private final boolean connected;
+        private final String message;
+        private final double connectTime;
+        private final int pings;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double min;
+        private final double max;
+        /**
+         * mean absolute difference of consecutive round trips
+         */
+        private final double jitter;
+        /**
+         * -1 if no sample query is run, or it failed
+         */
+        private final double sampleQueryTime;
+        private final long sampleQueryRows;
+        /**
+         * null unless the sample query failed
+         */
+        @Nullable
+        private final String sampleQueryError;
+
+        static ProfileResult failed(String message) {
+            return new ProfileResult(false, message, 0, 0, 0, 0, 0, 0, 0, 0, -1, 0, null);
+        }
+
+        static ProfileResult of(long connectNanos, long[] roundTrips, long sampleQueryNanos, long sampleQueryRows,
+                                @Nullable String sampleQueryError, @Nullable String message) {
+            double jitter = 0;
+            for (int i = 1; i < roundTrips.length; i++) {
+                jitter += Math.abs(roundTrips[i] - roundTrips[i - 1]);
+            }
+            jitter = roundTrips.length > 1 ? jitter / (roundTrips.length - 1) : 0;
+            final long[] sorted = roundTrips.clone();
+            Arrays.sort(sorted);
+            return new ProfileResult(true, message, millis(connectNanos), sorted.length,
+                millis(percentile(sorted, 50)), millis(percentile(sorted, 95)), millis(percentile(sorted, 99)),
+                millis(sorted[0]), millis(sorted[sorted.length - 1]), millis(jitter),
+                sampleQueryNanos < 0 ? -1 : millis(sampleQueryNanos), sampleQueryRows, sampleQueryError);
+        }
+
+        private static long percentile(long[] sorted, int percentile) {
+            final int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+
+        private static double millis(double nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
 }
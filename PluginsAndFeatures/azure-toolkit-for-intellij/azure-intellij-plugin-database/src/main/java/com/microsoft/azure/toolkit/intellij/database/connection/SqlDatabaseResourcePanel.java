@@ -7,6 +7,8 @@ package com.microsoft.azure.toolkit.intellij.database.connection;
 import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.ide.CopyPasteManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.ui.AnimatedIcon;
 import com.microsoft.azure.toolkit.intellij.common.AzureActionButton;
 import com.microsoft.azure.toolkit.intellij.common.AzureComboBox;
@@ -16,6 +18,7 @@ import com.microsoft.azure.toolkit.intellij.common.component.SubscriptionComboBo
 import com.microsoft.azure.toolkit.intellij.connector.InvalidResource;
 import com.microsoft.azure.toolkit.intellij.connector.Resource;
 import com.microsoft.azure.toolkit.intellij.database.component.DatabaseComboBox;
+import com.microsoft.azure.toolkit.intellij.database.component.ProfileConnectionDialog;
 import com.microsoft.azure.toolkit.intellij.database.component.ServerComboBox;
 import com.microsoft.azure.toolkit.intellij.database.component.TestConnectionActionPanel;
 import com.microsoft.azure.toolkit.intellij.database.component.UsernameComboBox;
@@ -49,6 +52,7 @@ public abstract class SqlDatabaseResourcePanel<T extends IDatabase> implements A
     private JPasswordField inputPasswordField;
     private JTextField urlTextField;
     private AzureActionButton<Void> testConnectionButton;
+    private AzureActionButton<Void> profileConnectionButton;
     private TestConnectionActionPanel testConnectionActionPanel;
     private JTextPane testResultTextPane;
 
@@ -72,6 +76,7 @@ public abstract class SqlDatabaseResourcePanel<T extends IDatabase> implements A
         testResultTextPane.setEditable(false);
         testResultTextPane.setVisible(false);
         testConnectionButton.setEnabled(Objects.nonNull(this.jdbcUrl));
+        profileConnectionButton.setEnabled(Objects.nonNull(this.jdbcUrl));
         // username loader
         this.usernameComboBox.setItemsLoader(() -> Objects.isNull(this.databaseComboBox.getServer()) ? Collections.emptyList() :
             Collections.singletonList(this.databaseComboBox.getServer().getFullAdminName()));
@@ -86,6 +91,10 @@ public abstract class SqlDatabaseResourcePanel<T extends IDatabase> implements A
                 .withAuthRequired(false)
                 .withHandler(ignore -> onTestConnectionButtonClicked());
         this.testConnectionButton.setAction(testConnectionAction);
+        final Action<Void> profileConnectionAction = new Action<Void>(Action.Id.of("user/$database.profile_connection"))
+                .withAuthRequired(false)
+                .withHandler(ignore -> AzureTaskManager.getInstance().runLater(this::onProfileConnectionButtonClicked));
+        this.profileConnectionButton.setAction(profileConnectionAction);
         final Action<Void> copyAction = new Action<Void>(Action.Id.of("user/$database.copy_connection_string"))
                 .withAuthRequired(false)
                 .withHandler(ignore -> onCopyButtonClicked());
@@ -115,11 +124,62 @@ public abstract class SqlDatabaseResourcePanel<T extends IDatabase> implements A
         });
     }
 
+    private void onProfileConnectionButtonClicked() {
+        if (Objects.isNull(this.jdbcUrl)) {
+            return;
+        }
+        final ProfileConnectionDialog dialog = new ProfileConnectionDialog(this.contentPanel);
+        if (!dialog.showAndGet()) {
+            return;
+        }
+        final JdbcUrl url = this.jdbcUrl;
+        final String username = usernameComboBox.getValue();
+        final String password = String.valueOf(inputPasswordField.getPassword());
+        profileConnectionButton.setEnabled(false);
+        final String title = String.format("Profiling connection to Database (%s)...", url.getServerHost());
+        AzureTaskManager.getInstance().runInBackground(title, true, () -> {
+            final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+            Optional.ofNullable(indicator).ifPresent(i -> i.setIndeterminate(false));
+            final DatabaseConnectionUtils.ProfileResult result = DatabaseConnectionUtils.profile(url, username, password, dialog.getPings(), dialog.getSampleQuery(), indicator);
+            AzureTaskManager.getInstance().runLater(() -> {
+                testConnectionActionPanel.setVisible(true);
+                testResultTextPane.setText(getProfileResultMessage(result));
+                testResultTextPane.setVisible(true);
+                testConnectionActionPanel.getIconLabel().setIcon(result.isConnected() ? AllIcons.General.InspectionsOK : AllIcons.General.BalloonError);
+                profileConnectionButton.setEnabled(Objects.nonNull(this.jdbcUrl));
+            });
+        });
+    }
+
+    private String getProfileResultMessage(DatabaseConnectionUtils.ProfileResult result) {
+        if (!result.isConnected()) {
+            return "Failed to connect with above parameters." + System.lineSeparator() + "Message: " + result.getMessage();
+        }
+        final StringBuilder messageBuilder = new StringBuilder();
+        messageBuilder.append(String.format("Connect time: %.1fms", result.getConnectTime())).append(System.lineSeparator());
+        messageBuilder.append(String.format("Round trip of %d pings: p50 %.1fms, p95 %.1fms, p99 %.1fms, min %.1fms, max %.1fms",
+            result.getPings(), result.getP50(), result.getP95(), result.getP99(), result.getMin(), result.getMax())).append(System.lineSeparator());
+        messageBuilder.append(String.format("Jitter: %.1fms", result.getJitter()));
+        if (result.getSampleQueryError() != null) {
+            messageBuilder.append(System.lineSeparator()).append("Sample query failed: ").append(result.getSampleQueryError());
+        } else if (result.getSampleQueryTime() >= 0) {
+            messageBuilder.append(System.lineSeparator())
+                .append(String.format("Sample query: %.1fms, %d rows", result.getSampleQueryTime(), result.getSampleQueryRows()));
+        }
+        if (result.getMessage() != null) {
+            messageBuilder.append(System.lineSeparator()).append(result.getMessage());
+        }
+        return messageBuilder.toString();
+    }
+
     private String getConnectResultMessage(DatabaseConnectionUtils.ConnectResult result) {
         final StringBuilder messageBuilder = new StringBuilder();
         if (result.isConnected()) {
             messageBuilder.append("Connected successfully.").append(System.lineSeparator());
             messageBuilder.append("Version: ").append(result.getServerVersion()).append(System.lineSeparator());
+            if (result.getConnectCost() != null) {
+                messageBuilder.append("Connect cost: ").append(result.getConnectCost()).append("ms").append(System.lineSeparator());
+            }
             messageBuilder.append("Ping cost: ").append(result.getPingCost()).append("ms");
         } else {
             messageBuilder.append("Failed to connect with above parameters.").append(System.lineSeparator());
@@ -166,6 +226,7 @@ public abstract class SqlDatabaseResourcePanel<T extends IDatabase> implements A
             this.jdbcUrl = null;
         }
         this.testConnectionButton.setEnabled(Objects.nonNull(this.jdbcUrl));
+        this.profileConnectionButton.setEnabled(Objects.nonNull(this.jdbcUrl));
     }
 
     private void onCopyButtonClicked() {
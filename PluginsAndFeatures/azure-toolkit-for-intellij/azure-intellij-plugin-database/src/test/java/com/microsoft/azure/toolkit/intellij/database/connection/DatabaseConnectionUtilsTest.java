@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.database.connection;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class DatabaseConnectionUtilsTest {
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        this.connection = DriverManager.getConnection("jdbc:h2:mem:profile;DB_CLOSE_DELAY=-1");
+        try (final Statement statement = this.connection.createStatement()) {
+            statement.execute("create table sample (id int primary key)");
+            statement.execute("insert into sample values (1), (2), (3)");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (final Statement statement = this.connection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        this.connection.close();
+    }
+
+    @Test
+    public void profilesPingsAndSampleQuery() throws SQLException {
+        final DatabaseConnectionUtils.ProfileResult result = DatabaseConnectionUtils.profile(this.connection, 0, 20, "select * from sample", null);
+
+        Assert.assertTrue(result.isConnected());
+        Assert.assertNull(result.getMessage());
+        Assert.assertEquals(20, result.getPings());
+        Assert.assertTrue(result.getMin() <= result.getP50());
+        Assert.assertTrue(result.getP50() <= result.getP95());
+        Assert.assertTrue(result.getP95() <= result.getP99());
+        Assert.assertTrue(result.getP99() <= result.getMax());
+        Assert.assertTrue(result.getSampleQueryTime() >= 0);
+        Assert.assertEquals(3, result.getSampleQueryRows());
+        Assert.assertNull(result.getSampleQueryError());
+    }
+
+    @Test
+    public void reportsFailedSampleQueryAlongWithPingStats() throws SQLException {
+        final DatabaseConnectionUtils.ProfileResult result = DatabaseConnectionUtils.profile(this.connection, 0, 5, "select * from missing", null);
+
+        Assert.assertTrue(result.isConnected());
+        Assert.assertEquals(5, result.getPings());
+        Assert.assertEquals(-1, result.getSampleQueryTime(), 0);
+        Assert.assertNotNull(result.getSampleQueryError());
+    }
+
+    @Test
+    public void stopsOnceCanceledWithPingsDoneSoFar() throws SQLException {
+        final List<Double> fractions = new ArrayList<>();
+        final ProgressIndicator indicator = indicator(fractions, 3);
+
+        final DatabaseConnectionUtils.ProfileResult result = DatabaseConnectionUtils.profile(this.connection, 0, 100, "select * from sample", indicator);
+
+        Assert.assertTrue(result.isConnected());
+        Assert.assertEquals(3, result.getPings());
+        Assert.assertEquals(List.of(0.0, 0.01, 0.02), fractions);
+        Assert.assertTrue(result.getMessage().contains("Canceled after 3 of 100 pings"));
+        Assert.assertEquals(-1, result.getSampleQueryTime(), 0);
+    }
+
+    @Test
+    public void computesPercentilesAndJitterOfRoundTrips() {
+        final long[] roundTrips = new long[100];
+        for (int i = 0; i < roundTrips.length; i++) {
+            // 100ms, 1ms, 99ms, 2ms... so that the order of round trips differs from the sorted one
+            final long millis = i % 2 == 0 ? 100 - i / 2 : i / 2 + 1;
+            roundTrips[i] = TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+        final DatabaseConnectionUtils.ProfileResult result = DatabaseConnectionUtils.ProfileResult.of(TimeUnit.MILLISECONDS.toNanos(7), roundTrips, -1, 0, null, null);
+
+        Assert.assertEquals(7, result.getConnectTime(), 0.001);
+        Assert.assertEquals(50, result.getP50(), 0.001);
+        Assert.assertEquals(95, result.getP95(), 0.001);
+        Assert.assertEquals(99, result.getP99(), 0.001);
+        Assert.assertEquals(1, result.getMin(), 0.001);
+        Assert.assertEquals(100, result.getMax(), 0.001);
+        // |100-1| + |1-99| + ... + |51-50|: 99 differences from 99 down to 1
+        Assert.assertEquals(50, result.getJitter(), 0.001);
+        Assert.assertEquals(-1, result.getSampleQueryTime(), 0);
+    }
+
+    /**
+     * an indicator that records the fractions set, and is canceled once {@code cancelAfter} fractions are set.
+     */
+    private static ProgressIndicator indicator(List<Double> fractions, int cancelAfter) {
+        return (ProgressIndicator) Proxy.newProxyInstance(ProgressIndicator.class.getClassLoader(), new Class[]{ProgressIndicator.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "setFraction":
+                    fractions.add((Double) args[0]);
+                    return null;
+                case "isCanceled":
+                    return fractions.size() >= cancelAfter;
+                default:
+                    final Class<?> type = method.getReturnType();
+                    if (type == boolean.class) {
+                        return false;
+                    } else if (type == double.class) {
+                        return 0.0;
+                    } else if (type == int.class) {
+                        return 0;
+                    }
+                    return null;
+            }
+        });
+    }
+}
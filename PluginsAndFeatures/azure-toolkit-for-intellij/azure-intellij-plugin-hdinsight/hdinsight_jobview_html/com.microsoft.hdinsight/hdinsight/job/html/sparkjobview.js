@@ -98,6 +98,7 @@ function onApplicationListRowSelected(event) {
         renderExecutors();
         renderTaskDetails();
         renderYarnLogs();
+        renderCacheStats();
         // setBasicInformation();
         // setAMcontainer();
         // setDiagnosticsLog();
@@ -364,6 +365,38 @@ function renderExecutors() {
     }, spark.appId);
 }
 
+function renderCacheStats() {
+    getMessageAsync('/applications/cache_stats', 'spark', function (s) {
+        var stats = JSON.parse(s);
+        var hitCount = 0;
+        var requestCount = 0;
+        var details = [];
+        Object.keys(stats).forEach(function (name) {
+            var stat = stats[name];
+            hitCount += stat.hitCount;
+            requestCount += stat.hitCount + stat.missCount;
+            details.push(name + ": " + stat.size + " cached, " + stat.hitCount + " hits, " + stat.missCount +
+                " misses, " + stat.averageLoadMillis.toFixed(1) + " ms average load, " + stat.evictionCount + " evictions");
+        });
+        var hitRate = requestCount === 0 ? 100 : hitCount * 100 / requestCount;
+        $('#cacheStats').text("Cache hit rate: " + hitRate.toFixed(0) + "%").attr('title', details.join('\n'));
+        renderHttpPoolStats(details);
+    });
+}
+
+function renderHttpPoolStats(cacheDetails) {
+    getMessageAsync('/applications/http_pool_stats', 'spark', function (s) {
+        var stats = JSON.parse(s);
+        var details = cacheDetails.slice();
+        Object.keys(stats).forEach(function (name) {
+            var stat = stats[name];
+            details.push("HTTP connections " + name + ": " + stat.leased + " leased, " + stat.available +
+                " available, " + stat.pending + " pending, " + stat.max + " max");
+        });
+        $('#cacheStats').attr('title', details.join('\n'));
+    });
+}
+
 function renderYarnLogs() {
     getMessageAsync('/apps/logs', 'yarn', function (s) {
         spark.logs = JSON.parse(s);
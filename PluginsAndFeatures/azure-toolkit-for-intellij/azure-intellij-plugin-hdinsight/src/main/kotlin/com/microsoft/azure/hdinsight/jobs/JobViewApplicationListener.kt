@@ -24,6 +24,7 @@ package com.microsoft.azure.hdinsight.jobs
 
 import com.intellij.ide.AppLifecycleListener
 import com.microsoft.azure.hdinsight.spark.jobs.JobViewHttpServer
+import com.microsoft.azure.hdinsight.spark.jobs.YarnContainerLogFetcher
 
 class JobViewApplicationListener: AppLifecycleListener {
     override fun appStarted() {
@@ -32,5 +33,6 @@ class JobViewApplicationListener: AppLifecycleListener {
 
     override fun appWillBeClosed(isRestart: Boolean) {
         JobViewHttpServer.close()
+        YarnContainerLogFetcher.closeAll()
     }
 }
\ No newline at end of file
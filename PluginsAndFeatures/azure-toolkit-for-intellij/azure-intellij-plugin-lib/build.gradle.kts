@@ -44,6 +44,7 @@ dependencies {
         exclude(group = "pull-parser", module = "pull-parser")
         exclude(group = "net.java.dev.msv", module = "xsdlib")
     }
+    testImplementation("junit:junit:4.13.2")
 }
 
 configurations {
@@ -9,10 +9,16 @@ import com.intellij.openapi.project.Project;
 import com.intellij.ui.components.fields.ExpandableTextField;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.microsoft.azure.toolkit.intellij.common.AzureActionButton;
 import com.microsoft.azure.toolkit.intellij.common.RunProcessHandler;
+import com.microsoft.azure.toolkit.intellij.common.component.messaging.BatchedConsoleRenderer;
+import com.microsoft.azure.toolkit.intellij.common.component.messaging.LoadTestDialog;
+import com.microsoft.azure.toolkit.intellij.common.component.messaging.MessageLoadGenerator;
+import com.microsoft.azure.toolkit.intellij.common.component.messaging.MessageTransport;
 import com.microsoft.azure.toolkit.intellij.common.messager.IntellijAzureMessager;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessage;
 import com.microsoft.azure.toolkit.lib.common.operation.OperationContext;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
@@ -26,24 +32,44 @@ import reactor.core.scheduler.Schedulers;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.*;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class SenderReceiverPanel extends JPanel {
+    private static final String GENERATE_LOAD = "Generate Load...";
+    private static final String STOP_LOAD_TEST = "Stop Generating";
+    // messages sent at the same time across all the batches in flight
+    private static final int MAX_PARALLEL_SENDS = 64;
+
     @Getter
     private JPanel contentPanel;
     private AzureActionButton<Void> sendMessageBtn;
+    private JButton loadTestBtn;
     private ExpandableTextField messageInput;
     private JPanel listenPanel;
     private JPanel sendPanel;
     private final ISenderReceiver instance;
     private final ConsoleView consoleView;
+    private final BatchedConsoleRenderer renderer;
+    private final Project project;
     @Nullable
     private RunProcessHandler listenProcessHandler;
     private AzureEventBus.EventListener listener;
+    @Nullable
+    private volatile MessageLoadGenerator generator;
 
     public SenderReceiverPanel(Project project, ISenderReceiver ServiceBusInstance) {
         super();
+        this.project = project;
         this.consoleView = new ConsoleViewImpl(project, true);
+        this.renderer = new BatchedConsoleRenderer(this.consoleView);
         this.instance = ServiceBusInstance;
         $$$setupUI$$$();
         this.init();
@@ -76,6 +102,8 @@ public class SenderReceiverPanel extends JPanel {
 
     public void dispose() {
         AzureEventBus.off("resource.status_changed.resource", listener);
+        Optional.ofNullable(this.generator).ifPresent(MessageLoadGenerator::stop);
+        this.renderer.dispose();
     }
 
     private void init() {
@@ -86,6 +114,7 @@ public class SenderReceiverPanel extends JPanel {
                 new GridConstraints(0, 0, 1, 1, 0, GridConstraints.ALIGN_FILL,
                         3, 3, null, null, null, 0));
         this.sendMessageBtn.setEnabled(instance.isSendEnabled());
+        this.loadTestBtn.setEnabled(instance.isSendEnabled());
         this.initListeners();
     }
 
@@ -95,10 +124,12 @@ public class SenderReceiverPanel extends JPanel {
             final Object source = azureEvent.getSource();
             if (source instanceof ISenderReceiver && ((ISenderReceiver) source).getId().equals(this.instance.getId())) {
                 this.sendMessageBtn.setEnabled(instance.isSendEnabled());
+                this.loadTestBtn.setEnabled(instance.isSendEnabled() || Objects.nonNull(this.generator));
             }
         });
         this.sendMessageBtn.addActionListener(e -> sendMessage());
         this.messageInput.addActionListener(e -> sendMessage());
+        this.loadTestBtn.addActionListener(e -> toggleLoadTest());
         AzureEventBus.on("resource.status_changed.resource", listener);
     }
 
@@ -106,13 +137,89 @@ public class SenderReceiverPanel extends JPanel {
         final String message = messageInput.getText();
         messageInput.setText(StringUtils.EMPTY);
         AzureTaskManager.getInstance().runInBackground("send message",() -> {
-            OperationContext.current().setMessager(new ConsoleMessager(consoleView));
+            OperationContext.current().setMessager(new ConsoleMessager(renderer));
             instance.sendMessage(message);
         });
     }
 
+    private void toggleLoadTest() {
+        final MessageLoadGenerator current = this.generator;
+        if (Objects.nonNull(current)) {
+            current.stop();
+            return;
+        }
+        final LoadTestDialog dialog = new LoadTestDialog(project, messageInput.getText());
+        if (!dialog.showAndGet()) {
+            return;
+        }
+        final LoadMessager messager = new LoadMessager(renderer);
+        final MessageLoadGenerator.Config config = dialog.getConfig();
+        final ExecutorService senders = AppExecutorUtil.createBoundedApplicationPoolExecutor("Azure Message Load Test",
+            (int) Math.min(MAX_PARALLEL_SENDS, Math.max(1L, (long) config.getConcurrency() * config.getBatchSize())));
+        final MessageLoadGenerator generator = new MessageLoadGenerator(batch -> sendBatch(batch, messager, senders), config);
+        this.generator = generator;
+        this.loadTestBtn.setText(STOP_LOAD_TEST);
+        AzureTaskManager.getInstance().runInBackground("generate load", () -> {
+            renderer.print(String.format("Start generating load...%n"), ConsoleViewContentType.SYSTEM_OUTPUT);
+            final ScheduledFuture<?> reporter = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                () -> renderer.print(generator.getStats() + StringUtils.LF, ConsoleViewContentType.SYSTEM_OUTPUT), 1, 1, TimeUnit.SECONDS);
+            try {
+                // messages of sending every message are counted rather than printed
+                generator.run(r -> AzureTaskManager.getInstance().runOnPooledThread(() -> {
+                    OperationContext.current().setMessager(messager);
+                    r.run();
+                }));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                reporter.cancel(false);
+                senders.shutdown();
+                renderer.print("Load generation finished, " + generator.getStats() + StringUtils.LF, ConsoleViewContentType.USER_INPUT);
+                Optional.ofNullable(generator.getLastError()).ifPresent(e ->
+                    renderer.print("Last error: " + e.getMessage() + StringUtils.LF, ConsoleViewContentType.ERROR_OUTPUT));
+                this.generator = null;
+                AzureTaskManager.getInstance().runLater(() -> {
+                    this.loadTestBtn.setText(GENERATE_LOAD);
+                    this.loadTestBtn.setEnabled(instance.isSendEnabled());
+                });
+            }
+        });
+    }
+
+    /**
+     * sends messages of the batch in parallel on {@code senders}, as {@link ISenderReceiver} sends only one at a time.
+     * failures are reported through the messager rather than thrown, so they are collected from it on the sending thread,
+     * to count each message either sent or failed.
+     */
+    private void sendBatch(@Nonnull List<String> batch, @Nonnull LoadMessager messager, @Nonnull ExecutorService senders)
+        throws MessageTransport.PartialFailureException {
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicReference<Throwable> lastError = new AtomicReference<>();
+        final CompletableFuture<?>[] sends = batch.stream().map(message -> CompletableFuture.runAsync(() -> {
+            OperationContext.current().setMessager(messager);
+            messager.clearError();
+            try {
+                instance.sendMessage(message);
+            } catch (final RuntimeException e) {
+                messager.clearError();
+                failed.incrementAndGet();
+                lastError.set(e);
+                return;
+            }
+            final String error = messager.clearError();
+            if (Objects.nonNull(error)) {
+                failed.incrementAndGet();
+                lastError.set(new AzureToolkitRuntimeException(error));
+            }
+        }, senders)).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sends).join();
+        if (failed.get() > 0) {
+            throw new MessageTransport.PartialFailureException(failed.get(), lastError.get());
+        }
+    }
+
     private void execute() {
-        final ConsoleMessager messager = new ConsoleMessager(consoleView);
+        final ConsoleMessager messager = new ConsoleMessager(renderer);
         OperationContext.current().setMessager(messager);
         instance.startReceivingMessage();
     }
@@ -126,9 +233,9 @@ public class SenderReceiverPanel extends JPanel {
     }
 
     private static class ConsoleMessager extends IntellijAzureMessager {
-        private final ConsoleView view;
+        private final BatchedConsoleRenderer view;
 
-        public ConsoleMessager(ConsoleView view) {
+        public ConsoleMessager(BatchedConsoleRenderer view) {
             super();
             this.view = view;
         }
@@ -154,4 +261,36 @@ public class SenderReceiverPanel extends JPanel {
         }
 
     }
+
+    private static class LoadMessager extends IntellijAzureMessager {
+        private final BatchedConsoleRenderer view;
+        // error reported while sending the current message, per sender thread
+        private final ThreadLocal<String> error = new ThreadLocal<>();
+
+        public LoadMessager(BatchedConsoleRenderer view) {
+            super();
+            this.view = view;
+        }
+
+        @Override
+        public boolean show(IAzureMessage msg) {
+            final IAzureMessage raw = msg.getRawMessage();
+            if (raw.getType() == IAzureMessage.Type.ERROR) {
+                final String message = raw.getMessage().toString();
+                this.error.set(message);
+                view.print(StringUtils.appendIfMissing(message, StringUtils.LF), ConsoleViewContentType.ERROR_OUTPUT);
+            }
+            return true;
+        }
+
+        /**
+         * @return the error reported on this thread since last cleared, null if none
+         */
+        @Nullable
+        String clearError() {
+            final String message = this.error.get();
+            this.error.remove();
+            return message;
+        }
+    }
 }
@@ -26,6 +26,7 @@ import javax.annotation.Nullable;
 import javax.swing.*;
 import javax.swing.tree.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -62,6 +63,7 @@ public class Tree extends SimpleTree implements DataProvider {
         TreeUtils.installExpandListener(this);
         TreeUtils.installSelectionListener(this);
         TreeUtils.installMouseListener(this);
+        TreeUtils.installLoadMoreListener(this);
     }
 
     @Override
@@ -157,6 +159,7 @@ public class Tree extends SimpleTree implements DataProvider {
                     final DefaultTreeModel model = (DefaultTreeModel) this.tree.getModel();
                     if (incremental.length > 0 && incremental[0] && Objects.nonNull(model)) {
                         this.removeLoadMoreNode();
+                        this.removeLoadPreviousNode();
                     } else {
                         this.removeAllChildren();
                     }
@@ -186,6 +189,7 @@ public class Tree extends SimpleTree implements DataProvider {
         private void setChildren(List<Node<?>> children) {
             AzureTaskManager.getInstance().runLater(() -> {
                 this.removeAllChildren();
+                this.addLoadPreviousNode();
                 children.stream().map(n -> new TreeNode<>(n, this.tree)).forEach(this::add);
                 this.addLoadMoreNode();
                 this.loaded = true;
@@ -213,6 +217,7 @@ public class Tree extends SimpleTree implements DataProvider {
                 }
 
                 this.removeLoadingNode();
+                this.addLoadPreviousNode();
                 this.addLoadMoreNode();
                 this.doUpdateChildren();
                 this.loaded = true;
@@ -261,6 +266,20 @@ public class Tree extends SimpleTree implements DataProvider {
             });
         }
 
+        private void addLoadPreviousNode() {
+            if (this.inner.hasPreviousChildren()) {
+                this.insert(new LoadPreviousNode(), 0);
+            }
+        }
+
+        private void removeLoadPreviousNode() {
+            this.children().asIterator().forEachRemaining(c -> {
+                if (c instanceof LoadPreviousNode) {
+                    ((LoadPreviousNode) c).removeFromParent();
+                }
+            });
+        }
+
         @Override
         public String toString() {
             return this.inner.getView().getLabel();
@@ -273,6 +292,10 @@ public class Tree extends SimpleTree implements DataProvider {
         public void customizeCellRenderer(@Nonnull JTree tree, Object value, boolean selected, boolean expanded, boolean leaf, int row, boolean hasFocus) {
             if (value instanceof TreeNode node) {
                 TreeUtils.renderMyTreeNode(tree, node, selected, this);
+            } else if (value instanceof LoadMoreNode node) {
+                TreeUtils.renderLoadModeNode(tree, node, selected, this);
+            } else if (value instanceof LoadPreviousNode node) {
+                TreeUtils.renderLoadPreviousNode(tree, node, selected, this);
             } else {
                 super.customizeCellRenderer(tree, value, selected, expanded, leaf, row, hasFocus);
             }
@@ -282,6 +305,7 @@ public class Tree extends SimpleTree implements DataProvider {
 
     public static class LoadMoreNode extends DefaultMutableTreeNode {
         public static final String LABEL = "load more...";
+        private final AtomicBoolean autoLoading = new AtomicBoolean(false);
 
         public LoadMoreNode() {
             super(LABEL);
@@ -290,5 +314,34 @@ public class Tree extends SimpleTree implements DataProvider {
         public void load() {
             Optional.ofNullable(this.getParent()).map(p -> (TreeNode<?>) p).map(p -> p.inner).ifPresent(Node::loadMoreChildren);
         }
+
+        /**
+         * load the next page once this node is visible (see {@link TreeUtils#installLoadMoreListener}), if the children
+         * are already listed but not built yet. loading more from the source still requires double click.
+         */
+        public void loadIfPending() {
+            final Node<?> parent = Optional.ofNullable(this.getParent()).map(p -> ((TreeNode<?>) p).inner).orElse(null);
+            if (Objects.nonNull(parent) && parent.hasPendingChildren() && this.autoLoading.compareAndSet(false, true)) {
+                AzureTaskManager.getInstance().runOnPooledThread(parent::loadMoreChildren);
+            }
+        }
+    }
+
+    /**
+     * placeholder of the children discarded beyond the max children in memory, see {@link Node#loadPreviousChildren()}.
+     */
+    public static class LoadPreviousNode extends DefaultMutableTreeNode {
+        public static final String LABEL = "previous...";
+
+        public LoadPreviousNode() {
+            super(LABEL);
+        }
+
+        public void load() {
+            final Node<?> parent = Optional.ofNullable(this.getParent()).map(p -> ((TreeNode<?>) p).inner).orElse(null);
+            if (Objects.nonNull(parent)) {
+                AzureTaskManager.getInstance().runOnPooledThread(parent::loadPreviousChildren);
+            }
+        }
     }
 }
@@ -42,12 +42,15 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.*;
 import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeExpansionListener;
 import javax.swing.event.TreeModelEvent;
 import javax.swing.event.TreeModelListener;
 import javax.swing.event.TreeWillExpandListener;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreePath;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
@@ -112,6 +115,59 @@ public class TreeUtils {
         tree.addTreeWillExpandListener(listener);
     }
 
+    /**
+     * load the next page of listed children once a "more..." row becomes visible, i.e. after expanding, scrolling or
+     * updating the tree. It's not done in the cell renderer to avoid side effects while painting.
+     */
+    public static void installLoadMoreListener(@Nonnull JTree tree) {
+        final Runnable loadVisible = () -> AzureTaskManager.getInstance().runLater(() -> loadVisiblePendingChildren(tree));
+        tree.addTreeExpansionListener(new TreeExpansionListener() {
+            @Override
+            public void treeExpanded(TreeExpansionEvent event) {
+                loadVisible.run();
+            }
+
+            @Override
+            public void treeCollapsed(TreeExpansionEvent event) {
+            }
+        });
+        tree.getModel().addTreeModelListener(new TreeModelAdapter() {
+            @Override
+            protected void process(@NotNull TreeModelEvent event, @NotNull EventType type) {
+                if (type == EventType.StructureChanged || type == EventType.NodesInserted) {
+                    loadVisible.run();
+                }
+            }
+        });
+        // the tree is moved inside its viewport when scrolled.
+        tree.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentMoved(ComponentEvent e) {
+                loadVisible.run();
+            }
+
+            @Override
+            public void componentResized(ComponentEvent e) {
+                loadVisible.run();
+            }
+        });
+    }
+
+    private static void loadVisiblePendingChildren(@Nonnull JTree tree) {
+        final Rectangle visible = tree.getVisibleRect();
+        if (visible.isEmpty() || tree.getRowCount() == 0) {
+            return;
+        }
+        final int first = tree.getClosestRowForLocation(visible.x, visible.y);
+        final int last = tree.getClosestRowForLocation(visible.x, visible.y + visible.height);
+        for (int row = Math.max(0, first); row <= last; row++) {
+            final TreePath path = tree.getPathForRow(row);
+            if (Objects.nonNull(path) && path.getLastPathComponent() instanceof Tree.LoadMoreNode node) {
+                node.loadIfPending();
+            }
+        }
+    }
+
     public static void installMouseListener(@Nonnull JTree tree) {
         tree.addMouseMotionListener(new MouseMotionAdapter() {
             @Override
@@ -132,6 +188,8 @@ public class TreeUtils {
                     clickNode(e, node);
                 } else if (n instanceof Tree.LoadMoreNode && SwingUtilities.isLeftMouseButton(e) && e.getClickCount() == 2) {
                     ((Tree.LoadMoreNode) n).load();
+                } else if (n instanceof Tree.LoadPreviousNode && SwingUtilities.isLeftMouseButton(e) && e.getClickCount() == 2) {
+                    ((Tree.LoadPreviousNode) n).load();
                 }
                 super.mouseClicked(e);
             }
@@ -225,6 +283,12 @@ public class TreeUtils {
         renderer.setToolTipText("double click to load more.");
     }
 
+    public static void renderLoadPreviousNode(JTree tree, @Nonnull Tree.LoadPreviousNode node, boolean selected, @Nonnull SimpleColoredComponent renderer) {
+        final SimpleTextAttributes attributes = SimpleTextAttributes.GRAY_ATTRIBUTES;
+        renderer.append("previous...", attributes);
+        renderer.setToolTipText("double click to load previous.");
+    }
+
     public static void renderActionNode(JTree tree, @Nonnull Tree.TreeNode<?> node, boolean selected, @Nonnull SimpleColoredComponent renderer) {
         final ActionNode<?> inner = (ActionNode<?>) node.getInner();
         final SimpleTextAttributes attributes = SimpleTextAttributes.LINK_ATTRIBUTES;
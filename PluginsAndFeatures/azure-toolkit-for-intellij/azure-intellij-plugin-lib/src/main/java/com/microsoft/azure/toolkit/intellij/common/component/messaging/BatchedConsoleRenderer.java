@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.component.messaging;
+
+import com.intellij.execution.ui.ConsoleView;
+import com.intellij.execution.ui.ConsoleViewContentType;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints text to a console in batches at a fixed interval instead of one by one, and keeps at most
+ * {@link #MAX_PENDING} pending texts (the oldest ones are skipped), so that the console keeps responsive even if
+ * thousands of messages are received per second.
+ */
+public class BatchedConsoleRenderer {
+    static final int MAX_PENDING = 5000;
+    private static final long FLUSH_INTERVAL_MS = 200;
+
+    @Nonnull
+    private final ConsoleView view;
+    private final Deque<Text> pending = new ArrayDeque<>();
+    private long skipped;
+    private final ScheduledFuture<?> flusher;
+
+    public BatchedConsoleRenderer(@Nonnull ConsoleView view) {
+        this.view = view;
+        this.flusher = AppExecutorUtil.getAppScheduledExecutorService()
+            .scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void print(@Nonnull String text, @Nonnull ConsoleViewContentType type) {
+        synchronized (this.pending) {
+            this.pending.addLast(new Text(text, type));
+            if (this.pending.size() > MAX_PENDING) {
+                this.pending.removeFirst();
+                this.skipped++;
+            }
+        }
+    }
+
+    public void flush() {
+        final List<Text> texts;
+        final long skipped;
+        synchronized (this.pending) {
+            if (this.pending.isEmpty()) {
+                return;
+            }
+            texts = new ArrayList<>(this.pending);
+            skipped = this.skipped;
+            this.pending.clear();
+            this.skipped = 0;
+        }
+        if (skipped > 0) {
+            this.view.print(String.format("... %d messages skipped to keep up ...%n", skipped), ConsoleViewContentType.LOG_WARNING_OUTPUT);
+        }
+        // consecutive texts of the same type are printed at once
+        final StringBuilder chunk = new StringBuilder();
+        ConsoleViewContentType type = texts.get(0).type;
+        for (final Text text : texts) {
+            if (text.type != type) {
+                this.view.print(chunk.toString(), type);
+                chunk.setLength(0);
+                type = text.type;
+            }
+            chunk.append(text.text);
+        }
+        this.view.print(chunk.toString(), type);
+    }
+
+    public void dispose() {
+        this.flusher.cancel(false);
+        this.flush();
+    }
+
+    @RequiredArgsConstructor
+    private static class Text {
+        private final String text;
+        private final ConsoleViewContentType type;
+    }
+}
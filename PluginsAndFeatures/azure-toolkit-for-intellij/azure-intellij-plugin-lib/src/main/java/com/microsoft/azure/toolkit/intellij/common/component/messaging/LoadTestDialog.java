@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.component.messaging;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.ValidationInfo;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.fields.ExpandableTextField;
+import com.intellij.util.ui.FormBuilder;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.swing.*;
+
+/**
+ * Asks for how to generate load: number of messages or duration, batch size, concurrency, target rate and payload.
+ */
+public class LoadTestDialog extends DialogWrapper {
+    private final JBIntSpinner countInput = new JBIntSpinner(1000, 1, Integer.MAX_VALUE, 100);
+    private final JBIntSpinner durationInput = new JBIntSpinner(0, 0, 24 * 3600, 10);
+    private final JBIntSpinner batchSizeInput = new JBIntSpinner(100, 1, 10000, 10);
+    private final JBIntSpinner concurrencyInput = new JBIntSpinner(4, 1, 256, 1);
+    private final JBIntSpinner rateInput = new JBIntSpinner(0, 0, Integer.MAX_VALUE, 100);
+    private final ExpandableTextField payloadInput = new ExpandableTextField();
+
+    public LoadTestDialog(@Nullable Project project, @Nullable String payload) {
+        super(project, true);
+        this.payloadInput.setText(StringUtils.isBlank(payload) ? MessageLoadGenerator.Config.builder().build().getPayloadTemplate() : payload);
+        setTitle("Generate Load");
+        setOKButtonText("Start");
+        init();
+    }
+
+    @Nonnull
+    @Override
+    protected JComponent createCenterPanel() {
+        return FormBuilder.createFormBuilder()
+            .addLabeledComponent("Messages:", this.countInput)
+            .addLabeledComponent("Duration (seconds, 0 to send all messages):", this.durationInput)
+            .addLabeledComponent("Batch size:", this.batchSizeInput)
+            .addLabeledComponent("Concurrency:", this.concurrencyInput)
+            .addLabeledComponent("Target rate (messages/second, 0 for unlimited):", this.rateInput)
+            .addLabeledComponent("Payload template:", this.payloadInput)
+            .addTooltip("{index}, {uuid} and {timestamp} are replaced for every message.")
+            .getPanel();
+    }
+
+    @Nullable
+    @Override
+    protected ValidationInfo doValidate() {
+        if (StringUtils.isEmpty(this.payloadInput.getText())) {
+            return new ValidationInfo("Payload template is required.", this.payloadInput);
+        }
+        return super.doValidate();
+    }
+
+    @Nonnull
+    public MessageLoadGenerator.Config getConfig() {
+        return MessageLoadGenerator.Config.builder()
+            .count(this.countInput.getNumber())
+            .duration(this.durationInput.getNumber())
+            .batchSize(this.batchSizeInput.getNumber())
+            .concurrency(this.concurrencyInput.getNumber())
+            .rate(this.rateInput.getNumber())
+            .payloadTemplate(this.payloadInput.getText())
+            .build();
+    }
+}
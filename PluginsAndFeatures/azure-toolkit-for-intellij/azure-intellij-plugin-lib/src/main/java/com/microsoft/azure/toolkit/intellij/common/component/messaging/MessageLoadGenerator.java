@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.component.messaging;
+
+import com.google.common.util.concurrent.RateLimiter;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends messages in batches through a {@link MessageTransport} with a number of concurrent senders, until the given
+ * number of messages are sent or the given duration elapses, optionally throttled to a target rate. Throughput, error
+ * count and percentiles of the time to send a whole batch can be read at any time while running.
+ */
+@Slf4j
+public class MessageLoadGenerator {
+    static final int MAX_LATENCY_SAMPLES = 100_000;
+
+    @Nonnull
+    private final MessageTransport transport;
+    @Getter
+    @Nonnull
+    private final Config config;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    // reservoir of batch send latencies in nanoseconds, so that memory is bounded however long it runs.
+    private final long[] latencies = new long[MAX_LATENCY_SAMPLES];
+    private long latencyCount;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile boolean stopped;
+    @Getter
+    @Nullable
+    private volatile Throwable lastError;
+
+    public MessageLoadGenerator(@Nonnull MessageTransport transport, @Nonnull Config config) {
+        this.transport = transport;
+        this.config = config;
+    }
+
+    /**
+     * sends messages with {@code config.concurrency} senders running on {@code executor}, returns once finished or
+     * stopped.
+     */
+    public void run(@Nonnull Executor executor) throws InterruptedException {
+        final RateLimiter limiter = this.config.rate > 0 ? RateLimiter.create(this.config.rate) : null;
+        final int concurrency = Math.max(1, this.config.concurrency);
+        final CountDownLatch done = new CountDownLatch(concurrency);
+        this.startNanos = System.nanoTime();
+        final long deadline = this.config.duration > 0 ? this.startNanos + TimeUnit.SECONDS.toNanos(this.config.duration) : Long.MAX_VALUE;
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                try {
+                    this.sendBatches(limiter, deadline);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        try {
+            done.await();
+        } finally {
+            this.stopped = true;
+            this.endNanos = System.nanoTime();
+        }
+    }
+
+    public void stop() {
+        this.stopped = true;
+    }
+
+    public boolean isStopped() {
+        return this.stopped;
+    }
+
+    private void sendBatches(@Nullable RateLimiter limiter, long deadline) {
+        final int batchSize = Math.max(1, this.config.batchSize);
+        final boolean timed = this.config.duration > 0;
+        while (!this.stopped && System.nanoTime() < deadline) {
+            final long from = this.next.getAndAdd(batchSize);
+            final int size = timed ? batchSize : (int) Math.min(batchSize, this.config.count - from);
+            if (size <= 0) {
+                return;
+            }
+            if (limiter != null) {
+                limiter.acquire(size);
+            }
+            final List<String> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(this.render(from + i));
+            }
+            final long start = System.nanoTime();
+            try {
+                this.transport.send(batch);
+                this.sent.addAndGet(size);
+                this.recordLatency(System.nanoTime() - start);
+            } catch (final MessageTransport.PartialFailureException e) {
+                log.debug("failed to send {} of a batch of {} messages", e.getFailed(), size, e);
+                this.sent.addAndGet(size - e.getFailed());
+                this.errors.addAndGet(e.getFailed());
+                this.lastError = Optional.ofNullable(e.getCause()).orElse(e);
+            } catch (final Exception e) {
+                log.debug("failed to send a batch of {} messages", size, e);
+                this.errors.addAndGet(size);
+                this.lastError = e;
+            }
+        }
+    }
+
+    /**
+     * renders the payload template of the message at {@code index}, replacing {@code {index}}, {@code {uuid}} and
+     * {@code {timestamp}}.
+     */
+    @Nonnull
+    String render(long index) {
+        String payload = this.config.payloadTemplate;
+        if (payload.indexOf('{') < 0) {
+            return payload;
+        }
+        payload = payload.replace("{index}", String.valueOf(index));
+        if (payload.contains("{uuid}")) {
+            payload = payload.replace("{uuid}", UUID.randomUUID().toString());
+        }
+        return payload.replace("{timestamp}", String.valueOf(System.currentTimeMillis()));
+    }
+
+    synchronized void recordLatency(long nanos) {
+        final long count = this.latencyCount++;
+        if (count < MAX_LATENCY_SAMPLES) {
+            this.latencies[(int) count] = nanos;
+        } else {
+            final long slot = ThreadLocalRandom.current().nextLong(count + 1);
+            if (slot < MAX_LATENCY_SAMPLES) {
+                this.latencies[(int) slot] = nanos;
+            }
+        }
+    }
+
+    /**
+     * @return the sampled batch send latencies in nanoseconds, sorted
+     */
+    @Nonnull
+    long[] getLatencySamples() {
+        final long[] samples;
+        synchronized (this) {
+            samples = Arrays.copyOf(this.latencies, (int) Math.min(this.latencyCount, MAX_LATENCY_SAMPLES));
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    @Nonnull
+    public Stats getStats() {
+        final long[] samples = this.getLatencySamples();
+        final long now = this.stopped && this.endNanos > 0 ? this.endNanos : System.nanoTime();
+        final long elapsed = this.startNanos == 0 ? 0 : now - this.startNanos;
+        return new Stats(this.sent.get(), this.errors.get(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+            percentile(samples, 50), percentile(samples, 90), percentile(samples, 99),
+            samples.length == 0 ? 0 : samples[samples.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(@Nonnull long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    @Getter
+    @Builder
+    public static class Config {
+        /**
+         * number of messages to send, ignored if {@link #duration} is positive.
+         */
+        @Builder.Default
+        private final long count = 1000;
+        /**
+         * seconds to keep sending, 0 to send {@link #count} messages.
+         */
+        private final int duration;
+        @Builder.Default
+        private final int batchSize = 100;
+        @Builder.Default
+        private final int concurrency = 4;
+        /**
+         * target messages per second, 0 for unlimited.
+         */
+        private final int rate;
+        @Nonnull
+        @Builder.Default
+        private final String payloadTemplate = "{\"index\": {index}, \"id\": \"{uuid}\", \"timestamp\": {timestamp}}";
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final long sent;
+        private final long errors;
+        private final long elapsedMillis;
+        /**
+         * time percentiles of sending a whole batch, in milliseconds
+         */
+        private final double p50;
+        private final double p90;
+        private final double p99;
+        private final double max;
+
+        public double getThroughput() {
+            return this.elapsedMillis == 0 ? 0 : this.sent * 1000.0 / this.elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("sent: %d, errors: %d, elapsed: %.1fs, throughput: %.1f msg/s, time per batch p50: %.1fms, p90: %.1fms, p99: %.1fms, max: %.1fms",
+                this.sent, this.errors, this.elapsedMillis / 1000.0, this.getThroughput(), this.p50, this.p90, this.p99, this.max);
+        }
+    }
+}
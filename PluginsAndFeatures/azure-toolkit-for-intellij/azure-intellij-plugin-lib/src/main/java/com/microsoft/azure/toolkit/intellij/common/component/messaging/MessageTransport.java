@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.component.messaging;
+
+import lombok.Getter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Sends messages to a Service Bus queue/topic, an event hub or an in-process stand-in of them.
+ */
+@FunctionalInterface
+public interface MessageTransport {
+    /**
+     * sends a batch of messages, returns once all of them are sent.
+     *
+     * @throws PartialFailureException if some messages of the batch failed to send while the others are sent
+     * @throws Exception               if failed to send the batch, none of the messages is taken as sent
+     */
+    void send(@Nonnull List<String> batch) throws Exception;
+
+    @Getter
+    class PartialFailureException extends Exception {
+        /**
+         * number of messages of the batch failed to send
+         */
+        private final int failed;
+
+        public PartialFailureException(int failed, @Nullable Throwable cause) {
+            super(String.format("failed to send %d messages of the batch", failed), cause);
+            this.failed = failed;
+        }
+    }
+}
@@ -3,32 +3,108 @@ package com.microsoft.azure.toolkit.intellij.common.streaminglog;
 import com.intellij.execution.impl.ConsoleViewImpl;
 import com.intellij.execution.ui.ConsoleViewContentType;
 import com.intellij.openapi.project.Project;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.UIUtil;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import lombok.Getter;
+import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
 import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.Flux;
 import reactor.core.scheduler.Schedulers;
 
+import javax.swing.*;
+import java.awt.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static com.intellij.execution.ui.ConsoleViewContentType.NORMAL_OUTPUT;
 import static com.intellij.execution.ui.ConsoleViewContentType.SYSTEM_OUTPUT;
 import static com.microsoft.azure.toolkit.intellij.common.AzureBundle.message;
 
 public class StreamingLogsConsoleView extends ConsoleViewImpl {
     private static final String SEPARATOR = System.getProperty("line.separator");
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(50);
+    public static final int DEFAULT_MAX_BATCH_LINES = 1000;
+    public static final int DEFAULT_MAX_PENDING_BATCHES = 20;
+    public static final int DEFAULT_SAMPLE_RATE = 10;
+
+    /**
+     * what to do with the log lines when the console can not keep up with the stream
+     */
+    public enum OverflowPolicy {
+        /**
+         * drop the oldest pending batches
+         */
+        DROP_OLDEST,
+        /**
+         * drop the newest batches until the pending ones are printed
+         */
+        DROP_LATEST,
+        /**
+         * drop the oldest pending batches, and keep only one of every `sampleRate` lines of full batches
+         */
+        SAMPLE
+    }
+
     private boolean isDisposed;
     private Disposable subscription;
 
+    @Getter
+    @Setter
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+    @Getter
+    @Setter
+    private Duration flushInterval = DEFAULT_FLUSH_INTERVAL;
+    @Getter
+    @Setter
+    private int maxBatchLines = DEFAULT_MAX_BATCH_LINES;
+    @Getter
+    @Setter
+    private int maxPendingBatches = DEFAULT_MAX_PENDING_BATCHES;
+    @Getter
+    @Setter
+    private int sampleRate = DEFAULT_SAMPLE_RATE;
+
+    private final AtomicLong receivedLines = new AtomicLong();
+    private final AtomicLong droppedLines = new AtomicLong();
+    private long lastReceivedLines = 0;
+    private final JBLabel statsLabel = new JBLabel();
+    private final Timer statsTimer = new Timer(1000, e -> this.updateStats());
+
     public StreamingLogsConsoleView(@NotNull Project project) {
         super(project, true);
         this.isDisposed = false;
         this.setUpdateFoldingsEnabled(false);
+        this.statsLabel.setFontColor(UIUtil.FontColor.BRIGHTER);
+        this.statsLabel.setBorder(JBUI.Borders.empty(2, 6));
+        this.statsLabel.setVisible(false);
+        this.add(this.statsLabel, BorderLayout.NORTH);
     }
 
     public void startStreamingLog(Flux<String> logStreaming) {
         if (!isActive()) {
             printlnToConsole(message("app.logStreaming.hint.connect"), SYSTEM_OUTPUT);
+            this.resetStats();
             subscription = logStreaming.subscribeOn(Schedulers.boundedElastic())
+                    .doOnNext(log -> receivedLines.incrementAndGet())
+                    .bufferTimeout(maxBatchLines, flushInterval)
+                    .onBackpressureBuffer(maxPendingBatches, batch -> droppedLines.addAndGet(batch.size()), getBufferOverflowStrategy())
+                    .map(this::sampleIfOverloaded)
+                    // print one batch at a time off the stream thread. the console keeps only the latest output within
+                    // its cycle buffer (`idea.cycle.buffer.size`), so no lines need to be retained or trimmed here.
+                    .publishOn(Schedulers.boundedElastic(), 1)
                     .doAfterTerminate(() -> printlnToConsole(message("appService.logStreaming.hint.disconnected"), SYSTEM_OUTPUT))
-                    .subscribe((log) -> printlnToConsole(log, NORMAL_OUTPUT));
+                    .doFinally(ignore -> AzureTaskManager.getInstance().runLater(this.statsTimer::stop))
+                    .subscribe(this::printBatch);
+            AzureTaskManager.getInstance().runLater(() -> {
+                this.statsLabel.setVisible(true);
+                this.statsTimer.start();
+            });
         }
     }
 
@@ -47,6 +123,44 @@ public class StreamingLogsConsoleView extends ConsoleViewImpl {
         return this.isDisposed;
     }
 
+    private BufferOverflowStrategy getBufferOverflowStrategy() {
+        return overflowPolicy == OverflowPolicy.DROP_LATEST ? BufferOverflowStrategy.DROP_LATEST : BufferOverflowStrategy.DROP_OLDEST;
+    }
+
+    private List<String> sampleIfOverloaded(List<String> batch) {
+        // a full batch means the stream is faster than `maxBatchLines` per `flushInterval`
+        if (overflowPolicy != OverflowPolicy.SAMPLE || batch.size() < maxBatchLines || sampleRate <= 1) {
+            return batch;
+        }
+        final List<String> sampled = new ArrayList<>(batch.size() / sampleRate + 1);
+        for (int i = 0; i < batch.size(); i += sampleRate) {
+            sampled.add(batch.get(i));
+        }
+        droppedLines.addAndGet(batch.size() - sampled.size());
+        return sampled;
+    }
+
+    private void printBatch(List<String> batch) {
+        if (batch.isEmpty() || this.isDisposed) {
+            return;
+        }
+        // printing is thread safe, the console flushes its output to the editor in batches by itself.
+        this.print(String.join(SEPARATOR, batch) + SEPARATOR, NORMAL_OUTPUT);
+    }
+
+    private void resetStats() {
+        receivedLines.set(0);
+        droppedLines.set(0);
+        lastReceivedLines = 0;
+    }
+
+    private void updateStats() {
+        final long received = receivedLines.get();
+        final long rate = received - lastReceivedLines;
+        lastReceivedLines = received;
+        statsLabel.setText(message("app.logStreaming.hint.throughput", rate, droppedLines.get()));
+    }
+
     private void printlnToConsole(String message, ConsoleViewContentType consoleViewContentType) {
         this.print(message + SEPARATOR, consoleViewContentType);
     }
@@ -55,6 +169,7 @@ public class StreamingLogsConsoleView extends ConsoleViewImpl {
     public void dispose() {
         super.dispose();
         this.isDisposed = true;
+        this.statsTimer.stop();
         closeStreamingLog();
     }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.component.messaging;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class MessageLoadGeneratorTest {
+    private ExecutorService executor;
+    // batches sent through the fake transport
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+        this.executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void sendsCountOfMessagesInBatches() throws InterruptedException {
+        final MessageLoadGenerator generator = new MessageLoadGenerator(this.batches::add, MessageLoadGenerator.Config.builder()
+            .count(1050).batchSize(100).concurrency(4).payloadTemplate("{index}").build());
+
+        generator.run(this.executor);
+
+        final MessageLoadGenerator.Stats stats = generator.getStats();
+        Assert.assertTrue(generator.isStopped());
+        Assert.assertEquals(1050, stats.getSent());
+        Assert.assertEquals(0, stats.getErrors());
+        Assert.assertNull(generator.getLastError());
+        final List<Integer> sizes = this.batches.stream().map(List::size).sorted().collect(Collectors.toList());
+        Assert.assertEquals(11, sizes.size());
+        Assert.assertEquals(50, (int) sizes.get(0));
+        Assert.assertEquals(Collections.nCopies(10, 100), sizes.subList(1, 11));
+        final Set<String> indices = this.batches.stream().flatMap(List::stream).collect(Collectors.toSet());
+        Assert.assertEquals(LongStream.range(0, 1050).mapToObj(String::valueOf).collect(Collectors.toSet()), indices);
+        Assert.assertEquals(11, generator.getLatencySamples().length);
+    }
+
+    @Test
+    public void sendsFullBatchesUntilDurationElapses() throws InterruptedException {
+        final MessageTransport transport = batch -> {
+            this.batches.add(batch);
+            Thread.sleep(10);
+        };
+        final MessageLoadGenerator generator = new MessageLoadGenerator(transport, MessageLoadGenerator.Config.builder()
+            .count(10).duration(1).batchSize(20).concurrency(2).build());
+
+        generator.run(this.executor);
+
+        final MessageLoadGenerator.Stats stats = generator.getStats();
+        // count is ignored once duration is set
+        Assert.assertTrue(stats.getSent() > 10);
+        Assert.assertEquals(0, stats.getSent() % 20);
+        Assert.assertEquals(this.batches.size() * 20L, stats.getSent());
+        Assert.assertTrue(stats.getElapsedMillis() >= 1000);
+        Assert.assertTrue(stats.getElapsedMillis() < 3000);
+        // elapsed time is frozen once finished
+        Assert.assertEquals(stats.getElapsedMillis(), generator.getStats().getElapsedMillis());
+    }
+
+    @Test
+    public void throttlesToTargetRate() throws InterruptedException {
+        final MessageLoadGenerator generator = new MessageLoadGenerator(this.batches::add, MessageLoadGenerator.Config.builder()
+            .count(300).batchSize(10).concurrency(4).rate(200).build());
+
+        generator.run(this.executor);
+
+        final MessageLoadGenerator.Stats stats = generator.getStats();
+        Assert.assertEquals(300, stats.getSent());
+        // 300 messages at 200 per second take 1.5s but the first batch, which is let go immediately
+        Assert.assertTrue(String.valueOf(stats.getElapsedMillis()), stats.getElapsedMillis() >= 1300);
+        Assert.assertTrue(String.valueOf(stats.getThroughput()), stats.getThroughput() <= 230);
+    }
+
+    @Test
+    public void countsMessagesOfPartiallyAndWhollyFailedBatches() throws InterruptedException {
+        final IOException failure = new IOException("disconnected");
+        final MessageTransport transport = batch -> {
+            this.batches.add(batch);
+            if (this.batches.size() == 2) {
+                throw new MessageTransport.PartialFailureException(3, new IOException("throttled"));
+            } else if (this.batches.size() == 3) {
+                throw failure;
+            }
+        };
+        final MessageLoadGenerator generator = new MessageLoadGenerator(transport, MessageLoadGenerator.Config.builder()
+            .count(40).batchSize(10).concurrency(1).build());
+
+        generator.run(this.executor);
+
+        final MessageLoadGenerator.Stats stats = generator.getStats();
+        Assert.assertEquals(10 + 7 + 10, stats.getSent());
+        Assert.assertEquals(3 + 10, stats.getErrors());
+        Assert.assertSame(failure, generator.getLastError());
+        // only batches sent wholly are timed
+        Assert.assertEquals(2, generator.getLatencySamples().length);
+    }
+
+    @Test
+    public void stopsOnceStopped() throws InterruptedException {
+        final AtomicReference<MessageLoadGenerator> holder = new AtomicReference<>();
+        final MessageTransport transport = batch -> {
+            if (this.batches.add(batch) && this.batches.size() == 5) {
+                holder.get().stop();
+            }
+        };
+        final MessageLoadGenerator generator = new MessageLoadGenerator(transport, MessageLoadGenerator.Config.builder()
+            .count(Long.MAX_VALUE).batchSize(10).concurrency(1).build());
+        holder.set(generator);
+
+        generator.run(this.executor);
+
+        Assert.assertEquals(50, generator.getStats().getSent());
+    }
+
+    @Test
+    public void computesPercentilesOfBatchLatencies() {
+        final MessageLoadGenerator generator = new MessageLoadGenerator(this.batches::add, MessageLoadGenerator.Config.builder().build());
+        final List<Long> millis = LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toCollection(ArrayList::new));
+        Collections.shuffle(millis);
+        millis.forEach(m -> generator.recordLatency(TimeUnit.MILLISECONDS.toNanos(m)));
+
+        final MessageLoadGenerator.Stats stats = generator.getStats();
+        Assert.assertEquals(50, stats.getP50(), 0.001);
+        Assert.assertEquals(90, stats.getP90(), 0.001);
+        Assert.assertEquals(99, stats.getP99(), 0.001);
+        Assert.assertEquals(100, stats.getMax(), 0.001);
+        Assert.assertEquals(0, stats.getSent());
+    }
+
+    @Test
+    public void keepsBoundedUniformSampleOfLatencies() {
+        final MessageLoadGenerator generator = new MessageLoadGenerator(this.batches::add, MessageLoadGenerator.Config.builder().build());
+        // as many slow batches recorded after fast ones, either should take about a half of the reservoir
+        final int total = MessageLoadGenerator.MAX_LATENCY_SAMPLES * 3;
+        for (int i = 0; i < total; i++) {
+            generator.recordLatency(TimeUnit.MILLISECONDS.toNanos(i < total / 2 ? 1 : 3));
+        }
+
+        final long[] samples = generator.getLatencySamples();
+        Assert.assertEquals(MessageLoadGenerator.MAX_LATENCY_SAMPLES, samples.length);
+        final long slow = Arrays.stream(samples).filter(s -> s == TimeUnit.MILLISECONDS.toNanos(3)).count();
+        Assert.assertTrue(String.valueOf(slow), Math.abs(slow - samples.length / 2) < samples.length / 20);
+        final MessageLoadGenerator.Stats stats = generator.getStats();
+        Assert.assertEquals(3, stats.getP90(), 0.001);
+        Assert.assertEquals(3, stats.getMax(), 0.001);
+    }
+
+    @Test
+    public void rendersPayloadTemplate() {
+        final MessageLoadGenerator generator = new MessageLoadGenerator(this.batches::add, MessageLoadGenerator.Config.builder()
+            .payloadTemplate("{index}|{uuid}|{timestamp}").build());
+
+        final String[] first = generator.render(7).split("\\|");
+        final String[] second = generator.render(8).split("\\|");
+        Assert.assertEquals("7", first[0]);
+        Assert.assertEquals("8", second[0]);
+        Assert.assertEquals(36, first[1].length());
+        Assert.assertNotEquals(first[1], second[1]);
+        Assert.assertTrue(Long.parseLong(first[2]) > 0);
+
+        final MessageLoadGenerator plain = new MessageLoadGenerator(this.batches::add, MessageLoadGenerator.Config.builder().payloadTemplate("hello").build());
+        Assert.assertEquals("hello", plain.render(1));
+    }
+}
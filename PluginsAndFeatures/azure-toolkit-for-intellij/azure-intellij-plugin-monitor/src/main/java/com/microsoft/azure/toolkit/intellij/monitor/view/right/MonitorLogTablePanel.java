@@ -7,7 +7,6 @@ package com.microsoft.azure.toolkit.intellij.monitor.view.right;
 
 import com.azure.monitor.query.models.LogsTable;
 import com.azure.monitor.query.models.LogsTableCell;
-import com.azure.monitor.query.models.LogsTableRow;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.actionSystem.ActionUpdateThread;
@@ -126,13 +125,12 @@ public class MonitorLogTablePanel implements Disposable {
         AzureTaskManager.getInstance().runInBackground("load Azure Monitor data", () -> {
             try {
                 final LogsTable result = selectedWorkspace.executeQuery(queryString);
+                // convert the result to the columnar model in background, rather than in EDT
+                final LogTableModel model = Objects.isNull(result) || result.getRows().isEmpty() ? null : new LogTableModel(result.getRows());
                 AzureTaskManager.getInstance().runLater(() -> {
-                    if (Objects.isNull(result)) {
-                        return;
-                    }
-                    if (result.getAllTableCells().size() > 0) {
+                    if (Objects.nonNull(model)) {
                         this.exportAction.setEnabled(true);
-                        this.logTable.setModel(result.getRows());
+                        this.logTable.setModel(model);
                     }
                 }, AzureTask.Modality.ANY);
             } catch (final Exception e) {
@@ -297,8 +295,13 @@ public class MonitorLogTablePanel implements Disposable {
             }
             final CSVPrinter csvPrinter = new CSVPrinter(new FileWriter(target),
                     CSVFormat.Builder.create().setHeader(tableModel.getColumnNames().toArray(new String[0])).build());
-            for (final LogsTableRow row : tableModel.getLogsTableRows()) {
-                csvPrinter.printRecord(row.getRow().stream().map(LogsTableCell::getValueAsString).toList());
+            final List<String> record = new ArrayList<>(tableModel.getColumnCount());
+            for (int row = 0; row < tableModel.getRowCount(); row++) {
+                record.clear();
+                for (int column = 0; column < tableModel.getColumnCount(); column++) {
+                    record.add(tableModel.getRawStringAt(row, column));
+                }
+                csvPrinter.printRecord(record);
             }
             csvPrinter.close();
             AzureMessager.getMessager().success(message("azure.monitor.export.succeed.message", target.getAbsolutePath()),
@@ -15,7 +15,6 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.*;
 import javax.swing.table.TableModel;
-import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.util.List;
 import java.util.Optional;
@@ -25,13 +24,12 @@ public class LogTable extends JBTable {
     private LogTableModel logTableModel = new LogTableModel();
     public LogTable() {
         super();
-        this.setModel(logTableModel);
+        this.setLogTableModel(logTableModel);
         this.setCellSelectionEnabled(true);
         this.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         this.setAutoscrolls(true);
         this.setAutoResizeMode(JBTable.AUTO_RESIZE_OFF);
         this.setPreferredScrollableViewportSize(null);
-        this.setAutoCreateRowSorter(true);
     }
 
     @Override
@@ -47,14 +45,26 @@ public class LogTable extends JBTable {
     }
 
     public void setModel(List<LogsTableRow> logsTableRows) {
-        logTableModel = new LogTableModel(logsTableRows);
-        this.setModel(logTableModel);
+        this.setModel(new LogTableModel(logsTableRows));
+    }
+
+    /**
+     * @param model the model to show, which can be built in background from the query result
+     */
+    public void setModel(LogTableModel model) {
+        this.setLogTableModel(model);
         this.setColumnWidth();
     }
 
     public void clearModel() {
-        this.logTableModel = new LogTableModel();
-        this.setModel(logTableModel);
+        this.setLogTableModel(new LogTableModel());
+    }
+
+    private void setLogTableModel(LogTableModel model) {
+        this.logTableModel = model;
+        this.setModel((TableModel) model);
+        // sort and filter by the typed columns in memory, without querying again
+        this.setRowSorter(new LogTableRowSorter(model));
     }
 
     public void setLoading(boolean isLoading) {
@@ -73,8 +83,8 @@ public class LogTable extends JBTable {
         } catch (final java.util.regex.PatternSyntaxException e) {
             return;
         }
-        if (this.getRowSorter() instanceof TableRowSorter<? extends TableModel>) {
-            ((TableRowSorter<? extends TableModel>) this.getRowSorter()).setRowFilter(rf);
+        if (this.getRowSorter() instanceof LogTableRowSorter sorter) {
+            sorter.setRowFilter(rf);
         }
     }
 
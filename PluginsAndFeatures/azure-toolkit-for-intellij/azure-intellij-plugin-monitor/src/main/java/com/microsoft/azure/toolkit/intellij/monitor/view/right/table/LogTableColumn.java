@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.monitor.view.right.table;
+
+import com.azure.monitor.query.models.LogsColumnType;
+import com.azure.monitor.query.models.LogsTableCell;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Typed storage of one column of the query result. INT, LONG and BOOL values are kept in primitive arrays, DATETIME
+ * values as epoch seconds and nanos, and other values as strings deduplicated within the table.
+ */
+abstract class LogTableColumn {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.n a");
+
+    @Getter
+    @Nonnull
+    protected final String name;
+    @Getter
+    @Nonnull
+    protected final LogsColumnType type;
+    protected final BitSet nulls = new BitSet();
+    protected int size = 0;
+
+    protected LogTableColumn(@Nonnull String name, @Nonnull LogsColumnType type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    public static LogTableColumn of(@Nonnull String name, @Nonnull LogsColumnType type, @Nonnull Map<String, String> stringPool) {
+        if (LogsColumnType.BOOL.equals(type)) {
+            return new BoolColumn(name, type);
+        }
+        if (LogsColumnType.INT.equals(type)) {
+            return new IntColumn(name, type);
+        }
+        if (LogsColumnType.LONG.equals(type)) {
+            return new LongColumn(name, type);
+        }
+        if (LogsColumnType.DATETIME.equals(type)) {
+            return new DateTimeColumn(name, type);
+        }
+        return new StringColumn(name, type, stringPool);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public void add(@Nullable LogsTableCell cell) {
+        this.ensureCapacity(this.size + 1);
+        if (cell == null || cell.getValueAsString() == null) {
+            this.nulls.set(this.size);
+        } else {
+            this.set(this.size, cell);
+        }
+        this.size++;
+    }
+
+    public boolean isNull(int row) {
+        return this.nulls.get(row);
+    }
+
+    /**
+     * @return the value to render
+     */
+    @Nullable
+    public abstract Object getValue(int row);
+
+    /**
+     * @return the value to sort by
+     */
+    @Nullable
+    public Comparable<?> getSortKey(int row) {
+        return (Comparable<?>) this.getValue(row);
+    }
+
+    /**
+     * @return the rendered text, for filtering and copying
+     */
+    @Nonnull
+    public String getString(int row) {
+        return Optional.ofNullable(this.getValue(row)).map(Object::toString).orElse(StringUtils.EMPTY);
+    }
+
+    /**
+     * @return the value as returned by the service, for exporting
+     */
+    @Nullable
+    public String getRawString(int row) {
+        return this.isNull(row) ? null : this.getString(row);
+    }
+
+    public void setString(int row, @Nullable String value) {
+        this.ensureCapacity(row + 1);
+        if (row > this.size) {
+            this.nulls.set(this.size, row);
+        }
+        this.size = Math.max(this.size, row + 1);
+        this.nulls.set(row, value == null);
+        if (value != null) {
+            this.parse(row, value);
+        }
+    }
+
+    protected abstract void set(int row, @Nonnull LogsTableCell cell);
+
+    protected abstract void parse(int row, @Nonnull String value);
+
+    protected abstract void ensureCapacity(int capacity);
+
+    protected static int grow(int current, int required) {
+        return Math.max(required, Math.max(INITIAL_CAPACITY, current + (current >> 1)));
+    }
+
+    private static class IntColumn extends LogTableColumn {
+        private int[] values = new int[0];
+
+        IntColumn(@Nonnull String name, @Nonnull LogsColumnType type) {
+            super(name, type);
+        }
+
+        @Override
+        public Object getValue(int row) {
+            return this.isNull(row) ? null : this.values[row];
+        }
+
+        @Override
+        protected void set(int row, @Nonnull LogsTableCell cell) {
+            this.values[row] = cell.getValueAsInteger();
+        }
+
+        @Override
+        protected void parse(int row, @Nonnull String value) {
+            this.values[row] = Integer.parseInt(value);
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (capacity > this.values.length) {
+                this.values = Arrays.copyOf(this.values, grow(this.values.length, capacity));
+            }
+        }
+    }
+
+    private static class LongColumn extends LogTableColumn {
+        private long[] values = new long[0];
+
+        LongColumn(@Nonnull String name, @Nonnull LogsColumnType type) {
+            super(name, type);
+        }
+
+        @Override
+        public Object getValue(int row) {
+            return this.isNull(row) ? null : this.values[row];
+        }
+
+        @Override
+        protected void set(int row, @Nonnull LogsTableCell cell) {
+            this.values[row] = cell.getValueAsLong();
+        }
+
+        @Override
+        protected void parse(int row, @Nonnull String value) {
+            this.values[row] = Long.parseLong(value);
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (capacity > this.values.length) {
+                this.values = Arrays.copyOf(this.values, grow(this.values.length, capacity));
+            }
+        }
+    }
+
+    private static class BoolColumn extends LogTableColumn {
+        private final BitSet values = new BitSet();
+
+        BoolColumn(@Nonnull String name, @Nonnull LogsColumnType type) {
+            super(name, type);
+        }
+
+        @Override
+        public Object getValue(int row) {
+            return this.isNull(row) ? null : this.values.get(row);
+        }
+
+        @Override
+        protected void set(int row, @Nonnull LogsTableCell cell) {
+            this.values.set(row, cell.getValueAsBoolean());
+        }
+
+        @Override
+        protected void parse(int row, @Nonnull String value) {
+            this.values.set(row, Boolean.parseBoolean(value));
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            // BitSet grows by itself
+        }
+    }
+
+    private static class DateTimeColumn extends LogTableColumn {
+        private long[] seconds = new long[0];
+        private int[] nanos = new int[0];
+
+        DateTimeColumn(@Nonnull String name, @Nonnull LogsColumnType type) {
+            super(name, type);
+        }
+
+        @Override
+        public Object getValue(int row) {
+            return this.isNull(row) ? StringUtils.EMPTY : DATE_TIME_FORMATTER.format(this.getDateTime(row));
+        }
+
+        @Override
+        public Comparable<?> getSortKey(int row) {
+            // nanos since epoch, which covers years up to 2262
+            return this.isNull(row) ? null : this.seconds[row] * 1_000_000_000L + this.nanos[row];
+        }
+
+        @Override
+        public String getRawString(int row) {
+            return this.isNull(row) ? null : this.getDateTime(row).toString();
+        }
+
+        @Override
+        protected void set(int row, @Nonnull LogsTableCell cell) {
+            final OffsetDateTime dateTime = cell.getValueAsDateTime();
+            if (dateTime == null) {
+                this.nulls.set(row);
+                return;
+            }
+            this.seconds[row] = dateTime.toEpochSecond();
+            this.nanos[row] = dateTime.getNano();
+        }
+
+        @Override
+        protected void parse(int row, @Nonnull String value) {
+            final OffsetDateTime dateTime = OffsetDateTime.parse(value);
+            this.seconds[row] = dateTime.toEpochSecond();
+            this.nanos[row] = dateTime.getNano();
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (capacity > this.seconds.length) {
+                final int newCapacity = grow(this.seconds.length, capacity);
+                this.seconds = Arrays.copyOf(this.seconds, newCapacity);
+                this.nanos = Arrays.copyOf(this.nanos, newCapacity);
+            }
+        }
+
+        private OffsetDateTime getDateTime(int row) {
+            return Instant.ofEpochSecond(this.seconds[row], this.nanos[row]).atOffset(ZoneOffset.UTC);
+        }
+    }
+
+    private static class StringColumn extends LogTableColumn {
+        private final Map<String, String> pool;
+        private String[] values = new String[0];
+
+        StringColumn(@Nonnull String name, @Nonnull LogsColumnType type, @Nonnull Map<String, String> pool) {
+            super(name, type);
+            this.pool = pool;
+        }
+
+        @Override
+        public Object getValue(int row) {
+            return this.values[row];
+        }
+
+        @Override
+        protected void set(int row, @Nonnull LogsTableCell cell) {
+            this.parse(row, cell.getValueAsString());
+        }
+
+        @Override
+        protected void parse(int row, @Nonnull String value) {
+            // values such as resource ids, levels and categories repeat a lot in log rows
+            this.values[row] = this.pool.computeIfAbsent(value, v -> v);
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (capacity > this.values.length) {
+                this.values = Arrays.copyOf(this.values, grow(this.values.length, capacity));
+            }
+        }
+    }
+}
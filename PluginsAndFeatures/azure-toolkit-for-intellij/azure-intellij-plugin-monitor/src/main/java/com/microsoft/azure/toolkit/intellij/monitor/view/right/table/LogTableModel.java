@@ -9,64 +9,90 @@ import com.azure.monitor.query.models.LogsColumnType;
 import com.azure.monitor.query.models.LogsTableCell;
 import com.azure.monitor.query.models.LogsTableRow;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
-import lombok.Getter;
-import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.Nls;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.event.TableModelEvent;
 import javax.swing.event.TableModelListener;
 import javax.swing.table.TableModel;
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 
 import static com.microsoft.azure.toolkit.intellij.common.AzureBundle.message;
 
+/**
+ * Columnar model of the query result, see {@link LogTableColumn}. Rows are converted from {@link LogsTableRow} on
+ * {@link #appendRows(List)}, so the query result needn't be kept after that.
+ */
 public class LogTableModel implements TableModel {
-    @Getter
-    private final List<String> columnNames = new ArrayList<>();
-    private final List<LogsColumnType> columnClasses = new ArrayList<>();
-    @Getter
-    private final List<LogsTableRow> logsTableRows = new ArrayList<>();
+    private final List<LogTableColumn> columns = new ArrayList<>();
+    // shared by all string columns of the table
+    private final Map<String, String> stringPool = new HashMap<>();
     private final List<TableModelListener> tableModelListenerList = new ArrayList<>();
-
+    private int rowCount = 0;
 
     public LogTableModel() {
     }
 
-    public LogTableModel(List<LogsTableRow> logsTableRows ) {
-        this.columnClasses.addAll(logsTableRows.get(0).getRow().stream().map(LogsTableCell::getColumnType).toList());
-        this.columnNames.addAll(logsTableRows.get(0).getRow().stream().map(LogsTableCell::getColumnName).toList());
-        this.logsTableRows.addAll(logsTableRows);
+    public LogTableModel(List<LogsTableRow> logsTableRows) {
+        this.appendRows(logsTableRows);
+    }
+
+    /**
+     * append rows to the end of the table, e.g. when a following page of the query result arrives. columns are
+     * initialized from the first row appended. should be called in EDT once the model is bound to a table.
+     */
+    public void appendRows(@Nonnull List<LogsTableRow> logsTableRows) {
+        if (logsTableRows.isEmpty()) {
+            return;
+        }
+        final boolean structureChanged = this.columns.isEmpty();
+        if (structureChanged) {
+            logsTableRows.get(0).getRow().forEach(c -> this.columns.add(LogTableColumn.of(c.getColumnName(), c.getColumnType(), this.stringPool)));
+        }
+        final int firstRow = this.rowCount;
+        for (final LogsTableRow row : logsTableRows) {
+            final List<LogsTableCell> cells = row.getRow();
+            for (int i = 0; i < this.columns.size(); i++) {
+                this.columns.get(i).add(i < cells.size() ? cells.get(i) : null);
+            }
+        }
+        this.rowCount += logsTableRows.size();
+        fireTableChanged(structureChanged ? new TableModelEvent(this, TableModelEvent.HEADER_ROW) :
+                new TableModelEvent(this, firstRow, this.rowCount - 1, TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT));
+    }
+
+    public List<String> getColumnNames() {
+        return this.columns.stream().map(LogTableColumn::getName).toList();
     }
 
     @Override
     public int getRowCount() {
-        return this.logsTableRows.size();
+        return this.rowCount;
     }
 
     @Override
     public int getColumnCount() {
-        return this.columnNames.size();
+        return this.columns.size();
     }
 
     @Nls
     @Override
     public String getColumnName(int columnIndex) {
-        final String columnName = this.columnNames.get(columnIndex);
-        if (Objects.equals(this.columnClasses.get(columnIndex), LogsColumnType.DATETIME)) {
-            return String.format("%s(UTC)", columnName);
+        final LogTableColumn column = this.columns.get(columnIndex);
+        if (Objects.equals(column.getType(), LogsColumnType.DATETIME)) {
+            return String.format("%s(UTC)", column.getName());
         }
-        return columnName;
+        return column.getName();
     }
 
     @Override
     public Class<?> getColumnClass(int columnIndex) {
-        final LogsColumnType type = this.columnClasses.get(columnIndex);
+        final LogsColumnType type = this.columns.get(columnIndex).getType();
         if (LogsColumnType.BOOL.equals(type)) {
             return Boolean.class;
         }
@@ -90,22 +116,31 @@ public class LogTableModel implements TableModel {
         if (isRowInvalid(rowIndex)) {
             return null;
         }
-        final LogsColumnType type = this.columnClasses.get(columnIndex);
-        if (LogsColumnType.BOOL.equals(type)) {
-            return this.logsTableRows.get(rowIndex).getRow().get(columnIndex).getValueAsBoolean();
-        }
-        if (LogsColumnType.INT.equals(type)) {
-            return this.logsTableRows.get(rowIndex).getRow().get(columnIndex).getValueAsInteger();
-        }
-        if (LogsColumnType.LONG.equals(type)) {
-            return this.logsTableRows.get(rowIndex).getRow().get(columnIndex).getValueAsLong();
-        }
-        if (LogsColumnType.DATETIME.equals(type)) {
-            final OffsetDateTime dateTime = this.logsTableRows.get(rowIndex).getRow().get(columnIndex).getValueAsDateTime();
-            final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.n a");
-            return Optional.ofNullable(dateTime).map(d -> dateTime.format(dateTimeFormatter)).orElse(StringUtils.EMPTY);
-        }
-        return this.logsTableRows.get(rowIndex).getRow().get(columnIndex).getValueAsString();
+        return this.columns.get(columnIndex).getValue(rowIndex);
+    }
+
+    /**
+     * @return the value to sort the rows by, e.g. epoch nanos for DATETIME columns
+     */
+    @Nullable
+    public Comparable<?> getSortKeyAt(int rowIndex, int columnIndex) {
+        return isRowInvalid(rowIndex) ? null : this.columns.get(columnIndex).getSortKey(rowIndex);
+    }
+
+    /**
+     * @return the rendered text of the cell, for filtering
+     */
+    @Nonnull
+    public String getStringAt(int rowIndex, int columnIndex) {
+        return this.columns.get(columnIndex).getString(rowIndex);
+    }
+
+    /**
+     * @return the cell value as returned by the service, for exporting
+     */
+    @Nullable
+    public String getRawStringAt(int rowIndex, int columnIndex) {
+        return this.columns.get(columnIndex).getRawString(rowIndex);
     }
 
     @Override
@@ -113,13 +148,12 @@ public class LogTableModel implements TableModel {
         if (value != null && !(value instanceof String)) {
             throw new IllegalArgumentException(message("function.appSettings.validate.illegalType"));
         }
-        while (rowIndex >= this.logsTableRows.size()) {
-            final LogsTableCell newCell = new LogsTableCell(columnNames.get(columnIndex), LogsColumnType.STRING, columnIndex, rowIndex, value);
-            final LogsTableRow newRow = new LogsTableRow(rowIndex, List.of(newCell));
-            this.logsTableRows.add(newRow);
+        this.columns.get(columnIndex).setString(rowIndex, (String) value);
+        if (rowIndex >= this.rowCount) {
+            this.rowCount = rowIndex + 1;
+            this.columns.stream().filter(c -> c.size() < this.rowCount).forEach(c -> c.setString(rowIndex, null));
         }
-        this.logsTableRows.get(rowIndex).getRow().add(columnIndex, new LogsTableCell(columnNames.get(columnIndex), LogsColumnType.STRING, columnIndex, rowIndex, value));
-        fireTableChanged();
+        fireTableChanged(new TableModelEvent(this));
     }
 
     @Override
@@ -133,17 +167,18 @@ public class LogTableModel implements TableModel {
     }
 
     public void clear() {
-        this.columnNames.clear();
-        this.logsTableRows.clear();
-        fireTableChanged();
+        this.columns.clear();
+        this.stringPool.clear();
+        this.rowCount = 0;
+        fireTableChanged(new TableModelEvent(this, TableModelEvent.HEADER_ROW));
     }
 
-    private void fireTableChanged() {
+    private void fireTableChanged(TableModelEvent event) {
         tableModelListenerList.forEach(listener ->
-                AzureTaskManager.getInstance().runLater(() -> listener.tableChanged(new TableModelEvent(this))));
+                AzureTaskManager.getInstance().runLater(() -> listener.tableChanged(event)));
     }
 
     private boolean isRowInvalid(int row) {
-        return row < 0 || row >= this.logsTableRows.size();
+        return row < 0 || row >= this.rowCount;
     }
 }
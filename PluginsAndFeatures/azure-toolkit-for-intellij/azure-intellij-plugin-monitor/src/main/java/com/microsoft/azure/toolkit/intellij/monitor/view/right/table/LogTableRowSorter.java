@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.monitor.view.right.table;
+
+import javax.annotation.Nonnull;
+import javax.swing.*;
+import java.util.Comparator;
+
+/**
+ * Sorts and filters {@link LogTableModel} in memory. Rows are compared by the typed sort keys of the columns rather
+ * than the rendered text, e.g. DATETIME columns by epoch nanos, and filtered by the rendered text.
+ */
+public class LogTableRowSorter extends DefaultRowSorter<LogTableModel, Integer> {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> NATURAL_ORDER = (a, b) -> a instanceof String && b instanceof String ?
+            String.CASE_INSENSITIVE_ORDER.compare((String) a, (String) b) : ((Comparable) a).compareTo(b);
+
+    public LogTableRowSorter(@Nonnull LogTableModel model) {
+        super();
+        this.setModelWrapper(new ModelWrapper<>() {
+            @Override
+            public LogTableModel getModel() {
+                return model;
+            }
+
+            @Override
+            public int getColumnCount() {
+                return model.getColumnCount();
+            }
+
+            @Override
+            public int getRowCount() {
+                return model.getRowCount();
+            }
+
+            @Override
+            public Object getValueAt(int row, int column) {
+                return model.getSortKeyAt(row, column);
+            }
+
+            @Override
+            public String getStringValueAt(int row, int column) {
+                return model.getStringAt(row, column);
+            }
+
+            @Override
+            public Integer getIdentifier(int row) {
+                return row;
+            }
+        });
+    }
+
+    @Override
+    public Comparator<?> getComparator(int column) {
+        return NATURAL_ORDER;
+    }
+
+    @Override
+    protected boolean useToString(int column) {
+        return false;
+    }
+}
@@ -33,6 +33,7 @@ dependencies {
     implementation(libs.azureToolkitIdeCommonLib)
     implementation(libs.azureToolkitIdeRedisLib)
     implementation(libs.jedis)
+    testImplementation("junit:junit:4.13.2")
 
     compileOnly(libs.lombok)
     compileOnly("org.jetbrains:annotations:24.0.0")
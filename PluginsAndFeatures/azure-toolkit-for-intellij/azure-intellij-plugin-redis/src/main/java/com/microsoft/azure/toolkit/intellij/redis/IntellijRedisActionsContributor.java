@@ -15,6 +15,7 @@ import com.microsoft.azure.toolkit.intellij.common.properties.AzureResourceEdito
 import com.microsoft.azure.toolkit.intellij.common.properties.AzureResourceEditorViewManager.AzureResourceFileType;
 import com.microsoft.azure.toolkit.intellij.redis.creation.CreateRedisCacheAction;
 import com.microsoft.azure.toolkit.intellij.redis.explorer.RedisCacheExplorerProvider;
+import com.microsoft.azure.toolkit.intellij.redis.memory.AnalyzeRedisMemoryAction;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
 import com.microsoft.azure.toolkit.lib.resource.ResourceGroup;
@@ -40,6 +41,8 @@ public class IntellijRedisActionsContributor implements IActionsContributor {
         final AzureResourceEditorViewManager manager = new AzureResourceEditorViewManager((resource) -> type);
         am.<AzResource, AnActionEvent>registerHandler(RedisActionsContributor.OPEN_EXPLORER, (r, e) -> r instanceof RedisCache,
             (r, e) -> manager.showEditor(r, Objects.requireNonNull(e.getProject())));
+        am.<RedisCache, AnActionEvent>registerHandler(RedisActionsContributor.ANALYZE_MEMORY, (r, e) -> true,
+            (r, e) -> AnalyzeRedisMemoryAction.analyze(r, Objects.requireNonNull(e.getProject())));
 
         final BiConsumer<ResourceGroup, AnActionEvent> groupCreateServerHandler = (r, e) -> {
             final RedisConfig config = new RedisConfig();
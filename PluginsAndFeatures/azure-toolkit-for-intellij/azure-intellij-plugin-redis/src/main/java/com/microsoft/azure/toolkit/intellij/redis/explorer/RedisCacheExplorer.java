@@ -6,7 +6,10 @@
 package com.microsoft.azure.toolkit.intellij.redis.explorer;
 
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.registry.Registry;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.SimpleTextAttributes;
 import com.microsoft.azure.toolkit.intellij.common.AzureActionButton;
 import com.microsoft.azure.toolkit.intellij.common.properties.AzResourcePropertiesEditor;
 import com.microsoft.azure.toolkit.lib.common.action.Action;
@@ -31,7 +34,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.Optional;
 import java.util.function.Function;
 
 import static redis.clients.jedis.ScanParams.SCAN_POINTER_START;
@@ -45,6 +48,13 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
 
     private String currentCursor;
     private String lastChosenKey;
+    private final DefaultListModel<RedisKeyScanner.KeyInfo> keyListModel = new DefaultListModel<>();
+    @Nullable
+    private RedisKeyScanner scanner;
+    // the value being shown and the cursor of its next page, null if all loaded
+    @Nullable
+    private ValuePage currentValue;
+    private boolean loadingValue;
 
     private static final String[] LIST_TITLE = new String[]{" Index", " Item"};
     private static final String[] SET_TITLE = new String[]{" Member"};
@@ -55,10 +65,10 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
     private static final int TABLE_HEADER_FONT_SIZE = 16;
     private static final int SPLIT_PANE_DIVIDER_SIZE = 2;
     private static final double SPLIT_PANE_WEIGHT = 0.4;
-    private static final int DEFAULT_KEY_COUNT = 50;
+    private static final String MAX_SCANNED_KEYS_REGISTRY_KEY = "azure.toolkit.redis.explorer.max_scanned_keys";
+    private static final int DEFAULT_MAX_SCANNED_KEYS = 10000;
     private static final int DEFAULT_REDIS_DB_NUMBER = 16;
     private static final int MAX_DATABASE_NUMBER = 64;
-    private static final long DEFAULT_RANGE_START = 0;
     private static final int DEFAULT_VAL_COUNT = 500;
 
     private static final String DEFAULT_SCAN_PATTERN = "*";
@@ -70,7 +80,7 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
     private JComboBox<String> cbActionType;
     private JTextField txtKeyPattern;
     private AzureActionButton<RedisCache> btnSearch;
-    private JList<String> lstKey;
+    private JList<RedisKeyScanner.KeyInfo> lstKey;
     private AzureActionButton<RedisCache> btnScanMore;
     private JTable tblInnerValue;
     private JTextArea txtStringValue;
@@ -105,6 +115,14 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
         pnlInnerValue.setBackground(lstKey.getBackground());
 
         progressBar.setIndeterminate(true);
+        lstKey.setModel(keyListModel);
+        lstKey.setCellRenderer(new KeyInfoRenderer());
+        pnlInnerValue.getVerticalScrollBar().addAdjustmentListener(event -> {
+            final JScrollBar bar = pnlInnerValue.getVerticalScrollBar();
+            if (!event.getValueIsAdjusting() && bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum()) {
+                RedisCacheExplorer.this.loadNextValuePage();
+            }
+        });
 
         cbDatabase.addActionListener(event -> {
             if (Objects.equals(cbActionType.getSelectedItem(), ACTION_GET)) {
@@ -116,14 +134,15 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
         });
 
         lstKey.addListSelectionListener(event -> {
-            final String selectedKey = lstKey.getSelectedValue();
+            final String selectedKey = Optional.ofNullable(lstKey.getSelectedValue()).map(RedisKeyScanner.KeyInfo::getKey).orElse(null);
             if (selectedKey == null || selectedKey.equals(lastChosenKey)) {
                 return;
             }
-            RedisCacheExplorer.this.setWidgetEnableStatus(false);
             lastChosenKey = selectedKey;
+            lstKey.setEnabled(false);
+            final int database = cbDatabase.getSelectedIndex();
             manager.runOnPooledThread(() -> {
-                final Pair<String, ArrayList<String[]>> data = doWithRedis(jedis -> getValueByKey(jedis, selectedKey));
+                final ValuePage data = doWithRedis(jedis -> getValueByKey(jedis, database, selectedKey, null, null));
                 manager.runLater(() -> RedisCacheExplorer.this.showContent(data));
             });
         });
@@ -139,14 +158,13 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
                 .withAuthRequired(true)
                 .withSource(this.redis)
                 .withIdParam(this.redis.getName())
-                .withHandler(ignore -> {
-                    RedisCacheExplorer.this.setWidgetEnableStatus(false);
-                    manager.runOnPooledThread(() -> {
-                        final ScanResult<String> r = doWithRedis(jedis -> jedis.scan(currentCursor, new ScanParams()
-                                .match(txtKeyPattern.getText()).count(DEFAULT_KEY_COUNT)));
-                        manager.runLater(() -> RedisCacheExplorer.this.showScanResult(r));
-                    });
-                });
+                .withHandler(ignore -> manager.runLater(() -> {
+                    if (RedisCacheExplorer.this.isScanning()) {
+                        RedisCacheExplorer.this.stopScan();
+                    } else {
+                        RedisCacheExplorer.this.startScan(txtKeyPattern.getText(), currentCursor, false);
+                    }
+                }));
         btnScanMore.setAction(scanMoreAction);
 
         txtKeyPattern.addActionListener(event -> onBtnSearchClick());
@@ -187,85 +205,156 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
         }
     }
 
-    public void showScanResult(ScanResult<String> result) {
-        lstKey.removeAll();
-        final DefaultListModel<String> listModel = new DefaultListModel<>();
-        final List<String> keys = result.getResult();
-        Collections.sort(keys);
-        for (final String key : keys) {
-            listModel.addElement(key);
+    private boolean isScanning() {
+        return Objects.nonNull(this.scanner) && !this.scanner.isCancelled();
+    }
+
+    /**
+     * scan keys in background and append them to the key list as they arrive
+     *
+     * @param reset true to clear the key list and scan from beginning
+     */
+    private void startScan(@Nonnull final String pattern, @Nonnull final String cursor, boolean reset) {
+        this.stopScan();
+        if (reset) {
+            this.keyListModel.removeAllElements();
+            this.lastChosenKey = "";
+            this.clearValueArea();
         }
-        lstKey.setModel(listModel);
-        currentCursor = result.getCursor();
-        setWidgetEnableStatus(true);
-        clearValueArea();
+        final AzureTaskManager manager = AzureTaskManager.getInstance();
+        final int maxKeys = Registry.intValue(MAX_SCANNED_KEYS_REGISTRY_KEY, DEFAULT_MAX_SCANNED_KEYS);
+        final RedisKeyScanner[] current = new RedisKeyScanner[1];
+        current[0] = new RedisKeyScanner(this.redis.getJedisPool(), cbDatabase.getSelectedIndex(), pattern, maxKeys,
+            keys -> manager.runLater(() -> {
+                if (this.scanner == current[0] && !current[0].isCancelled()) {
+                    keys.forEach(this.keyListModel::addElement);
+                }
+            }),
+            next -> manager.runLater(() -> {
+                if (this.scanner == current[0]) {
+                    this.currentCursor = next;
+                    this.onScanStopped();
+                }
+            }),
+            error -> manager.runLater(() -> {
+                if (this.scanner == current[0]) {
+                    this.onScanStopped();
+                    AzureMessager.getMessager().error(error);
+                }
+            }));
+        this.scanner = current[0];
+        this.currentCursor = cursor;
+        this.setScanningStatus(true);
+        this.scanner.start(cursor);
+    }
+
+    private void stopScan() {
+        Optional.ofNullable(this.scanner).ifPresent(RedisKeyScanner::cancel);
+        this.onScanStopped();
+    }
+
+    private void onScanStopped() {
+        Optional.ofNullable(this.scanner).ifPresent(RedisKeyScanner::cancel);
+        this.setScanningStatus(false);
     }
 
-    public void showContent(Pair<String, ArrayList<String[]>> val) {
-        if (Objects.isNull(val)) {
-            setWidgetEnableStatus(true);
+    private void setScanningStatus(boolean scanning) {
+        pnlProgressBar.setVisible(scanning);
+        btnScanMore.setText(scanning ? "Stop" : "Scan More");
+        final boolean scanAction = Objects.equals(cbActionType.getSelectedItem(), ACTION_SCAN);
+        // nothing more to scan once the cursor is back to start
+        btnScanMore.setEnabled(scanAction && (scanning || !SCAN_POINTER_START.equals(currentCursor)));
+        cbDatabase.setEnabled(true);
+        txtKeyPattern.setEnabled(true);
+        btnSearch.setEnabled(true);
+        lstKey.setEnabled(true);
+        cbActionType.setEnabled(true);
+    }
+
+    public void showContent(@Nullable ValuePage page) {
+        lstKey.setEnabled(true);
+        this.currentValue = page;
+        if (Objects.isNull(page)) {
+            clearValueArea();
             return;
         }
-        final String type = val.getKey();
-        final ArrayList<String[]> value = val.getValue();
+        final String type = page.type;
         lblTypeValue.setText(type);
-        lblKeyValue.setText(lstKey.getSelectedValue());
+        lblKeyValue.setText(page.key);
         if (Objects.equals(type, "STRING")) {
-            if (value.size() > 0 && value.get(0).length > 0) {
-                txtStringValue.setText(value.get(0)[0]);
+            if (page.rows.size() > 0 && page.rows.get(0).length > 0) {
+                txtStringValue.setText(page.rows.get(0)[0]);
             }
             setValueCompositeVisible(false);
         } else {
-            final String[] columnNames;
-            switch (type) {
-                case "LIST":
-                    columnNames = LIST_TITLE;
-                    break;
-                case "SET":
-                    columnNames = SET_TITLE;
-                    break;
-                case "ZSET":
-                    columnNames = ZSET_TITLE;
-                    break;
-                case "HASH":
-                    columnNames = HASH_TITLE;
-                    break;
-                default:
-                    return;
+            final String[] columnNames = getColumnNames(type);
+            if (Objects.isNull(columnNames)) {
+                return;
             }
-            String[][] data = new String[value.size()][columnNames.length];
-            data = value.toArray(data);
-            final ReadOnlyTableModel tableModel = new ReadOnlyTableModel(data, columnNames);
+            final ReadOnlyTableModel tableModel = new ReadOnlyTableModel(page.rows.toArray(new String[0][]), columnNames);
             setValueCompositeVisible(true);
             tblInnerValue.setModel(tableModel);
         }
-        setWidgetEnableStatus(true);
     }
 
-    public void updateKeyList() {
-        final DefaultListModel<String> listModel = (DefaultListModel<String>) lstKey.getModel();
-        listModel.removeAllElements();
-        listModel.addElement(txtKeyPattern.getText());
-        lstKey.setModel(listModel);
-        lstKey.setSelectedIndex(0);
+    /**
+     * load next page of the hash/set/zset/list being shown once it's scrolled to the end
+     */
+    private void loadNextValuePage() {
+        final ValuePage value = this.currentValue;
+        if (Objects.isNull(value) || Objects.isNull(value.cursor) || this.loadingValue) {
+            return;
+        }
+        this.loadingValue = true;
+        final int database = cbDatabase.getSelectedIndex();
+        final AzureTaskManager manager = AzureTaskManager.getInstance();
+        manager.runOnPooledThread(() -> {
+            final ValuePage next;
+            try {
+                next = doWithRedis(jedis -> getValueByKey(jedis, database, value.key, value.type, value.cursor));
+            } finally {
+                manager.runLater(() -> this.loadingValue = false);
+            }
+            manager.runLater(() -> {
+                if (this.currentValue != value || Objects.isNull(next)) {
+                    return;
+                }
+                final ReadOnlyTableModel model = (ReadOnlyTableModel) tblInnerValue.getModel();
+                next.rows.forEach(model::addRow);
+                value.rows.addAll(next.rows);
+                value.cursor = next.cursor;
+            });
+        });
+    }
+
+    @Nullable
+    private static String[] getColumnNames(@Nonnull String type) {
+        return switch (type) {
+            case "LIST" -> LIST_TITLE;
+            case "SET" -> SET_TITLE;
+            case "ZSET" -> ZSET_TITLE;
+            case "HASH" -> HASH_TITLE;
+            default -> null;
+        };
+    }
+
+    public void updateKeyList(@Nonnull List<RedisKeyScanner.KeyInfo> keys) {
+        keyListModel.removeAllElements();
+        keys.forEach(keyListModel::addElement);
+        lastChosenKey = keys.isEmpty() ? "" : keys.get(0).getKey();
+        if (!keys.isEmpty()) {
+            lstKey.setSelectedIndex(0);
+        }
     }
 
     public void getKeyFail() {
-        final DefaultListModel<String> listModel = (DefaultListModel<String>) lstKey.getModel();
-        listModel.removeAllElements();
+        keyListModel.removeAllElements();
         setWidgetEnableStatus(true);
         clearValueArea();
     }
 
     private void onDataBaseSelect() {
-        final AzureTaskManager manager = AzureTaskManager.getInstance();
-        manager.runOnPooledThread(() -> {
-            final ScanResult<String> r = doWithRedis(jedis -> {
-                jedis.select(cbDatabase.getSelectedIndex());
-                return jedis.scan(SCAN_POINTER_START, new ScanParams().match(DEFAULT_SCAN_PATTERN).count(DEFAULT_KEY_COUNT));
-            });
-            manager.runLater(() -> RedisCacheExplorer.this.showScanResult(r));
-        });
+        startScan(DEFAULT_SCAN_PATTERN, SCAN_POINTER_START, true);
     }
 
     private void setWidgetEnableStatus(boolean enabled) {
@@ -280,6 +369,7 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
     }
 
     private void clearValueArea() {
+        currentValue = null;
         lblKeyValue.setText("");
         lblTypeValue.setText("");
         pnlInnerValue.setVisible(false);
@@ -293,24 +383,28 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
     }
 
     private void onBtnSearchClick() {
-        setWidgetEnableStatus(false);
         final String actionType = (String) cbActionType.getSelectedItem();
         final String key = txtKeyPattern.getText();
         if (Objects.equals(actionType, ACTION_GET)) {
+            stopScan();
+            setWidgetEnableStatus(false);
+            final int database = cbDatabase.getSelectedIndex();
             final AzureTaskManager manager = AzureTaskManager.getInstance();
             manager.runOnPooledThread(() -> {
-                final Pair<String, ArrayList<String[]>> result = doWithRedis(jedis ->
-                    jedis.exists(key) ? getValueByKey(jedis, key) : Pair.of("", new ArrayList<>()));
-                this.updateKeyList();
-                this.showContent(result);
+                final Pair<List<RedisKeyScanner.KeyInfo>, ValuePage> result = doWithRedis(jedis -> {
+                    jedis.select(database);
+                    return jedis.exists(key) ?
+                        Pair.of(RedisKeyScanner.describe(jedis, List.of(key)), getValueByKey(jedis, database, key, null, null)) :
+                        Pair.of(Collections.<RedisKeyScanner.KeyInfo>emptyList(), (ValuePage) null);
+                });
+                manager.runLater(() -> {
+                    this.updateKeyList(result.getKey());
+                    this.showContent(result.getValue());
+                    this.setWidgetEnableStatus(true);
+                });
             });
         } else if (Objects.equals(actionType, ACTION_SCAN)) {
-            final AzureTaskManager manager = AzureTaskManager.getInstance();
-            manager.runOnPooledThread(() -> {
-                final ScanResult<String> r = doWithRedis(jedis -> jedis.scan(SCAN_POINTER_START, new ScanParams().match(key).count(DEFAULT_KEY_COUNT)));
-                manager.runLater(() -> RedisCacheExplorer.this.showScanResult(r));
-            });
-            currentCursor = SCAN_POINTER_START;
+            startScan(key, SCAN_POINTER_START, true);
         }
         lastChosenKey = "";
     }
@@ -320,6 +414,32 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
 
     }
 
+    private static class ValuePage {
+        private final String key;
+        private final String type;
+        private final List<String[]> rows;
+        @Nullable
+        private String cursor;
+
+        ValuePage(String key, String type, List<String[]> rows, @Nullable String cursor) {
+            this.key = key;
+            this.type = type;
+            this.rows = rows;
+            this.cursor = cursor;
+        }
+    }
+
+    private static class KeyInfoRenderer extends ColoredListCellRenderer<RedisKeyScanner.KeyInfo> {
+        @Override
+        protected void customizeCellRenderer(@Nonnull JList<? extends RedisKeyScanner.KeyInfo> list, RedisKeyScanner.KeyInfo value,
+                                             int index, boolean selected, boolean hasFocus) {
+            if (Objects.nonNull(value)) {
+                append(value.getKey());
+                append("  " + value.getDetails(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            }
+        }
+    }
+
     private static class ReadOnlyTableModel extends DefaultTableModel {
         ReadOnlyTableModel(Object[][] data, String[] columnNames) {
             super(data, columnNames);
@@ -362,49 +482,62 @@ public class RedisCacheExplorer extends AzResourcePropertiesEditor<RedisCache> {
         }
     }
 
+    /**
+     * @param type   type of the key, null to query
+     * @param cursor cursor of the page of hash/set/zset (or start index of the page of list), null for the first page
+     */
     @Nullable
-    private Pair<String, ArrayList<String[]>> getValueByKey(Jedis jedis, String key) {
-        jedis.select(cbDatabase.getSelectedIndex());
-        final String type = jedis.type(key).toUpperCase();
-        final ArrayList<String[]> columnData = new ArrayList<>();
-        switch (type) {
-            case "STRING":
-                final String stringVal = jedis.get(key);
-                columnData.add(new String[]{stringVal});
-                return Pair.of("STRING", columnData);
-            case "LIST":
-                final long listLength = jedis.llen(key);
-                final List<String> listVal = jedis.lrange(key, DEFAULT_RANGE_START,
-                    listLength < DEFAULT_VAL_COUNT ? listLength : DEFAULT_VAL_COUNT);
-                for (int i = 0; i < listVal.size(); i++) {
-                    columnData.add(new String[]{String.valueOf(i + 1), listVal.get(i)});
-                }
-                return Pair.of("LIST", columnData);
-            case "SET":
-                final ScanResult<String> setVal = jedis.sscan(key, SCAN_POINTER_START, new ScanParams().count(DEFAULT_VAL_COUNT));
-                for (final String row : setVal.getResult()) {
-                    columnData.add(new String[]{row});
-                }
-                return Pair.of("SET", columnData);
-            case "ZSET":
-                final long zsetLength = jedis.zcard(key);
-                final Set<Tuple> zsetVal = jedis.zrangeWithScores(key, DEFAULT_RANGE_START,
-                    zsetLength < DEFAULT_VAL_COUNT ? zsetLength : DEFAULT_VAL_COUNT);
-                for (final Tuple tuple : zsetVal) {
-                    columnData.add(new String[]{String.valueOf(tuple.getScore()), tuple.getElement()});
-                }
-                return Pair.of("ZSET", columnData);
-            case "HASH":
-                final ScanResult<Map.Entry<String, String>> hashVal = jedis.hscan(key, SCAN_POINTER_START, new ScanParams().count(DEFAULT_VAL_COUNT));
-                for (final Map.Entry<String, String> hash : hashVal.getResult()) {
-                    columnData.add(new String[]{hash.getKey(), hash.getValue()});
+    private static ValuePage getValueByKey(Jedis jedis, int database, String key, @Nullable String type, @Nullable String cursor) {
+        jedis.select(database);
+        final String keyType = Objects.isNull(type) ? jedis.type(key).toUpperCase() : type;
+        final String from = Objects.isNull(cursor) ? SCAN_POINTER_START : cursor;
+        final ScanParams params = new ScanParams().count(DEFAULT_VAL_COUNT);
+        final List<String[]> rows = new ArrayList<>();
+        switch (keyType) {
+            case "STRING" -> {
+                rows.add(new String[]{jedis.get(key)});
+                return new ValuePage(key, keyType, rows, null);
+            }
+            case "LIST" -> {
+                final long start = Long.parseLong(from);
+                final List<String> items = jedis.lrange(key, start, start + DEFAULT_VAL_COUNT - 1);
+                for (int i = 0; i < items.size(); i++) {
+                    rows.add(new String[]{String.valueOf(start + i + 1), items.get(i)});
                 }
-                return Pair.of("HASH", columnData);
-            default:
+                return new ValuePage(key, keyType, rows, items.size() < DEFAULT_VAL_COUNT ? null : String.valueOf(start + items.size()));
+            }
+            case "SET" -> {
+                final ScanResult<String> result = jedis.sscan(key, from, params);
+                result.getResult().forEach(member -> rows.add(new String[]{member}));
+                return new ValuePage(key, keyType, rows, nextCursor(result));
+            }
+            case "ZSET" -> {
+                final ScanResult<Tuple> result = jedis.zscan(key, from, params);
+                result.getResult().forEach(tuple -> rows.add(new String[]{String.valueOf(tuple.getScore()), tuple.getElement()}));
+                return new ValuePage(key, keyType, rows, nextCursor(result));
+            }
+            case "HASH" -> {
+                final ScanResult<Map.Entry<String, String>> result = jedis.hscan(key, from, params);
+                result.getResult().forEach(entry -> rows.add(new String[]{entry.getKey(), entry.getValue()}));
+                return new ValuePage(key, keyType, rows, nextCursor(result));
+            }
+            default -> {
                 return null;
+            }
         }
     }
 
+    @Nullable
+    private static String nextCursor(@Nonnull ScanResult<?> result) {
+        return SCAN_POINTER_START.equals(result.getCursor()) ? null : result.getCursor();
+    }
+
+    @Override
+    public void dispose() {
+        Optional.ofNullable(this.scanner).ifPresent(RedisKeyScanner::cancel);
+        super.dispose();
+    }
+
     @Override
     protected void onResourceDeleted() {
         this.manager.closeEditor(this.redis, project);
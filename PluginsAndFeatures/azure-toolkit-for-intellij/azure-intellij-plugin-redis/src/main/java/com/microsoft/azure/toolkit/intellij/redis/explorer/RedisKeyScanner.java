@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.redis.explorer;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static redis.clients.jedis.ScanParams.SCAN_POINTER_START;
+
+/**
+ * Scans keys of a redis database in background, batch by batch, until all keys are scanned, the number of scanned
+ * keys reaches the cap or the scan is cancelled. Type, TTL and memory usage of the keys of a batch are fetched in one
+ * pipelined round trip.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class RedisKeyScanner {
+    static final int SCAN_BATCH_SIZE = 500;
+
+    @Nonnull
+    private final JedisPool pool;
+    private final int database;
+    @Nonnull
+    private final String pattern;
+    private final int maxKeys;
+    /**
+     * called on the scanning thread with every batch of keys
+     */
+    @Nonnull
+    private final Consumer<List<KeyInfo>> onBatch;
+    /**
+     * called on the scanning thread with the cursor to continue from, which is {@code "0"} if all keys are scanned.
+     */
+    @Nonnull
+    private final Consumer<String> onPaused;
+    /**
+     * called on the scanning thread if scanning failed
+     */
+    @Nonnull
+    private final Consumer<Throwable> onError;
+    private volatile boolean cancelled;
+
+    /**
+     * @param cursor the cursor to continue from, {@code "0"} to start from beginning
+     */
+    public void start(@Nonnull final String cursor) {
+        AzureTaskManager.getInstance().runOnPooledThread(() -> {
+            try {
+                this.scan(cursor);
+            } catch (final Throwable e) {
+                if (!this.cancelled) {
+                    this.onError.accept(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * stops scanning after the current batch, no more callbacks are called after that.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    private void scan(@Nonnull final String from) {
+        try (final Jedis jedis = this.pool.getResource()) {
+            jedis.select(this.database);
+            final ScanParams params = new ScanParams().match(this.pattern).count(SCAN_BATCH_SIZE);
+            String cursor = from;
+            int scanned = 0;
+            do {
+                final ScanResult<String> result = jedis.scan(cursor, params);
+                cursor = result.getCursor();
+                if (this.cancelled) {
+                    return;
+                }
+                final List<String> keys = result.getResult();
+                if (!keys.isEmpty()) {
+                    final List<KeyInfo> infos = describe(jedis, keys);
+                    if (this.cancelled) {
+                        return;
+                    }
+                    scanned += infos.size();
+                    this.onBatch.accept(infos);
+                }
+            } while (!SCAN_POINTER_START.equals(cursor) && scanned < this.maxKeys);
+            this.onPaused.accept(cursor);
+        }
+    }
+
+    /**
+     * fetch type, TTL and memory usage of the keys in one pipelined round trip
+     */
+    @Nonnull
+    static List<KeyInfo> describe(@Nonnull final Jedis jedis, @Nonnull final List<String> keys) {
+        final Pipeline pipeline = jedis.pipelined();
+        final List<Response<String>> types = new ArrayList<>(keys.size());
+        final List<Response<Long>> ttls = new ArrayList<>(keys.size());
+        final List<Response<Object>> memories = new ArrayList<>(keys.size());
+        for (final String key : keys) {
+            types.add(pipeline.type(key));
+            ttls.add(pipeline.pttl(key));
+            memories.add(pipeline.sendCommand(Protocol.Command.MEMORY, "USAGE", key));
+        }
+        pipeline.sync();
+        final List<KeyInfo> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            final String type = getOrNull(types.get(i)::get);
+            final Long ttl = getOrNull(ttls.get(i)::get);
+            final Object memory = getOrNull(memories.get(i)::get);
+            result.add(new KeyInfo(keys.get(i), type == null ? "" : type.toUpperCase(),
+                ttl == null ? KeyInfo.UNKNOWN : ttl, memory instanceof Long ? (Long) memory : KeyInfo.UNKNOWN));
+        }
+        return result;
+    }
+
+    @Nullable
+    private static <T> T getOrNull(@Nonnull Supplier<T> response) {
+        try {
+            return response.get();
+        } catch (final RuntimeException e) {
+            // e.g. `MEMORY USAGE` is not allowed or the key is deleted in between
+            log.debug("failed to get key info", e);
+            return null;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class KeyInfo {
+        static final long UNKNOWN = Long.MIN_VALUE;
+
+        @Nonnull
+        private final String key;
+        @Nonnull
+        private final String type;
+        /**
+         * TTL in milliseconds, -1 if the key doesn't expire, -2 if the key doesn't exist
+         */
+        private final long ttl;
+        /**
+         * memory usage in bytes
+         */
+        private final long memory;
+
+        @Nonnull
+        String getDetails() {
+            final List<String> details = new ArrayList<>();
+            details.add(this.type);
+            if (this.ttl >= 0) {
+                details.add("TTL " + StringUtil.formatDuration(this.ttl));
+            }
+            if (this.memory >= 0) {
+                details.add(StringUtil.formatFileSize(this.memory));
+            }
+            return String.join(", ", details);
+        }
+
+        @Override
+        public String toString() {
+            return this.key;
+        }
+    }
+}
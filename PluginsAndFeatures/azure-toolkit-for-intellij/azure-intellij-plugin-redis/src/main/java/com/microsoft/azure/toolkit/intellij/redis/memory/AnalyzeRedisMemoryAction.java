@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.redis.memory;
+
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.TextEditorWithPreview;
+import com.intellij.openapi.fileTypes.ex.FileTypeManagerEx;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.testFramework.LightVirtualFile;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import com.microsoft.azure.toolkit.redis.RedisCache;
+import redis.clients.jedis.Jedis;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Analyzes memory usage of every non-empty database of a redis cache and shows the reports in a markdown preview.
+ * Sampling rate, throttling and how keys are grouped into prefixes are configurable in registry.
+ */
+public class AnalyzeRedisMemoryAction {
+    public static final String SAMPLE_PERCENT_REGISTRY_KEY = "azure.toolkit.redis.memory_analyzer.sample_percent";
+    public static final String MAX_OPS_PER_SECOND_REGISTRY_KEY = "azure.toolkit.redis.memory_analyzer.max_ops_per_second";
+    public static final String KEY_DELIMITER_REGISTRY_KEY = "azure.toolkit.redis.memory_analyzer.key_delimiter";
+    public static final String PREFIX_DEPTH_REGISTRY_KEY = "azure.toolkit.redis.memory_analyzer.prefix_depth";
+    private static final Pattern KEYSPACE_LINE = Pattern.compile("^db(\\d+):keys=(\\d+)", Pattern.MULTILINE);
+
+    @AzureOperation(name = "user/redis.analyze_memory.redis", params = {"redis.getName()"})
+    public static void analyze(@Nonnull final RedisCache redis, @Nonnull final Project project) {
+        final int percent = Math.min(100, Math.max(1, Registry.intValue(SAMPLE_PERCENT_REGISTRY_KEY, 10)));
+        final int maxOps = Math.max(1, Registry.intValue(MAX_OPS_PER_SECOND_REGISTRY_KEY, 1000));
+        final String delimiter = Optional.ofNullable(Registry.stringValue(KEY_DELIMITER_REGISTRY_KEY)).orElse(":");
+        final int depth = Math.max(1, Registry.intValue(PREFIX_DEPTH_REGISTRY_KEY, 1));
+        final RedisMemoryAnalyzer analyzer = new RedisMemoryAnalyzer(percent / 100.0, maxOps, delimiter, depth);
+        final AzureString title = AzureString.format("Analyzing memory of Redis cache (%s)", redis.getName());
+        AzureTaskManager.getInstance().runInBackground(new AzureTask<>(project, title, true, () -> {
+            final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+            final StringBuilder md = new StringBuilder();
+            try (final Jedis jedis = redis.getJedisPool().getResource()) {
+                final List<int[]> databases = listNonEmptyDatabases(jedis.info("keyspace"));
+                if (databases.isEmpty()) {
+                    AzureMessager.getMessager().info(AzureString.format("Redis cache (%s) has no keys.", redis.getName()));
+                    return;
+                }
+                for (final int[] db : databases) {
+                    if (indicator != null && indicator.isCanceled()) {
+                        break;
+                    }
+                    jedis.select(db[0]);
+                    final RedisMemoryAnalyzer.Report report = analyzer.analyze(jedis,
+                        () -> indicator != null && indicator.isCanceled(),
+                        scanned -> Optional.ofNullable(indicator).ifPresent(i -> {
+                            i.setText2(String.format("Database %d: %d of %d keys scanned", db[0], scanned, db[1]));
+                            i.setFraction(db[1] == 0 ? 0 : Math.min(1.0, (double) scanned / db[1]));
+                        }));
+                    md.append(report.toMarkdown(String.format("Memory of %s, Database %d", redis.getName(), db[0])));
+                }
+            }
+            if (md.length() > 0) {
+                showReport(project, redis.getName() + "-memory.md", md.toString());
+            }
+        }));
+    }
+
+    /**
+     * @return index and number of keys of databases listed in {@code INFO keyspace}, e.g. {@code db0:keys=1,expires=0}
+     */
+    @Nonnull
+    static List<int[]> listNonEmptyDatabases(@Nonnull final String keyspace) {
+        final List<int[]> result = new ArrayList<>();
+        final Matcher matcher = KEYSPACE_LINE.matcher(keyspace.replace("\r", ""));
+        while (matcher.find()) {
+            final int keys = (int) Math.min(Integer.MAX_VALUE, Long.parseLong(matcher.group(2)));
+            if (keys > 0) {
+                result.add(new int[]{Integer.parseInt(matcher.group(1)), keys});
+            }
+        }
+        return result;
+    }
+
+    private static void showReport(@Nonnull final Project project, @Nonnull final String name, @Nonnull final String report) {
+        final LightVirtualFile virtualFile = new LightVirtualFile(name);
+        virtualFile.setFileType(FileTypeManagerEx.getInstance().getFileTypeByExtension("md"));
+        virtualFile.setContent(null, report, true);
+        virtualFile.setWritable(false);
+        virtualFile.putUserData(TextEditorWithPreview.DEFAULT_LAYOUT_FOR_FILE, TextEditorWithPreview.Layout.SHOW_PREVIEW);
+        AzureTaskManager.getInstance().runLater(() -> {
+            if (!project.isDisposed()) {
+                FileEditorManager.getInstance(project).openFile(virtualFile, true);
+            }
+        });
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.redis.memory;
+
+import com.google.common.util.concurrent.RateLimiter;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.util.SafeEncoder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import static redis.clients.jedis.ScanParams.SCAN_POINTER_START;
+
+/**
+ * Estimates how the memory of a redis database is used by walking the keyspace with {@code SCAN} and sampling a
+ * fraction of the keys. {@code MEMORY USAGE}, {@code OBJECT ENCODING} and {@code PTTL} of the sampled keys of a batch
+ * are fetched in one pipelined round trip, and the commands sent are throttled to at most {@code maxOpsPerSecond} so
+ * that analyzing doesn't hurt a cache serving traffic. Only aggregates are kept in memory, so the whole keyspace can
+ * be walked. It depends on nothing but a {@link Jedis} connection, so it can be run against a local redis-server too.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class RedisMemoryAnalyzer {
+    static final int SCAN_BATCH_SIZE = 500;
+    static final int MAX_PREFIXES = 10000;
+    static final String OTHER_PREFIXES = "<other prefixes>";
+    static final String NO_PREFIX = "<no prefix>";
+    private static final int TOP = 20;
+    private static final int TOP_KEYS = 50;
+
+    /**
+     * fraction of the scanned keys to sample, in {@code (0, 1]}
+     */
+    private final double sampleRate;
+    /**
+     * max number of redis commands sent per second
+     */
+    private final int maxOpsPerSecond;
+    @Nonnull
+    private final String delimiter;
+    /**
+     * number of delimiter separated segments a prefix consists of, e.g. prefix of {@code user:42:cart} is
+     * {@code user} with depth 1 and {@code user:42} with depth 2.
+     */
+    private final int prefixDepth;
+
+    /**
+     * walks all keys of the selected database of {@code jedis}
+     *
+     * @param cancelled checked after every batch, the keys analyzed so far are reported if it returns true
+     * @param onScanned called with the number of keys scanned so far after every batch
+     */
+    @Nonnull
+    public Report analyze(@Nonnull final Jedis jedis, @Nonnull final BooleanSupplier cancelled, @Nonnull final LongConsumer onScanned) {
+        final RateLimiter limiter = RateLimiter.create(Math.max(1, this.maxOpsPerSecond));
+        final Report report = new Report(this.sampleRate);
+        final ScanParams params = new ScanParams().count(SCAN_BATCH_SIZE);
+        String cursor = SCAN_POINTER_START;
+        do {
+            limiter.acquire();
+            final ScanResult<String> result = jedis.scan(cursor, params);
+            cursor = result.getCursor();
+            final List<String> sampled = new ArrayList<>();
+            for (final String key : result.getResult()) {
+                if (this.sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < this.sampleRate) {
+                    sampled.add(key);
+                }
+            }
+            report.addScanned(result.getResult().size());
+            if (!sampled.isEmpty()) {
+                limiter.acquire(sampled.size() * 3);
+                this.sample(jedis, sampled, report);
+            }
+            onScanned.accept(report.scannedKeys);
+        } while (!SCAN_POINTER_START.equals(cursor) && !cancelled.getAsBoolean());
+        report.complete = SCAN_POINTER_START.equals(cursor);
+        return report;
+    }
+
+    private void sample(@Nonnull final Jedis jedis, @Nonnull final List<String> keys, @Nonnull final Report report) {
+        final Pipeline pipeline = jedis.pipelined();
+        final List<Response<Object>> memories = new ArrayList<>(keys.size());
+        final List<Response<Object>> encodings = new ArrayList<>(keys.size());
+        final List<Response<Long>> ttls = new ArrayList<>(keys.size());
+        for (final String key : keys) {
+            memories.add(pipeline.sendCommand(Protocol.Command.MEMORY, "USAGE", key));
+            encodings.add(pipeline.sendCommand(Protocol.Command.OBJECT, "ENCODING", key));
+            ttls.add(pipeline.pttl(key));
+        }
+        pipeline.sync();
+        for (int i = 0; i < keys.size(); i++) {
+            final Object memory = getOrNull(memories.get(i)::get);
+            final Object encoding = getOrNull(encodings.get(i)::get);
+            final Long ttl = getOrNull(ttls.get(i)::get);
+            if (!(memory instanceof Long) || ttl == null || ttl == -2) {
+                continue; // the key is deleted in between or `MEMORY USAGE` is not allowed
+            }
+            final String enc = encoding instanceof byte[] ? SafeEncoder.encode((byte[]) encoding) : "unknown";
+            report.add(keys.get(i), this.getPrefix(keys.get(i)), enc, ttl, (Long) memory);
+        }
+    }
+
+    @Nonnull
+    String getPrefix(@Nonnull final String key) {
+        if (StringUtils.isEmpty(this.delimiter)) {
+            return NO_PREFIX;
+        }
+        int end = -1;
+        for (int i = 0; i < this.prefixDepth; i++) {
+            final int next = key.indexOf(this.delimiter, end + (end < 0 ? 1 : this.delimiter.length()));
+            if (next < 0) {
+                break;
+            }
+            end = next;
+        }
+        return end < 0 ? NO_PREFIX : key.substring(0, end);
+    }
+
+    @Nullable
+    private static <T> T getOrNull(@Nonnull Supplier<T> response) {
+        try {
+            return response.get();
+        } catch (final RuntimeException e) {
+            log.debug("failed to sample key", e);
+            return null;
+        }
+    }
+
+    static class Report {
+        private static final long[] TTL_BOUNDS = {TimeUnit.MINUTES.toMillis(1), TimeUnit.HOURS.toMillis(1),
+            TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(7)};
+        private static final String[] TTL_BUCKETS = {"< 1 minute", "< 1 hour", "< 1 day", "< 7 days", ">= 7 days"};
+        private static final String NO_EXPIRY = "no expiry";
+
+        private final double sampleRate;
+        private final Map<String, Stat> prefixes = new HashMap<>();
+        private final Map<String, Stat> encodings = new HashMap<>();
+        private final Map<String, Stat> ttls = new LinkedHashMap<>();
+        private final PriorityQueue<SampledKey> biggestKeys = new PriorityQueue<>(Comparator.comparingLong(SampledKey::getMemory));
+        @Getter
+        private long scannedKeys;
+        @Getter
+        private long sampledKeys;
+        @Getter
+        private long sampledBytes;
+        /**
+         * false if the analysis is cancelled before the whole keyspace is walked
+         */
+        @Getter
+        private boolean complete;
+
+        Report(double sampleRate) {
+            this.sampleRate = sampleRate;
+            this.ttls.put(NO_EXPIRY, new Stat());
+            for (final String bucket : TTL_BUCKETS) {
+                this.ttls.put(bucket, new Stat());
+            }
+        }
+
+        void addScanned(long keys) {
+            this.scannedKeys += keys;
+        }
+
+        void add(@Nonnull String key, @Nonnull String prefix, @Nonnull String encoding, long ttl, long memory) {
+            this.sampledKeys++;
+            this.sampledBytes += memory;
+            final String p = this.prefixes.containsKey(prefix) || this.prefixes.size() < MAX_PREFIXES ? prefix : OTHER_PREFIXES;
+            this.prefixes.computeIfAbsent(p, k -> new Stat()).add(memory);
+            this.encodings.computeIfAbsent(encoding, k -> new Stat()).add(memory);
+            this.ttls.get(getTtlBucket(ttl)).add(memory);
+            this.biggestKeys.add(new SampledKey(key, encoding, ttl, memory));
+            if (this.biggestKeys.size() > TOP_KEYS) {
+                this.biggestKeys.poll();
+            }
+        }
+
+        @Nonnull
+        private static String getTtlBucket(long ttl) {
+            if (ttl < 0) {
+                return NO_EXPIRY;
+            }
+            for (int i = 0; i < TTL_BOUNDS.length; i++) {
+                if (ttl < TTL_BOUNDS[i]) {
+                    return TTL_BUCKETS[i];
+                }
+            }
+            return TTL_BUCKETS[TTL_BUCKETS.length - 1];
+        }
+
+        /**
+         * @return memory used by the whole keyspace, estimated from the sampled keys
+         */
+        public long getEstimatedBytes() {
+            return this.estimate(this.sampledBytes);
+        }
+
+        /**
+         * @return stats of the sampled keys by prefix, keys of prefixes beyond {@link #MAX_PREFIXES} are grouped as
+         * {@link #OTHER_PREFIXES}
+         */
+        @Nonnull
+        Map<String, Stat> getPrefixes() {
+            return Collections.unmodifiableMap(this.prefixes);
+        }
+
+        /**
+         * @return {@code sampled} count or bytes extrapolated to all the scanned keys
+         */
+        long estimate(long sampled) {
+            return this.sampledKeys == 0 ? 0 : Math.round(sampled * (double) this.scannedKeys / this.sampledKeys);
+        }
+
+        /**
+         * @return the report in markdown
+         */
+        @Nonnull
+        public String toMarkdown(@Nonnull String title) {
+            final StringBuilder md = new StringBuilder();
+            md.append("# ").append(title).append("\n\n");
+            md.append(String.format("%d keys scanned%s, %d keys (%.1f%%) sampled, %s used by sampled keys, %s estimated in total.%n%n",
+                this.scannedKeys, this.complete ? "" : " (cancelled before all keys are scanned)", this.sampledKeys,
+                this.sampleRate * 100, size(this.sampledBytes), size(this.getEstimatedBytes())));
+
+            md.append("## Biggest Prefixes\n\n");
+            table(md, new String[]{"Prefix", "Est. Keys", "Est. Memory", "%", "Avg. Key"}, this.prefixes, true, this::statColumns);
+
+            md.append("## Biggest Keys\n\n");
+            if (this.biggestKeys.isEmpty()) {
+                md.append("No keys sampled.\n\n");
+            } else {
+                md.append("| Key | Memory | Encoding | TTL |\n| --- | --- | --- | --- |\n");
+                this.biggestKeys.stream().sorted(Comparator.comparingLong(SampledKey::getMemory).reversed())
+                    .forEach(k -> md.append("| `").append(escape(k.key)).append("` | ").append(size(k.memory)).append(" | ")
+                        .append(k.encoding).append(" | ").append(k.ttl < 0 ? "-" : DurationFormatUtils.formatDurationWords(k.ttl, true, true))
+                        .append(" |\n"));
+                md.append("\n");
+            }
+
+            md.append("## TTL Distribution\n\n");
+            // in the order of buckets
+            table(md, new String[]{"TTL", "Est. Keys", "Est. Memory", "%", "Avg. Key"}, this.ttls, false, this::statColumns);
+
+            md.append("## Encodings\n\n");
+            table(md, new String[]{"Encoding", "Est. Keys", "Est. Memory", "%", "Avg. Key"}, this.encodings, true, this::statColumns);
+            return md.toString();
+        }
+
+        @Nonnull
+        private String[] statColumns(@Nonnull Stat s) {
+            return new String[]{String.valueOf(this.estimate(s.count)), size(this.estimate(s.total)),
+                this.sampledBytes == 0 ? "-" : String.format("%.1f", s.total * 100.0 / this.sampledBytes), size(s.total / s.count)};
+        }
+
+        private static void table(@Nonnull StringBuilder md, @Nonnull String[] headers, @Nonnull Map<String, Stat> stats,
+                                  boolean sortByMemory, @Nonnull Function<Stat, String[]> columns) {
+            if (stats.values().stream().allMatch(s -> s.count == 0)) {
+                md.append("No keys sampled.\n\n");
+                return;
+            }
+            md.append("| ").append(String.join(" | ", headers)).append(" |\n");
+            md.append("|").append(" --- |".repeat(headers.length)).append("\n");
+            stats.entrySet().stream()
+                .filter(e -> e.getValue().count > 0)
+                .sorted(sortByMemory ? Map.Entry.<String, Stat>comparingByValue(Comparator.comparingLong(s -> s.total)).reversed() : (a, b) -> 0)
+                .limit(TOP)
+                .forEach(e -> md.append("| `").append(escape(e.getKey())).append("` | ")
+                    .append(String.join(" | ", columns.apply(e.getValue()))).append(" |\n"));
+            md.append("\n");
+        }
+
+        @Nonnull
+        private static String escape(@Nonnull String value) {
+            return value.replace("`", "'").replace("|", "\\|").replace("\n", " ");
+        }
+
+        @Nonnull
+        private static String size(long bytes) {
+            return FileUtils.byteCountToDisplaySize(bytes);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class SampledKey {
+        private final String key;
+        private final String encoding;
+        private final long ttl;
+        private final long memory;
+    }
+
+    @Getter
+    static class Stat {
+        private long count;
+        private long total;
+
+        void add(long value) {
+            this.count++;
+            this.total += value;
+        }
+    }
+}
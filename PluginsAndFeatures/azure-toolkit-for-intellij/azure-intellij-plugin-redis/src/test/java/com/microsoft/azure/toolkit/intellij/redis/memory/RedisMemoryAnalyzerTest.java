@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.redis.memory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class RedisMemoryAnalyzerTest {
+
+    @Test
+    public void getsPrefixOfSegmentsUpToDepth() {
+        Assert.assertEquals("user", analyzer(":", 1).getPrefix("user:42:cart"));
+        Assert.assertEquals("user:42", analyzer(":", 2).getPrefix("user:42:cart"));
+        // fewer segments than the depth: as many as there are, but the last which is the key itself
+        Assert.assertEquals("user:42", analyzer(":", 3).getPrefix("user:42:cart"));
+        Assert.assertEquals("a::b", analyzer("::", 2).getPrefix("a::b::c"));
+        Assert.assertEquals("", analyzer(":", 1).getPrefix(":orphan"));
+        Assert.assertEquals(RedisMemoryAnalyzer.NO_PREFIX, analyzer(":", 1).getPrefix("plain"));
+        Assert.assertEquals(RedisMemoryAnalyzer.NO_PREFIX, analyzer("", 1).getPrefix("user:42"));
+    }
+
+    @Test
+    public void groupsSampledKeysByPrefix() {
+        final RedisMemoryAnalyzer analyzer = analyzer(":", 1);
+        final RedisMemoryAnalyzer.Report report = new RedisMemoryAnalyzer.Report(1);
+        report.addScanned(5);
+        for (final String key : new String[]{"user:1", "user:2", "user:3"}) {
+            report.add(key, analyzer.getPrefix(key), "embstr", -1, 100);
+        }
+        report.add("session:a", analyzer.getPrefix("session:a"), "hashtable", 1000, 1000);
+        report.add("plain", analyzer.getPrefix("plain"), "int", -1, 10);
+
+        final Map<String, RedisMemoryAnalyzer.Stat> prefixes = report.getPrefixes();
+        Assert.assertEquals(3, prefixes.size());
+        assertStat(prefixes.get("user"), 3, 300);
+        assertStat(prefixes.get("session"), 1, 1000);
+        assertStat(prefixes.get(RedisMemoryAnalyzer.NO_PREFIX), 1, 10);
+        Assert.assertEquals(1310, report.getEstimatedBytes());
+
+        // prefixes are listed by memory used
+        final String md = report.toMarkdown("test");
+        Assert.assertTrue(md, md.indexOf("| `session` | 1 |") < md.indexOf("| `user` | 3 |"));
+        Assert.assertTrue(md, md.indexOf("| `user` | 3 |") < md.indexOf("| `" + RedisMemoryAnalyzer.NO_PREFIX + "` | 1 |"));
+    }
+
+    @Test
+    public void groupsPrefixesBeyondLimitAsOthers() {
+        final RedisMemoryAnalyzer.Report report = new RedisMemoryAnalyzer.Report(1);
+        for (int i = 0; i < RedisMemoryAnalyzer.MAX_PREFIXES; i++) {
+            report.add("p" + i + ":key", "p" + i, "embstr", -1, 1);
+        }
+        report.add("new:1", "new", "embstr", -1, 10);
+        report.add("new:2", "new", "embstr", -1, 10);
+        report.add("p0:other", "p0", "embstr", -1, 1);
+
+        final Map<String, RedisMemoryAnalyzer.Stat> prefixes = report.getPrefixes();
+        Assert.assertEquals(RedisMemoryAnalyzer.MAX_PREFIXES + 1, prefixes.size());
+        Assert.assertNull(prefixes.get("new"));
+        assertStat(prefixes.get(RedisMemoryAnalyzer.OTHER_PREFIXES), 2, 20);
+        // prefixes already known keep counting their keys
+        assertStat(prefixes.get("p0"), 2, 2);
+    }
+
+    @Test
+    public void extrapolatesSampledKeysToScannedKeys() {
+        final RedisMemoryAnalyzer.Report report = new RedisMemoryAnalyzer.Report(0.1);
+        report.addScanned(1000);
+        for (int i = 0; i < 60; i++) {
+            report.add("user:" + i, "user", "embstr", -1, 50);
+        }
+        for (int i = 0; i < 40; i++) {
+            report.add("order:" + i, "order", "hashtable", -1, 200);
+        }
+
+        Assert.assertEquals(1000, report.getScannedKeys());
+        Assert.assertEquals(100, report.getSampledKeys());
+        Assert.assertEquals(3000 + 8000, report.getSampledBytes());
+        Assert.assertEquals(110000, report.getEstimatedBytes());
+        final RedisMemoryAnalyzer.Stat user = report.getPrefixes().get("user");
+        Assert.assertEquals(600, report.estimate(user.getCount()));
+        Assert.assertEquals(30000, report.estimate(user.getTotal()));
+        final RedisMemoryAnalyzer.Stat order = report.getPrefixes().get("order");
+        Assert.assertEquals(400, report.estimate(order.getCount()));
+        Assert.assertEquals(80000, report.estimate(order.getTotal()));
+
+        final String md = report.toMarkdown("test");
+        Assert.assertTrue(md, md.contains("1000 keys scanned"));
+        Assert.assertTrue(md, md.contains("100 keys (10.0%) sampled"));
+        Assert.assertTrue(md, md.contains("| `order` | 400 | 78 KB | 72.7 | 200 bytes |"));
+        Assert.assertTrue(md, md.contains("| `user` | 600 | 29 KB | 27.3 | 50 bytes |"));
+    }
+
+    @Test
+    public void estimatesNothingIfNoKeysSampled() {
+        final RedisMemoryAnalyzer.Report report = new RedisMemoryAnalyzer.Report(0.01);
+        report.addScanned(50);
+
+        Assert.assertEquals(0, report.getEstimatedBytes());
+        Assert.assertEquals(0, report.estimate(0));
+        Assert.assertTrue(report.getPrefixes().isEmpty());
+        Assert.assertTrue(report.toMarkdown("test").contains("No keys sampled."));
+    }
+
+    private static RedisMemoryAnalyzer analyzer(String delimiter, int depth) {
+        return new RedisMemoryAnalyzer(1, 1000, delimiter, depth);
+    }
+
+    private static void assertStat(RedisMemoryAnalyzer.Stat stat, long count, long total) {
+        Assert.assertNotNull(stat);
+        Assert.assertEquals(count, stat.getCount());
+        Assert.assertEquals(total, stat.getTotal());
+    }
+}
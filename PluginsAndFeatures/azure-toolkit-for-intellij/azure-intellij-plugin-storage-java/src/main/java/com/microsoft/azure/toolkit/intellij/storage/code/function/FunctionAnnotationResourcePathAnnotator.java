@@ -13,17 +13,15 @@ import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiLiteralExpression;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.microsoft.azure.toolkit.intellij.storage.code.spring.StoragePathIndex;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
 import com.microsoft.azure.toolkit.lib.storage.IStorageAccount;
-import com.microsoft.azure.toolkit.lib.storage.blob.BlobContainer;
-import com.microsoft.azure.toolkit.lib.storage.model.StorageFile;
 import com.microsoft.azure.toolkit.lib.storage.queue.Queue;
 import com.microsoft.azure.toolkit.lib.storage.table.Table;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -91,8 +89,10 @@ public class FunctionAnnotationResourcePathAnnotator implements Annotator {
         final PsiLiteralExpression literal = (PsiLiteralExpression) element.getParent();
         final String path = literal.getValue() instanceof String ? (String) literal.getValue() : StringUtils.EMPTY;
         final String pathToValid = path.contains("{") ? StringUtils.substringBeforeLast(StringUtils.substringBefore(path, "{"), "/") : path; // get sub path without parameters
-        final StorageFile file = StringUtils.isBlank(path) ? null : getFileByPath(pathToValid, storageAccount);
-        if (Objects.isNull(file)) {
+        // paths not indexed yet are validated again once indexed in background
+        final StoragePathIndex.Existence existence = StringUtils.isBlank(path) ? StoragePathIndex.Existence.MISSING :
+                StoragePathIndex.getInstance(element.getProject()).exists(storageAccount, StoragePathIndex.Kind.BLOB, pathToValid);
+        if (existence == StoragePathIndex.Existence.MISSING) {
             final String message = StringUtils.isBlank(path) ? "Path could not be empty" :
                     String.format("Could not find blob container/file '%s' in account '%s'", pathToValid, storageAccount.getName());
             holder.newAnnotation(HighlightSeverity.WARNING, message)
@@ -101,12 +101,4 @@ public class FunctionAnnotationResourcePathAnnotator implements Annotator {
                     .create();
         }
     }
-
-    @Nullable
-    private StorageFile getFileByPath(@Nonnull final String fullPrefix, @Nonnull final IStorageAccount storageAccount) {
-        final String container = fullPrefix.contains("/") ? fullPrefix.substring(0, fullPrefix.indexOf("/")) : fullPrefix;
-        final String path = fullPrefix.contains("/") ? fullPrefix.substring(fullPrefix.indexOf("/") + 1) : "";
-        final BlobContainer blobContainer = storageAccount.getBlobContainerModule().get(container, storageAccount.getResourceGroupName());
-        return StringUtils.isEmpty(path) || Objects.isNull(blobContainer) ? blobContainer : blobContainer.getFile(path);
-    }
 }
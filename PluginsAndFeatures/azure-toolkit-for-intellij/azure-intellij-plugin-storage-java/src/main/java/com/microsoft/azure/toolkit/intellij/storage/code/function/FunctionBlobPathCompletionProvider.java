@@ -25,6 +25,7 @@ import com.microsoft.azure.toolkit.intellij.connector.code.function.FunctionAnno
 import com.microsoft.azure.toolkit.intellij.connector.code.function.FunctionAnnotationValueInsertHandler;
 import com.microsoft.azure.toolkit.intellij.connector.code.function.FunctionUtils;
 import com.microsoft.azure.toolkit.intellij.storage.code.spring.StoragePathCompletionContributor;
+import com.microsoft.azure.toolkit.intellij.storage.code.spring.StoragePathIndex;
 import com.microsoft.azure.toolkit.intellij.storage.connection.StorageAccountResourceDefinition;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
@@ -32,7 +33,6 @@ import com.microsoft.azure.toolkit.lib.common.operation.OperationBundle;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemeter;
 import com.microsoft.azure.toolkit.lib.common.telemetry.AzureTelemetry;
 import com.microsoft.azure.toolkit.lib.storage.IStorageAccount;
-import com.microsoft.azure.toolkit.lib.storage.model.StorageFile;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -83,18 +83,21 @@ public class FunctionBlobPathCompletionProvider extends CompletionProvider<Compl
         final String value = literal.getValue() instanceof String ? (String) literal.getValue() : StringUtils.EMPTY;
         final String fullPrefix = StringUtils.substringBefore(value, StoragePathCompletionContributor.DUMMY_IDENTIFIER);
         final List<IStorageAccount> accountsToSearch = Objects.nonNull(account) ? List.of(account) : getConnectedResources(module, StorageAccountResourceDefinition.INSTANCE);
-        final List<? extends StorageFile> files = getFiles("azure-blob://" + fullPrefix, accountsToSearch);
-        final BiFunction<StorageFile, String, LookupElementBuilder> builder = (file, title) -> LookupElementBuilder.create(title)
-                .withInsertHandler(new FunctionAnnotationValueInsertHandler(title.endsWith("/"), getAdditionalPropertiesFromCompletion(getStorageAccount(file), module)))
+        final String parentPath = getParentPath(fullPrefix);
+        final StoragePathIndex index = StoragePathIndex.getInstance(module.getProject());
+        final List<StoragePathIndex.Entry> entries = accountsToSearch.stream()
+                .flatMap(a -> index.list(a, StoragePathIndex.Kind.BLOB, parentPath).stream()).toList();
+        final BiFunction<StoragePathIndex.Entry, String, LookupElementBuilder> builder = (entry, title) -> LookupElementBuilder.create(title)
+                .withInsertHandler(new FunctionAnnotationValueInsertHandler(title.endsWith("/"), getAdditionalPropertiesFromCompletion(entry.getAccount(), module)))
                 .withBoldness(true)
                 .withCaseSensitivity(false)
-                .withTypeText(file.getResourceTypeName())
-                .withTailText(" " + Optional.ofNullable(getStorageAccount(file)).map(IStorageAccount::getName).orElse(""))
-                .withIcon(IntelliJAzureIcons.getIcon(getFileIcon(file)));
-        for (final StorageFile file : files) {
-            result.addElement(builder.apply(file, file.getName()));
-            if (file.isDirectory()) {
-                result.addElement(builder.apply(file, file.getName() + "/"));
+                .withTypeText(entry.getResourceTypeName())
+                .withTailText(" " + entry.getAccount().getName())
+                .withIcon(IntelliJAzureIcons.getIcon(getFileIcon(entry)));
+        for (final StoragePathIndex.Entry entry : entries) {
+            result.addElement(builder.apply(entry, entry.getName()));
+            if (entry.isDirectory()) {
+                result.addElement(builder.apply(entry, entry.getName() + "/"));
             }
         }
         AzureTelemeter.log(AzureTelemetry.Type.OP_END, OperationBundle.description("boundary/connector.complete_blob_path"));
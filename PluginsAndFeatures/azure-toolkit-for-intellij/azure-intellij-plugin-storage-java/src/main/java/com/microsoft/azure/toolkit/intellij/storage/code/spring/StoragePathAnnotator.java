@@ -23,7 +23,6 @@ import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
 import com.microsoft.azure.toolkit.lib.common.model.AzComponent;
 import com.microsoft.azure.toolkit.lib.storage.IStorageAccount;
-import com.microsoft.azure.toolkit.lib.storage.model.StorageFile;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
@@ -69,8 +68,11 @@ public class StoragePathAnnotator implements Annotator {
                         AnnotationFixes.createSignInAnnotation(element, holder);
                         return;
                     }
-                    final StorageFile file = StoragePathCompletionProvider.getFile(valueWithPrefix, accounts);
-                    if (Objects.isNull(file)) {
+                    final StoragePathIndex index = StoragePathIndex.getInstance(element.getProject());
+                    final StoragePathIndex.Kind kind = Objects.requireNonNull(StoragePathIndex.Kind.fromPath(valueWithPrefix));
+                    // paths not indexed yet are highlighted again once indexed in background
+                    final boolean missing = accounts.stream().allMatch(a -> index.exists(a, kind, path) == StoragePathIndex.Existence.MISSING);
+                    if (missing) {
                         final String message = String.format("Could not find '%s' in connected Azure Storage account(s) [%s]", path, accounts.stream().map(AzComponent::getName).collect(Collectors.joining(",")));
                         holder.newAnnotation(HighlightSeverity.WARNING, message)
                             .range(range)
@@ -87,21 +87,24 @@ public class StoragePathCompletionProvider extends CompletionProvider<Completion
                         .withTailText(" " + a.getData().getResourceGroupName())
                         .withIcon(IntelliJAzureIcons.getIcon(AzureIcons.StorageAccount.MODULE))).forEach(result::addElement);
             } else {
-                final List<? extends StorageFile> files = getFiles(fullPrefix, accounts);
+                final StoragePathIndex.Kind kind = isBlobContainer ? StoragePathIndex.Kind.BLOB : StoragePathIndex.Kind.FILE;
+                final String parentPath = getParentPath(fullPrefix);
+                final StoragePathIndex index = StoragePathIndex.getInstance(module.getProject());
+                final List<StoragePathIndex.Entry> entries = accounts.stream().flatMap(a -> index.list(a, kind, parentPath).stream()).toList();
                 final String[] parts = result.getPrefixMatcher().getPrefix().trim().split("/", -1);
                 result = result.withPrefixMatcher(parts[parts.length - 1]);
-                AzureTelemeter.info("connector.resources_count.storage_resources_code_completion", ImmutableMap.of("count", files.size() + ""));
-                final BiFunction<StorageFile, String, LookupElementBuilder> builder = (file, title) -> LookupElementBuilder.create(title)
+                AzureTelemeter.info("connector.resources_count.storage_resources_code_completion", ImmutableMap.of("count", entries.size() + ""));
+                final BiFunction<StoragePathIndex.Entry, String, LookupElementBuilder> builder = (entry, title) -> LookupElementBuilder.create(title)
                     .withInsertHandler(new MyInsertHandler(title.endsWith("/")))
                     .withBoldness(true)
                     .withCaseSensitivity(false)
-                    .withTypeText(file.getResourceTypeName())
-                    .withTailText(" " + Optional.ofNullable(getStorageAccount(file)).map(IStorageAccount::getName).orElse(""))
-                    .withIcon(IntelliJAzureIcons.getIcon(getFileIcon(file)));
-                for (final StorageFile file : files) {
-                    result.addElement(builder.apply(file, file.getName()));
-                    if (file.isDirectory()) {
-                        result.addElement(builder.apply(file, file.getName() + "/"));
+                    .withTypeText(entry.getResourceTypeName())
+                    .withTailText(" " + entry.getAccount().getName())
+                    .withIcon(IntelliJAzureIcons.getIcon(getFileIcon(entry)));
+                for (final StoragePathIndex.Entry entry : entries) {
+                    result.addElement(builder.apply(entry, entry.getName()));
+                    if (entry.isDirectory()) {
+                        result.addElement(builder.apply(entry, entry.getName() + "/"));
                     }
                 }
             }
@@ -128,6 +131,16 @@ public class StoragePathCompletionProvider extends CompletionProvider<Completion
         return files;
     }
 
+    /**
+     * @return path of the parent container/directory of the path being completed, without prefix,
+     * e.g. {@code container/dir} of {@code azure-blob://container/dir/fi}
+     */
+    @Nonnull
+    public static String getParentPath(@Nonnull String fullPrefix) {
+        final String fixedFullPrefix = fullPrefix.replace("azure-blob://", "").replace("azure-file://", "").trim();
+        return fixedFullPrefix.contains("/") ? StringUtils.substringBeforeLast(fixedFullPrefix, "/") : "";
+    }
+
     public static List<Connection<?, ?>> getConnections(Module module) {
         return Optional.of(module).map(AzureModule::from)
             .map(AzureModule::getDefaultProfile).map(Profile::getConnectionManager).stream()
@@ -193,6 +206,14 @@ public class StoragePathCompletionProvider extends CompletionProvider<Completion
         return AzureIcon.builder().iconPath("file/" + fileIconName).build();
     }
 
+    public static AzureIcon getFileIcon(StoragePathIndex.Entry entry) {
+        if (entry.getParentPath().isEmpty()) {
+            return AzureIcon.builder().iconPath(String.format("/icons/%s/default.svg", entry.getFullResourceType())).build();
+        }
+        final String fileIconName = entry.isDirectory() ? "folder" : FilenameUtils.getExtension(entry.getName());
+        return AzureIcon.builder().iconPath("file/" + fileIconName).build();
+    }
+
     public static void navigateToFile(StorageFile file, Module module) {
         if (Objects.nonNull(module)) {
             final List<Connection<?, ?>> connections = StoragePathCompletionProvider.getConnections(module);
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.storage.code.spring;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.xmlb.annotations.Tag;
+import com.intellij.util.xmlb.annotations.XCollection;
+import com.microsoft.azure.toolkit.lib.common.event.AzureEvent;
+import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
+import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
+import com.microsoft.azure.toolkit.lib.storage.IStorageAccount;
+import com.microsoft.azure.toolkit.lib.storage.model.StorageFile;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the blob containers/file shares and their directories and files of the connected storage accounts, for
+ * code completion and highlighting of storage paths (e.g. {@code azure-blob://container/dir/file}) without calling
+ * the storage service on the calling thread.
+ * <p>
+ * Paths are indexed in a trie of path segments per account and kind (blob or file). Children of a segment are listed
+ * in background on first query and then served from the index. They are listed again in background once the resource
+ * is refreshed or its children changed in Azure Explorer. The index is persisted across restarts, and indexed paths
+ * are revalidated in background on first query after restart.
+ */
+@Slf4j
+@State(name = "AzureStoragePathIndex", storages = {@Storage(StoragePathMacros.CACHE_FILE)})
+public class StoragePathIndex implements PersistentStateComponent<StoragePathIndex.IndexState>, Disposable {
+    private static final int MAX_PERSISTED_PATHS = 20000;
+    private static final long RETRY_INTERVAL_MS = 30_000;
+    private static final String[] EVENT_TYPES = {"resource.children_changed.resource", "resource.refreshed.resource", "module.children_changed.module"};
+
+    public enum Kind {
+        BLOB("azure-blob://"), FILE("azure-file://");
+
+        @Getter
+        private final String prefix;
+
+        Kind(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Nullable
+        public static Kind fromPath(@Nullable String pathWithPrefix) {
+            return Arrays.stream(values()).filter(k -> StringUtils.startsWith(pathWithPrefix, k.prefix)).findFirst().orElse(null);
+        }
+    }
+
+    public enum Existence {
+        FOUND, MISSING,
+        /**
+         * not indexed yet, being indexed in background
+         */
+        UNKNOWN
+    }
+
+    @Nonnull
+    private final Project project;
+    // trie roots by account id and kind
+    private final Map<String, PathNode> roots = new ConcurrentHashMap<>();
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    // last failure time of listing children by path, to not retry on every highlighting
+    private final Map<String, Long> failures = new ConcurrentHashMap<>();
+    private final AzureEventBus.EventListener listener = new AzureEventBus.EventListener(this::onEvent);
+
+    public StoragePathIndex(@Nonnull Project project) {
+        this.project = project;
+        Arrays.stream(EVENT_TYPES).forEach(type -> AzureEventBus.on(type, listener));
+    }
+
+    public static StoragePathIndex getInstance(@Nonnull Project project) {
+        return project.getService(StoragePathIndex.class);
+    }
+
+    /**
+     * @param parentPath path of the parent container/directory without prefix, e.g. {@code container/dir}, or empty
+     *                   for the containers/shares of the account
+     * @return indexed children of the parent, which may be stale or empty if it's not indexed yet
+     */
+    @Nonnull
+    public List<Entry> list(@Nonnull IStorageAccount account, @Nonnull Kind kind, @Nonnull String parentPath) {
+        final List<String> segments = split(parentPath);
+        // the ancestors are indexed on the way if not yet
+        final PathNode parent = segments.isEmpty() ? this.roots.computeIfAbsent(rootKey(account, kind), k -> PathNode.root()) :
+            this.lookup(account, kind, segments).node;
+        if (parent == null || !parent.directory) {
+            return Collections.emptyList();
+        }
+        this.loadIfNeeded(account, kind, segments, parent);
+        return parent.children.values().stream()
+            .map(c -> new Entry(account, kind, StringUtils.join(segments, "/"), c.name, c.directory, c.typeName, c.fullType))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @param path path without prefix, e.g. {@code container/dir/file}
+     */
+    @Nonnull
+    public Existence exists(@Nonnull IStorageAccount account, @Nonnull Kind kind, @Nonnull String path) {
+        return this.lookup(account, kind, split(path)).existence;
+    }
+
+    /**
+     * @param path path without prefix, e.g. {@code container/dir/file}
+     * @return the indexed entry of the path, or null if it's missing or not indexed yet
+     */
+    @Nullable
+    public Entry get(@Nonnull IStorageAccount account, @Nonnull Kind kind, @Nonnull String path) {
+        final List<String> segments = split(path);
+        final Lookup lookup = this.lookup(account, kind, segments);
+        if (lookup.existence != Existence.FOUND || lookup.node == null) {
+            return null;
+        }
+        final String parentPath = StringUtils.join(segments.subList(0, segments.size() - 1), "/");
+        return new Entry(account, kind, parentPath, lookup.node.name, lookup.node.directory, lookup.node.typeName, lookup.node.fullType);
+    }
+
+    @Nonnull
+    private Lookup lookup(@Nonnull IStorageAccount account, @Nonnull Kind kind, @Nonnull List<String> segments) {
+        if (segments.isEmpty()) {
+            return new Lookup(Existence.MISSING, null);
+        }
+        PathNode node = this.roots.computeIfAbsent(rootKey(account, kind), k -> PathNode.root());
+        for (int i = 0; i < segments.size(); i++) {
+            if (!node.directory) {
+                return new Lookup(Existence.MISSING, null);
+            }
+            this.loadIfNeeded(account, kind, segments.subList(0, i), node);
+            if (!node.loaded) {
+                return new Lookup(Existence.UNKNOWN, null);
+            }
+            final PathNode child = node.children.get(segments.get(i).trim().toLowerCase());
+            if (child == null) {
+                return new Lookup(Existence.MISSING, null);
+            }
+            node = child;
+        }
+        return new Lookup(Existence.FOUND, node);
+    }
+
+    private void loadIfNeeded(@Nonnull IStorageAccount account, @Nonnull Kind kind, @Nonnull List<String> segments, @Nonnull PathNode node) {
+        if (node.loaded && !node.stale) {
+            return;
+        }
+        final String parentPath = StringUtils.join(segments, "/");
+        final String loadingKey = rootKey(account, kind) + "/" + parentPath.toLowerCase();
+        final Long failedAt = this.failures.get(loadingKey);
+        if (failedAt != null && System.currentTimeMillis() - failedAt < RETRY_INTERVAL_MS || !this.loading.add(loadingKey)) {
+            return;
+        }
+        final List<String> path = List.copyOf(segments);
+        AzureTaskManager.getInstance().runOnPooledThread(() -> {
+            final boolean changed;
+            try {
+                final List<StorageFile> files = listChildren(account, kind, path);
+                final Map<String, PathNode> previousChildren = node.children;
+                final Map<String, PathNode> children = new HashMap<>();
+                for (final StorageFile file : files) {
+                    final PathNode previous = previousChildren.get(file.getName().toLowerCase());
+                    final PathNode child = new PathNode(file.getName(), file.isDirectory(), file.getResourceTypeName(), file.getFullResourceType());
+                    // keep the indexed descendants, which are revalidated on their own
+                    if (previous != null && previous.directory && child.directory) {
+                        child.children = previous.children;
+                        child.loaded = previous.loaded;
+                        child.stale = true;
+                    }
+                    children.put(file.getName().toLowerCase(), child);
+                }
+                changed = !node.loaded || !isSameListing(previousChildren, children);
+                // publish the new children at once, so that readers never see a partial listing
+                node.children = Collections.unmodifiableMap(children);
+                node.loaded = true;
+                node.stale = false;
+                this.failures.remove(loadingKey);
+            } catch (final Throwable e) {
+                // e.g. signed out or no permission, keep what's indexed and retry later
+                log.debug("failed to index storage path {}", loadingKey, e);
+                this.failures.put(loadingKey, System.currentTimeMillis());
+                return;
+            } finally {
+                this.loading.remove(loadingKey);
+            }
+            if (!changed) {
+                return;
+            }
+            // highlight again with the indexed paths
+            AzureTaskManager.getInstance().runLater(() -> {
+                if (!this.project.isDisposed()) {
+                    DaemonCodeAnalyzer.getInstance(this.project).restart();
+                }
+            });
+        });
+    }
+
+    private static boolean isSameListing(@Nonnull Map<String, PathNode> previous, @Nonnull Map<String, PathNode> current) {
+        return previous.size() == current.size() && current.entrySet().stream().allMatch(e -> {
+            final PathNode p = previous.get(e.getKey());
+            return p != null && p.directory == e.getValue().directory;
+        });
+    }
+
+    @Nonnull
+    private static List<StorageFile> listChildren(@Nonnull IStorageAccount account, @Nonnull Kind kind, @Nonnull List<String> segments) {
+        List<StorageFile> files = (kind == Kind.BLOB ? account.getBlobContainerModule().list() : account.getShareModule().list())
+            .stream().map(f -> (StorageFile) f).toList();
+        for (final String segment : segments) {
+            final StorageFile parent = files.stream()
+                .filter(f -> f.getName().equalsIgnoreCase(segment.trim()) && f.isDirectory())
+                .findFirst().orElse(null);
+            if (parent == null) {
+                return Collections.emptyList();
+            }
+            files = parent.getSubFileModule().list().stream().map(f -> (StorageFile) f).toList();
+        }
+        return files;
+    }
+
+    private void onEvent(@Nonnull AzureEvent event) {
+        final Object source = event.getSource();
+        final IStorageAccount account;
+        if (source instanceof IStorageAccount a) {
+            account = a;
+        } else if (source instanceof StorageFile file) {
+            account = StoragePathCompletionProvider.getStorageAccount(file);
+        } else if (source instanceof AbstractAzResourceModule<?, ?, ?> module && module.getParent() instanceof IStorageAccount a) {
+            account = a;
+        } else {
+            account = null;
+        }
+        if (Objects.nonNull(account)) {
+            Arrays.stream(Kind.values()).map(k -> this.roots.get(rootKey(account, k))).filter(Objects::nonNull).forEach(PathNode::markStale);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        Arrays.stream(EVENT_TYPES).forEach(type -> AzureEventBus.off(type, listener));
+    }
+
+    @Override
+    public IndexState getState() {
+        final IndexState state = new IndexState();
+        // breadth first, a directory's children are persisted all or none, and a directory whose children don't fit
+        // is persisted as not loaded, so that its children are listed again rather than taken as missing.
+        final Deque<Pair<PathNode, IndexedPath>> queue = new ArrayDeque<>();
+        this.roots.forEach((key, root) -> queue.add(Pair.of(root, new IndexedPath(key, "", true, root.loaded, null, null))));
+        while (!queue.isEmpty()) {
+            final Pair<PathNode, IndexedPath> current = queue.poll();
+            final PathNode node = current.getLeft();
+            final IndexedPath entry = current.getRight();
+            final Collection<PathNode> children = node.children.values();
+            if (children.isEmpty()) {
+                continue;
+            }
+            if (state.paths.size() + children.size() > MAX_PERSISTED_PATHS) {
+                entry.loaded = false;
+                continue;
+            }
+            for (final PathNode child : children) {
+                final String path = entry.path.isEmpty() ? child.name : entry.path + "/" + child.name;
+                final IndexedPath childEntry = new IndexedPath(entry.root, path, child.directory, child.loaded, child.typeName, child.fullType);
+                state.paths.add(childEntry);
+                queue.add(Pair.of(child, childEntry));
+            }
+        }
+        return state;
+    }
+
+    @Override
+    public void loadState(@Nonnull IndexState state) {
+        this.roots.clear();
+        for (final IndexedPath path : state.paths) {
+            final PathNode root = this.roots.computeIfAbsent(path.root, k -> PathNode.root());
+            PathNode node = root;
+            for (final String segment : split(path.path)) {
+                final PathNode parent = node;
+                node = parent.getOrAddChild(segment);
+                parent.loaded = true;
+            }
+            node.directory = path.directory;
+            node.typeName = path.typeName;
+            node.fullType = path.fullType;
+            node.loaded = node.loaded || path.loaded;
+        }
+        // serve the persisted paths, but revalidate them in background on first query
+        this.roots.values().forEach(PathNode::markStale);
+    }
+
+    @Nonnull
+    private static String rootKey(@Nonnull IStorageAccount account, @Nonnull Kind kind) {
+        return account.getId().toLowerCase() + "|" + kind.name();
+    }
+
+    @Nonnull
+    private static List<String> split(@Nonnull String path) {
+        return Arrays.stream(path.split("/")).filter(StringUtils::isNotBlank).collect(Collectors.toList());
+    }
+
+    /**
+     * indexed container/share, directory or file
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        @Nonnull
+        private final IStorageAccount account;
+        @Nonnull
+        private final Kind kind;
+        @Nonnull
+        private final String parentPath;
+        @Nonnull
+        private final String name;
+        private final boolean directory;
+        @Nullable
+        private final String resourceTypeName;
+        @Nullable
+        private final String fullResourceType;
+
+        @Nonnull
+        public String getPathWithPrefix() {
+            return kind.prefix + (parentPath.isEmpty() ? "" : parentPath + "/") + name;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Lookup {
+        private final Existence existence;
+        @Nullable
+        private final PathNode node;
+    }
+
+    private static class PathNode {
+        private final String name;
+        private volatile boolean directory;
+        private volatile String typeName;
+        private volatile String fullType;
+        // children are listed (maybe stale)
+        private volatile boolean loaded;
+        // children should be listed again
+        private volatile boolean stale;
+        // replaced as a whole once listed, never modified in place except while loading the persisted state
+        private volatile Map<String, PathNode> children = new ConcurrentHashMap<>();
+
+        PathNode(String name, boolean directory, @Nullable String typeName, @Nullable String fullType) {
+            this.name = name;
+            this.directory = directory;
+            this.typeName = typeName;
+            this.fullType = fullType;
+        }
+
+        static PathNode root() {
+            return new PathNode("", true, null, null);
+        }
+
+        @Nonnull
+        PathNode getOrAddChild(@Nonnull String segment) {
+            final Map<String, PathNode> map = this.children instanceof ConcurrentHashMap ? this.children : (this.children = new ConcurrentHashMap<>(this.children));
+            return map.computeIfAbsent(segment.toLowerCase(), k -> new PathNode(segment, true, null, null));
+        }
+
+        void markStale() {
+            this.stale = true;
+            this.children.values().forEach(PathNode::markStale);
+        }
+    }
+
+    public static class IndexState {
+        @XCollection(style = XCollection.Style.v2)
+        public List<IndexedPath> paths = new ArrayList<>();
+    }
+
+    @Tag("path")
+    public static class IndexedPath {
+        public String root;
+        public String path;
+        public boolean directory;
+        public boolean loaded;
+        public String typeName;
+        public String fullType;
+
+        @SuppressWarnings("unused")
+        public IndexedPath() {
+        }
+
+        IndexedPath(String root, String path, boolean directory, boolean loaded, String typeName, String fullType) {
+            this.root = root;
+            this.path = path;
+            this.directory = directory;
+            this.loaded = loaded;
+            this.typeName = typeName;
+            this.fullType = fullType;
+        }
+    }
+}
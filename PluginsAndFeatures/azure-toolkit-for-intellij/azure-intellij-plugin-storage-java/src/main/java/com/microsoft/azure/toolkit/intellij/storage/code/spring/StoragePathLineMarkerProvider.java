@@ -15,10 +15,14 @@ import com.intellij.psi.JavaTokenType;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiLiteralExpression;
 import com.microsoft.azure.toolkit.intellij.common.IntelliJAzureIcons;
+import com.microsoft.azure.toolkit.intellij.connector.code.Utils;
+import com.microsoft.azure.toolkit.intellij.storage.connection.StorageAccountResourceDefinition;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.storage.model.StorageFile;
 import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -38,11 +42,16 @@ public class StoragePathLineMarkerProvider implements LineMarkerProvider {
         if (psiElement(JavaTokenType.STRING_LITERAL).withParent(literalExpression()).accepts(element) && element.getParent() instanceof PsiLiteralExpression literal) {
             final Module module = ModuleUtil.findModuleForPsiElement(element);
             final String valueWithPrefix = literal.getValue() instanceof String ? (String) literal.getValue() : element.getText();
-            if (Objects.nonNull(module) && (valueWithPrefix.startsWith("azure-blob://") || valueWithPrefix.startsWith("azure-file://"))) {
-                final String prefix = valueWithPrefix.startsWith("azure-blob://") ? "azure-blob://" : "azure-file://";
-                final StorageFile file = StoragePathCompletionProvider.getFile(valueWithPrefix, module);
-                if (Objects.nonNull(file)) {
-                    return new ResourceLineMarkerInfo(element, file);
+            final StoragePathIndex.Kind kind = StoragePathIndex.Kind.fromPath(valueWithPrefix);
+            if (Objects.nonNull(module) && Objects.nonNull(kind)) {
+                final String path = valueWithPrefix.substring(kind.getPrefix().length());
+                final StoragePathIndex index = StoragePathIndex.getInstance(module.getProject());
+                final StoragePathIndex.Entry entry = Utils.getConnectedResources(module, StorageAccountResourceDefinition.INSTANCE).stream()
+                    .map(a -> index.get(a, kind, path))
+                    .filter(Objects::nonNull)
+                    .findFirst().orElse(null);
+                if (Objects.nonNull(entry)) {
+                    return new ResourceLineMarkerInfo(element, entry);
                 }
             }
         }
@@ -51,25 +60,32 @@ public class StoragePathLineMarkerProvider implements LineMarkerProvider {
 
     static class ResourceLineMarkerInfo extends MergeableLineMarkerInfo<PsiElement> {
         @Getter
-        private final StorageFile file;
+        private final StoragePathIndex.Entry entry;
 
-        public ResourceLineMarkerInfo(final PsiElement element, final StorageFile file) {
+        public ResourceLineMarkerInfo(final PsiElement element, final StoragePathIndex.Entry entry) {
             super(element, element.getTextRange(),
-                IntelliJAzureIcons.getIcon(StoragePathCompletionProvider.getFileIcon(file)),
+                IntelliJAzureIcons.getIcon(StoragePathCompletionProvider.getFileIcon(entry)),
                 ignore -> Azure.az(AzureAccount.class).isLoggedIn()?
-                    String.format(LINE_MARKER_NAVIGATE_TOOLTIP, file.getResourceTypeName(), file.getName()):
+                    String.format(LINE_MARKER_NAVIGATE_TOOLTIP, entry.getResourceTypeName(), entry.getName()):
                     "Navigate to Azure Storage in Project Explorer",
                 null, (e, element1) -> {
                     final Module module = ModuleUtil.findModuleForPsiElement(element1);
-                    StoragePathCompletionProvider.navigateToFile(file, module);
-                }, GutterIconRenderer.Alignment.LEFT, file::getName);
-            this.file = file;
+                    // the indexed entry is resolved to the storage file only on navigation
+                    AzureTaskManager.getInstance().runOnPooledThread(() -> {
+                        final StorageFile file = StoragePathCompletionProvider.getFile(entry.getPathWithPrefix(), List.of(entry.getAccount()));
+                        if (Objects.nonNull(file)) {
+                            AzureTaskManager.getInstance().runLater(() -> StoragePathCompletionProvider.navigateToFile(file, module));
+                        }
+                    });
+                }, GutterIconRenderer.Alignment.LEFT, entry::getName);
+            this.entry = entry;
         }
 
         @Override
         public boolean canMergeWith(@Nonnull MergeableLineMarkerInfo<?> info) {
-            return info instanceof ResourceLineMarkerInfo &&
-                Objects.equals(((ResourceLineMarkerInfo) info).file, this.file);
+            return info instanceof ResourceLineMarkerInfo other &&
+                Objects.equals(other.entry.getAccount().getId(), this.entry.getAccount().getId()) &&
+                StringUtils.equalsIgnoreCase(other.entry.getPathWithPrefix(), this.entry.getPathWithPrefix());
         }
 
         @Override
@@ -43,6 +43,17 @@ public class BeforeRunTaskAdder implements RunManagerListener, ConnectionTopics.
         }
     }
 
+    @Override
+    public void runConfigurationSelected(@Nullable RunnerAndConfigurationSettings settings) {
+        final RunConfiguration config = Optional.ofNullable(settings).map(RunnerAndConfigurationSettings::getConfiguration).orElse(null);
+        if (Objects.isNull(config) || config.getBeforeRunTasks().stream().noneMatch(t -> t instanceof DotEnvBeforeRunTaskProvider.LoadDotEnvBeforeRunTask)) {
+            return;
+        }
+        // check the connections in background, so that launching the configuration can use the cached result
+        AzureModule.createIfSupport(config).map(AzureModule::getDefaultProfile).map(Profile::getConnections)
+            .ifPresent(connections -> ConnectionEnvironmentCache.getInstance(config.getProject()).prewarm(connections));
+    }
+
     @Override
     @ExceptionNotification
     @AzureOperation(name = "boundary/connector.update_connection_task")
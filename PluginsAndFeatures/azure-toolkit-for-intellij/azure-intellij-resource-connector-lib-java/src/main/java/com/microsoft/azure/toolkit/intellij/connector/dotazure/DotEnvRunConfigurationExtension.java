@@ -1,6 +1,10 @@
 package com.microsoft.azure.toolkit.intellij.connector.dotazure;
 
 import com.intellij.execution.RunConfigurationExtension;
+import com.intellij.execution.process.ProcessAdapter;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.process.ProcessOutputTypes;
 import com.intellij.execution.configurations.JavaParameters;
 import com.intellij.execution.configurations.RunConfigurationBase;
 import com.intellij.execution.configurations.RunnerSettings;
@@ -8,6 +12,8 @@ import com.microsoft.azure.toolkit.lib.common.messager.ExceptionNotification;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
 
 public class DotEnvRunConfigurationExtension extends RunConfigurationExtension {
 
@@ -22,6 +28,24 @@ public class DotEnvRunConfigurationExtension extends RunConfigurationExtension {
                 .forEach(p -> params.addEnv(p.getKey(), p.getValue()));
     }
 
+    @Override
+    protected void attachToProcess(@Nonnull RunConfigurationBase<?> config, @Nonnull ProcessHandler handler, @Nullable RunnerSettings s) {
+        final List<String> times = config.getBeforeRunTasks().stream()
+                .filter(t -> t instanceof DotEnvBeforeRunTaskProvider.LoadDotEnvBeforeRunTask)
+                .flatMap(t -> ((DotEnvBeforeRunTaskProvider.LoadDotEnvBeforeRunTask) t).getLoadingTimes().stream())
+                .toList();
+        if (times.isEmpty()) {
+            return;
+        }
+        // text notified before the process is started is not shown, since the console is not attached yet.
+        handler.addProcessListener(new ProcessAdapter() {
+            @Override
+            public void startNotified(@Nonnull ProcessEvent event) {
+                times.forEach(t -> handler.notifyTextAvailable(t + System.lineSeparator(), ProcessOutputTypes.SYSTEM));
+            }
+        });
+    }
+
     @Override
     public boolean isApplicableFor(@Nonnull RunConfigurationBase<?> configuration) {
         return configuration.getBeforeRunTasks().stream().anyMatch(t -> t instanceof DotEnvBeforeRunTaskProvider.LoadDotEnvBeforeRunTask);
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.connector.dotazure;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.microsoft.azure.toolkit.intellij.connector.Connection;
+import com.microsoft.azure.toolkit.intellij.connector.ConnectionTopics;
+import com.microsoft.azure.toolkit.lib.common.event.AzureEvent;
+import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.model.AzResource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static com.microsoft.azure.toolkit.intellij.connector.ConnectionTopics.CONNECTION_CHANGED;
+
+/**
+ * Caches the validity and the environment variables of resource connections for a while, so that launching a run
+ * configuration doesn't check and resolve (which may call Azure for keys, connection strings, identities...) every
+ * connection again. Connections are resolved concurrently, and the cached values of a connection are invalidated once
+ * the connection or its resource changes.
+ */
+public class ConnectionEnvironmentCache implements Disposable {
+    private static final long TTL_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final String[] EVENT_TYPES = {"resource.status_changed.resource", "account.logged_in.account", "account.logged_out.account"};
+
+    @Nonnull
+    private final Project project;
+    private final Map<String, Cached<Boolean>> validities = new ConcurrentHashMap<>();
+    private final Map<String, Cached<Map<String, String>>> environments = new ConcurrentHashMap<>();
+    private final AzureEventBus.EventListener listener = new AzureEventBus.EventListener(this::onEvent);
+
+    public ConnectionEnvironmentCache(@Nonnull Project project) {
+        this.project = project;
+        for (final String type : EVENT_TYPES) {
+            AzureEventBus.on(type, listener);
+        }
+        project.getMessageBus().connect(this).subscribe(CONNECTION_CHANGED,
+            (ConnectionTopics.ConnectionChanged) (p, connection, action) -> this.invalidate(connection));
+    }
+
+    public static ConnectionEnvironmentCache getInstance(@Nonnull Project project) {
+        return project.getService(ConnectionEnvironmentCache.class);
+    }
+
+    /**
+     * checks the validity of the connections concurrently
+     *
+     * @return the invalid connections, in the order of {@code connections}
+     */
+    @Nonnull
+    public List<Connection<?, ?>> listInvalid(@Nonnull List<Connection<?, ?>> connections) {
+        final List<CompletableFuture<Boolean>> futures = connections.stream().map(this::isValidAsync).toList();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        final List<Connection<?, ?>> result = new ArrayList<>();
+        for (int i = 0; i < connections.size(); i++) {
+            if (!Boolean.TRUE.equals(futures.get(i).exceptionally(e -> false).join())) {
+                result.add(connections.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * resolves the environment variables of the connections concurrently
+     *
+     * @return the resolved connections, in the order of {@code connections}
+     * @throws AzureToolkitRuntimeException if failed to resolve any of them
+     */
+    @Nonnull
+    public List<Resolved> resolve(@Nonnull List<Connection<?, ?>> connections) {
+        final List<CompletableFuture<Resolved>> futures = connections.stream().map(c -> {
+            final long start = System.currentTimeMillis();
+            final boolean cached = isCached(this.environments, envKey(c));
+            return this.getEnvironmentVariablesAsync(c)
+                .thenApply(env -> new Resolved(c, env, System.currentTimeMillis() - start, cached));
+        }).toList();
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (final CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new AzureToolkitRuntimeException(e.getCause());
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * checks the validity of the connections and resolves the environment variables of the valid ones in background,
+     * e.g. once the run configuration is selected
+     */
+    public void prewarm(@Nonnull List<Connection<?, ?>> connections) {
+        connections.forEach(c -> this.isValidAsync(c).thenAccept(valid -> {
+            if (Boolean.TRUE.equals(valid)) {
+                this.getEnvironmentVariablesAsync(c);
+            }
+        }));
+    }
+
+    public void invalidate(@Nonnull Connection<?, ?> connection) {
+        this.validities.keySet().removeIf(k -> StringUtils.startsWith(k, connection.getId() + "|"));
+        this.environments.keySet().removeIf(k -> StringUtils.startsWith(k, connection.getId() + "|"));
+    }
+
+    private CompletableFuture<Boolean> isValidAsync(@Nonnull Connection<?, ?> connection) {
+        // only valid connections are cached, invalid ones are checked again after being fixed.
+        return get(this.validities, envKey(connection), connection::isValidConnection, Boolean.TRUE::equals);
+    }
+
+    private CompletableFuture<Map<String, String>> getEnvironmentVariablesAsync(@Nonnull Connection<?, ?> connection) {
+        return get(this.environments, envKey(connection), () -> connection.getEnvironmentVariables(this.project), Objects::nonNull);
+    }
+
+    private static <T> CompletableFuture<T> get(@Nonnull Map<String, Cached<T>> cache, @Nonnull String key,
+                                                @Nonnull Supplier<T> loader, @Nonnull Predicate<T> cacheable) {
+        final long now = System.currentTimeMillis();
+        final Cached<T> cached = cache.compute(key, (k, c) -> Objects.nonNull(c) && now - c.createdAt < TTL_MS ? c :
+            new Cached<>(CompletableFuture.supplyAsync(loader, AppExecutorUtil.getAppExecutorService()), now));
+        cached.future.whenComplete((value, error) -> {
+            if (Objects.nonNull(error) || !cacheable.test(value)) {
+                cache.remove(key, cached);
+            }
+        });
+        return cached.future;
+    }
+
+    private static boolean isCached(@Nonnull Map<String, ? extends Cached<?>> cache, @Nonnull String key) {
+        final Cached<?> cached = cache.get(key);
+        return Objects.nonNull(cached) && cached.future.isDone() && !cached.future.isCompletedExceptionally() &&
+            System.currentTimeMillis() - cached.createdAt < TTL_MS;
+    }
+
+    @Nonnull
+    private static String envKey(@Nonnull Connection<?, ?> connection) {
+        return connection.getId() + "|" + connection.getResource().getDataId() + "|" + connection.getConsumer().getDataId();
+    }
+
+    private void onEvent(@Nonnull AzureEvent event) {
+        final Object source = event.getSource();
+        if (source instanceof AzResource resource) {
+            // keys: <connection id>|<resource id>|<consumer id>
+            final String id = "|" + resource.getId().toLowerCase() + "|";
+            this.validities.keySet().removeIf(k -> k.toLowerCase().contains(id));
+            this.environments.keySet().removeIf(k -> k.toLowerCase().contains(id));
+        } else {
+            this.validities.clear();
+            this.environments.clear();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (final String type : EVENT_TYPES) {
+            AzureEventBus.off(type, listener);
+        }
+        this.validities.clear();
+        this.environments.clear();
+    }
+
+    @RequiredArgsConstructor
+    private static class Cached<T> {
+        private final CompletableFuture<T> future;
+        private final long createdAt;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Resolved {
+        @Nonnull
+        private final Connection<?, ?> connection;
+        @Nonnull
+        private final Map<String, String> environmentVariables;
+        private final long elapsedMillis;
+        private final boolean cached;
+    }
+}
@@ -20,6 +20,7 @@ import com.intellij.openapi.project.ProjectUtil;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.vfs.VfsUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.microsoft.azure.toolkit.intellij.connector.Connection;
 import com.microsoft.azure.toolkit.intellij.connector.ResourceConnectionActionsContributor;
 import com.microsoft.azure.toolkit.lib.common.messager.ExceptionNotification;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
@@ -43,6 +44,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * @see "org.jetbrains.idea.maven.tasks.MavenBeforeRunTasksProvider"
@@ -122,6 +124,11 @@ public class DotEnvBeforeRunTaskProvider extends BeforeRunTaskProvider<DotEnvBef
         private final RunConfiguration config;
         @Nullable
         private VirtualFile file;
+        /**
+         * how long resolving each connection took on the latest {@link #loadEnv()}, to be shown in the run console.
+         */
+        @Nonnull
+        private volatile List<String> loadingTimes = Collections.emptyList();
 
         public LoadDotEnvBeforeRunTask(RunConfiguration configuration) {
             super(ID);
@@ -138,14 +145,28 @@ public class DotEnvBeforeRunTaskProvider extends BeforeRunTaskProvider<DotEnvBef
                     .map(Profile::load)
                     .orElse(Collections.emptyList());
             final List<Pair<String, String>> result = new ArrayList<>(exists);
-            Optional.ofNullable(azureModule).map(AzureModule::getDefaultProfile)
+            final List<Connection<?, ?>> connections = Optional.ofNullable(azureModule).map(AzureModule::getDefaultProfile)
                     .map(Profile::getConnections)
-                    .stream().flatMap(List::stream)
-                    .filter(c -> !c.isValidConnection())
+                    .orElse(Collections.emptyList());
+            if (connections.isEmpty() || Objects.isNull(project)) {
+                return result;
+            }
+            final ConnectionEnvironmentCache cache = ConnectionEnvironmentCache.getInstance(project);
+            final long start = System.currentTimeMillis();
+            // connections are checked concurrently, but the invalid ones are fixed by user one by one
+            final List<Connection<?, ?>> fixed = cache.listInvalid(connections).stream()
                     .map(c -> ResourceConnectionActionsContributor.fixResourceConnection(c, project))
                     .filter(Objects::nonNull)
-                    .forEach(connection -> connection.getEnvironmentVariables(project)
-                            .forEach((key, value) -> result.add(Pair.of(key, value))));
+                    .collect(Collectors.toList());
+            final List<ConnectionEnvironmentCache.Resolved> resolved = cache.resolve(fixed);
+            final List<String> times = new ArrayList<>();
+            resolved.forEach(r -> {
+                times.add(String.format("Resolved environment variables of connection '%s' in %d ms%s", r.getConnection().getEnvPrefix(), r.getElapsedMillis(), r.isCached() ? " (cached)" : ""));
+                r.getEnvironmentVariables().forEach((key, value) -> result.add(Pair.of(key, value)));
+            });
+            times.add(String.format("Loaded environment variables of %d connection(s) in %d ms", connections.size(), System.currentTimeMillis() - start));
+            times.forEach(log::info);
+            this.loadingTimes = times;
             return result;
         }
 
@@ -46,6 +46,12 @@ public class ResourceNode extends AbstractAzureFacetNode<Node<?>> implements Nod
     public Collection<? extends AbstractAzureFacetNode<?>> buildChildren() {
         final Node<?> node = this.getValue();
         final ArrayList<AbstractAzureFacetNode<?>> children = new ArrayList<>(node.getChildren().stream().map(n -> new ResourceNode(this.getProject(), n, this)).toList());
+        if (node.hasPreviousChildren()) {
+            final Action<Object> loadPreviousAction = new Action<>(Action.Id.of("user/common.load_previous"))
+                .withHandler(i -> node.loadPreviousChildren())
+                .withLabel("load previous");
+            children.add(0, new ActionNode<>(this.getProject(), loadPreviousAction));
+        }
         if (node.hasMoreChildren()) {
             final Action<Object> loadMoreAction = new Action<>(Action.Id.of("user/common.load_more"))
                 .withHandler(i -> node.loadMoreChildren())
@@ -11,6 +11,7 @@ dependencies {
     // runtimeOnly project(path: ":azure-intellij-plugin-lib-java", configuration: "instrumentedJar")
     implementation("com.microsoft.azure:azure-toolkit-common-lib")
     implementation("com.microsoft.azure:azure-toolkit-ide-common-lib")
+    testImplementation("junit:junit:4.13.2")
 
     intellijPlatform {
         // Plugin Dependencies. Uses `platformBundledPlugins` property from the gradle.properties file for bundled IntelliJ Platform plugins.
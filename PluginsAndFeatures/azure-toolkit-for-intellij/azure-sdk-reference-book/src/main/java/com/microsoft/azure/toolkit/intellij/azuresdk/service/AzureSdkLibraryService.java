@@ -37,6 +37,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -177,7 +178,8 @@ public class AzureSdkLibraryService {
     @Cacheable("sdk/packages/spring")
     @AzureOperation(name = "boundary/sdk.load_spring_libs_metadata")
     private static List<AzureSdkServiceEntity> loadSpringSDKEntities() {
-        final List<AzureSdkServiceEntity> remote = loadSpringSDKEntities(new URL(SPRING_SDK_METADATA_URL));
+        final URL cached = SdkMetadataCache.getDefault().fetch(new URL(SPRING_SDK_METADATA_URL));
+        final List<AzureSdkServiceEntity> remote = Objects.isNull(cached) ? Collections.emptyList() : loadSpringSDKEntities(cached);
         if (CollectionUtils.isEmpty(remote)) {
             return loadSpringSDKEntities(AzureSdkLibraryService.class.getResource(SDK_SPRING_SERVICES_BACKUP));
         }
@@ -188,7 +190,8 @@ public class AzureSdkLibraryService {
     @Cacheable("sdk/packages")
     @AzureOperation(name = "boundary/sdk.load_java_libs_meta_data")
     public static List<AzureJavaSdkEntity> loadAzureSDKEntities() {
-        final List<AzureJavaSdkEntity> remote = loadAzureSDKEntities(new URL(CLIENT_MGMT_SDK_METADATA_URL));
+        final URL cached = SdkMetadataCache.getDefault().fetch(new URL(CLIENT_MGMT_SDK_METADATA_URL));
+        final List<AzureJavaSdkEntity> remote = Objects.isNull(cached) ? Collections.emptyList() : loadAzureSDKEntities(cached);
         if (CollectionUtils.isEmpty(remote)) {
             return loadAzureSDKEntities(AzureSdkLibraryService.class.getResource(SDK_JAVA_PACKAGES_BACKUP));
         }
@@ -242,6 +245,7 @@ public class AzureSdkLibraryService {
             CacheManager.evictCache("sdk/packages", CacheEvict.ALL);
             CacheManager.evictCache("sdk/packages/spring", CacheEvict.ALL);
             CacheManager.evictCache("sdk/packages/whitelist", CacheEvict.ALL);
+            CacheManager.evictCache(WorkspaceTaggingService.WORKSPACE_TAG_INDEX, CacheEvict.ALL);
         } catch (final ExecutionException e) {
             log.warn("failed to evict cache", e);
         }
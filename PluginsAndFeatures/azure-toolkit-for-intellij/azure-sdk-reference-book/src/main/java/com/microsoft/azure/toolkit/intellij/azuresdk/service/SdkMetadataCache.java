@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.azuresdk.service;
+
+import com.intellij.openapi.application.PathManager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Keeps SDK metadata files fetched from remote on disk, so they are downloaded again only if changed (revalidated
+ * with {@code ETag}/{@code Last-Modified}) and the last fetched ones are still used when offline.
+ */
+@Slf4j
+public class SdkMetadataCache {
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+    private static final int READ_TIMEOUT_MS = 10000;
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+
+    @Nonnull
+    private final Path directory;
+
+    public SdkMetadataCache(@Nonnull Path directory) {
+        this.directory = directory;
+    }
+
+    @Nonnull
+    public static SdkMetadataCache getDefault() {
+        return new SdkMetadataCache(Paths.get(PathManager.getSystemPath(), "azure-toolkit", "sdk-metadata"));
+    }
+
+    /**
+     * revalidates the cached copy of the remote file, downloads it if it's changed or not cached yet.
+     *
+     * @return url of the cached copy, which is the last fetched one if the remote is unreachable, {@code null} if it
+     * has never been fetched.
+     */
+    @Nullable
+    public URL fetch(@Nonnull URL remote) {
+        final String key = DigestUtils.sha256Hex(remote.toString());
+        final Path content = this.directory.resolve(key + ".content");
+        final Path meta = this.directory.resolve(key + ".properties");
+        final Properties validators = Files.isRegularFile(content) ? readProperties(meta) : new Properties();
+        try {
+            final URLConnection urlConnection = remote.openConnection();
+            urlConnection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            urlConnection.setReadTimeout(READ_TIMEOUT_MS);
+            if (!(urlConnection instanceof HttpURLConnection)) {
+                return remote;
+            }
+            final HttpURLConnection connection = (HttpURLConnection) urlConnection;
+            try {
+                if (validators.containsKey(ETAG)) {
+                    connection.setRequestProperty("If-None-Match", validators.getProperty(ETAG));
+                }
+                if (validators.containsKey(LAST_MODIFIED)) {
+                    connection.setRequestProperty("If-Modified-Since", validators.getProperty(LAST_MODIFIED));
+                }
+                final int status = connection.getResponseCode();
+                if (status == HttpURLConnection.HTTP_NOT_MODIFIED && Files.isRegularFile(content)) {
+                    return content.toUri().toURL();
+                }
+                if (status != HttpURLConnection.HTTP_OK) {
+                    log.warn("failed to fetch \"{}\", status code: {}", remote, status);
+                    return cached(content);
+                }
+                Files.createDirectories(this.directory);
+                final Path temp = Files.createTempFile(this.directory, key, ".tmp");
+                try (final InputStream in = connection.getInputStream()) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                    Files.move(temp, content, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+                final Properties updated = new Properties();
+                if (StringUtils.isNotBlank(connection.getHeaderField("ETag"))) {
+                    updated.setProperty(ETAG, connection.getHeaderField("ETag"));
+                }
+                if (StringUtils.isNotBlank(connection.getHeaderField("Last-Modified"))) {
+                    updated.setProperty(LAST_MODIFIED, connection.getHeaderField("Last-Modified"));
+                }
+                writeProperties(meta, updated);
+                return content.toUri().toURL();
+            } finally {
+                connection.disconnect();
+            }
+        } catch (final IOException e) {
+            log.warn(String.format("failed to fetch \"%s\", the cached copy is used if any", remote), e);
+            return cached(content);
+        }
+    }
+
+    @Nullable
+    private static URL cached(@Nonnull Path content) {
+        try {
+            return Files.isRegularFile(content) ? content.toUri().toURL() : null;
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    @Nonnull
+    private static Properties readProperties(@Nonnull Path file) {
+        final Properties properties = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (final IOException e) {
+                log.debug("failed to read \"{}\"", file, e);
+            }
+        }
+        return properties;
+    }
+
+    private static void writeProperties(@Nonnull Path file, @Nonnull Properties properties) throws IOException {
+        try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.azuresdk.service;
+
+import com.microsoft.azure.toolkit.intellij.azuresdk.model.AzureJavaSdkEntity;
+import com.microsoft.azure.toolkit.intellij.azuresdk.model.WorkspaceTagEntity;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tags of libraries indexed by maven coordinates, so that tagging a library is a few hash lookups instead of a scan
+ * of all workspace tag entities and Azure SDK entities. Entities without artifact id tag all artifacts of the group,
+ * entities without group id tag the artifact of any group and entities with neither tag every library.
+ * There's no index by package prefix, since neither the tag entities nor the project libraries carry java packages,
+ * and the tags must stay the same as matching the coordinates one by one.
+ */
+class WorkspaceTagIndex {
+    private final Map<String, Set<String>> byCoordinate = new HashMap<>();
+    private final Map<String, Set<String>> byGroup = new HashMap<>();
+    private final Map<String, Set<String>> byArtifact = new HashMap<>();
+    private final Set<String> always = new HashSet<>();
+
+    @Nonnull
+    static WorkspaceTagIndex build(@Nonnull Collection<WorkspaceTagEntity> tags, @Nonnull Collection<AzureJavaSdkEntity> libraries) {
+        final WorkspaceTagIndex index = new WorkspaceTagIndex();
+        tags.forEach(t -> index.add(t.getGroupId(), t.getArtifactId(), t.getTag()));
+        libraries.stream()
+            .filter(l -> StringUtils.isNoneEmpty(l.getType(), l.getGroupId(), l.getArtifactId()))
+            .forEach(l -> index.add(l.getGroupId(), l.getArtifactId(), l.getType()));
+        return index;
+    }
+
+    private void add(String groupId, String artifactId, String tag) {
+        if (StringUtils.isBlank(tag)) {
+            return;
+        }
+        final boolean noGroup = StringUtils.isEmpty(groupId);
+        final boolean noArtifact = StringUtils.isEmpty(artifactId);
+        if (noGroup && noArtifact) {
+            this.always.add(tag);
+        } else if (noArtifact) {
+            this.byGroup.computeIfAbsent(groupId.toLowerCase(), k -> new HashSet<>()).add(tag);
+        } else if (noGroup) {
+            this.byArtifact.computeIfAbsent(artifactId.toLowerCase(), k -> new HashSet<>()).add(tag);
+        } else {
+            this.byCoordinate.computeIfAbsent(coordinate(groupId, artifactId), k -> new HashSet<>()).add(tag);
+        }
+    }
+
+    /**
+     * adds tags of the library into {@code result}.
+     */
+    void collectTags(@Nonnull String groupId, @Nonnull String artifactId, @Nonnull Set<String> result) {
+        if (StringUtils.isAnyEmpty(groupId, artifactId)) {
+            return;
+        }
+        result.addAll(this.always);
+        result.addAll(this.byGroup.getOrDefault(groupId.toLowerCase(), Set.of()));
+        result.addAll(this.byArtifact.getOrDefault(artifactId.toLowerCase(), Set.of()));
+        result.addAll(this.byCoordinate.getOrDefault(coordinate(groupId, artifactId), Set.of()));
+    }
+
+    @Nonnull
+    private static String coordinate(@Nonnull String groupId, @Nonnull String artifactId) {
+        return groupId.toLowerCase() + ":" + artifactId.toLowerCase();
+    }
+}
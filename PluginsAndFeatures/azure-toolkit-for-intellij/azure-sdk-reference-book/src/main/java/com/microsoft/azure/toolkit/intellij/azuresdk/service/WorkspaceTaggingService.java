@@ -10,11 +10,9 @@ import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.intellij.openapi.project.Project;
-import com.microsoft.azure.toolkit.intellij.azuresdk.model.AzureJavaSdkEntity;
 import com.microsoft.azure.toolkit.intellij.azuresdk.model.WorkspaceTagEntity;
 import com.microsoft.azure.toolkit.lib.common.cache.Cacheable;
 import com.microsoft.azure.toolkit.lib.common.cache.Preload;
-import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -22,50 +20,25 @@ import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class WorkspaceTaggingService {
 
     private static final ObjectMapper JSON_MAPPER = new JsonMapper().configure(JsonParser.Feature.ALLOW_COMMENTS, true);
     private static final String WORKSPACE_TAG_JSON = "/workspaceTag.json";
+    static final String WORKSPACE_TAG_INDEX = "workspace-tag/index";
 
     public static Set<String> getWorkspaceTags(@Nonnull final Project project) {
-        return ProjectLibraryService.getProjectLibraries(project).stream()
-            .flatMap(l -> WorkspaceTaggingService.getWorkspaceTags(l.getGroupId(), l.getArtifactId()).stream()).filter(Objects::nonNull)
-            .filter(StringUtils::isNotBlank)
-            .collect(Collectors.toSet());
-    }
-
-    @Nonnull
-    private static Set<String> getWorkspaceTags(@Nonnull String groupId, @Nonnull final String artifactId) {
-        final HashSet<String> tags = new HashSet<>();
-        if (StringUtils.isAnyEmpty(groupId, artifactId)) {
-            return tags;
-        }
-        tags.addAll(getExternalDependencyTags(groupId, artifactId));
-        tags.addAll(getAzureDependencyTags(groupId, artifactId));
+        final WorkspaceTagIndex index = getWorkspaceTagIndex();
+        final Set<String> tags = new HashSet<>();
+        ProjectLibraryService.getProjectLibraries(project).forEach(l -> index.collectTags(l.getGroupId(), l.getArtifactId(), tags));
         return tags;
     }
 
-    private static Set<String> getAzureDependencyTags(final String groupId, final String artifactId) {
-        return AzureSdkLibraryService.loadAzureSDKEntities()
-            .stream()
-            .filter(entity -> StringUtils.isNotEmpty(entity.getType())
-                && StringUtils.equalsIgnoreCase(entity.getGroupId(), groupId)
-                && StringUtils.equalsIgnoreCase(entity.getArtifactId(), artifactId))
-            .map(AzureJavaSdkEntity::getType)
-            .collect(Collectors.toSet());
-    }
-
-    private static Set<String> getExternalDependencyTags(final String groupId, final String artifactId) {
-        return getWorkspaceTagEntities()
-            .stream()
-            .filter(entity -> (StringUtils.isEmpty(entity.getGroupId()) || StringUtils.equalsIgnoreCase(entity.getGroupId(), groupId))
-                && (StringUtils.isEmpty(entity.getArtifactId()) || StringUtils.equalsIgnoreCase(entity.getArtifactId(), artifactId)))
-            .map(WorkspaceTagEntity::getTag)
-            .collect(Collectors.toSet());
+    @Nonnull
+    @Cacheable(value = WORKSPACE_TAG_INDEX)
+    private static WorkspaceTagIndex getWorkspaceTagIndex() {
+        return WorkspaceTagIndex.build(getWorkspaceTagEntities(), AzureSdkLibraryService.loadAzureSDKEntities());
     }
 
     @Preload
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.azuresdk.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class SdkMetadataCacheTest {
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private URL remote;
+    private SdkMetadataCache cache;
+
+    // what the stub serves: the content with its etag, or the status only if it's not 200
+    private volatile int status = 200;
+    private volatile String etag = "\"v1\"";
+    private volatile String content = "v1";
+    private final List<String> ifNoneMatches = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/java-packages.csv", this::handle);
+        this.server.start();
+        this.remote = new URL("http", this.server.getAddress().getHostString(), this.server.getAddress().getPort(), "/java-packages.csv");
+        this.cache = new SdkMetadataCache(this.folder.getRoot().toPath().resolve("sdk-metadata"));
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void revalidatesCachedCopyAndFallsBackToItOffline() throws IOException, URISyntaxException {
+        Assert.assertEquals("v1", read(this.cache.fetch(this.remote)));
+        Assert.assertNull(this.ifNoneMatches.get(0));
+
+        // unchanged: the stub answers 304 to the etag of the cached copy
+        Assert.assertEquals("v1", read(this.cache.fetch(this.remote)));
+        Assert.assertEquals("\"v1\"", this.ifNoneMatches.get(1));
+
+        // changed: downloaded again with the new etag kept for the next revalidation
+        this.etag = "\"v2\"";
+        this.content = "v2";
+        Assert.assertEquals("v2", read(this.cache.fetch(this.remote)));
+        Assert.assertEquals("v2", read(this.cache.fetch(this.remote)));
+        Assert.assertEquals("\"v2\"", this.ifNoneMatches.get(3));
+
+        // server error and offline: the last fetched copy
+        this.status = 500;
+        Assert.assertEquals("v2", read(this.cache.fetch(this.remote)));
+        this.server.stop(0);
+        Assert.assertEquals("v2", read(this.cache.fetch(this.remote)));
+    }
+
+    @Test
+    public void returnsNullIfNeverFetched() {
+        this.server.stop(0);
+        Assert.assertNull(this.cache.fetch(this.remote));
+    }
+
+    @Test
+    public void returnsNullIfFirstFetchFails() {
+        this.status = 404;
+        Assert.assertNull(this.cache.fetch(this.remote));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        this.ifNoneMatches.add(ifNoneMatch);
+        if (this.status != 200) {
+            exchange.sendResponseHeaders(this.status, -1);
+        } else if (this.etag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            final byte[] body = this.content.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", this.etag);
+            exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+            exchange.sendResponseHeaders(200, body.length);
+            try (final OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    private static String read(URL cached) throws IOException, URISyntaxException {
+        Assert.assertNotNull(cached);
+        Assert.assertEquals("file", cached.getProtocol());
+        return Files.readString(Paths.get(cached.toURI()), StandardCharsets.UTF_8);
+    }
+}
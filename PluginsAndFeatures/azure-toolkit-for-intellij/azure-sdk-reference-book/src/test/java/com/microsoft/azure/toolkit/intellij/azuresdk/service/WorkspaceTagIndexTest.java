@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.azuresdk.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.microsoft.azure.toolkit.intellij.azuresdk.model.AzureJavaSdkEntity;
+import com.microsoft.azure.toolkit.intellij.azuresdk.model.WorkspaceTagEntity;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class WorkspaceTagIndexTest {
+    private static final ObjectMapper JSON_MAPPER = new JsonMapper().configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+
+    @Test
+    public void tagsSameAsScanningBundledMetadata() {
+        final List<WorkspaceTagEntity> tags = WorkspaceTaggingService.getWorkspaceTagEntities();
+        final List<AzureJavaSdkEntity> libraries = AzureSdkLibraryService.loadAzureSDKEntities(AzureSdkLibraryService.class.getResource("/java-packages.csv"));
+        Assert.assertFalse(tags.isEmpty());
+        Assert.assertFalse(libraries.isEmpty());
+
+        final Set<String[]> coordinates = new LinkedHashSet<>();
+        tags.forEach(t -> addVariants(coordinates, t.getGroupId(), t.getArtifactId()));
+        libraries.forEach(l -> addVariants(coordinates, l.getGroupId(), l.getArtifactId()));
+        assertSameAsScan(tags, libraries, coordinates);
+    }
+
+    @Test
+    public void tagsSameAsScanningEntitiesWithoutGroupOrArtifact() throws IOException {
+        final List<WorkspaceTagEntity> tags = JSON_MAPPER.readValue("[" +
+            "{ \"groupId\": \"org.springframework.boot\", \"artifactId\": \"\", \"tag\": \"springboot\" }," +
+            "{ \"groupId\": \"\", \"artifactId\": \"lombok\", \"tag\": \"lombok\" }," +
+            "{ \"groupId\": \"\", \"artifactId\": \"\", \"tag\": \"java\" }," +
+            "{ \"groupId\": \"Redis.Clients\", \"artifactId\": \"Jedis\", \"tag\": \"redis\" }," +
+            "{ \"groupId\": \"junit\", \"artifactId\": \"junit\", \"tag\": \"\" }" +
+            "]", new TypeReference<List<WorkspaceTagEntity>>() {
+        });
+        final List<AzureJavaSdkEntity> libraries = JSON_MAPPER.readValue("[" +
+            "{ \"GroupId\": \"com.azure\", \"Package\": \"azure-storage-blob\", \"Type\": \"client\" }," +
+            "{ \"GroupId\": \"com.azure.resourcemanager\", \"Package\": \"azure-resourcemanager\", \"Type\": \"mgmt\" }," +
+            "{ \"GroupId\": \"com.azure\", \"Package\": \"azure-core\", \"Type\": \"\" }" +
+            "]", new TypeReference<List<AzureJavaSdkEntity>>() {
+        });
+
+        final Set<String[]> coordinates = new LinkedHashSet<>();
+        addVariants(coordinates, "org.springframework.boot", "spring-boot-starter");
+        addVariants(coordinates, "org.projectlombok", "lombok");
+        addVariants(coordinates, "redis.clients", "jedis");
+        addVariants(coordinates, "junit", "junit");
+        addVariants(coordinates, "com.azure", "azure-storage-blob");
+        addVariants(coordinates, "com.azure.resourcemanager", "azure-resourcemanager");
+        addVariants(coordinates, "com.azure", "azure-core");
+        coordinates.add(new String[]{"", "lombok"});
+        coordinates.add(new String[]{"org.projectlombok", ""});
+        assertSameAsScan(tags, libraries, coordinates);
+
+        final Set<String> result = new HashSet<>();
+        WorkspaceTagIndex.build(tags, libraries).collectTags("REDIS.clients", "jedis", result);
+        Assert.assertEquals(Set.of("java", "redis"), result);
+    }
+
+    private static void assertSameAsScan(List<WorkspaceTagEntity> tags, List<AzureJavaSdkEntity> libraries, Set<String[]> coordinates) {
+        final WorkspaceTagIndex index = WorkspaceTagIndex.build(tags, libraries);
+        for (final String[] coordinate : coordinates) {
+            final Set<String> indexed = new HashSet<>();
+            index.collectTags(coordinate[0], coordinate[1], indexed);
+            Assert.assertEquals(coordinate[0] + ":" + coordinate[1], scan(tags, libraries, coordinate[0], coordinate[1]), indexed);
+        }
+    }
+
+    /**
+     * the coordinates, the coordinates in upper case and unknown artifacts of the group and unknown groups of the artifact.
+     */
+    private static void addVariants(Set<String[]> coordinates, String groupId, String artifactId) {
+        final String group = StringUtils.defaultString(groupId);
+        final String artifact = StringUtils.defaultString(artifactId);
+        coordinates.add(new String[]{group, artifact});
+        coordinates.add(new String[]{group.toUpperCase(), artifact.toUpperCase()});
+        coordinates.add(new String[]{group, "unknown-artifact"});
+        coordinates.add(new String[]{"org.unknown", artifact});
+    }
+
+    /**
+     * tags of the library by matching all the entities one by one, the way before they are indexed.
+     */
+    private static Set<String> scan(List<WorkspaceTagEntity> tags, List<AzureJavaSdkEntity> libraries, String groupId, String artifactId) {
+        final Set<String> result = new HashSet<>();
+        if (StringUtils.isAnyEmpty(groupId, artifactId)) {
+            return result;
+        }
+        tags.stream()
+            .filter(t -> (StringUtils.isEmpty(t.getGroupId()) || StringUtils.equalsIgnoreCase(t.getGroupId(), groupId))
+                && (StringUtils.isEmpty(t.getArtifactId()) || StringUtils.equalsIgnoreCase(t.getArtifactId(), artifactId)))
+            .map(WorkspaceTagEntity::getTag)
+            .forEach(result::add);
+        libraries.stream()
+            .filter(l -> StringUtils.isNotEmpty(l.getType())
+                && StringUtils.equalsIgnoreCase(l.getGroupId(), groupId)
+                && StringUtils.equalsIgnoreCase(l.getArtifactId(), artifactId))
+            .map(AzureJavaSdkEntity::getType)
+            .forEach(result::add);
+        result.removeIf(StringUtils::isBlank);
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common;
+
+import com.microsoft.azure.hdinsight.spark.common.MockHttpService;
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.pool.PoolStats;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpClientRegistryScenario {
+    // Fail fast rather than wait for the default timeout once the connections leased are not released
+    private static final int CONNECTION_REQUEST_TIMEOUT_MS = 2_000;
+
+    private MockHttpService httpServerMock;
+
+    private HttpObservable httpObservable;
+
+    @Before
+    public void setUp() {
+        httpServerMock = new MockHttpService();
+        httpObservable = new HttpObservable().setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(CONNECTION_REQUEST_TIMEOUT_MS)
+                .build());
+    }
+
+    @After
+    public void cleanUp() {
+        httpServerMock.getLivyServerMock().stop();
+    }
+
+    @Given("^mock a http service in HttpClientRegistryScenario for (.+) request '(.+)' to return '(.*)' with status code (\\d+)$")
+    public void mockHttpService(String action, String serviceUrl, String response, int statusCode) {
+        httpServerMock.stub(action, serviceUrl, statusCode, response);
+    }
+
+    @Then("^the HTTP observables should share the HTTP client$")
+    public void checkHttpClientShared() {
+        assertThat(new HttpObservable().getHttpClient()).isSameAs(httpObservable.getHttpClient());
+        assertThat(new HttpObservable("user", "password").getHttpClient()).isSameAs(httpObservable.getHttpClient());
+        assertThat(HttpClientRegistry.getInstance().getHttpClient(HttpClientRegistry.SslPolicy.ofIdeTrustStrategy()))
+                .isSameAs(httpObservable.getHttpClient());
+    }
+
+    @Then("^the HTTP clients of SSL policies (.+) and (.+) should be different$")
+    public void checkHttpClientNotShared(String sslPolicy, String anotherSslPolicy) {
+        final HttpClientRegistry registry = HttpClientRegistry.getInstance();
+
+        assertThat(registry.getHttpClient(HttpClientRegistry.SslPolicy.valueOf(sslPolicy)))
+                .isNotSameAs(registry.getHttpClient(HttpClientRegistry.SslPolicy.valueOf(anotherSslPolicy)));
+    }
+
+    @When("^send (\\d+) GET requests to '(.+)' and read the responses$")
+    public void sendRequestsAndReadResponses(int count, String url) {
+        for (int i = 0; i < count; i++) {
+            httpObservable.requestWithHttpResponse(new HttpGet(httpServerMock.completeUrl(url)), null, null, null)
+                    .map(HttpResponse::getMessage)
+                    .onErrorReturn(err -> err.getClass().getSimpleName())
+                    .toBlocking()
+                    .single();
+        }
+    }
+
+    @When("^send (\\d+) GET requests to '(.+)' expecting status code (\\d+)$")
+    public void sendRequestsAndCheckStatus(int count, String url, int statusCode) {
+        for (int i = 0; i < count; i++) {
+            httpObservable.executeReqAndCheckStatus(
+                            new HttpGet(httpServerMock.completeUrl(url)), null, null, null, statusCode)
+                    .doOnNext(HttpObservable::closeQuietly)
+                    .map(CloseableHttpResponse::getStatusLine)
+                    .onErrorReturn(err -> null)
+                    .toBlocking()
+                    .single();
+        }
+    }
+
+    @When("^send (\\d+) HEAD requests to '(.+)' without reading the responses$")
+    public void sendRequestsWithoutReading(int count, String url) {
+        for (int i = 0; i < count; i++) {
+            httpObservable.head(httpServerMock.completeUrl(url), Collections.emptyList(), Collections.emptyList())
+                    .toBlocking()
+                    .single();
+        }
+    }
+
+    @Then("^no connection to the mock service should be leased$")
+    public void checkNoConnectionLeased() {
+        assertThat(getMockServiceStats().map(PoolStats::getLeased).orElse(0)).isEqualTo(0);
+    }
+
+    @Then("^the connections to the mock service should be kept alive for reuse$")
+    public void checkConnectionKeptAlive() {
+        assertThat(getMockServiceStats().map(PoolStats::getAvailable).orElse(0)).isGreaterThan(0);
+
+        HttpClientRegistry.getInstance().closeIdleConnections();
+
+        assertThat(getMockServiceStats().map(PoolStats::getAvailable).orElse(0)).isEqualTo(0);
+    }
+
+    // The route pool of the mock service, which is absent once it has no connection at all
+    private Optional<PoolStats> getMockServiceStats() {
+        final String poolName = HttpClientRegistry.SslPolicy.ofIdeTrustStrategy().name()
+                + " http://localhost:" + httpServerMock.getPort();
+
+        return Optional.ofNullable(HttpClientRegistry.getInstance().getPoolStats().get(poolName));
+    }
+}
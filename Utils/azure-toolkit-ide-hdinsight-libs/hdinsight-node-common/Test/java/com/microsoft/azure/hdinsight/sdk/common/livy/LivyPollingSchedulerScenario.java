@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common.livy;
+
+import io.cucumber.java.After;
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import rx.Observable;
+import rx.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LivyPollingSchedulerScenario {
+    private LivyPollingScheduler<Integer, String> scheduler;
+    private LivyPollingInterval interval;
+    private final AtomicInteger polls = new AtomicInteger();
+    private final List<Set<Integer>> batchRequests = new CopyOnWriteArrayList<>();
+    private final Map<Integer, AtomicInteger> failuresToThrow = new ConcurrentHashMap<>();
+    private final Map<Integer, List<String>> received = new ConcurrentHashMap<>();
+    private final Map<Integer, Throwable> errors = new ConcurrentHashMap<>();
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        subscriptions.forEach(Subscription::unsubscribe);
+    }
+
+    @Given("^create a LivyPollingScheduler of endpoint '(.+)' polling every (\\d+) ms$")
+    public void createScheduler(String endpoint, long intervalMs) {
+        scheduler = LivyPollingScheduler.of(endpoint, () -> new LivyPollingScheduler<>(
+                endpoint,
+                (http, ids) -> Observable.fromCallable(() -> {
+                    final int poll = polls.incrementAndGet();
+                    batchRequests.add(new HashSet<>(ids));
+
+                    return ids.stream().collect(Collectors.toMap(id -> id, id -> "poll-" + poll));
+                }),
+                (http, id) -> Observable.fromCallable(() -> {
+                    final int poll = polls.incrementAndGet();
+                    final AtomicInteger failures = failuresToThrow.get(id);
+                    if (failures != null && failures.getAndDecrement() > 0) {
+                        throw new IllegalStateException("Mocked failure of " + id);
+                    }
+
+                    return "poll-" + poll;
+                }),
+                status -> status,
+                new LivyPollingInterval(intervalMs, intervalMs)));
+    }
+
+    @Given("^the status request of ID (\\d+) fails (\\d+) times$")
+    public void failStatusRequests(int id, int times) {
+        failuresToThrow.put(id, new AtomicInteger(times));
+    }
+
+    @When("^watch the ID (\\d+)$")
+    public void watch(int id) {
+        subscriptions.add(scheduler.watch(id, () -> null).subscribe(
+                status -> received.computeIfAbsent(id, k -> new CopyOnWriteArrayList<>()).add(status),
+                err -> errors.put(id, err)));
+    }
+
+    @When("^watch the ID (\\d+) while a poll is waiting to start$")
+    public void watchWhilePollWaiting(int id) throws Throwable {
+        // Hold the scheduler so that the next poll is due but blocked before it starts
+        synchronized (scheduler) {
+            Thread.sleep(200);
+            watch(id);
+        }
+    }
+
+    @When("^stop watching all IDs$")
+    public void stopWatching() {
+        subscriptions.forEach(Subscription::unsubscribe);
+        subscriptions.clear();
+    }
+
+    @When("^wait (\\d+) ms$")
+    public void waitFor(long ms) throws Throwable {
+        Thread.sleep(ms);
+    }
+
+    @When("^count the polls in (\\d+) ms$")
+    public void countPolls(long ms) throws Throwable {
+        polls.set(0);
+        Thread.sleep(ms);
+    }
+
+    @Then("^there should be at most (\\d+) polls$")
+    public void verifyPollsAtMost(int expected) {
+        assertTrue("Polled " + polls.get() + " times", polls.get() <= expected);
+    }
+
+    @Then("^the statuses of ID (\\d+) and (\\d+) should be listed in one request$")
+    public void verifyBatchRequest(int id1, int id2) {
+        assertTrue(batchRequests.contains(new HashSet<>(Arrays.asList(id1, id2))));
+        assertFalse(received.getOrDefault(id1, List.of()).isEmpty());
+        assertFalse(received.getOrDefault(id2, List.of()).isEmpty());
+    }
+
+    @Then("^the ID (\\d+) should receive statuses without error$")
+    public void verifyReceived(int id) {
+        assertFalse(received.getOrDefault(id, List.of()).isEmpty());
+        assertNull(errors.get(id));
+    }
+
+    @Then("^the ID (\\d+) should fail$")
+    public void verifyFailed(int id) {
+        assertTrue(errors.get(id) instanceof IllegalStateException);
+    }
+
+    @Then("^the shared LivyPollingScheduler of endpoint '(.+)' should be the created one$")
+    public void verifyShared(String endpoint) {
+        assertSame(scheduler, LivyPollingScheduler.of(endpoint, () -> new LivyPollingScheduler<Integer, String>(
+                endpoint, null, (http, id) -> Observable.empty(), status -> status)));
+    }
+
+    @Then("^the polling loop should stop in (\\d+) ms$")
+    public void verifyStopped(long ms) throws Throwable {
+        final long deadline = System.currentTimeMillis() + ms;
+        while (scheduler.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertFalse(scheduler.isRunning());
+    }
+
+    @Then("^the polling loop should be running$")
+    public void verifyRunning() {
+        assertTrue(scheduler.isRunning());
+    }
+
+    @Given("^a polling interval from (\\d+) ms to (\\d+) ms$")
+    public void createInterval(long min, long max) {
+        interval = new LivyPollingInterval(min, max);
+    }
+
+    @Then("^the next intervals without change should be about '(.+)' ms$")
+    public void verifyBackoff(String expected) {
+        for (final String each : expected.split(",\\s*")) {
+            assertAbout(Long.parseLong(each), interval.next(false));
+        }
+    }
+
+    @Then("^the next interval with change should be about (\\d+) ms$")
+    public void verifyReset(long expected) {
+        assertAbout(expected, interval.next(true));
+    }
+
+    private static void assertAbout(long expected, long actual) {
+        // Jitter is at most 20%
+        assertTrue("Expected about " + expected + " but was " + actual,
+                   Math.abs(actual - expected) <= expected * 0.2 + 1);
+    }
+}
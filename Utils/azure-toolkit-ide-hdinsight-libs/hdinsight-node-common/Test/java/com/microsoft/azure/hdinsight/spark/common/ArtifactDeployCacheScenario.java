@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common;
+
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import rx.Observable;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ArtifactDeployCacheScenario {
+    private File artifact;
+    private File indexFile;
+    private ArtifactDeployCache cache;
+    private int uploadedCount = 0;
+    private String lastDeployedPath;
+    private final Map<String, Long> remoteFiles = new HashMap<>();
+
+    @Given("^create an artifact with content '(.+)'$")
+    public void createArtifact(String content) throws Throwable {
+        if (artifact == null) {
+            artifact = File.createTempFile("artifact", ".jar");
+            artifact.deleteOnExit();
+        }
+
+        Files.write(artifact.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @And("^create an ArtifactDeployCache persisted in a temporary folder$")
+    public void createCache() throws Throwable {
+        final File folder = Files.createTempDirectory("ArtifactDeployCache").toFile();
+        folder.deleteOnExit();
+
+        indexFile = new File(folder, "uploaded-artifacts.json");
+        indexFile.deleteOnExit();
+
+        cache = new ArtifactDeployCache(indexFile);
+    }
+
+    @And("^reload the ArtifactDeployCache from the temporary folder$")
+    public void reloadCache() {
+        cache = new ArtifactDeployCache(indexFile);
+    }
+
+    @Given("^remove all remote copies$")
+    public void removeRemoteCopies() {
+        remoteFiles.clear();
+    }
+
+    @When("^deploy the artifact to '(.+)'$")
+    public void deployArtifact(String target) {
+        lastDeployedPath = cache.deploy(
+                        artifact,
+                        target,
+                        uploadedPath -> remoteFiles.containsKey(uploadedPath)
+                                ? Observable.just(remoteFiles.get(uploadedPath))
+                                : Observable.error(new IllegalStateException("Not found " + uploadedPath)),
+                        () -> Observable.fromCallable(() -> {
+                            final String uploadedPath = "uploaded-" + (++uploadedCount);
+                            remoteFiles.put(uploadedPath, artifact.length());
+
+                            return uploadedPath;
+                        }),
+                        null)
+                .toBlocking()
+                .single();
+    }
+
+    @Then("^the artifact should be uploaded (\\d+) times$")
+    public void verifyUploadedCount(int expected) {
+        assertEquals(expected, uploadedCount);
+    }
+
+    @Then("^the last deployed path should be '(.+)'$")
+    public void verifyLastDeployedPath(String expected) {
+        assertEquals(expected, lastDeployedPath);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.ApplicationMasterLogs;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobViewCacheManagerScenario {
+    private static final String APP_ID = "application_1492415936046_0015";
+
+    private LoadingCache<String, List<?>> listCache;
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private ListeningExecutorService executorUsed;
+
+    private final AtomicInteger logsRead = new AtomicInteger();
+
+    private boolean isLogAggregated = false;
+
+    private JobViewCacheManager.YarnAppLogsCacheLoader<String> logsLoader;
+
+    private JobViewCacheManager.YarnAppLogs logs;
+
+    @Given("^a list cache weighted up to (\\d+) items$")
+    public void createListCache(long maximumWeight) {
+        listCache = JobViewCacheManager.newListCacheBuilder(maximumWeight)
+                .build(new CacheLoader<String, List<?>>() {
+                    @Override
+                    public List<?> load(String key) {
+                        return Collections.nCopies(Integer.parseInt(key.split(":")[1]), key);
+                    }
+                });
+    }
+
+    @When("^load (\\d+) lists of (\\d+) items into the list cache$")
+    public void loadLists(int count, int size) throws Exception {
+        for (int i = 0; i < count; i++) {
+            listCache.get(i + ":" + size);
+        }
+    }
+
+    @Then("^the list cache should weigh no more than (\\d+) with (\\d+) lists at least$")
+    public void checkListCacheWeight(long maximumWeight, int minimumCount) {
+        listCache.cleanUp();
+
+        final long weight = listCache.asMap().values().stream().mapToLong(list -> list.size() + 1).sum();
+        assertThat(weight).isLessThanOrEqualTo(maximumWeight);
+        assertThat(listCache.size()).isGreaterThanOrEqualTo(minimumCount);
+    }
+
+    @When("^run (\\d+) tasks of (\\d+) ms on the refreshing executor$")
+    public void runRefreshingTasks(int count, int durationMs) throws Exception {
+        executorUsed = JobViewCacheManager.getRefreshingExecutor();
+
+        final List<Future<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(executorUsed.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                TimeUnit.MILLISECONDS.sleep(durationMs);
+                running.decrementAndGet();
+
+                return null;
+            }));
+        }
+
+        for (final Future<?> task : tasks) {
+            task.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Then("^no more than (\\d+) tasks should run at the same time$")
+    public void checkMaxRunning(int max) {
+        assertThat(maxRunning.get()).isBetween(1, max);
+    }
+
+    @When("^close the job view caches$")
+    public void closeCaches() {
+        JobViewCacheManager.close();
+    }
+
+    @Then("^the refreshing executor used should be shut down and a new one should run tasks$")
+    public void checkExecutorRecreated() throws Exception {
+        assertThat(executorUsed.isShutdown()).isTrue();
+
+        final ListeningExecutorService executor = JobViewCacheManager.getRefreshingExecutor();
+        assertThat(executor).isNotSameAs(executorUsed);
+        assertThat(executor.submit(() -> APP_ID).get(10, TimeUnit.SECONDS)).isEqualTo(APP_ID);
+    }
+
+    @Given("^a Yarn logs loader of the application finished with log aggregation (completed|not completed)$")
+    public void createLogsLoader(String aggregation) {
+        isLogAggregated = aggregation.equals("completed");
+        logsLoader = new JobViewCacheManager.YarnAppLogsCacheLoader<String>() {
+            @Override
+            ApplicationMasterLogs loadLogs(String key) {
+                final int read = logsRead.incrementAndGet();
+
+                return new ApplicationMasterLogs("stdout " + read, "stderr " + read, "directory.info");
+            }
+
+            @Override
+            boolean isLogAggregated(String key) {
+                return isLogAggregated;
+            }
+        };
+    }
+
+    @When("^load the Yarn logs$")
+    public void loadLogs() throws Exception {
+        logs = logsLoader.load(APP_ID);
+    }
+
+    @When("^the log aggregation completes$")
+    public void completeLogAggregation() {
+        isLogAggregated = true;
+    }
+
+    @When("^refresh the Yarn logs$")
+    public void refreshLogs() throws Exception {
+        logs = logsLoader.reload(APP_ID, logs).get(10, TimeUnit.SECONDS);
+    }
+
+    @Then("^the Yarn logs should be read (\\d+) times with stdout '(.+)'$")
+    public void checkLogsRead(int times, String stdout) {
+        assertThat(logsRead.get()).isEqualTo(times);
+        assertThat(logs.getLogs().getStdout()).isEqualTo(stdout);
+    }
+
+    @Then("^the log aggregation status (.+) should be taken as (completed|not completed)$")
+    public void checkLogAggregationCompleted(String status, String expect) {
+        assertThat(JobViewCacheManager.isLogAggregationCompleted(status.equals("null") ? null : status))
+                .isEqualTo(expect.equals("completed"));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.microsoft.azure.hdinsight.spark.common.MockHttpService;
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class YarnContainerLogFetcherScenario {
+    private MockHttpService httpServerMock;
+
+    private YarnContainerLogFetcher fetcherKept;
+
+    @Before
+    public void setUp() {
+        httpServerMock = new MockHttpService();
+    }
+
+    @After
+    public void cleanUp() {
+        YarnContainerLogFetcher.closeAll();
+        httpServerMock.getLivyServerMock().stop();
+    }
+
+    @Given("^mock a http service in YarnContainerLogFetcherScenario for GET request '(.+)' to return '(.*)' with status code (\\d+)$")
+    public void mockHttpService(String serviceUrl, String response, int statusCode) {
+        httpServerMock.stub("GET", serviceUrl, statusCode, response);
+    }
+
+    @Then("^fetch Yarn container log '(.+)' from '(.+)' should return '(.*)'$")
+    public void checkFetch(String type, String logUrl, String expect) {
+        final String url = httpServerMock.completeUrl(logUrl);
+
+        assertThat(YarnContainerLogFetcher.of(url).fetch(null, url, type, 0, -1)).isEqualTo(expect);
+    }
+
+    @Then("^fetch Yarn container log '(.+)' from '(.+)' kept before should return '(.*)'$")
+    public void checkFetchByKept(String type, String logUrl, String expect) {
+        final String url = httpServerMock.completeUrl(logUrl);
+
+        assertThat(fetcherKept.fetch(null, url, type, 0, -1)).isEqualTo(expect);
+    }
+
+    @Then("^the Yarn container log fetchers of '(.+)' and '(.+)' should be the same$")
+    public void checkFetcherShared(String logUrl, String anotherLogUrl) {
+        assertThat(YarnContainerLogFetcher.of(httpServerMock.completeUrl(logUrl)))
+                .isSameAs(YarnContainerLogFetcher.of(httpServerMock.completeUrl(anotherLogUrl)));
+    }
+
+    @Then("^the Yarn container log fetchers of '(.+)' and '(.+)' should be different$")
+    public void checkFetcherNotShared(String logUrl, String anotherLogUrl) {
+        assertThat(YarnContainerLogFetcher.of(logUrl)).isNotSameAs(YarnContainerLogFetcher.of(anotherLogUrl));
+    }
+
+    @Given("^keep the Yarn container log fetcher of '(.+)'$")
+    public void keepFetcher(String logUrl) {
+        fetcherKept = YarnContainerLogFetcher.of(httpServerMock.completeUrl(logUrl));
+    }
+
+    @Given("^close all Yarn container log fetchers$")
+    public void closeAllFetchers() {
+        YarnContainerLogFetcher.closeAll();
+    }
+
+    @Then("^the Yarn container log fetcher kept should be closed$")
+    public void checkFetcherKeptClosed() {
+        assertThat(fetcherKept.isClosed()).isTrue();
+        assertThat(YarnContainerLogFetcher.getCachedCount()).isEqualTo(0);
+    }
+
+    @Then("^the Yarn container log fetchers cached should be no more than (\\d+) after reading (\\d+) clusters$")
+    public void checkFetchersBounded(int max, int clusters) {
+        for (int i = 0; i < clusters; i++) {
+            YarnContainerLogFetcher.of("https://cluster" + i + ".azurehdinsight.net/yarnui/10.0.0.15/node/containerlogs/c/livy");
+        }
+
+        assertThat(YarnContainerLogFetcher.getCachedCount()).isLessThanOrEqualTo(max);
+    }
+}
@@ -0,0 +1,27 @@
+Feature: HttpClientRegistry Testing
+
+  Scenario: the HTTP observables share the pooled HTTP client of the SSL policy
+    Then the HTTP observables should share the HTTP client
+    And the HTTP clients of SSL policies SYSTEM and IDE_TRUST_STRATEGY should be different
+    And the HTTP clients of SSL policies IDE_TRUST_STRATEGY and IDE_TRUST_STRATEGY_NO_HOSTNAME_VERIFICATION should be different
+
+  Scenario: the connections are released and kept alive after the responses are read
+    Given mock a http service in HttpClientRegistryScenario for GET request '/batches' to return '{"from":0,"total":0,"sessions":[]}' with status code 200
+    When send 30 GET requests to '/batches' and read the responses
+    Then no connection to the mock service should be leased
+    And the connections to the mock service should be kept alive for reuse
+
+  Scenario: the connections are released after the error responses
+    Given mock a http service in HttpClientRegistryScenario for GET request '/batches/1' to return 'Internal Server Error' with status code 500
+    When send 30 GET requests to '/batches/1' and read the responses
+    Then no connection to the mock service should be leased
+
+  Scenario: the connections are released after the responses of unexpected status are closed
+    Given mock a http service in HttpClientRegistryScenario for GET request '/batches/2' to return '{"id":2,"state":"dead"}' with status code 404
+    When send 30 GET requests to '/batches/2' expecting status code 200
+    Then no connection to the mock service should be leased
+
+  Scenario: the connections are released after the responses without content
+    Given mock a http service in HttpClientRegistryScenario for HEAD request '/batches/3' to return '' with status code 200
+    When send 30 HEAD requests to '/batches/3' without reading the responses
+    Then no connection to the mock service should be leased
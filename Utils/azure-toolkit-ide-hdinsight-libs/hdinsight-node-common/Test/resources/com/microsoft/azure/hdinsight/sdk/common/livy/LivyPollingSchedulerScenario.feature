@@ -0,0 +1,43 @@
+Feature: LivyPollingScheduler unit test
+
+  Scenario: LivyPollingScheduler shares one polling loop of an endpoint and lists the statuses in one request
+    Given create a LivyPollingScheduler of endpoint 'http://livy-share/sessions' polling every 50 ms
+    When watch the ID 1
+    And watch the ID 2
+    And wait 500 ms
+    Then the statuses of ID 1 and 2 should be listed in one request
+    And the shared LivyPollingScheduler of endpoint 'http://livy-share/sessions' should be the created one
+
+  Scenario: LivyPollingScheduler polling interval backs off while nothing changes and resets once changed
+    Given a polling interval from 100 ms to 1000 ms
+    Then the next intervals without change should be about '200, 400, 800, 1000, 1000' ms
+    And the next interval with change should be about 100 ms
+
+  Scenario: LivyPollingScheduler stops once nothing is watched and restarts as the shared one
+    Given create a LivyPollingScheduler of endpoint 'http://livy-restart/sessions' polling every 50 ms
+    When watch the ID 1
+    And wait 200 ms
+    And stop watching all IDs
+    Then the polling loop should stop in 2000 ms
+    When watch the ID 1
+    Then the polling loop should be running
+    And the shared LivyPollingScheduler of endpoint 'http://livy-restart/sessions' should be the created one
+
+  Scenario: LivyPollingScheduler keeps one polling loop when an ID is watched while a poll is waiting to start
+    Given create a LivyPollingScheduler of endpoint 'http://livy-race/sessions' polling every 50 ms
+    When watch the ID 1
+    And watch the ID 2 while a poll is waiting to start
+    And count the polls in 1000 ms
+    Then there should be at most 30 polls
+
+  Scenario: LivyPollingScheduler retries failed status requests in the next polls
+    Given create a LivyPollingScheduler of endpoint 'http://livy-retry/sessions' polling every 50 ms
+    And the status request of ID 1 fails 3 times
+    And the status request of ID 2 fails 10 times
+    When watch the ID 1
+    And wait 1000 ms
+    Then the ID 1 should receive statuses without error
+    When stop watching all IDs
+    And watch the ID 2
+    And wait 1000 ms
+    Then the ID 2 should fail
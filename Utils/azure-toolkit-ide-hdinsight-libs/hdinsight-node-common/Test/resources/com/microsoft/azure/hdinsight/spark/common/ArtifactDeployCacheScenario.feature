@@ -0,0 +1,32 @@
+Feature: ArtifactDeployCache unit test
+
+  Scenario: The unchanged artifact is uploaded only once while the remote copy is valid
+    Given create an artifact with content 'spark job v1'
+    And create an ArtifactDeployCache persisted in a temporary folder
+    When deploy the artifact to 'https://account.dfs.core.windows.net/fs/SparkSubmission/'
+    Then the artifact should be uploaded 1 times
+    When deploy the artifact to 'https://account.dfs.core.windows.net/fs/SparkSubmission/'
+    Then the artifact should be uploaded 1 times
+    And the last deployed path should be 'uploaded-1'
+
+  Scenario: The artifact is uploaded again once it's changed, the target is changed or the remote copy is gone
+    Given create an artifact with content 'spark job v1'
+    And create an ArtifactDeployCache persisted in a temporary folder
+    When deploy the artifact to 'https://account.dfs.core.windows.net/fs/SparkSubmission/'
+    And deploy the artifact to 'https://another.dfs.core.windows.net/fs/SparkSubmission/'
+    Then the artifact should be uploaded 2 times
+    Given create an artifact with content 'spark job v2'
+    When deploy the artifact to 'https://account.dfs.core.windows.net/fs/SparkSubmission/'
+    Then the artifact should be uploaded 3 times
+    Given remove all remote copies
+    When deploy the artifact to 'https://account.dfs.core.windows.net/fs/SparkSubmission/'
+    Then the artifact should be uploaded 4 times
+    And the last deployed path should be 'uploaded-4'
+
+  Scenario: The uploaded artifacts index survives restarts
+    Given create an artifact with content 'spark job v1'
+    And create an ArtifactDeployCache persisted in a temporary folder
+    When deploy the artifact to 'https://account.dfs.core.windows.net/fs/SparkSubmission/'
+    And reload the ArtifactDeployCache from the temporary folder
+    And deploy the artifact to 'https://account.dfs.core.windows.net/fs/SparkSubmission/'
+    Then the artifact should be uploaded 1 times
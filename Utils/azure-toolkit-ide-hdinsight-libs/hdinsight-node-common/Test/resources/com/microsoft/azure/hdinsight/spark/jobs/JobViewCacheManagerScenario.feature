@@ -0,0 +1,44 @@
+Feature: JobViewCacheManager Testing
+
+  Scenario: the list caches are bounded by the items count
+    Given a list cache weighted up to 100 items
+    When load 50 lists of 9 items into the list cache
+    Then the list cache should weigh no more than 100 with 4 lists at least
+
+  Scenario: the refreshing executor is bounded and created again after closed
+    When run 10 tasks of 50 ms on the refreshing executor
+    Then no more than 2 tasks should run at the same time
+    When close the job view caches
+    Then the refreshing executor used should be shut down and a new one should run tasks
+
+  Scenario: the Yarn logs of the application finished keep refreshing until the log aggregation completes
+    Given a Yarn logs loader of the application finished with log aggregation not completed
+    When load the Yarn logs
+    And refresh the Yarn logs
+    Then the Yarn logs should be read 2 times with stdout 'stdout 2'
+    When the log aggregation completes
+    And refresh the Yarn logs
+    Then the Yarn logs should be read 3 times with stdout 'stdout 3'
+    When refresh the Yarn logs
+    And refresh the Yarn logs
+    Then the Yarn logs should be read 3 times with stdout 'stdout 3'
+
+  Scenario: the Yarn logs read after the log aggregation completed are not refreshed
+    Given a Yarn logs loader of the application finished with log aggregation completed
+    When load the Yarn logs
+    And refresh the Yarn logs
+    Then the Yarn logs should be read 1 times with stdout 'stdout 1'
+
+  Scenario Outline: the log aggregation completion by status
+    Then the log aggregation status <status> should be taken as <completion>
+
+    Examples:
+      | status               | completion    |
+      | NOT_START            | not completed |
+      | RUNNING              | not completed |
+      | RUNNING_WITH_FAILURE | not completed |
+      | SUCCEEDED            | completed     |
+      | FAILED               | completed     |
+      | TIME_OUT             | completed     |
+      | DISABLED             | completed     |
+      | null                 | completed     |
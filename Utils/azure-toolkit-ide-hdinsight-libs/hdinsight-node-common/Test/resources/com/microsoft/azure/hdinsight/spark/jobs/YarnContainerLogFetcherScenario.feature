@@ -0,0 +1,35 @@
+Feature: YarnContainerLogFetcher Testing
+
+  Scenario: fetch reads the running container log page
+    Given mock a http service in YarnContainerLogFetcherScenario for GET request '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy/stderr?start=0' to return '<html> <title> Logs for container_e02_1492415936046_0015_01_000001 </title> <table id="layout" class="ui-widget-content"> <tbody> <tr> <td id="navcell"> <div id="nav"> <h3> NodeManager </h3> <ul> <li> <a href="/yarnui/10.0.0.15/node/node">Node Information</a> </ul> </div> </td> <td class="content"> <pre>running stderr</pre> </td> </tr> </tbody> </table> </html>' with status code 200
+    Then fetch Yarn container log 'stderr' from '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy' should return 'running stderr'
+
+  Scenario: fetch picks the log type asked from the history server log page
+    Given mock a http service in YarnContainerLogFetcherScenario for GET request '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy/stdout?start=0' to return '<html> <title> Logs for container_e02_1492415936046_0015_01_000001 </title> <table id="layout" class="ui-widget-content"> <tbody> <tr> <td id="navcell"> <div id="nav"> <h3> NodeManager </h3> <ul> <li> <a href="/yarnui/10.0.0.15/node/node">Node Information</a> </ul> </div> </td> <td class="content"> <p> Log Type: directory.info <pre>ls -l</pre> <p> Log Type: stderr <pre>history stderr</pre> <p> Log Type: stdout <pre>history stdout</pre> </td> </tr> </tbody> </table> </html>' with status code 200
+    Then fetch Yarn container log 'stdout' from '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy' should return 'history stdout'
+
+  Scenario: fetch returns empty log for the page without log content
+    Given mock a http service in YarnContainerLogFetcherScenario for GET request '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy/stderr?start=0' to return '<html> <body> <p>Redirecting to the job history server</p> </body> </html>' with status code 200
+    Then fetch Yarn container log 'stderr' from '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy' should return ''
+
+  Scenario: fetch returns empty log when the log is moving to the job history server
+    Given mock a http service in YarnContainerLogFetcherScenario for GET request '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy/stderr?start=0' to return '<html> <title> Logs for container_e02_1492415936046_0015_01_000001 </title> <table id="layout" class="ui-widget-content"> <tbody> <tr> <td id="navcell"> <div id="nav"> <h3> NodeManager </h3> <ul> <li> <a href="/yarnui/10.0.0.15/node/node">Node Information</a> </ul> </div> </td> <td class="content"> <pre>forbidden</pre> </td> </tr> </tbody> </table> </html>' with status code 403
+    Then fetch Yarn container log 'stderr' from '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy' should return ''
+
+  Scenario: fetch returns empty log for the server error
+    Given mock a http service in YarnContainerLogFetcherScenario for GET request '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy/stderr?start=0' to return 'Internal Server Error' with status code 500
+    Then fetch Yarn container log 'stderr' from '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy' should return ''
+
+  Scenario: the containers of the same cluster share the log fetcher
+    Then the Yarn container log fetchers of '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy' and '/yarnui/10.0.0.16/node/containerlogs/container_e02_1492415936046_0015_01_000002/livy' should be the same
+    And the Yarn container log fetchers of 'https://cluster1.azurehdinsight.net/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy' and 'https://cluster2.azurehdinsight.net/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy' should be different
+
+  Scenario: the log fetchers cached are bounded
+    Then the Yarn container log fetchers cached should be no more than 16 after reading 100 clusters
+
+  Scenario: the log fetcher closed still fetches by the one cached now
+    Given mock a http service in YarnContainerLogFetcherScenario for GET request '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy/stderr?start=0' to return '<html> <title> Logs for container_e02_1492415936046_0015_01_000001 </title> <table id="layout" class="ui-widget-content"> <tbody> <tr> <td id="navcell"> <div id="nav"> <h3> NodeManager </h3> <ul> <li> <a href="/yarnui/10.0.0.15/node/node">Node Information</a> </ul> </div> </td> <td class="content"> <pre>running stderr</pre> </td> </tr> </tbody> </table> </html>' with status code 200
+    And keep the Yarn container log fetcher of '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy'
+    And close all Yarn container log fetchers
+    Then the Yarn container log fetcher kept should be closed
+    And fetch Yarn container log 'stderr' from '/yarnui/10.0.0.15/node/containerlogs/container_e02_1492415936046_0015_01_000001/livy' kept before should return 'running stderr'
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import com.microsoft.azuretools.service.ServiceManager;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.ssl.TrustStrategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The registry of HTTP clients shared by all {@link HttpObservable}s with the same SSL policy.
+ *
+ * Each client is backed by a bounded {@link PoolingHttpClientConnectionManager}, so the connections (and the TLS
+ * sessions) to the same endpoint are kept alive and reused across the short-lived HTTP observables created for
+ * clusters, Livy sessions and storage operations. The per-instance states, such as cookies, headers and request
+ * configurations, are carried by the requests and the HTTP context rather than the shared client.
+ */
+public class HttpClientRegistry implements ILogger {
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 10;
+    public static final int DEFAULT_MAX_CONNECTIONS_TOTAL = 64;
+    public static final long DEFAULT_IDLE_CONNECTION_EVICT_SECONDS = 30;
+    public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY_MS = 2_000;
+    public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT_MS = 60_000;
+
+    /**
+     * The SSL policy of the shared client
+     */
+    public enum SslPolicy {
+        /**
+         * The SSL settings from system properties
+         */
+        SYSTEM,
+
+        /**
+         * The trust strategy provided by the IDE, with hostname verification
+         */
+        IDE_TRUST_STRATEGY,
+
+        /**
+         * The trust strategy provided by the IDE, without hostname verification
+         * since SSL certificate validation is disabled by the user
+         */
+        IDE_TRUST_STRATEGY_NO_HOSTNAME_VERIFICATION;
+
+        /**
+         * Get the SSL policy with the IDE provided trust strategy, based on the SSL certificate validation setting
+         */
+        @NotNull
+        public static SslPolicy ofIdeTrustStrategy() {
+            return HttpObservable.isSSLCertificateValidationDisabled()
+                   ? IDE_TRUST_STRATEGY_NO_HOSTNAME_VERIFICATION
+                   : IDE_TRUST_STRATEGY;
+        }
+    }
+
+    private static final HttpClientRegistry INSTANCE = new HttpClientRegistry();
+
+    private final ConcurrentMap<SslPolicy, PooledClient> clients = new ConcurrentHashMap<>();
+
+    private HttpClientRegistry() {
+    }
+
+    @NotNull
+    public static HttpClientRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the shared HTTP client of the SSL policy, or create it if there is no one
+     *
+     * @param sslPolicy the SSL policy
+     * @return the shared HTTP client
+     */
+    @NotNull
+    public CloseableHttpClient getHttpClient(@NotNull final SslPolicy sslPolicy) {
+        return clients.computeIfAbsent(sslPolicy, this::createPooledClient).httpClient;
+    }
+
+    /**
+     * Get the connection pool statistics of all shared clients, for diagnostics
+     *
+     * @return the map from the pool name (the SSL policy, or the SSL policy with a route) to the pool statistics
+     */
+    @NotNull
+    public Map<String, PoolStats> getPoolStats() {
+        final Map<String, PoolStats> stats = new LinkedHashMap<>();
+
+        clients.forEach((sslPolicy, client) -> {
+            stats.put(sslPolicy.name(), client.connectionManager.getTotalStats());
+
+            for (final HttpRoute route : client.connectionManager.getRoutes()) {
+                stats.put(sslPolicy.name() + " " + route.getTargetHost().toURI(),
+                          client.connectionManager.getStats(route));
+            }
+        });
+
+        return stats;
+    }
+
+    /**
+     * Close the idle connections of all shared clients
+     */
+    public void closeIdleConnections() {
+        clients.values().forEach(client -> {
+            client.connectionManager.closeExpiredConnections();
+            client.connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    @NotNull
+    private PooledClient createPooledClient(@NotNull final SslPolicy sslPolicy) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                createSocketFactoryRegistry(sslPolicy));
+        connectionManager.setDefaultMaxPerRoute(DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+        connectionManager.setMaxTotal(DEFAULT_MAX_CONNECTIONS_TOTAL);
+        connectionManager.setValidateAfterInactivity(DEFAULT_VALIDATE_AFTER_INACTIVITY_MS);
+
+        final CloseableHttpClient httpClient = HttpClients.custom()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(DEFAULT_IDLE_CONNECTION_EVICT_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        return new PooledClient(connectionManager, httpClient);
+    }
+
+    @NotNull
+    private Registry<ConnectionSocketFactory> createSocketFactoryRegistry(@NotNull final SslPolicy sslPolicy) {
+        SSLConnectionSocketFactory sslSocketFactory = sslPolicy == SslPolicy.SYSTEM
+                ? null
+                : createIdeSSLSocketFactory(sslPolicy == SslPolicy.IDE_TRUST_STRATEGY_NO_HOSTNAME_VERIFICATION);
+
+        if (sslSocketFactory == null) {
+            sslSocketFactory = new SSLConnectionSocketFactory(
+                    SSLContexts.createSystemDefault(),
+                    split(System.getProperty("https.protocols")),
+                    split(System.getProperty("https.cipherSuites")),
+                    new DefaultHostnameVerifier());
+        }
+
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+    }
+
+    @Nullable
+    private SSLConnectionSocketFactory createIdeSSLSocketFactory(final boolean isHostnameVerificationDisabled) {
+        final TrustStrategy ts = ServiceManager.getServiceProvider(TrustStrategy.class);
+
+        if (ts == null) {
+            return null;
+        }
+
+        try {
+            return new SSLConnectionSocketFactory(
+                    new SSLContextBuilder().loadTrustMaterial(ts).build(),
+                    new String[] { "TLSv1.2", "TLSv1.3" },
+                    null,
+                    isHostnameVerificationDisabled ? NoopHostnameVerifier.INSTANCE : new DefaultHostnameVerifier());
+        } catch (final Exception e) {
+            log().error("Prepare SSL Context for HTTPS failure. " + ExceptionUtils.getStackTrace(e));
+
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String[] split(@Nullable final String property) {
+        return property == null || property.trim().isEmpty() ? null : property.split(" *, *");
+    }
+
+    private static class PooledClient {
+        @NotNull
+        private final PoolingHttpClientConnectionManager connectionManager;
+
+        @NotNull
+        private final CloseableHttpClient httpClient;
+
+        PooledClient(@NotNull final PoolingHttpClientConnectionManager connectionManager,
+                     @NotNull final CloseableHttpClient httpClient) {
+            this.connectionManager = connectionManager;
+            this.httpClient = httpClient;
+        }
+    }
+}
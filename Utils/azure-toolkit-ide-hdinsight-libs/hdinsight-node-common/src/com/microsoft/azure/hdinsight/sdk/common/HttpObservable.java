@@ -12,11 +12,9 @@ import com.microsoft.azure.hdinsight.sdk.common.errorresponse.*;
 import com.microsoft.azure.hdinsight.sdk.rest.ObjectConvertUtils;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
-import com.microsoft.azuretools.service.ServiceManager;
 import com.microsoft.tooling.msservices.components.DefaultLoader;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.http.*;
 import org.apache.http.client.CookieStore;
 import org.apache.http.client.config.AuthSchemes;
@@ -25,29 +23,19 @@ import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.*;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.conn.ssl.DefaultHostnameVerifier;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.HeaderGroup;
 import org.apache.http.protocol.BasicHttpContext;
 import org.apache.http.protocol.HttpContext;
-import org.apache.http.ssl.SSLContextBuilder;
-import org.apache.http.ssl.TrustStrategy;
 import org.apache.http.util.EntityUtils;
 import rx.Observable;
 import rx.exceptions.Exceptions;
 
-import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.net.UnknownServiceException;
 import java.nio.charset.StandardCharsets;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
 import static rx.exceptions.Exceptions.propagate;
@@ -108,12 +96,9 @@ public class HttpObservable implements ILogger {
                 .setProxyPreferredAuthSchemes(Collections.singletonList(AuthSchemes.BASIC))
                 .build();
 
-        this.httpClient = HttpClients.custom()
-                .useSystemProperties()
-                .setDefaultCookieStore(getCookieStore())
-                .setDefaultRequestConfig(getDefaultRequestConfig())
-                .setSSLSocketFactory(createSSLSocketFactory())
-                .build();
+        // The client is shared with pooled connections, the cookie store and the request config are carried by
+        // the HTTP context and the request
+        this.httpClient = HttpClientRegistry.getInstance().getHttpClient(HttpClientRegistry.SslPolicy.ofIdeTrustStrategy());
     }
 
     /**
@@ -131,13 +116,6 @@ public class HttpObservable implements ILogger {
             setDefaultHeader(new BasicHeader(
                     HttpHeaders.AUTHORIZATION, String.format("%s %s", "Basic", new String(encodedAuth))));
         }
-
-        this.httpClient = HttpClients.custom()
-                .useSystemProperties()
-                .setDefaultCookieStore(getCookieStore())
-                .setDefaultRequestConfig(getDefaultRequestConfig())
-                .setSSLSocketFactory(createSSLSocketFactory())
-                .build();
     }
 
     /*
@@ -167,6 +145,7 @@ public class HttpObservable implements ILogger {
 
     public HttpObservable setCookieStore(@NotNull CookieStore cookieStore) {
         this.cookieStore = cookieStore;
+        this.httpContext.setAttribute(HttpClientContext.COOKIE_STORE, cookieStore);
 
         return this;
     }
@@ -243,31 +222,6 @@ public class HttpObservable implements ILogger {
         }
     }
 
-    private SSLConnectionSocketFactory createSSLSocketFactory() {
-        TrustStrategy ts = ServiceManager.getServiceProvider(TrustStrategy.class);
-        SSLConnectionSocketFactory sslSocketFactory = null;
-
-        if (ts != null) {
-            try {
-                SSLContext sslContext = new SSLContextBuilder()
-                        .loadTrustMaterial(ts)
-                        .build();
-
-                sslSocketFactory = new SSLConnectionSocketFactory(
-                        sslContext,
-                        new String[] { "TLSv1.2", "TLSv1.3" },
-                        null,
-                        HttpObservable.isSSLCertificateValidationDisabled()
-                                ? NoopHostnameVerifier.INSTANCE
-                                : new DefaultHostnameVerifier());
-
-            } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
-                log().error("Prepare SSL Context for HTTPS failure. " + ExceptionUtils.getStackTrace(e));
-            }
-        }
-        return sslSocketFactory;
-    }
-
     @NotNull
     public static HttpErrorStatus classifyHttpError(@NotNull CloseableHttpResponse httpResponse) throws IOException {
         StatusLine status = httpResponse.getStatusLine();
@@ -330,6 +284,26 @@ public class HttpObservable implements ILogger {
                 });
     }
 
+    /**
+     * Helper to consume the rest content of the response and close it, so that the pooled connection is released
+     * for reuse. The response should be closed once its status or headers are checked if its content isn't read.
+     *
+     * @param closeableHttpResponse the response to close
+     */
+    public static void closeQuietly(@Nullable CloseableHttpResponse closeableHttpResponse) {
+        if (closeableHttpResponse == null) {
+            return;
+        }
+
+        try {
+            EntityUtils.consumeQuietly(closeableHttpResponse.getEntity());
+            closeableHttpResponse.close();
+        } catch (IOException ignore) {
+            // The connection will be closed automatically after timeout,
+            // the exception in closing can be ignored.
+        }
+    }
+
     /**
      * Helper to convert the http response to a specified type
      *
@@ -368,6 +342,15 @@ public class HttpObservable implements ILogger {
 
             httpRequest.setURI(builder.build());
 
+            // Apply the default request config for the shared HTTP client, with a timeout to lease a pooled
+            // connection so that requests fail rather than wait forever once the pool is exhausted
+            final RequestConfig config = Optional.ofNullable(httpRequest.getConfig()).orElse(getDefaultRequestConfig());
+            httpRequest.setConfig(config.getConnectionRequestTimeout() > 0
+                                  ? config
+                                  : RequestConfig.copy(config)
+                                          .setConnectionRequestTimeout(HttpClientRegistry.DEFAULT_CONNECTION_REQUEST_TIMEOUT_MS)
+                                          .build());
+
             // Set the default headers and update Headers
             httpRequest.setHeaders(getDefaultHeaders());
             Optional.ofNullable(addOrReplaceHeaders)
@@ -381,7 +364,9 @@ public class HttpObservable implements ILogger {
                 httpRequest.setHeader(entity.getContentType());
             }
 
-            return getHttpClient().execute(httpRequest, getHttpContext());
+            // A context per request since requests run concurrently, the cookie store is looked up from the
+            // instance context as the parent
+            return getHttpClient().execute(httpRequest, new BasicHttpContext(getHttpContext()));
         });
     }
 
@@ -452,6 +437,7 @@ public class HttpObservable implements ILogger {
                 .doOnNext(resp -> {
                     int statusCode = resp.getStatusLine().getStatusCode();
                     if (statusCode != validStatueCode) {
+                        closeQuietly(resp);
                         Exceptions.propagate(new UnknownServiceException(
                                 String.format("Exceute request with unexpected code %s and resp %s", statusCode, resp)
                         ));
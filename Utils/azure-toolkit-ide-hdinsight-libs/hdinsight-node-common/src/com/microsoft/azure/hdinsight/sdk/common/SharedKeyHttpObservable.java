@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
@@ -73,9 +74,12 @@ public class SharedKeyHttpObservable extends HttpObservable {
         ofNullable(addOrReplaceHeaders).orElse(emptyList()).forEach(headerGroup::addHeader);
         String key = cred.generateSharedKey(httpRequest, headerGroup, ofNullable(parameters).orElse(emptyList()));
 
-        getDefaultHeaderGroup().updateHeader(new BasicHeader("Authorization", key));
+        // Carry the key with the request itself rather than the shared default headers, since the requests can be
+        // sent concurrently, such as the parallel chunk appending.
+        final List<Header> headersWithKey = new ArrayList<>(ofNullable(addOrReplaceHeaders).orElse(emptyList()));
+        headersWithKey.add(new BasicHeader("Authorization", key));
 
-        return super.request(httpRequest, entity, ofNullable(parameters).orElse(emptyList()), ofNullable(addOrReplaceHeaders).orElse(emptyList()));
+        return super.request(httpRequest, entity, ofNullable(parameters).orElse(emptyList()), headersWithKey);
     }
 
     @Override
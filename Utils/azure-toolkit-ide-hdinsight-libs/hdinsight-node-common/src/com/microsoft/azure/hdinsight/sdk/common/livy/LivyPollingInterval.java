@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common.livy;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The adaptive polling interval with exponential backoff and jitter, which doubles the interval while nothing
+ * changes, and resets to the minimum interval once a change is observed.
+ */
+public class LivyPollingInterval {
+    public static final long DEFAULT_MIN_INTERVAL_MS = 500;
+    public static final long DEFAULT_MAX_INTERVAL_MS = 10_000;
+
+    private static final double JITTER_RATIO = 0.2;
+
+    private final long minIntervalMs;
+
+    private final long maxIntervalMs;
+
+    private long intervalMs;
+
+    public LivyPollingInterval() {
+        this(DEFAULT_MIN_INTERVAL_MS, DEFAULT_MAX_INTERVAL_MS);
+    }
+
+    public LivyPollingInterval(final long minIntervalMs, final long maxIntervalMs) {
+        this.minIntervalMs = Math.max(1, minIntervalMs);
+        this.maxIntervalMs = Math.max(this.minIntervalMs, maxIntervalMs);
+        this.intervalMs = this.minIntervalMs;
+    }
+
+    /**
+     * Get the next interval to wait, based on whether the last poll observed any change
+     *
+     * @param changed whether the last poll observed any change
+     * @return the next interval in milliseconds, with jitter applied
+     */
+    public synchronized long next(final boolean changed) {
+        intervalMs = changed ? minIntervalMs : Math.min(maxIntervalMs, intervalMs * 2);
+
+        final double jitter = 1 + JITTER_RATIO * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+
+        return Math.max(minIntervalMs, Math.min(maxIntervalMs, Math.round(intervalMs * jitter)));
+    }
+
+    public synchronized void reset() {
+        intervalMs = minIntervalMs;
+    }
+}
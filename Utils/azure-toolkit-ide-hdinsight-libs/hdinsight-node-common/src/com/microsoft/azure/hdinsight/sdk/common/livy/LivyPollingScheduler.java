@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common.livy;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.functions.Func2;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+import rx.subjects.Subject;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The shared status polling scheduler for one Livy endpoint, such as {@code /sessions} or
+ * {@code /sessions/<id>/statements}.
+ *
+ * All watchers of the same endpoint share one polling loop. When more than one ID is watched, the statuses are
+ * looked up with one listing request, and the IDs missed in the listing fall back to the single status request.
+ * The polling interval backs off exponentially with jitter while no state changes, and resets to the minimum once
+ * any state changes or a new ID is watched.
+ *
+ * The Http connection is got from the watchers at every poll, rather than kept from the first one, and a failed
+ * status request only ends the watching after {@link #MAX_CONSECUTIVE_FAILURES} polls failed in a row.
+ *
+ * @param <K> the type of ID to watch
+ * @param <T> the type of status response
+ */
+public class LivyPollingScheduler<K, T> implements ILogger {
+    public static final int MAX_CONSECUTIVE_FAILURES = 5;
+
+    private static final ConcurrentMap<String, LivyPollingScheduler<?, ?>> schedulers = new ConcurrentHashMap<>();
+
+    @NotNull
+    private final String endpoint;
+
+    @Nullable
+    private final Func2<HttpObservable, Set<K>, Observable<Map<K, T>>> batchFetcher;
+
+    @NotNull
+    private final Func2<HttpObservable, K, Observable<T>> singleFetcher;
+
+    @NotNull
+    private final Func1<T, Object> stateOf;
+
+    @NotNull
+    private final LivyPollingInterval interval;
+
+    private final Map<K, Watcher<T>> watchers = new ConcurrentHashMap<>();
+
+    private final Map<K, Object> lastStates = new ConcurrentHashMap<>();
+
+    // Consecutive failed polls by ID, only touched in the polling loop
+    private final Map<K, Integer> failures = new HashMap<>();
+
+    // The following fields are guarded by this
+    @Nullable
+    private Scheduler.Worker worker = null;
+
+    // Only the poll scheduled with the latest ticket runs, the former ones are superseded and skipped
+    private long pollTicket = 0;
+
+    private boolean isPolling = false;
+
+    /**
+     * Constructor
+     *
+     * @param endpoint the Livy endpoint to poll, as the key to share the scheduler
+     * @param batchFetcher the function to look up the statuses of several IDs in one request with the given Http
+     *                     connection, null for not supported
+     * @param singleFetcher the function to look up the status of one ID with the given Http connection
+     * @param stateOf the function to get the state from a status response, to detect changes
+     */
+    public LivyPollingScheduler(@NotNull final String endpoint,
+                                @Nullable final Func2<HttpObservable, Set<K>, Observable<Map<K, T>>> batchFetcher,
+                                @NotNull final Func2<HttpObservable, K, Observable<T>> singleFetcher,
+                                @NotNull final Func1<T, Object> stateOf) {
+        this(endpoint, batchFetcher, singleFetcher, stateOf, new LivyPollingInterval());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param endpoint the Livy endpoint to poll, as the key to share the scheduler
+     * @param batchFetcher the function to look up the statuses of several IDs in one request with the given Http
+     *                     connection, null for not supported
+     * @param singleFetcher the function to look up the status of one ID with the given Http connection
+     * @param stateOf the function to get the state from a status response, to detect changes
+     * @param interval the polling interval
+     */
+    public LivyPollingScheduler(@NotNull final String endpoint,
+                                @Nullable final Func2<HttpObservable, Set<K>, Observable<Map<K, T>>> batchFetcher,
+                                @NotNull final Func2<HttpObservable, K, Observable<T>> singleFetcher,
+                                @NotNull final Func1<T, Object> stateOf,
+                                @NotNull final LivyPollingInterval interval) {
+        this.endpoint = endpoint;
+        this.batchFetcher = batchFetcher;
+        this.singleFetcher = singleFetcher;
+        this.stateOf = stateOf;
+        this.interval = interval;
+    }
+
+    /**
+     * Get the shared polling scheduler of the endpoint, or create it if there is no one
+     *
+     * @param endpoint the Livy endpoint
+     * @param creator the function to create a new scheduler for the endpoint
+     * @return the shared polling scheduler
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public static <K, T> LivyPollingScheduler<K, T> of(@NotNull final String endpoint,
+                                                       @NotNull final Func0<LivyPollingScheduler<K, T>> creator) {
+        return (LivyPollingScheduler<K, T>) schedulers.computeIfAbsent(endpoint, key -> creator.call());
+    }
+
+    @NotNull
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return whether the polling loop is running, it stops once there is nothing to watch
+     */
+    public synchronized boolean isRunning() {
+        return worker != null;
+    }
+
+    /**
+     * Watch the status of the ID. The status is pushed at every poll until unsubscribed.
+     *
+     * @param key the ID to watch
+     * @param http the function to get the Http connection to look up the status, called at every poll
+     * @return the status Observable
+     */
+    @NotNull
+    public Observable<T> watch(@NotNull final K key, @NotNull final Func0<HttpObservable> http) {
+        return Observable.defer(() -> {
+            // This scheduler may have stopped and been replaced by another one of the endpoint since it's got
+            LivyPollingScheduler<K, T> scheduler = this;
+            Watcher<T> acquired;
+            while ((acquired = scheduler.acquire(key, http)) == null) {
+                scheduler = of(endpoint, () -> this);
+            }
+
+            final LivyPollingScheduler<K, T> owner = scheduler;
+            final Watcher<T> watcher = acquired;
+            final AtomicBoolean isReleased = new AtomicBoolean(false);
+            final Action0 releaseOnce = () -> {
+                if (isReleased.compareAndSet(false, true)) {
+                    owner.release(key, watcher);
+                }
+            };
+
+            return watcher.subject
+                    .doOnTerminate(releaseOnce)
+                    .doOnUnsubscribe(releaseOnce);
+        });
+    }
+
+    /**
+     * @return the watcher of the ID, or null if this scheduler has stopped and another one of the endpoint is shared
+     */
+    @Nullable
+    private synchronized Watcher<T> acquire(@NotNull final K key, @NotNull final Func0<HttpObservable> http) {
+        if (worker == null) {
+            // Restart the stopped polling loop only if it's still the shared one, or no one else is
+            final LivyPollingScheduler<?, ?> shared = schedulers.putIfAbsent(endpoint, this);
+            if (shared != null && shared != this) {
+                return null;
+            }
+        }
+
+        final Watcher<T> watcher = watchers.computeIfAbsent(key, k -> new Watcher<>());
+        watcher.http = http;    // The latest watcher's one is used
+
+        if (watcher.count++ == 0) {
+            // A new ID to watch, speed up the polling for it
+            interval.reset();
+
+            if (worker == null) {
+                worker = Schedulers.io().createWorker();
+                schedulePoll(interval.next(true));
+            } else if (!isPolling) {
+                // Supersede the scheduled poll which hasn't started, a running one picks up the new ID itself
+                schedulePoll(interval.next(true));
+            }
+        }
+
+        return watcher;
+    }
+
+    private synchronized void release(@NotNull final K key, @NotNull final Watcher<T> watcher) {
+        if (--watcher.count <= 0 && watchers.remove(key, watcher)) {
+            lastStates.remove(key);
+        }
+    }
+
+    private synchronized void fail(@NotNull final K key, @NotNull final Throwable err) {
+        final Watcher<T> watcher = watchers.remove(key);
+
+        if (watcher != null) {
+            lastStates.remove(key);
+            watcher.subject.onError(err);
+        }
+    }
+
+    private synchronized void schedulePoll(final long delayMs) {
+        if (worker != null) {
+            final long ticket = ++pollTicket;
+            worker.schedule(() -> poll(ticket), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void poll(final long ticket) {
+        final Set<K> keys;
+
+        synchronized (this) {
+            if (ticket != pollTicket || worker == null || isPolling) {
+                // Superseded by a later scheduled poll
+                return;
+            }
+
+            keys = new HashSet<>(watchers.keySet());
+
+            if (keys.isEmpty()) {
+                // Nothing to watch, stop the polling loop
+                worker.unsubscribe();
+                worker = null;
+                schedulers.remove(endpoint, this);
+
+                return;
+            }
+
+            isPolling = true;
+        }
+
+        boolean isChanged = false;
+
+        try {
+            final Map<K, T> statuses = fetch(keys);
+            failures.keySet().retainAll(keys);
+
+            for (final K key : keys) {
+                final T status = statuses.get(key);
+                final Watcher<T> watcher = watchers.get(key);
+
+                if (status == null || watcher == null) {
+                    continue;
+                }
+
+                final Object state = stateOf.call(status);
+                if (!Objects.equals(lastStates.put(key, state), state)) {
+                    isChanged = true;
+                }
+
+                watcher.subject.onNext(status);
+            }
+        } catch (final Exception ex) {
+            // Keep polling, the watchers will get statuses in the next poll
+            log().warn("Failed to poll statuses from " + endpoint, ex);
+        } finally {
+            synchronized (this) {
+                isPolling = false;
+                schedulePoll(interval.next(isChanged));
+            }
+        }
+    }
+
+    @NotNull
+    private Map<K, T> fetch(@NotNull final Set<K> keys) {
+        final Map<K, T> statuses = new HashMap<>();
+
+        if (batchFetcher != null && keys.size() > 1) {
+            try {
+                statuses.putAll(batchFetcher.call(getHttp(keys.iterator().next()), keys)
+                                            .toBlocking()
+                                            .singleOrDefault(Collections.emptyMap()));
+            } catch (final Exception ex) {
+                log().debug("Failed to list statuses from " + endpoint + ", fall back to get them one by one.", ex);
+            }
+        }
+
+        for (final K key : keys) {
+            if (statuses.containsKey(key)) {
+                failures.remove(key);
+                continue;
+            }
+
+            try {
+                final T status = singleFetcher.call(getHttp(key), key).toBlocking().singleOrDefault(null);
+
+                if (status != null) {
+                    statuses.put(key, status);
+                }
+
+                failures.remove(key);
+            } catch (final Exception ex) {
+                final int failed = failures.merge(key, 1, Integer::sum);
+
+                if (failed >= MAX_CONSECUTIVE_FAILURES) {
+                    failures.remove(key);
+                    fail(key, ex);
+                } else {
+                    log().debug("Failed to get the status of " + key + " from " + endpoint + " (" + failed
+                                        + " times in a row), retry in the next poll.", ex);
+                }
+            }
+        }
+
+        return statuses;
+    }
+
+    @NotNull
+    private HttpObservable getHttp(@NotNull final K key) {
+        final Watcher<T> watcher = watchers.get(key);
+        final Func0<HttpObservable> http = watcher != null ? watcher.http : null;
+
+        if (http == null) {
+            throw new IllegalStateException("No Http connection to get the status of " + key + " from " + endpoint);
+        }
+
+        return http.call();
+    }
+
+    private static class Watcher<T> {
+        private final Subject<T, T> subject = PublishSubject.<T>create().toSerialized();
+
+        private int count = 0;    // Watching subscriptions count, guarded by the scheduler
+
+        @Nullable
+        private volatile Func0<HttpObservable> http = null;    // To get the Http connection at every poll
+    }
+}
@@ -11,12 +11,14 @@ import com.microsoft.azure.hdinsight.common.HDInsightLoader;
 import com.microsoft.azure.hdinsight.common.logger.ILogger;
 import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
 import com.microsoft.azure.hdinsight.sdk.common.HttpResponse;
+import com.microsoft.azure.hdinsight.sdk.common.livy.LivyPollingScheduler;
 import com.microsoft.azure.hdinsight.sdk.common.livy.MemorySize;
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.exceptions.ApplicationNotStartException;
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.exceptions.SessionNotStartException;
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.exceptions.StatementExecutionError;
 import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.SessionKind;
 import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.SessionState;
+import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.api.GetSessionsResponse;
 import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.api.PostSessions;
 import com.microsoft.azure.hdinsight.spark.common.Deployable;
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
@@ -28,7 +30,6 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.http.entity.StringEntity;
 import rx.Observable;
 import rx.Scheduler;
-import rx.schedulers.Schedulers;
 import rx.subjects.PublishSubject;
 
 import java.io.ByteArrayInputStream;
@@ -46,7 +47,6 @@ import static com.microsoft.azure.hdinsight.common.MessageInfoType.Debug;
 import static com.microsoft.azure.hdinsight.common.MessageInfoType.Info;
 import static com.microsoft.azure.hdinsight.common.MessageInfoType.Warning;
 import static com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine.TOOL;
-import static java.lang.Thread.sleep;
 import static rx.exceptions.Exceptions.propagate;
 
 public abstract class Session implements AutoCloseable, Closeable, ILogger {
@@ -366,7 +366,7 @@ public abstract class Session implements AutoCloseable, Closeable, ILogger {
         return appId != null ?
                Observable.just(appId) :
                this.get()
-                   .repeatWhen(ob -> ob.delay(1, TimeUnit.SECONDS))
+                   .concatWith(watch())
                    .takeUntil(session -> session.appId != null)
                    .filter(session -> session.appId != null)
                    .timeout(3, TimeUnit.MINUTES)
@@ -610,19 +610,43 @@ public abstract class Session implements AutoCloseable, Closeable, ILogger {
                         }));
     }
 
+    /**
+     * To watch the session status through the shared polling scheduler of the Livy endpoint.
+     *
+     * @return an updated Session instance Observable for every polling, until unsubscribed
+     */
+    public Observable<Session> watch() {
+        return getPollingScheduler()
+                .watch(getId(), () -> getHttp().setUserAgent(getUserAgent()))
+                .map(this::updateWithResponse);
+    }
+
+    private LivyPollingScheduler<Integer, com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.Session> getPollingScheduler() {
+        final String sessionsUrl = baseUrl.resolve(REST_SEGMENT_SESSION).toString();
+
+        return LivyPollingScheduler.of(sessionsUrl, () -> new LivyPollingScheduler<>(
+                sessionsUrl,
+                (http, ids) -> http
+                        .get(sessionsUrl, null, null, GetSessionsResponse.class)
+                        .map(resp -> Optional.ofNullable(resp.getSessions())
+                                             .orElse(Collections.emptyList())
+                                             .stream()
+                                             .filter(sessionResp -> ids.contains(sessionResp.getId()))
+                                             .collect(Collectors.toMap(
+                                                     com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.Session::getId,
+                                                     sessionResp -> sessionResp,
+                                                     (former, latter) -> latter))),
+                (http, id) -> http
+                        .get(sessionsUrl + "/" + id,
+                             null,
+                             null,
+                             com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.Session.class),
+                sessionResp -> sessionResp.getState() + "/" + sessionResp.getAppId()));
+    }
+
     public Observable<Session> awaitReady(final @Nullable Scheduler scheduler) {
-        return get()
-                .repeatWhen(ob -> scheduler != null ?
-                                  // Use specified scheduler to delay
-                                  ob.doOnNext(any -> {
-                                      try {
-                                          sleep(1000);
-                                      } catch (InterruptedException ignored) {
-                                      }
-                                  }) :
-                                  // Use the default delay scheduler if scheduler not specified
-                                  ob.delay(1, TimeUnit.SECONDS),
-                            scheduler != null ? scheduler : Schedulers.trampoline())
+        final Observable<Session> readySession = get()
+                .concatWith(watch())
                 .takeUntil(Session::isStatementRunnable)
                 .reduce(new ImmutablePair<>(this, getLastLogs()), (sesLogsPair, ses) -> {
                     List<String> currentLogs = ses.getLastLogs();
@@ -644,6 +668,12 @@ public abstract class Session implements AutoCloseable, Closeable, ILogger {
                 })
                 .map(ImmutablePair::getLeft)
                 .filter(Session::isStatementRunnable);
+
+        return scheduler == null
+               ? readySession
+               // Wait in the specified scheduler, to keep it busy until the session is ready
+               : Observable.defer(() -> Observable.from(readySession.toList().toBlocking().single()))
+                           .subscribeOn(scheduler);
     }
 
     public Observable<Session> awaitReady() {
@@ -7,10 +7,12 @@ package com.microsoft.azure.hdinsight.sdk.common.livy.interactive;
 
 import com.microsoft.azure.hdinsight.common.logger.ILogger;
 import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
+import com.microsoft.azure.hdinsight.sdk.common.livy.LivyPollingScheduler;
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.exceptions.SessionNotStartException;
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.exceptions.StatementNotStartException;
 import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.StatementOutput;
 import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.StatementState;
+import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.api.session.GetStatementsResponse;
 import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.api.session.PostStatements;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
@@ -22,7 +24,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.util.concurrent.TimeUnit;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class Statement implements ILogger {
     public static final String REST_SEGMENT_STATEMENTS = "statements";
@@ -119,8 +123,8 @@ public class Statement implements ILogger {
         return runStatementRequest()
                 .map(this::updateWithResponse)
                 .flatMap(statement -> statement.get()                    // Get statement result
-                        .repeatWhen(ob -> ob.delay(1, TimeUnit.SECONDS)) // The unmet state won't trigger retries,
-                                                                         // which is handled by repeatWhen()
+                        .concatWith(statement.watch())                   // The unmet state is polled by the shared
+                                                                         // scheduler of the session statements
                         .takeUntil(Statement::isDone)
                         .filter(Statement::isDone)
                 )
@@ -197,6 +201,46 @@ public class Statement implements ILogger {
                 .get(uri.toString(), null, null, com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.Statement.class);
     }
 
+    /**
+     * To watch the statement status through the shared polling scheduler of the session statements.
+     *
+     * @return an updated Statement instance Observable for every polling, until unsubscribed
+     */
+    public Observable<Statement> watch() {
+        return Observable.defer(() -> {
+            try {
+                return getPollingScheduler()
+                        .watch(getId(), () -> getHttp().setUserAgent(getUserAgent()))
+                        .map(this::updateWithResponse);
+            } catch (StatementNotStartException e) {
+                return Observable.error(e);
+            }
+        });
+    }
+
+    private LivyPollingScheduler<Integer, com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.Statement> getPollingScheduler() {
+        final String statementsUrl = getSession().getUri().toString() + "/" + REST_SEGMENT_STATEMENTS;
+
+        return LivyPollingScheduler.of(statementsUrl, () -> new LivyPollingScheduler<>(
+                statementsUrl,
+                (http, ids) -> http
+                        .get(statementsUrl, null, null, GetStatementsResponse.class)
+                        .map(resp -> Optional.ofNullable(resp.getStatements())
+                                             .orElse(Collections.emptyList())
+                                             .stream()
+                                             .filter(statementResp -> ids.contains(statementResp.getId()))
+                                             .collect(Collectors.toMap(
+                                                     com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.Statement::getId,
+                                                     statementResp -> statementResp,
+                                                     (former, latter) -> latter))),
+                (http, id) -> http
+                        .get(statementsUrl + "/" + id,
+                             null,
+                             null,
+                             com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.Statement.class),
+                com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.Statement::getState));
+    }
+
     public Observable<Statement> cancel() {
         throw new UnsupportedOperationException();
     }
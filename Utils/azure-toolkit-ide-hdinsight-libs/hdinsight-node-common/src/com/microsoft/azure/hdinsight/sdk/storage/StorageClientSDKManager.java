@@ -152,6 +152,21 @@ public class StorageClientSDKManager {
         }
     }
 
+    public long getBlobFileLength(@NotNull String connectionString,
+                                  @NotNull String containerName,
+                                  @NotNull String filePath)
+            throws AzureCmdException {
+        try {
+            final BlobClient blob = getCloudBlobClient(connectionString)
+                    .getBlobContainerClient(containerName)
+                    .getBlobClient(filePath);
+
+            return blob.getProperties().getBlobSize();
+        } catch (Throwable t) {
+            throw new AzureCmdException("Error getting the Blob File properties", t);
+        }
+    }
+
     public static String getEndpointSuffix() {
         return StorageAccoutUtils.getEndpointSuffix();
     }
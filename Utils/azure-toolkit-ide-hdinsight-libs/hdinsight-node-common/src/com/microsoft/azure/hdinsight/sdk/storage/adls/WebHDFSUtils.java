@@ -59,6 +59,18 @@ public class WebHDFSUtils {
         return iAuthenticationResult.accessToken();
     }
 
+    public static long getFileLengthOnADLS(@NotNull IHDIStorageAccount storageAccount, @NotNull String remotePath) throws Exception {
+        if (!(storageAccount instanceof ADLSStorageAccount)) {
+            throw new HDIException("the storage type should be ADLS");
+        }
+
+        final String accessToken = getAccessTokenFromCertificate((ADLSStorageAccount) storageAccount);
+        final ADLStoreClient client = ADLStoreClient.createClient(
+                String.format("%s.azuredatalakestore.net", storageAccount.getName()), accessToken);
+
+        return client.getDirectoryEntry(remotePath).length;
+    }
+
     public static void uploadFileToADLS(@NotNull IHDIStorageAccount storageAccount, @NotNull File localFile, @NotNull String remotePath, boolean overWrite) throws Exception {
         if (!(storageAccount instanceof ADLSStorageAccount)) {
             throw new HDIException("the storage type should be ADLS");
@@ -11,28 +11,32 @@ import com.microsoft.azure.hdinsight.sdk.rest.azure.storageaccounts.RemoteFile;
 import com.microsoft.azure.hdinsight.sdk.rest.azure.storageaccounts.api.GetRemoteFilesResponse;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import com.microsoft.tooling.msservices.helpers.CallableSingleArg;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPut;
-import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.message.BasicHeader;
 import rx.Observable;
+import rx.schedulers.Schedulers;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ADLSGen2FSOperation {
     public static final String DEFAULT_UMASK = "0000";
     public static final String PERMISSIONS_HEADER = "x-ms-permissions";
     public static final String UMASK_HEADER = "x-ms-umask";
+    public static final int DEFAULT_UPLOAD_CHUNK_SIZE = 8 * 1024 * 1024;
+    public static final int DEFAULT_UPLOAD_PARALLELISM = 4;
+    public static final int DEFAULT_UPLOAD_CHUNK_RETRIES = 3;
 
     private HttpObservable http;
 
@@ -42,9 +46,6 @@ public class ADLSGen2FSOperation {
     @NotNull
     private List<NameValuePair> createFileReqParams;
 
-    @NotNull
-    private List<NameValuePair> appendReqParams;
-
     @NotNull
     private ADLSGen2ParamsBuilder listReqBuilder;
 
@@ -61,11 +62,6 @@ public class ADLSGen2FSOperation {
                 .setResource("file")
                 .build();
 
-        this.appendReqParams = new ADLSGen2ParamsBuilder()
-                .setAction("append")
-                .setPosition(0)
-                .build();
-
         this.flushReqParamsBuilder = new ADLSGen2ParamsBuilder()
                 .setAction("flush");
     }
@@ -87,6 +83,7 @@ public class ADLSGen2FSOperation {
                                                         new BasicHeader(UMASK_HEADER, uMask))
                                      : Collections.emptyList();
         return http.executeReqAndCheckStatus(req, null, this.createDirReqParams, headers, 201)
+                   .doOnNext(HttpObservable::closeQuietly)
                    .map(ignore -> true);
     }
 
@@ -107,14 +104,41 @@ public class ADLSGen2FSOperation {
                                                         new BasicHeader(UMASK_HEADER, uMask))
                                      : Collections.emptyList();
         return http.executeReqAndCheckStatus(req, null, this.createFileReqParams, headers, 201)
+                .doOnNext(HttpObservable::closeQuietly)
                 .map(ignore -> true);
     }
 
     public Observable<Boolean> uploadData(String destFilePath, File src) {
-        return appendData(destFilePath, src)
+        return uploadData(destFilePath, src, null);
+    }
+
+    /**
+     * Upload the local file by appending fixed-size chunks with several requests in flight, then flushing once.
+     * Only the chunks in flight are kept in memory, so the file size doesn't matter.
+     *
+     * @param destFilePath the created remote file path to upload to
+     * @param src the local file to upload
+     * @param uploadInProcessCallback the callback with the uploaded bytes count whenever a chunk is appended
+     * @return true Observable if the upload succeeds
+     */
+    public Observable<Boolean> uploadData(String destFilePath,
+                                          File src,
+                                          @Nullable CallableSingleArg<Void, Long> uploadInProcessCallback) {
+        return appendData(destFilePath, src, uploadInProcessCallback)
                 .flatMap(len -> flushData(destFilePath, len));
     }
 
+    /**
+     * Get the length of the remote file by its properties
+     *
+     * @param filePath the remote file path
+     * @return the remote file length Observable, error if the file doesn't exist
+     */
+    public Observable<Long> getFileLength(String filePath) {
+        return http.head(filePath, Collections.emptyList(), Collections.emptyList())
+                .map(resp -> Long.parseLong(resp.findHeader("Content-Length")));
+    }
+
     public Observable<RemoteFile> list(String rootPath, String relativePath) {
         this.listReqBuilder = new ADLSGen2ParamsBuilder()
                 .enableRecursive(false)
@@ -128,25 +152,72 @@ public class ADLSGen2FSOperation {
                 .flatMap(pathList -> Observable.from(pathList.getRemoteFiles()));
     }
 
-    private Observable<Long> appendData(String filePath, File src) {
-        try {
-            InputStreamEntity reqEntity = new InputStreamEntity(
-                    new FileInputStream(src),
-                    -1,
-                    ContentType.APPLICATION_OCTET_STREAM);
-            BufferedHttpEntity entity = new BufferedHttpEntity(reqEntity);
-            long len = entity.getContentLength();
-
-            HttpPatch req = new HttpPatch(filePath);
-            http.setContentType("application/octet-stream");
-
-            return http.executeReqAndCheckStatus(req, entity, this.appendReqParams, Collections.emptyList(), 202)
-                    .map(ignore -> len);
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(new IllegalArgumentException("Can not find the aritifact"));
-        } catch (IOException e) {
-            throw new RuntimeException(new IllegalArgumentException("Can not read the aritfact"));
+    private Observable<Long> appendData(String filePath,
+                                        File src,
+                                        @Nullable CallableSingleArg<Void, Long> uploadInProcessCallback) {
+        if (!src.isFile()) {
+            return Observable.error(new IllegalArgumentException("Can not find the aritifact"));
+        }
+
+        final long len = src.length();
+        final int chunkCount = (int) ((len + DEFAULT_UPLOAD_CHUNK_SIZE - 1) / DEFAULT_UPLOAD_CHUNK_SIZE);
+        final AtomicLong uploadedLen = new AtomicLong(0);
+
+        if (chunkCount == 0) {
+            return Observable.just(0L);
         }
+
+        http.setContentType("application/octet-stream");
+
+        return Observable.range(0, chunkCount)
+                .flatMap(index -> {
+                    final long position = (long) index * DEFAULT_UPLOAD_CHUNK_SIZE;
+                    final int chunkSize = (int) Math.min(DEFAULT_UPLOAD_CHUNK_SIZE, len - position);
+
+                    return appendChunk(filePath, src, position, chunkSize)
+                            .retry(DEFAULT_UPLOAD_CHUNK_RETRIES)
+                            .subscribeOn(Schedulers.io());
+                }, DEFAULT_UPLOAD_PARALLELISM)
+                .doOnNext(chunkSize -> {
+                    if (uploadInProcessCallback != null) {
+                        try {
+                            uploadInProcessCallback.call(uploadedLen.addAndGet(chunkSize));
+                        } catch (Exception ignored) {
+                            // Progress reporting failure shouldn't break the uploading
+                        }
+                    }
+                })
+                .ignoreElements()
+                .concatWith(Observable.just(len));
+    }
+
+    private Observable<Long> appendChunk(String filePath, File src, long position, int chunkSize) {
+        return Observable.defer(() -> {
+            // Read the chunk for every try, to release the memory once the chunk is appended
+            final byte[] chunk = new byte[chunkSize];
+
+            try (final RandomAccessFile file = new RandomAccessFile(src, "r")) {
+                file.seek(position);
+                file.readFully(chunk);
+            } catch (IOException e) {
+                return Observable.error(new IllegalArgumentException("Can not read the aritfact", e));
+            }
+
+            final List<NameValuePair> appendReqParams = new ADLSGen2ParamsBuilder()
+                    .setAction("append")
+                    .setPosition(position)
+                    .build();
+
+            return http.executeReqAndCheckStatus(new HttpPatch(filePath),
+                                                 new ByteArrayEntity(chunk, ContentType.APPLICATION_OCTET_STREAM),
+                                                 appendReqParams,
+                                                 Collections.emptyList(),
+                                                 202)
+                    // Release the connection at once, otherwise the parallel appends keep the connections of the
+                    // route leased and the rest chunks wait for them
+                    .doOnNext(HttpObservable::closeQuietly)
+                    .map(ignore -> (long) chunkSize);
+        });
     }
 
     private Observable<Boolean> flushData(String filePath, long flushLen) {
@@ -155,6 +226,7 @@ public class ADLSGen2FSOperation {
         http.setContentType("application/json");
 
         return http.executeReqAndCheckStatus(req, null, flushReqParams, Collections.emptyList(), 200)
+                .doOnNext(HttpObservable::closeQuietly)
                 .map(ignore -> true);
     }
 }
@@ -42,6 +42,17 @@ public class ADLSGen2Deploy implements Deployable, ILogger {
 
     @Override
     public Observable<String> deploy(File src, Observer<SparkLogLine> logSubject) {
+        final ADLSGen2FSOperation op = new ADLSGen2FSOperation(this.http);
+
+        return ArtifactDeployCache.getInstance().deploy(
+                src,
+                destinationRootPath,
+                uploadedPath -> op.getFileLength(AbfsUri.parse(uploadedPath).getUrl().toString()),
+                () -> upload(op, src, logSubject),
+                logSubject);
+    }
+
+    private Observable<String> upload(ADLSGen2FSOperation op, File src, Observer<SparkLogLine> logSubject) {
         // four steps to upload via adls gen2 rest api
         // 1.put request to create new dir
         // 2.put request to create new file(artifact) which is empty
@@ -55,7 +66,6 @@ public class ADLSGen2Deploy implements Deployable, ILogger {
         final String dirPath = destStr.endsWith("/") ? destStr.substring(0, destStr.length() - 1) : destStr;
         final String filePath = String.format("%s/%s", dirPath, src.getName());
 
-        final ADLSGen2FSOperation op = new ADLSGen2FSOperation(this.http);
         return op.createDir(dirPath, "0755")
                  .onErrorReturn(err -> {
                      if (err.getMessage() != null && (err.getMessage().contains(String.valueOf(HttpStatus.SC_FORBIDDEN))
@@ -76,7 +86,7 @@ public class ADLSGen2Deploy implements Deployable, ILogger {
                  })
                  .doOnNext(ignore -> log().info(String.format("Create filesystem %s successfully.", dirPath)))
                  .flatMap(ignore -> op.createFile(filePath, "0755"))
-                 .flatMap(ignore -> op.uploadData(filePath, src))
+                 .flatMap(ignore -> op.uploadData(filePath, src, JobUtils.createUploadProgressCallback(src, logSubject)))
                  .doOnNext(ignore -> log().info(String.format("Append data to file %s successfully.", filePath)))
                  .map(ignored -> AbfsUri.parse(filePath).getUri().toString());
     }
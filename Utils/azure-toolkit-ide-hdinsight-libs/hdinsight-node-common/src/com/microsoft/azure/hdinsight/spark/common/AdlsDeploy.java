@@ -5,6 +5,7 @@
 
 package com.microsoft.azure.hdinsight.spark.common;
 
+import com.microsoft.azure.datalake.store.ADLStoreClient;
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
 import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
@@ -12,6 +13,7 @@ import rx.Observable;
 import rx.Observer;
 
 import java.io.File;
+import java.net.URI;
 
 // for cluster with adls gen1 account to deploy using ADLS storage account type
 public class AdlsDeploy implements Deployable {
@@ -29,6 +31,20 @@ public class AdlsDeploy implements Deployable {
     @NotNull
     @Override
     public Observable<String> deploy(File src, Observer<SparkLogLine> logSubject) {
-        return JobUtils.deployArtifactToADLS(src.getAbsolutePath(), adlsRootPath, accessToken);
+        return ArtifactDeployCache.getInstance().deploy(
+                src,
+                adlsRootPath,
+                uploadedPath -> Observable.fromCallable(() -> {
+                    final URI remote = URI.create(uploadedPath);
+
+                    return ADLStoreClient.createClient(remote.getHost(), accessToken)
+                                         .getDirectoryEntry(remote.getPath())
+                            .length;
+                }),
+                () -> JobUtils.deployArtifactToADLS(src.getAbsolutePath(),
+                                                    adlsRootPath,
+                                                    accessToken,
+                                                    JobUtils.createUploadProgressCallback(src, logSubject)),
+                logSubject);
     }
 }
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.microsoft.azure.hdinsight.common.HDInsightLoader;
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import org.apache.commons.codec.binary.Hex;
+import rx.Observable;
+import rx.Observer;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.microsoft.azure.hdinsight.common.MessageInfoType.Info;
+import static com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine.TOOL;
+
+/**
+ * The local index of the uploaded job artifacts, keyed by the artifact SHA-256 digest and the target storage.
+ *
+ * Before uploading, the deployment looks up the artifact uploaded to the same storage with the same content, and
+ * reuses the remote copy if it's still there with the same length. The index is persisted in the plugin folder to
+ * survive IDE restarts.
+ */
+public class ArtifactDeployCache implements ILogger {
+    private static final String CACHE_FOLDER_NAME = "SparkArtifactCache";
+    private static final String INDEX_FILE_NAME = "uploaded-artifacts.json";
+    private static final int MAX_ENTRIES = 256;
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
+    private static final Type ENTRIES_TYPE = new TypeToken<LinkedHashMap<String, UploadedArtifact>>() {}.getType();
+
+    @Nullable
+    private final File indexFile;
+
+    // The uploaded artifacts in access order, guarded by this
+    private final LinkedHashMap<String, UploadedArtifact> entries =
+            new LinkedHashMap<String, UploadedArtifact>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, UploadedArtifact> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    private boolean isLoaded = false;
+
+    private static class LazyHolder {
+        static final ArtifactDeployCache INSTANCE = new ArtifactDeployCache(getDefaultIndexFile());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param indexFile the file to persist the index, null for in-memory only
+     */
+    public ArtifactDeployCache(@Nullable final File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    @NotNull
+    public static ArtifactDeployCache getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    @Nullable
+    private static File getDefaultIndexFile() {
+        try {
+            final String pluginRootPath = HDInsightLoader.getHDInsightHelper().getPluginRootPath();
+
+            return new File(new File(pluginRootPath, CACHE_FOLDER_NAME), INDEX_FILE_NAME);
+        } catch (final Exception ignored) {
+            // No plugin environment, such as in unit tests, keep the index in memory
+            return null;
+        }
+    }
+
+    /**
+     * Deploy the artifact, or reuse the remote copy uploaded before if it's still valid
+     *
+     * @param src the artifact to deploy
+     * @param target the identity of the target storage, such as the destination root path
+     * @param remoteLengthOf the function to look up the remote artifact length by the uploaded path
+     * @param uploader the function to upload the artifact and return the uploaded path
+     * @param logSubject the subject to help print logs during deploying
+     * @return Observable: uploaded path
+     */
+    @NotNull
+    public Observable<String> deploy(@NotNull final File src,
+                                     @NotNull final String target,
+                                     @NotNull final Func1<String, Observable<Long>> remoteLengthOf,
+                                     @NotNull final Func0<Observable<String>> uploader,
+                                     @Nullable final Observer<SparkLogLine> logSubject) {
+        return Observable.fromCallable(() -> getKey(src, target))
+                .onErrorReturn(err -> {
+                    log().warn("Failed to digest the artifact " + src + ", skip the uploaded artifacts lookup.", err);
+
+                    return null;
+                })
+                .flatMap(key -> {
+                    if (key == null) {
+                        return uploader.call();
+                    }
+
+                    final long length = src.length();
+                    final Observable<String> uploadAndRecord = Observable.defer(uploader::call)
+                            .doOnNext(uploadedPath -> put(key, new UploadedArtifact(uploadedPath, length)));
+
+                    final UploadedArtifact uploaded = get(key);
+                    if (uploaded == null || uploaded.getLength() != length) {
+                        return uploadAndRecord;
+                    }
+
+                    return remoteLengthOf.call(uploaded.getPath())
+                            .onErrorReturn(err -> {
+                                log().debug("Failed to check the uploaded artifact " + uploaded.getPath(), err);
+
+                                return -1L;
+                            })
+                            .defaultIfEmpty(-1L)
+                            .flatMap(remoteLength -> {
+                                if (remoteLength != length) {
+                                    remove(key);
+
+                                    return uploadAndRecord;
+                                }
+
+                                if (logSubject != null) {
+                                    logSubject.onNext(new SparkLogLine(TOOL, Info, String.format(
+                                            "Artifact %s is unchanged, reuse the uploaded one %s.",
+                                            src.getName(), uploaded.getPath())));
+                                }
+
+                                return Observable.just(uploaded.getPath());
+                            });
+                });
+    }
+
+    @NotNull
+    private static String getKey(@NotNull final File src, @NotNull final String target)
+            throws IOException, NoSuchAlgorithmException {
+        return digest(src) + "|" + target;
+    }
+
+    @NotNull
+    static String digest(@NotNull final File src) throws IOException, NoSuchAlgorithmException {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        final byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+
+        try (final InputStream inputStream = new FileInputStream(src)) {
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    @Nullable
+    synchronized UploadedArtifact get(@NotNull final String key) {
+        load();
+
+        return entries.get(key);
+    }
+
+    synchronized void put(@NotNull final String key, @NotNull final UploadedArtifact uploaded) {
+        load();
+        entries.put(key, uploaded);
+        save();
+    }
+
+    synchronized void remove(@NotNull final String key) {
+        load();
+
+        if (entries.remove(key) != null) {
+            save();
+        }
+    }
+
+    private void load() {
+        if (isLoaded) {
+            return;
+        }
+
+        isLoaded = true;
+
+        if (indexFile == null || !indexFile.isFile()) {
+            return;
+        }
+
+        try (final Reader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            final Map<String, UploadedArtifact> persisted = new Gson().fromJson(reader, ENTRIES_TYPE);
+
+            if (persisted != null) {
+                entries.putAll(persisted);
+            }
+        } catch (final Exception ex) {
+            log().warn("Failed to load the uploaded artifacts index from " + indexFile + ", start with an empty one.", ex);
+        }
+    }
+
+    private void save() {
+        if (indexFile == null) {
+            return;
+        }
+
+        try {
+            final File folder = indexFile.getParentFile();
+            if (folder != null && !folder.exists()) {
+                folder.mkdirs();
+            }
+
+            // Write to a temporary file first, to not break the index with a partial writing
+            final File tmpFile = new File(indexFile.getPath() + ".tmp");
+            try (final Writer writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+                new Gson().toJson(entries, ENTRIES_TYPE, writer);
+            }
+
+            Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (final Exception ex) {
+            log().warn("Failed to save the uploaded artifacts index to " + indexFile, ex);
+        }
+    }
+
+    static class UploadedArtifact {
+        private String path;
+
+        private long length;
+
+        private long uploadedAt;
+
+        UploadedArtifact(@NotNull final String path, final long length) {
+            this.path = path;
+            this.length = length;
+            this.uploadedAt = System.currentTimeMillis();
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public long getUploadedAt() {
+            return uploadedAt;
+        }
+    }
+}
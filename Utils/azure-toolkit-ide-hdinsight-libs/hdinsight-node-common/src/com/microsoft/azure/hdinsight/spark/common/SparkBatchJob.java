@@ -13,6 +13,7 @@ import com.microsoft.azure.hdinsight.sdk.cluster.YarnCluster;
 import com.microsoft.azure.hdinsight.sdk.common.HDIException;
 import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
 import com.microsoft.azure.hdinsight.sdk.common.HttpResponse;
+import com.microsoft.azure.hdinsight.sdk.common.livy.LivyPollingInterval;
 import com.microsoft.azure.hdinsight.sdk.rest.ObjectConvertUtils;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.App;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.AppAttempt;
@@ -20,12 +21,11 @@ import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.AppAttemptsResponse;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.AppResponse;
 import com.microsoft.azure.hdinsight.sdk.storage.model.IHDIStorageAccount;
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
-import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
+import com.microsoft.azure.hdinsight.spark.jobs.YarnContainerLogFetcher;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.htmlunit.Cache;
 import rx.Observable;
 import rx.Observer;
 import rx.Subscriber;
@@ -131,11 +131,6 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
      */
     private int delaySeconds = 10;
 
-    /**
-     * The global cache for fetched Yarn UI page by browser
-     */
-    private final Cache globalCache = JobUtils.getGlobalCache();
-
     /**
      * The driver log conversion mode
      */
@@ -454,7 +449,7 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
                                                                           @NotNull String type,
                                                                           long logOffset,
                                                                           int size) {
-        final String logGot = JobUtils.getInformationFromYarnLogDom(
+        final String logGot = YarnContainerLogFetcher.of(containerLogUrl).fetch(
                 getSubmission().getAuthCode(),
                 containerLogUrl,
                 type,
@@ -805,6 +800,8 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
         return Observable.create(ob -> {
             try {
                 final int maxLinesPerGet = 128;
+                final LivyPollingInterval pollingInterval = new LivyPollingInterval(
+                        LivyPollingInterval.DEFAULT_MIN_INTERVAL_MS, TimeUnit.SECONDS.toMillis(this.getDelaySeconds()));
                 int linesGot;
                 boolean isFetching = true;
 
@@ -837,11 +834,13 @@ public class SparkBatchJob implements ISparkBatchJob, ILogger {
                         nextLivyLogOffset += linesGot;
                     }
 
-                    // Retry interval
+                    // Retry interval, backs off while no more logs and speeds up once new logs come
                     if (linesGot == 0) {
                         isFetching = "starting".equals(this.getState()) && !isAppIdAllocated;
 
-                        sleep(TimeUnit.SECONDS.toMillis(this.getDelaySeconds()));
+                        sleep(pollingInterval.next(false));
+                    } else {
+                        pollingInterval.reset();
                     }
                 }
             } catch (final IOException ex) {
@@ -5,6 +5,7 @@
 
 package com.microsoft.azure.hdinsight.spark.common;
 
+import com.google.gson.JsonParser;
 import com.microsoft.azure.hdinsight.common.logger.ILogger;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
 import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
@@ -14,8 +15,10 @@ import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.client.utils.URLEncodedUtils;
@@ -33,6 +36,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.UnknownServiceException;
 import java.util.List;
+import java.util.Optional;
 
 public class WebHDFSDeploy implements Deployable, ILogger {
     @NotNull
@@ -74,23 +78,42 @@ public class WebHDFSDeploy implements Deployable, ILogger {
     @Override
     public Observable<String> deploy(File src,
                                      Observer<SparkLogLine> logSubject) {
+        return ArtifactDeployCache.getInstance().deploy(
+                src,
+                destinationRootPath,
+                this::getRemoteFileLength,
+                () -> upload(src),
+                logSubject);
+    }
+
+    private Observable<String> upload(File src) {
         //three steps to upload via webhdfs
         // 1.put request to create new dir
         // 2.put request to get 307 redirect uri from response
         // 3.put redirect request with file content as setEntity
         final URI dest = getUploadDir();
         final HttpPut req = new HttpPut(dest.toString());
+        // The responses are closed once checked to release the pooled connections
         return http.request(req, null, this.createDirReqParams, null)
                 .doOnNext(
                         resp -> {
-                            if (resp.getStatusLine().getStatusCode() != 200) {
+                            final int statusCode = resp.getStatusLine().getStatusCode();
+                            HttpObservable.closeQuietly(resp);
+
+                            if (statusCode != 200) {
                                 Exceptions.propagate(new UnknownServiceException("Can not create directory to save artifact using webHDFS storage type"));
                             }
                         }
                 )
                 .map(ignored -> new HttpPut(dest.resolve(src.getName()).toString()))
                 .flatMap(put -> http.request(put, null, this.uploadReqParams, null))
-                .map(resp -> resp.getFirstHeader("Location").getValue())
+                .map(resp -> {
+                    try {
+                        return Optional.ofNullable(resp.getFirstHeader("Location")).map(Header::getValue).orElse(null);
+                    } finally {
+                        HttpObservable.closeQuietly(resp);
+                    }
+                })
                 .doOnNext(redirectedUri -> {
                     if (StringUtils.isBlank(redirectedUri)) {
                         Exceptions.propagate(new UnknownServiceException("Can not get valid redirect uri using webHDFS storage type"));
@@ -105,7 +128,8 @@ public class WebHDFSDeploy implements Deployable, ILogger {
                                 ContentType.APPLICATION_OCTET_STREAM);
                         reqEntity.setChunked(true);
 
-                        return http.request(put, new BufferedHttpEntity(reqEntity), URLEncodedUtils.parse(put.getURI(), "UTF-8"), null);
+                        return http.request(put, new BufferedHttpEntity(reqEntity), URLEncodedUtils.parse(put.getURI(), "UTF-8"), null)
+                                .doOnNext(HttpObservable::closeQuietly);
                     } catch (IOException ex) {
                         throw new RuntimeException(new IllegalArgumentException("Can not get local artifact when uploading" + ex.toString()));
                     }
@@ -119,6 +143,19 @@ public class WebHDFSDeploy implements Deployable, ILogger {
                 });
     }
 
+    private Observable<Long> getRemoteFileLength(String uploadedPath) {
+        // The uploaded path is the OPEN operation URI, look up the file status with the same path
+        final List<NameValuePair> params = new WebHdfsParamsBuilder("GETFILESTATUS").build();
+
+        return Observable.fromCallable(() -> new URIBuilder(uploadedPath).removeQuery().build())
+                .flatMap(filePath -> http.requestWithHttpResponse(new HttpGet(filePath), null, params, null))
+                .map(resp -> new JsonParser().parse(resp.getMessage())
+                        .getAsJsonObject()
+                        .getAsJsonObject("FileStatus")
+                        .get("length")
+                        .getAsLong());
+    }
+
     @Nullable
     public String getArtifactUploadedPath(String rootPath) throws URISyntaxException {
         final List<NameValuePair> params = new WebHdfsParamsBuilder("OPEN").build();
@@ -29,7 +29,9 @@ import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.ApplicationMasterLogs;
 import com.microsoft.azure.hdinsight.sdk.storage.implementation.HDStorageAccount;
 import com.microsoft.azure.hdinsight.sdk.storage.model.IHDIStorageAccount;
 import com.microsoft.azure.hdinsight.sdk.storage.StorageAccountType;
+import com.microsoft.azure.hdinsight.sdk.storage.adls.WebHDFSUtils;
 import com.microsoft.azure.hdinsight.sdk.storage.webhdfs.WebHdfsParamsBuilder;
+import com.microsoft.azure.hdinsight.spark.common.ArtifactDeployCache;
 import com.microsoft.azure.hdinsight.spark.common.SparkBatchEspMfaSubmission;
 import com.microsoft.azure.hdinsight.spark.common.SparkBatchSubmission;
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
@@ -65,11 +67,6 @@ import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
-import org.htmlunit.BrowserVersion;
-import org.htmlunit.Cache;
-import org.htmlunit.FailingHttpStatusCodeException;
-import org.htmlunit.WebClient;
-import org.htmlunit.html.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
@@ -82,16 +79,13 @@ import java.awt.*;
 import java.io.*;
 import java.lang.reflect.Type;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.UnknownServiceException;
 import java.util.*;
 import java.util.List;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.microsoft.azure.hdinsight.common.MessageInfoType.Info;
 import static com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine.TOOL;
@@ -101,6 +95,7 @@ import static rx.exceptions.Exceptions.propagate;
 public class JobUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(JobUtils.class);
     private static final String JobLogFolderName = "SparkJobLog";
+    private static final int ADLS_UPLOAD_BUFFER_SIZE = 4 * 1024 * 1024;
     private static final String yarnUIHisotryFormat = "%s/yarnui/hn/cluster/app/%s";
 
     private static final String sparkUIHistoryFormat = "%s/sparkhistory/history/%s/%s/jobs";
@@ -195,8 +190,6 @@ public class JobUtils {
         }
     }
 
-    private static final Cache globalCache = new Cache();
-
     private static final String DRIVER_LOG_INFO_URL = "%s/yarnui/jobhistory/logs/%s/port/%s/%s/%s/livy";
 
     public static ApplicationMasterLogs getYarnLogs(@NotNull ApplicationKey key) throws ExecutionException, HDIException {
@@ -242,85 +235,7 @@ public class JobUtils {
                                                       @NotNull String type,
                                                       long start,
                                                       int size) {
-        final WebClient HTTP_WEB_CLIENT = new WebClient(BrowserVersion.CHROME);
-        HTTP_WEB_CLIENT.getOptions().setUseInsecureSSL(HttpObservable.isSSLCertificateValidationDisabled());
-        HTTP_WEB_CLIENT.setCache(globalCache);
-
-        if (authCode != null) {
-            HTTP_WEB_CLIENT.addRequestHeader(AUTHORIZATION, authCode);
-        }
-
-        return getInformationFromYarnLogDom(HTTP_WEB_CLIENT, baseUrl, type, start, size);
-    }
-
-    private static String getInformationFromYarnLogDom(@NotNull WebClient client,
-                                                      @NotNull String baseUrl,
-                                                      @NotNull String type,
-                                                      long start,
-                                                      int size) {
-        URI url = null;
-
-        try {
-            url = new URI(baseUrl + "/").resolve(
-                    String.format("%s?start=%d", type, start) +
-                            (size <= 0 ? "" : String.format("&&end=%d", start + size)));
-            final HtmlPage htmlPage = client.getPage(url.toString());
-
-            final Iterator<DomElement> iterator = htmlPage.getElementById("navcell").getNextElementSibling().getChildElements().iterator();
-
-            final HashMap<String, String> logTypeMap = new HashMap<>();
-            final AtomicReference<String> logType = new AtomicReference<>();
-            String logs = "";
-
-            while (iterator.hasNext()) {
-                final DomElement node = iterator.next();
-
-                if (node instanceof HtmlParagraph) {
-                    // In history server, need to read log type paragraph in page
-                    final Pattern logTypePattern = Pattern.compile("Log Type:\\s+(\\S+)");
-
-                    Optional.ofNullable(node.getFirstChild())
-                            .map(DomNode::getTextContent)
-                            .map(String::trim)
-                            .map(logTypePattern::matcher)
-                            .filter(Matcher::matches)
-                            .map(matcher -> matcher.group(1))
-                            .ifPresent(logType::set);
-                } else if (node instanceof HtmlPreformattedText) {
-                    // In running, no log type paragraph in page
-                    logs = Optional.ofNullable(node.getFirstChild())
-                                .map(DomNode::getTextContent)
-                                .orElse("");
-
-                    if (logType.get() != null) {
-                        // Only get the first <pre>...</pre>
-                        logTypeMap.put(logType.get(), logs);
-
-                        logType.set(null);
-                    }
-                }
-            }
-
-            return logTypeMap.getOrDefault(type, logs);
-        } catch (final FailingHttpStatusCodeException httpError) {
-            // If the URL is wrong, will get 200 response with content:
-            //      Unable to locate 'xxx' log for container
-            //  OR
-            //      Logs not available for <user>. Aggregation may not be complete, Check back later or try the nodemanager at...
-            //  OR
-            //      Cannot get container logs without ...
-            //
-            // if fetching Yarn log hits the gap between the job running and stop, will get the status 403
-            // the log is moving to job history server, just wait and retry.
-            if (httpError.getStatusCode() != HttpStatus.SC_FORBIDDEN) {
-                LOGGER.warn("The GET request to " + url + " responded error: " + httpError.getMessage());
-            }
-        } catch (final URISyntaxException e) {
-            LOGGER.error("baseUrl has syntax error: " + baseUrl);
-        } catch (final Exception e) {
-            LOGGER.warn("get Spark job log Error", e);
-        }
-        return "";
+        return YarnContainerLogFetcher.of(baseUrl).fetch(authCode, baseUrl, type, start, size);
     }
 
     /**
@@ -344,6 +259,7 @@ public class JobUtils {
             return Observable.empty();
 
         return Observable.create((Observable.OnSubscribe<String>) ob -> {
+            final YarnContainerLogFetcher logFetcher = YarnContainerLogFetcher.of(containerLogUrl);
             long nextStart = 0;
             String remainedLine = "";
             String logs;
@@ -357,8 +273,7 @@ public class JobUtils {
 
             try {
                 while (!ob.isUnsubscribed()) {
-                    logs = JobUtils.getInformationFromYarnLogDom(
-                            authCode, containerLogUrl, type, nextStart, blockSize);
+                    logs = logFetcher.fetch(authCode, containerLogUrl, type, nextStart, blockSize);
                     int lastLineBreak = logs.lastIndexOf('\n');
 
                     if (lastLineBreak < 0) {
@@ -395,7 +310,7 @@ public class JobUtils {
             } finally {
                 // Get the rest logs from history server
                 // Don't worry about the log is moved to history server, the YarnUI can do URL redirect by itself
-                logs = JobUtils.getInformationFromYarnLogDom(authCode, containerLogUrl, type, nextStart, 0);
+                logs = logFetcher.fetch(authCode, containerLogUrl, type, nextStart, 0);
 
                 new BufferedReader(new StringReader(remainedLine + logs)).lines().forEach(ob::onNext);
             }
@@ -720,11 +635,47 @@ public class JobUtils {
                                 null));
     }
 
+    /**
+     * Create the callback to log the uploading progress at every 10 percent
+     *
+     * @param src the local file to upload
+     * @param logSubject the log observer to report progress
+     * @return the callback with the uploaded bytes count
+     */
+    @NotNull
+    public static CallableSingleArg<Void, Long> createUploadProgressCallback(@NotNull File src,
+                                                                             @NotNull Observer<SparkLogLine> logSubject) {
+        final long total = src.length();
+        final AtomicInteger lastReportedPercent = new AtomicInteger(0);
+
+        return new CallableSingleArg<Void, Long>() {
+            @Override
+            public Void call(Long uploaded) {
+                final int percent = total == 0 ? 100 : (int) (uploaded * 100 / total);
+                final int reported = lastReportedPercent.get();
+
+                if (percent / 10 > reported / 10 && lastReportedPercent.compareAndSet(reported, percent)) {
+                    logSubject.onNext(new SparkLogLine(TOOL, Info, String.format(
+                            "Uploading %s... %d%% (%d of %d bytes)", src.getName(), percent, uploaded, total)));
+                }
+
+                return null;
+            }
+        };
+    }
+
     // Have to catch IOException in subscribe
     @NotNull
     public static Observable<String> deployArtifactToADLS(@NotNull String artifactLocalPath,
                                                  @NotNull String adlRootPath,
                                                  @NotNull String accessToken) {
+        return deployArtifactToADLS(artifactLocalPath, adlRootPath, accessToken, null);
+    }
+
+    public static Observable<String> deployArtifactToADLS(@NotNull String artifactLocalPath,
+                                                 @NotNull String adlRootPath,
+                                                 @NotNull String accessToken,
+                                                 @Nullable CallableSingleArg<Void, Long> uploadInProcessCallback) {
         return Observable.fromCallable(() -> {
             final File localFile = new File(artifactLocalPath);
 
@@ -735,11 +686,23 @@ public class JobUtils {
 
             final ADLStoreClient storeClient = ADLStoreClient.createClient(remote.getHost(), accessToken);
 
-            try (final OutputStream adlsOutputStream = storeClient.createFile(remote.getPath(), IfExists.OVERWRITE, "755", true)) {
-                final long size = IOUtils.copyLarge(new FileInputStream(localFile), adlsOutputStream);
+            // The ADLS output stream buffers and sends the data by blocks, just stream the file into it
+            try (final InputStream fileInputStream = new FileInputStream(localFile);
+                 final OutputStream adlsOutputStream = storeClient.createFile(remote.getPath(), IfExists.OVERWRITE, "755", true)) {
+                final byte[] buffer = new byte[ADLS_UPLOAD_BUFFER_SIZE];
+                long uploaded = 0;
+                int read;
+
+                while ((read = fileInputStream.read(buffer)) != -1) {
+                    adlsOutputStream.write(buffer, 0, read);
+                    uploaded += read;
+
+                    if (uploadInProcessCallback != null) {
+                        uploadInProcessCallback.call(uploaded);
+                    }
+                }
 
                 adlsOutputStream.flush();
-                adlsOutputStream.close();
 
                 return remote.toString();
             }
@@ -749,13 +712,41 @@ public class JobUtils {
     public static Observable<String> deployArtifact(@NotNull String artifactLocalPath,
                                                     @NotNull final IHDIStorageAccount storageAccount,
                                                     @NotNull Observer<SparkLogLine> logSubject) {
-        return Observable.fromCallable(() -> JobUtils.uploadFileToAzureNew(
-                new File(artifactLocalPath),
-                storageAccount,
-                storageAccount.getDefaultContainerOrRootPath(),
-                getFormatPathByDate(),
-                logSubject,
-                null));
+        final File artifact = new File(artifactLocalPath);
+        final String target = String.format("%s:%s:%s",
+                                            storageAccount.getAccountType(),
+                                            storageAccount.getName(),
+                                            storageAccount.getDefaultContainerOrRootPath());
+
+        return ArtifactDeployCache.getInstance().deploy(
+                artifact,
+                target,
+                uploadedPath -> Observable.fromCallable(() -> getUploadedArtifactLength(storageAccount, uploadedPath)),
+                () -> Observable.fromCallable(() -> JobUtils.uploadFileToAzureNew(
+                        artifact,
+                        storageAccount,
+                        storageAccount.getDefaultContainerOrRootPath(),
+                        getFormatPathByDate(),
+                        logSubject,
+                        null)),
+                logSubject);
+    }
+
+    private static long getUploadedArtifactLength(@NotNull final IHDIStorageAccount storageAccount,
+                                                  @NotNull final String uploadedPath) throws Exception {
+        // The uploaded path is wasbs://<container>@<account host>/<path> or adl://<account host>/<path>
+        final URI uploadedUri = URI.create(uploadedPath);
+
+        if (storageAccount.getAccountType() == StorageAccountType.BLOB) {
+            return StorageClientSDKManager.getManager().getBlobFileLength(
+                    ((HDStorageAccount) storageAccount).getConnectionString(),
+                    uploadedUri.getUserInfo(),
+                    StringUtils.removeStart(uploadedUri.getPath(), "/"));
+        } else if (storageAccount.getAccountType() == StorageAccountType.ADLS) {
+            return WebHDFSUtils.getFileLengthOnADLS(storageAccount, uploadedUri.getPath());
+        }
+
+        throw new UnsupportedOperationException("unknown storage account type");
     }
 
     public static Single<SimpleImmutableEntry<IClusterDetail, String>> deployArtifact(@NotNull String artifactLocalPath,
@@ -844,10 +835,6 @@ public class JobUtils {
         });
     }
 
-    public static Cache getGlobalCache() {
-        return globalCache;
-    }
-
     public static AbstractMap.SimpleImmutableEntry<Integer, List<Header>>
     authenticate(IClusterDetail clusterDetail) throws HDIException, IOException {
         final SparkBatchSubmission submission = SparkBatchSubmission.getInstance();
@@ -7,10 +7,18 @@ package com.microsoft.azure.hdinsight.spark.jobs;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.microsoft.azure.hdinsight.common.JobViewManager;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.Application;
+import com.microsoft.azure.hdinsight.sdk.rest.spark.Attempt;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.event.JobStartEventLog;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.executor.Executor;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.job.Job;
@@ -19,106 +27,344 @@ import com.microsoft.azure.hdinsight.sdk.rest.spark.task.Task;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.App;
 import com.microsoft.azure.hdinsight.sdk.rest.yarn.rm.ApplicationMasterLogs;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+/**
+ * The caches of the Spark job view.
+ *
+ * The entries are weighted by their items count (jobs, stages, tasks and so on), expire after not being accessed
+ * for a while, and are refreshed in background once they get old. The data of finished applications never changes,
+ * so their refreshing keeps the old value without any request. The tasks are cached per stage attempt and
+ * progress, thus refreshing a running application only fetches the tasks of the stages that have progressed.
+ * The Yarn logs and application keep being refreshed after the application finished, until the log aggregation
+ * completes, since the logs are moved to the history server after that.
+ */
 public class JobViewCacheManager {
-    private static final LoadingCache<ApplicationKey, List<Job>> sparkJobLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Job>>() {
+    private static final long MAX_WEIGHT = 100_000;
+    private static final long MAX_TASKS_WEIGHT = 500_000;
+    private static final long EXPIRE_AFTER_ACCESS_MINUTES = 30;
+    private static final long REFRESH_AFTER_WRITE_SECONDS = 15;
+    private static final int REFRESHING_THREADS = 2;
+    private static final int STAGE_TASKS_LOADING_THREADS = 4;
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    // The log aggregation status values of which the aggregation won't change anymore
+    private static final List<String> LOG_AGGREGATION_COMPLETED_STATUSES =
+            Arrays.asList("DISABLED", "SUCCEEDED", "FAILED", "TIME_OUT");
+
+    // The executors are created on demand and shut down once the job view is closed, their threads exit when idle
+    @Nullable
+    private static ListeningExecutorService refreshingExecutor;
+
+    @Nullable
+    private static ExecutorService stageTasksLoadingExecutor;
+
+    private static final Weigher<Object, List<?>> LIST_SIZE_WEIGHER = (key, value) -> value.size() + 1;
+
+    private static final Map<String, LoadingCache<?, ?>> caches = new LinkedHashMap<>();
+
+    private static final LoadingCache<String, List<Application>> sparkApplicationsLocalCache = register(
+            "applications",
+            newListCacheBuilder(MAX_WEIGHT).build(new JobViewCacheLoader<String, List<Application>>() {
+                @Override
+                public List<Application> load(String key) throws Exception {
+                    return SparkRestUtil.getSparkApplications(JobViewManager.getCluster(key));
+                }
+            }));
+
+    private static final LoadingCache<ApplicationKey, List<Job>> sparkJobLocalCache = register(
+            "jobs",
+            newListCacheBuilder(MAX_WEIGHT).build(new JobViewCacheLoader<ApplicationKey, List<Job>>() {
                 @Override
                 public List<Job> load(ApplicationKey key) throws Exception {
                     return SparkRestUtil.getLastAttemptJobsFromApp(key);
                 }
-            });
+            }));
 
-    private static final LoadingCache<ApplicationKey, List<Stage>> sparkStageLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Stage>>() {
+    private static final LoadingCache<ApplicationKey, List<Stage>> sparkStageLocalCache = register(
+            "stages",
+            newListCacheBuilder(MAX_WEIGHT).build(new JobViewCacheLoader<ApplicationKey, List<Stage>>() {
                 @Override
                 public List<Stage> load(ApplicationKey key) throws Exception {
                     return SparkRestUtil.getAllStageFromApp(key);
                 }
-            });
+            }));
 
-    private static final LoadingCache<ApplicationKey, List<Executor>> sparkExecutorLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Executor>>() {
+    private static final LoadingCache<ApplicationKey, List<Executor>> sparkExecutorLocalCache = register(
+            "executors",
+            newListCacheBuilder(MAX_WEIGHT).build(new JobViewCacheLoader<ApplicationKey, List<Executor>>() {
                 @Override
                 public List<Executor> load(ApplicationKey key) throws Exception {
                     return SparkRestUtil.getAllExecutorFromApp(key);
                 }
-            });
+            }));
 
-    private static final LoadingCache<String, List<Application>> sparkApplicationsLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<String, List<Application>>() {
-                @Override
-                public List<Application> load(String key) throws Exception {
-                    return SparkRestUtil.getSparkApplications(JobViewManager.getCluster(key));
-                }
-            });
+    // The tasks of a stage attempt at a progress, the stage progressed is loaded as a new entry
+    private static final LoadingCache<StageTasksKey, List<Task>> sparkStageTasksLocalCache = register(
+            "stageTasks",
+            CacheBuilder.newBuilder()
+                    .maximumWeight(MAX_TASKS_WEIGHT)
+                    .weigher(LIST_SIZE_WEIGHER)
+                    .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+                    .recordStats()
+                    .build(new CacheLoader<StageTasksKey, List<Task>>() {
+                        @Override
+                        public List<Task> load(StageTasksKey key) throws Exception {
+                            return SparkRestUtil.getSparkTasks(key.applicationKey, key.stageId, key.attemptId);
+                        }
+                    }));
 
-    private static final LoadingCache<ApplicationKey, List<Task>> sparkTasksSummaryLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<Task>>() {
+    private static final LoadingCache<ApplicationKey, List<Task>> sparkTasksSummaryLocalCache = register(
+            "tasks",
+            newListCacheBuilder(MAX_TASKS_WEIGHT).build(new JobViewCacheLoader<ApplicationKey, List<Task>>() {
                 @Override
                 public List<Task> load(ApplicationKey key) throws Exception {
-                    List<Task> allTasks = new ArrayList<>();
-                    List<Stage> stages = sparkStageLocalCache.get(key);
-                    for (Stage stage: stages) {
-                        int stageId = stage.getStageId();
-                        int attemptedId = stage.getAttemptId();
-                        List<Task> tasks = SparkRestUtil.getSparkTasks(key, stageId, attemptedId);
-                        allTasks.addAll(tasks);
-                    }
-                    return allTasks;
+                    return loadTasks(key, sparkStageLocalCache.get(key));
                 }
-            });
 
-    private static final LoadingCache<ApplicationKey, ApplicationMasterLogs> yarnAppLogLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, ApplicationMasterLogs>() {
                 @Override
-                public ApplicationMasterLogs load(ApplicationKey key) throws Exception {
-                    return JobUtils.getYarnLogs(key);
-                }
-            });
+                public ListenableFuture<List<Task>> reload(ApplicationKey key, List<Task> oldValue) {
+                    if (isFinished(key)) {
+                        return Futures.immediateFuture(oldValue);
+                    }
 
-    private static final LoadingCache<ApplicationKey, App> yarnApplicationLocalCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, App>() {
-                @Override
-                public App load(ApplicationKey key) throws Exception {
-                    return YarnRestUtil.getApp(key);
+                    return getRefreshingExecutor().submit(() -> {
+                        // Refresh the stages first to find out the stages progressed
+                        final List<Stage> stages = SparkRestUtil.getAllStageFromApp(key);
+                        sparkStageLocalCache.put(key, stages);
+
+                        return loadTasks(key, stages);
+                    });
                 }
-            });
+            }));
+
+    private static final LoadingCache<ApplicationKey, YarnAppLogs> yarnAppLogLocalCache = register(
+            "yarnLogs",
+            CacheBuilder.newBuilder()
+                    .maximumSize(100)
+                    .initialCapacity(20)
+                    .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+                    .refreshAfterWrite(REFRESH_AFTER_WRITE_SECONDS, TimeUnit.SECONDS)
+                    .recordStats()
+                    .build(new YarnAppLogsCacheLoader<ApplicationKey>() {
+                        @Override
+                        ApplicationMasterLogs loadLogs(ApplicationKey key) throws Exception {
+                            return JobUtils.getYarnLogs(key);
+                        }
+
+                        @Override
+                        boolean isLogAggregated(ApplicationKey key) {
+                            return isYarnAppLogAggregated(key);
+                        }
+                    }));
+
+    private static final LoadingCache<ApplicationKey, App> yarnApplicationLocalCache = register(
+            "yarnApps",
+            CacheBuilder.newBuilder()
+                    .maximumSize(100)
+                    .initialCapacity(20)
+                    .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+                    .refreshAfterWrite(REFRESH_AFTER_WRITE_SECONDS, TimeUnit.SECONDS)
+                    .recordStats()
+                    .build(new JobViewCacheLoader<ApplicationKey, App>() {
+                        @Override
+                        public App load(ApplicationKey key) throws Exception {
+                            return YarnRestUtil.getApp(key);
+                        }
+
+                        @Override
+                        boolean isFinished(ApplicationKey key) {
+                            // Keep refreshing for the log aggregation status until it completes
+                            return isYarnAppLogAggregated(key);
+                        }
+                    }));
 
-    private static final LoadingCache<ApplicationKey, List<JobStartEventLog>> sparkJobStartEventLogCache = CacheBuilder.newBuilder()
-            .maximumSize(100)
-            .initialCapacity(20)
-            .build(new CacheLoader<ApplicationKey, List<JobStartEventLog>>() {
+    private static final LoadingCache<ApplicationKey, List<JobStartEventLog>> sparkJobStartEventLogCache = register(
+            "jobStartEventLogs",
+            newListCacheBuilder(MAX_WEIGHT).build(new JobViewCacheLoader<ApplicationKey, List<JobStartEventLog>>() {
                 @Override
                 public List<JobStartEventLog> load(ApplicationKey key) throws Exception {
                     return SparkRestUtil.getSparkEventLogs(key);
                 }
-            });
+            }));
+
+    @NotNull
+    private static List<Task> loadTasks(@NotNull ApplicationKey key, @NotNull List<Stage> stages)
+            throws InterruptedException, ExecutionException {
+        // Load the tasks of stages in parallel, the stages not progressed are hit in the cache
+        final List<Future<List<Task>>> stageTasks = new ArrayList<>();
+        for (final Stage stage : stages) {
+            final StageTasksKey stageTasksKey = new StageTasksKey(key, stage);
+            stageTasks.add(getStageTasksLoadingExecutor().submit(() -> sparkStageTasksLocalCache.get(stageTasksKey)));
+        }
+
+        final List<Task> allTasks = new ArrayList<>();
+        for (final Future<List<Task>> tasks : stageTasks) {
+            allTasks.addAll(tasks.get());
+        }
+
+        return allTasks;
+    }
+
+    @NotNull
+    static synchronized ListeningExecutorService getRefreshingExecutor() {
+        if (refreshingExecutor == null) {
+            refreshingExecutor = MoreExecutors.listeningDecorator(
+                    newBoundedExecutor(REFRESHING_THREADS, "spark-job-view-cache-refresh-%d"));
+        }
+
+        return refreshingExecutor;
+    }
+
+    @NotNull
+    static synchronized ExecutorService getStageTasksLoadingExecutor() {
+        if (stageTasksLoadingExecutor == null) {
+            stageTasksLoadingExecutor = newBoundedExecutor(STAGE_TASKS_LOADING_THREADS, "spark-job-view-stage-tasks-%d");
+        }
+
+        return stageTasksLoadingExecutor;
+    }
+
+    @NotNull
+    private static ThreadPoolExecutor newBoundedExecutor(int threads, @NotNull String nameFormat) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * Shut down the refreshing and loading threads, and drop all cached entries. The executors are created again
+     * once the caches are used next time.
+     */
+    public static synchronized void close() {
+        if (refreshingExecutor != null) {
+            refreshingExecutor.shutdownNow();
+            refreshingExecutor = null;
+        }
+
+        if (stageTasksLoadingExecutor != null) {
+            stageTasksLoadingExecutor.shutdownNow();
+            stageTasksLoadingExecutor = null;
+        }
+
+        synchronized (caches) {
+            caches.values().forEach(LoadingCache::invalidateAll);
+        }
+    }
+
+    @NotNull
+    static CacheBuilder<Object, List<?>> newListCacheBuilder(long maximumWeight) {
+        return CacheBuilder.newBuilder()
+                .initialCapacity(20)
+                .maximumWeight(maximumWeight)
+                .weigher(LIST_SIZE_WEIGHER)
+                .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+                .refreshAfterWrite(REFRESH_AFTER_WRITE_SECONDS, TimeUnit.SECONDS)
+                .recordStats();
+    }
+
+    @NotNull
+    private static <K, V> LoadingCache<K, V> register(@NotNull String name, @NotNull LoadingCache<K, V> cache) {
+        synchronized (caches) {
+            caches.put(name, cache);
+        }
+
+        return cache;
+    }
+
+    /**
+     * Check if the Spark application is finished, by the cached application list only
+     *
+     * @param key the application key
+     * @return true if the application is known as finished
+     */
+    static boolean isApplicationFinished(@NotNull ApplicationKey key) {
+        final List<Application> apps =
+                sparkApplicationsLocalCache.getIfPresent(key.getClusterDetails().getName());
+
+        if (apps == null) {
+            return false;
+        }
+
+        return apps.stream()
+                .filter(app -> app.getId().equalsIgnoreCase(key.getAppId()))
+                .findFirst()
+                .map(Application::getAttempts)
+                .filter(attempts -> !attempts.isEmpty())
+                .map(attempts -> attempts.get(attempts.size() - 1))
+                .map(Attempt::getCompleted)
+                .map(Boolean::parseBoolean)
+                .orElse(false);
+    }
+
+    /**
+     * Check if the Yarn application is finished and its log aggregation completed, by the cached application only
+     *
+     * @param key the application key
+     * @return true if the logs of the application won't change anymore
+     */
+    static boolean isYarnAppLogAggregated(@NotNull ApplicationKey key) {
+        final App app = yarnApplicationLocalCache.getIfPresent(key);
+
+        return app != null && app.isFinished() && isLogAggregationCompleted(app.getLogAggregationStatus());
+    }
+
+    /**
+     * Check if the log aggregation status won't change anymore, the status missing from the older Yarn is taken
+     * as completed
+     *
+     * @param logAggregationStatus the log aggregation status of the Yarn application
+     * @return true if the log aggregation is completed
+     */
+    static boolean isLogAggregationCompleted(@Nullable String logAggregationStatus) {
+        return logAggregationStatus == null
+                || LOG_AGGREGATION_COMPLETED_STATUSES.contains(logAggregationStatus.toUpperCase());
+    }
+
+    /**
+     * Get the statistics of all caches, for the job view to display
+     *
+     * @return the map from the cache name to the statistics
+     */
+    @NotNull
+    public static Map<String, CacheStatistics> getStatistics() {
+        synchronized (caches) {
+            return caches.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey,
+                                              entry -> new CacheStatistics(entry.getValue().stats(),
+                                                                           entry.getValue().size()),
+                                              (a, b) -> a,
+                                              LinkedHashMap::new));
+        }
+    }
 
     public static List<JobStartEventLog> getJobStartEventLogs(@NotNull ApplicationKey key) throws ExecutionException {
         return sparkJobStartEventLogCache.get(key);
     }
 
     public static ApplicationMasterLogs getYarnLogs(@NotNull ApplicationKey key) throws ExecutionException {
-            return yarnAppLogLocalCache.get(key);
+        return yarnAppLogLocalCache.get(key).getLogs();
     }
 
     public static App getYarnApp(@NotNull ApplicationKey key) throws ExecutionException {
@@ -154,4 +400,181 @@ public class JobViewCacheManager {
     public static List<Stage> getStages(@NotNull ApplicationKey key) throws ExecutionException {
         return sparkStageLocalCache.get(key);
     }
+
+    /**
+     * The cache loader refreshing in background, which keeps the old value for the finished applications
+     */
+    private abstract static class JobViewCacheLoader<K, V> extends CacheLoader<K, V> {
+        @Override
+        public ListenableFuture<V> reload(K key, V oldValue) throws Exception {
+            if (isFinished(key)) {
+                return Futures.immediateFuture(oldValue);
+            }
+
+            return getRefreshingExecutor().submit(() -> load(key));
+        }
+
+        boolean isFinished(K key) {
+            return key instanceof ApplicationKey && isApplicationFinished((ApplicationKey) key);
+        }
+    }
+
+    /**
+     * The Yarn logs cache loader, which keeps refreshing the logs until the logs are read after the log aggregation
+     * completed. The aggregation is checked before reading, so that the logs read while aggregating are refreshed.
+     */
+    abstract static class YarnAppLogsCacheLoader<K> extends CacheLoader<K, YarnAppLogs> {
+        @Override
+        public YarnAppLogs load(K key) throws Exception {
+            final boolean isAggregated = isLogAggregated(key);
+
+            return new YarnAppLogs(loadLogs(key), isAggregated);
+        }
+
+        @Override
+        public ListenableFuture<YarnAppLogs> reload(K key, YarnAppLogs oldValue) {
+            if (oldValue.isFinal()) {
+                return Futures.immediateFuture(oldValue);
+            }
+
+            return getRefreshingExecutor().submit(() -> load(key));
+        }
+
+        abstract ApplicationMasterLogs loadLogs(K key) throws Exception;
+
+        abstract boolean isLogAggregated(K key);
+    }
+
+    static class YarnAppLogs {
+        @NotNull
+        private final ApplicationMasterLogs logs;
+
+        // The logs read after the log aggregation completed won't change anymore
+        private final boolean isFinal;
+
+        YarnAppLogs(@NotNull ApplicationMasterLogs logs, boolean isFinal) {
+            this.logs = logs;
+            this.isFinal = isFinal;
+        }
+
+        @NotNull
+        ApplicationMasterLogs getLogs() {
+            return logs;
+        }
+
+        boolean isFinal() {
+            return isFinal;
+        }
+    }
+
+    private static class StageTasksKey {
+        @NotNull
+        private final ApplicationKey applicationKey;
+
+        private final int stageId;
+
+        private final int attemptId;
+
+        // The stage progress, to load the tasks again once the stage progressed
+        @Nullable
+        private final String status;
+
+        private final int numActiveTasks;
+
+        private final int numCompleteTasks;
+
+        private final int numFailedTasks;
+
+        StageTasksKey(@NotNull ApplicationKey applicationKey, @NotNull Stage stage) {
+            this.applicationKey = applicationKey;
+            this.stageId = stage.getStageId();
+            this.attemptId = stage.getAttemptId();
+            this.status = stage.getStatus();
+            this.numActiveTasks = stage.getNumActiveTasks();
+            this.numCompleteTasks = stage.getNumCompleteTasks();
+            this.numFailedTasks = stage.getNumFailedTasks();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof StageTasksKey)) {
+                return false;
+            }
+
+            StageTasksKey that = (StageTasksKey) o;
+            return stageId == that.stageId
+                    && attemptId == that.attemptId
+                    && numActiveTasks == that.numActiveTasks
+                    && numCompleteTasks == that.numCompleteTasks
+                    && numFailedTasks == that.numFailedTasks
+                    && Objects.equals(status, that.status)
+                    && applicationKey.equals(that.applicationKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(applicationKey, stageId, attemptId, status, numActiveTasks, numCompleteTasks, numFailedTasks);
+        }
+    }
+
+    /**
+     * The cache statistics snapshot for the job view
+     */
+    public static class CacheStatistics {
+        private final long size;
+        private final long hitCount;
+        private final long missCount;
+        private final double hitRate;
+        private final long loadCount;
+        private final long loadExceptionCount;
+        private final double averageLoadMillis;
+        private final long evictionCount;
+
+        CacheStatistics(@NotNull CacheStats stats, long size) {
+            this.size = size;
+            this.hitCount = stats.hitCount();
+            this.missCount = stats.missCount();
+            this.hitRate = stats.hitRate();
+            this.loadCount = stats.loadCount();
+            this.loadExceptionCount = stats.loadExceptionCount();
+            this.averageLoadMillis = stats.averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1);
+            this.evictionCount = stats.evictionCount();
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public double getHitRate() {
+            return hitRate;
+        }
+
+        public long getLoadCount() {
+            return loadCount;
+        }
+
+        public long getLoadExceptionCount() {
+            return loadExceptionCount;
+        }
+
+        public double getAverageLoadMillis() {
+            return averageLoadMillis;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+    }
 }
@@ -40,6 +40,7 @@ public class JobViewHttpServer {
             } catch (InterruptedException e) {
             }
         }
+        JobViewCacheManager.close();
         isEnabled = false;
     }
 
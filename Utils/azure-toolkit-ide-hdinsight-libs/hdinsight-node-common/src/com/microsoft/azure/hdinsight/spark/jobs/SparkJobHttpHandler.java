@@ -6,6 +6,7 @@
 package com.microsoft.azure.hdinsight.spark.jobs;
 
 import com.microsoft.azure.hdinsight.sdk.common.HDIException;
+import com.microsoft.azure.hdinsight.sdk.common.HttpClientRegistry;
 import com.microsoft.azure.hdinsight.sdk.rest.ObjectConvertUtils;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.Application;
 import com.microsoft.azure.hdinsight.sdk.rest.spark.YarnAppWithJobs;
@@ -19,9 +20,11 @@ import com.microsoft.azure.hdinsight.spark.jobs.framework.JobRequestDetails;
 import com.microsoft.tooling.msservices.components.DefaultLoader;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import org.apache.http.pool.PoolStats;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
@@ -61,6 +64,14 @@ public class SparkJobHttpHandler implements HttpHandler {
                 List<Task> tasks = JobViewCacheManager.getTasks(new ApplicationKey(requestDetail.getCluster(), requestDetail.getAppId()));
                 Optional<String> responseString = ObjectConvertUtils.convertObjectToJsonString(tasks);
                 JobUtils.setResponse(httpExchange, responseString.orElseThrow(IOException::new));
+            } else if (path.contains("cache_stats")) {
+                Map<String, JobViewCacheManager.CacheStatistics> statistics = JobViewCacheManager.getStatistics();
+                Optional<String> responseString = ObjectConvertUtils.convertObjectToJsonString(statistics);
+                JobUtils.setResponse(httpExchange, responseString.orElseThrow(IOException::new));
+            } else if (path.contains("http_pool_stats")) {
+                Map<String, PoolStats> poolStats = HttpClientRegistry.getInstance().getPoolStats();
+                Optional<String> responseString = ObjectConvertUtils.convertObjectToJsonString(poolStats);
+                JobUtils.setResponse(httpExchange, responseString.orElseThrow(IOException::new));
             }
         } catch (ExecutionException e) {
             JobUtils.setResponse(httpExchange, e.getMessage(), 500);
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.jobs;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import com.microsoft.azuretools.service.ServiceManager;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustAllStrategy;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.TrustStrategy;
+import org.apache.http.util.EntityUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.apache.http.HttpHeaders.AUTHORIZATION;
+
+/**
+ * The Yarn container log fetcher, which reads the Yarn UI {@code /containerlogs} pages with a pooled HTTP client
+ * shared by all log readers of the same cluster, instead of spinning up a browser engine for every fetch.
+ *
+ * The fetchers are cached for the recently read clusters only. The HTTP client of a fetcher evicted is closed once
+ * its fetches in flight are done, and the fetches started later go to a new fetcher of the cluster.
+ */
+public class YarnContainerLogFetcher implements ILogger {
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 8;
+    private static final int MAX_CONNECTIONS_TOTAL = 32;
+    private static final long IDLE_CONNECTION_EVICT_SECONDS = 30;
+    private static final int MAX_CACHED_FETCHERS = 16;
+    private static final long FETCHER_EXPIRE_AFTER_ACCESS_MINUTES = 10;
+
+    private static final Pattern LOG_TYPE_PATTERN = Pattern.compile("Log Type:\\s+(\\S+)");
+
+    private static final Cache<String, YarnContainerLogFetcher> fetchers = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_FETCHERS)
+            .expireAfterAccess(FETCHER_EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+            .removalListener((RemovalListener<String, YarnContainerLogFetcher>) notification ->
+                    notification.getValue().evict())
+            .build();
+
+    @NotNull
+    private final CloseableHttpClient httpClient;
+
+    // The fetches in flight, the client is closed after the last one if the fetcher is evicted
+    private int inFlight = 0;
+
+    private boolean isEvicted = false;
+
+    private boolean isClosed = false;
+
+    private YarnContainerLogFetcher(final boolean isSSLCertificateValidationDisabled) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                createSocketFactoryRegistry(isSSLCertificateValidationDisabled));
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        connectionManager.setMaxTotal(MAX_CONNECTIONS_TOTAL);
+
+        // The cookie store keeps the Yarn UI authenticated session alive across fetches
+        this.httpClient = HttpClients.custom()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .setDefaultCookieStore(new BasicCookieStore())
+                .setDefaultRequestConfig(RequestConfig.custom().setCookieSpec(CookieSpecs.DEFAULT).build())
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_CONNECTION_EVICT_SECONDS, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Get the shared log fetcher for the cluster which serves the container log URL
+     *
+     * @param containerLogUrl the container log URL
+     * @return the log fetcher shared by the cluster
+     */
+    @NotNull
+    public static YarnContainerLogFetcher of(@NotNull final String containerLogUrl) {
+        final boolean isSSLCertificateValidationDisabled = HttpObservable.isSSLCertificateValidationDisabled();
+        final String key = getClusterKey(containerLogUrl) + "|" + isSSLCertificateValidationDisabled;
+
+        return fetchers.asMap().computeIfAbsent(key, k -> new YarnContainerLogFetcher(isSSLCertificateValidationDisabled));
+    }
+
+    /**
+     * Evict all cached log fetchers, and close their HTTP clients once the fetches in flight are done
+     */
+    public static void closeAll() {
+        fetchers.invalidateAll();
+        fetchers.cleanUp();
+    }
+
+    /**
+     * Get the count of the log fetchers cached, for diagnostics
+     */
+    static long getCachedCount() {
+        fetchers.cleanUp();
+
+        return fetchers.size();
+    }
+
+    boolean isClosed() {
+        synchronized (this) {
+            return isClosed;
+        }
+    }
+
+    private boolean acquire() {
+        synchronized (this) {
+            if (isClosed) {
+                return false;
+            }
+
+            inFlight++;
+            return true;
+        }
+    }
+
+    private void release() {
+        synchronized (this) {
+            inFlight--;
+
+            if (!isEvicted || inFlight > 0) {
+                return;
+            }
+        }
+
+        close();
+    }
+
+    private void evict() {
+        synchronized (this) {
+            isEvicted = true;
+
+            if (inFlight > 0) {
+                return;
+            }
+        }
+
+        close();
+    }
+
+    private void close() {
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+
+            isClosed = true;
+        }
+
+        try {
+            httpClient.close();
+        } catch (final IOException e) {
+            log().warn("Close the HTTP client of Yarn log fetcher failure. " + ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    @NotNull
+    private static String getClusterKey(@NotNull final String containerLogUrl) {
+        try {
+            final URI uri = new URI(containerLogUrl);
+
+            return uri.getScheme() + "://" + uri.getRawAuthority();
+        } catch (final URISyntaxException e) {
+            return containerLogUrl;
+        }
+    }
+
+    @NotNull
+    private Registry<ConnectionSocketFactory> createSocketFactoryRegistry(final boolean isSSLCertificateValidationDisabled) {
+        SSLConnectionSocketFactory sslSocketFactory = SSLConnectionSocketFactory.getSocketFactory();
+        final TrustStrategy ts = isSSLCertificateValidationDisabled
+                ? TrustAllStrategy.INSTANCE
+                : ServiceManager.getServiceProvider(TrustStrategy.class);
+
+        if (ts != null) {
+            try {
+                sslSocketFactory = new SSLConnectionSocketFactory(
+                        new SSLContextBuilder().loadTrustMaterial(ts).build(),
+                        new String[] { "TLSv1.2", "TLSv1.3" },
+                        null,
+                        isSSLCertificateValidationDisabled
+                                ? NoopHostnameVerifier.INSTANCE
+                                : new DefaultHostnameVerifier());
+            } catch (final Exception e) {
+                log().error("Prepare SSL Context for Yarn log fetcher failure. " + ExceptionUtils.getStackTrace(e));
+            }
+        }
+
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+    }
+
+    /**
+     * Fetch the log of the container with the byte range specified
+     *
+     * @param authCode the authCode in request's Authorization header
+     * @param baseUrl the container log URL
+     * @param type the log type, such as stderr, stdout and directory.info
+     * @param start the start offset of the log
+     * @param size the size to fetch, the value 0 or negative for the rest of log
+     * @return the log fetched, or empty string for any failure
+     */
+    @NotNull
+    public String fetch(@Nullable final String authCode,
+                        @NotNull final String baseUrl,
+                        @NotNull final String type,
+                        final long start,
+                        final int size) {
+        if (!acquire()) {
+            // Closed after being evicted, fetch with the fetcher of the cluster cached now
+            return of(baseUrl).fetch(authCode, baseUrl, type, start, size);
+        }
+
+        URI url = null;
+
+        try {
+            url = new URI(baseUrl + "/").resolve(
+                    String.format("%s?start=%d", type, start) +
+                            (size <= 0 ? "" : String.format("&&end=%d", start + size)));
+
+            final HttpGet get = new HttpGet(url);
+            if (authCode != null) {
+                get.setHeader(AUTHORIZATION, authCode);
+            }
+
+            try (final CloseableHttpResponse response = httpClient.execute(get)) {
+                final int statusCode = response.getStatusLine().getStatusCode();
+                final String page = response.getEntity() == null
+                        ? ""
+                        : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+
+                if (statusCode >= HttpStatus.SC_BAD_REQUEST) {
+                    // If fetching Yarn log hits the gap between the job running and stop, will get the status 403
+                    // the log is moving to job history server, just wait and retry.
+                    if (statusCode != HttpStatus.SC_FORBIDDEN) {
+                        log().warn("The GET request to " + url + " responded error: " + response.getStatusLine());
+                    }
+
+                    return "";
+                }
+
+                return parseLog(page, type);
+            }
+        } catch (final URISyntaxException e) {
+            log().error("baseUrl has syntax error: " + baseUrl);
+        } catch (final Exception e) {
+            log().warn("get Spark job log Error", e);
+        } finally {
+            release();
+        }
+
+        return "";
+    }
+
+    /**
+     * Pull the log out of the Yarn UI container log page
+     *
+     * @param page the Yarn UI container log page HTML
+     * @param type the log type expected
+     * @return the log parsed, or empty string if not found
+     */
+    @NotNull
+    static String parseLog(@NotNull final String page, @NotNull final String type) {
+        final Element navCell = Jsoup.parse(page).getElementById("navcell");
+        final Element content = navCell == null ? null : navCell.nextElementSibling();
+
+        if (content == null) {
+            return "";
+        }
+
+        final Map<String, String> logTypeMap = new HashMap<>();
+        String logType = null;
+        String logs = "";
+
+        for (final Element node : content.children()) {
+            if (node.tagName().equals("p")) {
+                // In history server, need to read log type paragraph in page
+                final String matched = Optional.ofNullable(getFirstChildText(node))
+                        .map(String::trim)
+                        .map(LOG_TYPE_PATTERN::matcher)
+                        .filter(Matcher::matches)
+                        .map(matcher -> matcher.group(1))
+                        .orElse(null);
+
+                if (matched != null) {
+                    logType = matched;
+                }
+            } else if (node.tagName().equals("pre")) {
+                // In running, no log type paragraph in page
+                logs = Optional.ofNullable(getFirstChildText(node)).orElse("");
+
+                if (logType != null) {
+                    // Only get the first <pre>...</pre>
+                    logTypeMap.put(logType, logs);
+
+                    logType = null;
+                }
+            }
+        }
+
+        return logTypeMap.getOrDefault(type, logs);
+    }
+
+    @Nullable
+    private static String getFirstChildText(@NotNull final Element element) {
+        if (element.childNodeSize() == 0) {
+            return null;
+        }
+
+        final Node firstChild = element.childNode(0);
+        if (firstChild instanceof TextNode) {
+            return ((TextNode) firstChild).getWholeText();
+        }
+
+        return firstChild instanceof Element ? ((Element) firstChild).wholeText() : null;
+    }
+}
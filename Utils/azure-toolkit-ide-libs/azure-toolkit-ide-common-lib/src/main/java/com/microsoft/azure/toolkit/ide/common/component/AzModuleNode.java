@@ -5,32 +5,36 @@
 
 package com.microsoft.azure.toolkit.ide.common.component;
 
+import com.microsoft.azure.toolkit.ide.common.event.KeyedEventBus;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEvent;
-import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.AzResourceModule;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
+import java.util.function.Consumer;
 
 public class AzModuleNode<T extends AbstractAzResourceModule<?, ?, ?>> extends Node<T> {
-    private final AzureEventBus.EventListener listener;
+    private final Consumer<AzureEvent> listener;
+    private final Object key;
 
     public AzModuleNode(@Nonnull T module) {
         super(module);
         final String name = module.getResourceTypeName();
         this.withIcon(String.format("/icons/%s/default.svg", module.getFullResourceType()))
             .withLabel(name.endsWith("s") ? name : name + "s")
-            .withMoreChildren(AbstractAzResourceModule::hasMoreResources, AbstractAzResourceModule::loadMoreResources);
-        this.listener = new AzureEventBus.EventListener(this::onEvent);
-        AzureEventBus.on("module.refreshed.module", listener);
-        AzureEventBus.on("module.children_changed.module", listener);
+            .withMoreChildren(AbstractAzResourceModule::hasMoreResources, AbstractAzResourceModule::loadMoreResources)
+            .withChildrenPageSize(DEFAULT_CHILDREN_PAGE_SIZE);
+        this.listener = this::onEvent;
+        this.key = KeyedEventBus.keyOf(module);
+        KeyedEventBus.on("module.refreshed.module", key, listener);
+        KeyedEventBus.on("module.children_changed.module", key, listener);
     }
 
     public void dispose() {
         super.dispose();
-        AzureEventBus.off("module.refreshed.module", listener);
-        AzureEventBus.off("module.children_changed.module", listener);
+        KeyedEventBus.off("module.refreshed.module", key, listener);
+        KeyedEventBus.off("module.children_changed.module", key, listener);
     }
 
     public void onEvent(AzureEvent event) {
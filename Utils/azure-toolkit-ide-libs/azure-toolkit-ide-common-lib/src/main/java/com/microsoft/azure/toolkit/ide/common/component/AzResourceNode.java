@@ -5,17 +5,19 @@
 
 package com.microsoft.azure.toolkit.ide.common.component;
 
+import com.microsoft.azure.toolkit.ide.common.event.KeyedEventBus;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEvent;
-import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
+import java.util.function.Consumer;
 
 import static com.microsoft.azure.toolkit.ide.common.component.AzureResourceIconProvider.DEFAULT_AZURE_RESOURCE_ICON_PROVIDER;
 
 public class AzResourceNode<T extends AzResource> extends Node<T> {
-    private final AzureEventBus.EventListener listener;
+    private final Consumer<AzureEvent> listener;
+    private final String key;
 
     public AzResourceNode(@Nonnull T resource) {
         super(resource);
@@ -23,11 +25,13 @@ public class AzResourceNode<T extends AzResource> extends Node<T> {
         this.withLabel(AzResource::getName);
         this.withDescription(AzResource::getStatus);
         this.enableWhen(r -> !r.getFormalStatus().isDeleted());
+        this.withChildrenPageSize(DEFAULT_CHILDREN_PAGE_SIZE);
 
-        this.listener = new AzureEventBus.EventListener(this::onEvent);
-        AzureEventBus.on("resource.refreshed.resource", listener);
-        AzureEventBus.on("resource.status_changed.resource", listener);
-        AzureEventBus.on("resource.children_changed.resource", listener);
+        this.listener = this::onEvent;
+        this.key = resource.getId();
+        KeyedEventBus.on("resource.refreshed.resource", key, listener);
+        KeyedEventBus.on("resource.status_changed.resource", key, listener);
+        KeyedEventBus.on("resource.children_changed.resource", key, listener);
     }
 
     public void onEvent(AzureEvent event) {
@@ -49,9 +53,9 @@ public class AzResourceNode<T extends AzResource> extends Node<T> {
 
     public void dispose() {
         super.dispose();
-        AzureEventBus.off("resource.refreshed.resource", listener);
-        AzureEventBus.off("resource.status_changed.resource", listener);
-        AzureEventBus.off("resource.children_changed.resource", listener);
+        KeyedEventBus.off("resource.refreshed.resource", key, listener);
+        KeyedEventBus.off("resource.status_changed.resource", key, listener);
+        KeyedEventBus.off("resource.children_changed.resource", key, listener);
     }
 
     @Override
@@ -5,35 +5,39 @@
 
 package com.microsoft.azure.toolkit.ide.common.component;
 
+import com.microsoft.azure.toolkit.ide.common.event.KeyedEventBus;
 import com.microsoft.azure.toolkit.lib.AzService;
 import com.microsoft.azure.toolkit.lib.common.event.AzureEvent;
-import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResourceModule;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzService;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
+import java.util.function.Consumer;
 
 public class AzServiceNode<T extends AbstractAzService<?, ?>> extends Node<T> {
-    private final AzureEventBus.EventListener listener;
+    private final Consumer<AzureEvent> listener;
+    private final Object key;
 
     public AzServiceNode(@Nonnull T service) {
         super(service);
         this.withIcon(String.format("/icons/%s/default.svg", service.getFullResourceType()))
             .withLabel(service.getResourceTypeName())
-            .withMoreChildren(AbstractAzResourceModule::hasMoreResources, AbstractAzResourceModule::loadMoreResources);
-
-        this.listener = new AzureEventBus.EventListener(this::onEvent);
-        AzureEventBus.on("module.refreshed.module", listener);
-        AzureEventBus.on("module.children_changed.module", listener);
-        AzureEventBus.on("service.children_changed.service", listener);
+            .withMoreChildren(AbstractAzResourceModule::hasMoreResources, AbstractAzResourceModule::loadMoreResources)
+            .withChildrenPageSize(DEFAULT_CHILDREN_PAGE_SIZE);
+
+        this.listener = this::onEvent;
+        this.key = KeyedEventBus.keyOf(service);
+        KeyedEventBus.on("module.refreshed.module", key, listener);
+        KeyedEventBus.on("module.children_changed.module", key, listener);
+        KeyedEventBus.on("service.children_changed.service", key, listener);
     }
 
     public void dispose() {
         super.dispose();
-        AzureEventBus.off("module.refreshed.module", listener);
-        AzureEventBus.off("module.children_changed.module", listener);
-        AzureEventBus.off("service.children_changed.service", listener);
+        KeyedEventBus.off("module.refreshed.module", key, listener);
+        KeyedEventBus.off("module.children_changed.module", key, listener);
+        KeyedEventBus.off("service.children_changed.service", key, listener);
     }
 
     protected void onEvent(AzureEvent event) {
@@ -23,6 +23,7 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.*;
 import java.util.stream.Collectors;
@@ -31,6 +32,8 @@ import java.util.stream.Stream;
 @ToString(onlyExplicitlyIncluded = true)
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Node<D> {
+    public static final int DEFAULT_CHILDREN_PAGE_SIZE = 100;
+    public static final int DEFAULT_MAX_CHILDREN_IN_MEMORY = 2000;
     @Nonnull
     @Getter
     @EqualsAndHashCode.Include
@@ -72,6 +75,21 @@ public class Node<D> {
     protected ChildrenRenderer childrenRenderer;
     @Getter
     private boolean lazy = true;
+    // non-positive means building all children at once
+    @Getter
+    private int childrenPageSize = 0;
+    @Getter
+    private int maxChildrenInMemory = DEFAULT_MAX_CHILDREN_IN_MEMORY;
+    // children listed but not built yet in paged mode, replaced as a whole on refreshing so that it can be read
+    // (e.g. by UI thread) without waiting for the listing.
+    private final AtomicReference<Deque<Supplier<Node<?>>>> pendingChildren = new AtomicReference<>(new ConcurrentLinkedDeque<>());
+    // children built and then discarded beyond the cap in paged mode, the latest discarded last, kept unbuilt so that
+    // they can be paged back by `loadPreviousChildren`.
+    private final AtomicReference<Deque<Supplier<Node<?>>>> previousChildren = new AtomicReference<>(new ConcurrentLinkedDeque<>());
+    // suppliers of the built children in paged mode, in the same order, guarded by `pagingLock`.
+    private final List<Supplier<Node<?>>> builtChildren = new ArrayList<>();
+    // guards paging in the pending children, never held while listing children.
+    private final Object pagingLock = new Object();
     private final Map<String, Object> data = new HashMap<>();
     private final AtomicReference<List<Node<?>>> children = new AtomicReference<>();
     private final AtomicReference<View> view = new AtomicReference<>();
@@ -145,6 +163,27 @@ public class Node<D> {
         return this;
     }
 
+    /**
+     * build children page by page, only the first page is built on refreshing, and the following pages are built on
+     * {@link #loadMoreChildren()} before asking {@link #withMoreChildren(Predicate, Consumer) the more children loader}
+     * to load more from the source.
+     *
+     * @param pageSize non-positive to build all children at once
+     */
+    public Node<D> withChildrenPageSize(final int pageSize) {
+        this.childrenPageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * the max number of built children to keep in paged mode, the earliest built pages are discarded once exceeded
+     * and can be paged back by {@link #loadPreviousChildren()}, which discards the latest built ones in turn.
+     */
+    public Node<D> withMaxChildrenInMemory(final int maxChildren) {
+        this.maxChildrenInMemory = Math.max(maxChildren, this.childrenPageSize);
+        return this;
+    }
+
     public Node<D> withActions(String groupId) {
         return this.withActions(AzureActionManager.getInstance().getGroup(groupId));
     }
@@ -267,6 +306,25 @@ public class Node<D> {
         }
     }
 
+    /**
+     * list children data of all builders, but defer building the child nodes until they are paged in.
+     */
+    public List<Supplier<Node<?>>> buildChildrenLazily() {
+        try {
+            return this.childrenBuilders.stream().flatMap((builder) -> builder.buildLazily(this)).collect(Collectors.toList());
+        } catch (final Exception e) {
+            final Throwable root = ExceptionUtils.getRootCause(e);
+            if (!(root instanceof InterruptedException)) {
+                AzureMessager.getMessager().error(e);
+            }
+            return Collections.emptyList();
+        }
+    }
+
+    public boolean isChildrenPaged() {
+        return this.childrenPageSize > 0;
+    }
+
     public View buildView() {
         try {
             final String label = this.buildLabel();
@@ -291,12 +349,70 @@ public class Node<D> {
         this.view.compareAndSet(null, new View(AzureIcons.Common.REFRESH_ICON, this.buildLabel()));
         this.view.get().setIcon(AzureIcons.Common.REFRESH_ICON);
         this.rerenderView();
-        this.children.set(this.buildChildren());
+        if (this.isChildrenPaged()) {
+            this.refreshChildrenPaged(incremental);
+        } else {
+            this.children.set(this.buildChildren());
+        }
         this.rerenderChildren(incremental);
         this.view.set(this.buildView());
         this.rerenderView();
     }
 
+    private void refreshChildrenPaged(boolean incremental) {
+        final Deque<Supplier<Node<?>>> all = new ConcurrentLinkedDeque<>(this.buildChildrenLazily());
+        synchronized (this.pagingLock) {
+            final List<Node<?>> current = Optional.ofNullable(this.children.get()).orElse(Collections.emptyList());
+            // keep as many children built as before for incremental refreshing, e.g. after loading more from the source.
+            final int size = incremental ? Math.max(current.size(), this.childrenPageSize) : this.childrenPageSize;
+            this.pendingChildren.set(all);
+            this.previousChildren.set(new ConcurrentLinkedDeque<>());
+            this.builtChildren.clear();
+            this.children.set(this.pageIn(Collections.emptyList(), size));
+        }
+    }
+
+    // build the next `size` pending children and append to `current`, discarding the earliest ones beyond the cap.
+    private List<Node<?>> pageIn(@Nonnull final List<Node<?>> current, final int size) {
+        final List<Node<?>> result = new ArrayList<>(current);
+        final Deque<Supplier<Node<?>>> pending = this.pendingChildren.get();
+        final Deque<Supplier<Node<?>>> previous = this.previousChildren.get();
+        Supplier<Node<?>> next;
+        for (int i = 0; i < size && (next = pending.poll()) != null; i++) {
+            final Node<?> child = next.get();
+            if (Objects.nonNull(child)) {
+                result.add(child);
+                this.builtChildren.add(next);
+            }
+        }
+        while (result.size() > this.maxChildrenInMemory) {
+            result.remove(0);
+            previous.addLast(this.builtChildren.remove(0));
+        }
+        return result;
+    }
+
+    // build the latest `size` discarded children and prepend to `current`, discarding the latest built ones beyond
+    // the cap back to the pending children.
+    private List<Node<?>> pageBack(@Nonnull final List<Node<?>> current, final int size) {
+        final List<Node<?>> result = new ArrayList<>(current);
+        final Deque<Supplier<Node<?>>> pending = this.pendingChildren.get();
+        final Deque<Supplier<Node<?>>> previous = this.previousChildren.get();
+        Supplier<Node<?>> prev;
+        for (int i = 0; i < size && (prev = previous.pollLast()) != null; i++) {
+            final Node<?> child = prev.get();
+            if (Objects.nonNull(child)) {
+                result.add(0, child);
+                this.builtChildren.add(0, prev);
+            }
+        }
+        while (result.size() > this.maxChildrenInMemory) {
+            result.remove(result.size() - 1);
+            pending.addFirst(this.builtChildren.remove(this.builtChildren.size() - 1));
+        }
+        return result;
+    }
+
     protected synchronized void refreshView() {
         this.view.compareAndSet(null, new View(AzureIcons.Common.REFRESH_ICON, this.buildLabel()));
         this.view.get().setIcon(AzureIcons.Common.REFRESH_ICON);
@@ -361,11 +477,46 @@ public class Node<D> {
     }
 
     public boolean hasMoreChildren() {
-        return this.hasMoreChildren.test(this.value);
+        return this.hasPendingChildren() || this.hasMoreChildren.test(this.value);
+    }
+
+    /**
+     * @return true if there are children listed but not built yet in paged mode
+     */
+    public boolean hasPendingChildren() {
+        return !this.pendingChildren.get().isEmpty();
+    }
+
+    /**
+     * @return true if there are children built before but discarded beyond the cap in paged mode
+     */
+    public boolean hasPreviousChildren() {
+        return !this.previousChildren.get().isEmpty();
+    }
+
+    /**
+     * build the page of children discarded most recently beyond the cap in paged mode.
+     */
+    public void loadPreviousChildren() {
+        synchronized (this.pagingLock) {
+            if (this.hasPreviousChildren()) {
+                final List<Node<?>> current = Optional.ofNullable(this.children.get()).orElse(Collections.emptyList());
+                this.children.set(this.pageBack(current, Math.max(this.childrenPageSize, 1)));
+                this.rerenderChildren(true);
+            }
+        }
     }
 
     public void loadMoreChildren() {
-        this.moreChildrenLoader.accept(this.value);
+        synchronized (this.pagingLock) {
+            if (this.hasPendingChildren()) {
+                final List<Node<?>> current = Optional.ofNullable(this.children.get()).orElse(Collections.emptyList());
+                this.children.set(this.pageIn(current, this.childrenPageSize));
+                this.rerenderChildren(true);
+                return;
+            }
+        }
+        Optional.ofNullable(this.moreChildrenLoader).ifPresent(l -> l.accept(this.value));
     }
 
     public <U> U get(String key) {
@@ -409,6 +560,11 @@ public class Node<D> {
             final List<C> childrenData = this.getChildrenData.apply(n.value);
             return childrenData.stream().filter(Objects::nonNull).map(d -> buildChildNode.apply(d, n));
         }
+
+        private Stream<Supplier<Node<?>>> buildLazily(Node<D> n) {
+            final List<C> childrenData = this.getChildrenData.apply(n.value);
+            return childrenData.stream().filter(Objects::nonNull).map(d -> () -> buildChildNode.apply(d, n));
+        }
     }
 
     @Setter
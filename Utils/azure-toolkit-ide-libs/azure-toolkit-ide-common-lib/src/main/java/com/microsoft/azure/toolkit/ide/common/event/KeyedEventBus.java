@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.ide.common.event;
+
+import com.microsoft.azure.toolkit.lib.common.event.AzureEvent;
+import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
+import com.microsoft.azure.toolkit.lib.common.model.AzResource;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keyed subscriptions on top of {@link AzureEventBus}, for the listeners interested in the events of one source only,
+ * such as the explorer nodes of a resource or a module.
+ * <p>
+ * Only one listener is registered to {@link AzureEventBus} per event type, which looks up the subscribers by the
+ * event source key, so the cost of an event doesn't grow with the number of subscribers. The key of an
+ * {@link AzResource} source is its id, and the key of any other source is the source itself.
+ */
+public final class KeyedEventBus {
+    private static final Map<String, Map<Object, Set<Consumer<AzureEvent>>>> subscribers = new ConcurrentHashMap<>();
+
+    private KeyedEventBus() {
+    }
+
+    /**
+     * Subscribe the events of the type from the source with the key
+     *
+     * @param type     the event type
+     * @param key      the key of the event source, see {@link #keyOf(Object)}
+     * @param listener the listener to notify
+     */
+    public static void on(@Nonnull String type, @Nonnull Object key, @Nonnull Consumer<AzureEvent> listener) {
+        subscribers.computeIfAbsent(type, KeyedEventBus::register)
+            .computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet())
+            .add(listener);
+    }
+
+    public static void off(@Nonnull String type, @Nonnull Object key, @Nonnull Consumer<AzureEvent> listener) {
+        final Map<Object, Set<Consumer<AzureEvent>>> keyed = subscribers.get(type);
+        if (keyed != null) {
+            keyed.computeIfPresent(key, (k, listeners) -> {
+                listeners.remove(listener);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
+    }
+
+    /**
+     * Get the key of the event source to dispatch by
+     */
+    @Nullable
+    public static Object keyOf(@Nullable Object source) {
+        return source instanceof AzResource ? ((AzResource) source).getId() : source;
+    }
+
+    @Nonnull
+    private static Map<Object, Set<Consumer<AzureEvent>>> register(@Nonnull String type) {
+        final Map<Object, Set<Consumer<AzureEvent>>> keyed = new ConcurrentHashMap<>();
+        AzureEventBus.on(type, new AzureEventBus.EventListener(event -> dispatch(keyed, event)));
+        return keyed;
+    }
+
+    private static void dispatch(@Nonnull Map<Object, Set<Consumer<AzureEvent>>> keyed, @Nonnull AzureEvent event) {
+        final Object key = keyOf(event.getSource());
+        final Set<Consumer<AzureEvent>> listeners = key == null ? null : keyed.get(key);
+        if (listeners != null) {
+            listeners.forEach(listener -> listener.accept(event));
+        }
+    }
+}
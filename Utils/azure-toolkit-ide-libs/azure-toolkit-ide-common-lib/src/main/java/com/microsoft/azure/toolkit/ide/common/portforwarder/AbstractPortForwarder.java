@@ -6,6 +6,7 @@
 package com.microsoft.azure.toolkit.ide.common.portforwarder;
 
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import okhttp3.OkHttpClient;
 import okhttp3.WebSocket;
 
@@ -13,13 +14,25 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Forwards a local port to a remote one through websockets. Every local connection gets its own websocket (tunnel), and
+ * all local connections are served by one relay thread, so that e.g. a connection pool or a browser can open many
+ * connections through the forwarder concurrently.
+ */
 public abstract class AbstractPortForwarder {
+    // shared by tunnels of all forwarders, so that they share connection pool and dispatcher threads.
+    private static final OkHttpClient HTTP_CLIENT = new OkHttpClient();
+
     protected ServerSocketChannel server;
-    protected PortForwarderWebSocketListener listener;
+    protected final Set<PortForwarderWebSocketListener> listeners = ConcurrentHashMap.newKeySet();
+    private volatile PortForwarderRelay relay;
 
     public void initLocalSocket(final int port) throws IOException {
         stopForward();
@@ -28,13 +41,14 @@ public abstract class AbstractPortForwarder {
 
     public void startForward(final int localPort) {
         try {
-            if (Objects.isNull(this.server)) {
+            if (Objects.isNull(this.server) || !this.server.isOpen()) {
                 initLocalSocket(localPort);
             }
-            final OkHttpClient okHttpClient = new OkHttpClient();
-            this.listener = createWebSocketListener(server.accept());
-            final CompletableFuture<WebSocket> future = createSocketBuilder(okHttpClient).buildAsync(listener);
-            future.whenComplete((socket, throwable) -> Optional.ofNullable(throwable).ifPresent(t -> listener.onError(socket, t)));
+            Optional.ofNullable(this.relay).ifPresent(PortForwarderRelay::stop);
+            this.relay = new PortForwarderRelay(this.server, this::onAccepted);
+            final Thread thread = new Thread(this.relay, String.format("azure-port-forwarder-%d", localPort));
+            thread.setDaemon(true);
+            thread.start();
         } catch (final IOException e) {
             stopForward();
             throw new AzureToolkitRuntimeException("Unable to start debugging.", e);
@@ -42,6 +56,8 @@ public abstract class AbstractPortForwarder {
     }
 
     public void stopForward() {
+        Optional.ofNullable(this.relay).ifPresent(PortForwarderRelay::stop);
+        this.relay = null;
         if (Objects.nonNull(server) && server.isOpen()) {
             try {
                 server.close();
@@ -49,9 +65,38 @@ public abstract class AbstractPortForwarder {
                 throw new AzureToolkitRuntimeException(e);
             }
         }
-        if (Objects.nonNull(listener) && listener.isAlive()) {
-            listener.closeForwarder();
-        }
+        new ArrayList<>(this.listeners).stream().filter(PortForwarderWebSocketListener::isAlive)
+            .forEach(PortForwarderWebSocketListener::closeForwarder);
+        this.listeners.clear();
+    }
+
+    Optional<PortForwarderRelay> getRelay() {
+        return Optional.ofNullable(this.relay);
+    }
+
+    /**
+     * called on the relay thread once a local connection is accepted, the websocket is opened in background since
+     * creating it may require access token.
+     */
+    private PortForwarderWebSocketListener onAccepted(final SocketChannel channel) {
+        final PortForwarderWebSocketListener listener = createWebSocketListener(channel);
+        this.listeners.add(listener);
+        AzureTaskManager.getInstance().runOnPooledThread(() -> {
+            try {
+                final CompletableFuture<WebSocket> future = createSocketBuilder(HTTP_CLIENT).buildAsync(listener);
+                future.whenComplete((socket, throwable) -> Optional.ofNullable(throwable).ifPresent(t -> listener.onError(socket, t)));
+            } catch (final RuntimeException e) {
+                listener.onError(null, e);
+            }
+        });
+        return listener;
+    }
+
+    /**
+     * called once the local connection of the {@code listener} is closed.
+     */
+    protected void onClosed(final PortForwarderWebSocketListener listener) {
+        this.listeners.remove(listener);
     }
 
     protected abstract WebSocketBuilder createSocketBuilder(OkHttpClient httpClient);
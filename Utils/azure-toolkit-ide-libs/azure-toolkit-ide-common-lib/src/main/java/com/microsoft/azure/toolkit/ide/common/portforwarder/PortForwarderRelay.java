@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ *  Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.ide.common.portforwarder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Relays all local connections of a port forwarder on one selector thread: accepts any number of local connections,
+ * reads a local connection only when its websocket is open and has room in its send queue, and writes data from
+ * remote to a local connection only when the connection is writable, so no thread sleeps or blocks on a connection.
+ */
+@Slf4j
+class PortForwarderRelay implements Runnable {
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final long THROTTLE_CHECK_INTERVAL_MS = 10;
+
+    private final ServerSocketChannel server;
+    private final Function<SocketChannel, PortForwarderWebSocketListener> onAccepted;
+    private final Selector selector;
+    private final Queue<PortForwarderWebSocketListener> updates = new ConcurrentLinkedQueue<>();
+    // connections not read because their websocket has too many bytes queued, okhttp has no callback once drained.
+    private final Set<PortForwarderWebSocketListener> throttled = new HashSet<>();
+    // data read from local is copied by websocket right away, so one direct buffer is shared by all connections.
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private volatile boolean running = true;
+
+    PortForwarderRelay(@Nonnull ServerSocketChannel server, @Nonnull Function<SocketChannel, PortForwarderWebSocketListener> onAccepted) throws IOException {
+        this.server = server;
+        this.onAccepted = onAccepted;
+        this.selector = Selector.open();
+        server.configureBlocking(false);
+        server.register(this.selector, SelectionKey.OP_ACCEPT);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (this.running && this.server.isOpen()) {
+                this.selector.select(this.throttled.isEmpty() ? 0 : THROTTLE_CHECK_INTERVAL_MS);
+                PortForwarderWebSocketListener updated;
+                while ((updated = this.updates.poll()) != null) {
+                    this.updateInterest(updated);
+                }
+                new HashSet<>(this.throttled).forEach(this::updateInterest);
+                final Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        this.accept();
+                        continue;
+                    }
+                    final PortForwarderWebSocketListener listener = (PortForwarderWebSocketListener) key.attachment();
+                    if (key.isWritable()) {
+                        listener.onWritable();
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        listener.onReadable(this.buffer);
+                    }
+                    this.updateInterest(listener);
+                }
+            }
+        } catch (final IOException | ClosedSelectorException e) {
+            if (this.running) {
+                log.warn("port forwarding stopped unexpectedly.", e);
+            }
+        } finally {
+            try {
+                this.selector.close();
+            } catch (final IOException e) {
+                log.debug("failed to close selector.", e);
+            }
+        }
+    }
+
+    /**
+     * updates what the selector waits for on the connection of the {@code listener}, may be called on any thread.
+     */
+    void update(@Nonnull PortForwarderWebSocketListener listener) {
+        this.updates.add(listener);
+        this.selector.wakeup();
+    }
+
+    void stop() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = this.server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            final PortForwarderWebSocketListener listener = this.onAccepted.apply(channel);
+            listener.key = channel.register(this.selector, 0, listener);
+            // the websocket may be opened already
+            this.updateInterest(listener);
+        }
+    }
+
+    private void updateInterest(@Nonnull PortForwarderWebSocketListener listener) {
+        final SelectionKey key = listener.key;
+        if (key == null || !key.isValid()) {
+            this.throttled.remove(listener);
+            return;
+        }
+        int ops = listener.getInterestOps();
+        if ((ops & SelectionKey.OP_READ) != 0 && listener.isSendQueueFull()) {
+            ops &= ~SelectionKey.OP_READ;
+            this.throttled.add(listener);
+        } else {
+            this.throttled.remove(listener);
+        }
+        try {
+            key.interestOps(ops);
+        } catch (final CancelledKeyException e) {
+            // the connection is closed in between
+            this.throttled.remove(listener);
+        }
+    }
+}
@@ -15,27 +15,37 @@ import org.jetbrains.annotations.NotNull;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.BooleanSupplier;
 
+/**
+ * Forwards data between one local connection and its websocket. Data from local is read by the relay of the forwarder
+ * once readable and sent right away, data from remote is handed over to the relay and written once the local
+ * connection is writable, no more message is requested from remote until then.
+ */
 public class PortForwarderWebSocketListener extends WebSocketListener {
+    // stop reading local if more than this number of bytes is queued to send by websocket
+    static final long MAX_QUEUED_BYTES = 1024 * 1024;
+
     protected volatile boolean opened;
     protected boolean more = true;
     protected final ReentrantLock lock = new ReentrantLock();
     protected final Condition moreRequested;
     protected final CompletableFuture<WebSocket> future;
-    protected final ExecutorService pumperService = Executors.newSingleThreadExecutor();
     protected final AtomicBoolean alive = new AtomicBoolean(true);
     protected final ReadableByteChannel in;
     protected final WritableByteChannel out;
     protected final AbstractPortForwarder forwarder;
+    protected volatile WebSocket webSocket;
+    // data from remote not written to local yet, at most one message is pending since more is requested only after it's written.
+    private volatile ByteBuffer pending;
+    // key of the local connection registered to the relay
+    volatile SelectionKey key;
 
     public PortForwarderWebSocketListener(ReadableByteChannel in, WritableByteChannel out, AbstractPortForwarder forwarder) {
         this.in = in;
@@ -71,21 +81,8 @@ public class PortForwarderWebSocketListener extends WebSocketListener {
         if (response != null) {
             response.close();
         }
-        if (this.in != null) {
-            this.pumperService.execute(() -> {
-                try {
-                    pipe(this.in, webSocket, this.alive::get);
-                } catch (final InterruptedException | IOException e) {
-                    if (e instanceof InterruptedException) {
-                        Thread.currentThread().interrupt();
-                    }
-                    if (this.alive.get()) {
-                        this.closeWebSocket(webSocket, 1001, "Client error");
-                        AzureMessager.getMessager().error(e, "Error while forwarding data from client to remote.");
-                    }
-                }
-            });
-        }
+        this.webSocket = webSocket;
+        this.forwarder.getRelay().ifPresent(r -> r.update(this));
         future.complete(webSocket);
     }
 
@@ -157,23 +154,69 @@ public class PortForwarderWebSocketListener extends WebSocketListener {
                 AzureMessager.getMessager().error(e, "Error while stop debugger.");
             }
         }
-        this.forwarder.stopForward();
-        this.pumperService.shutdownNow();
-    }
-
-    protected void pipe(ReadableByteChannel in, WebSocket webSocket, BooleanSupplier isAlive) throws IOException, InterruptedException {
-        final ByteBuffer buffer = ByteBuffer.allocate(4096);
-        int read;
-        do {
+        this.pending = null;
+        // release the websocket thread waiting for the pending data to be written
+        this.request();
+        this.forwarder.onClosed(this);
+    }
+
+    /**
+     * reads local and sends what's read to remote, called by the relay once the local connection is readable.
+     */
+    void onReadable(@NotNull final ByteBuffer buffer) {
+        final WebSocket socket = this.webSocket;
+        if (this.in == null || socket == null) {
+            return;
+        }
+        try {
             buffer.clear();
-            read = readMessage(in, buffer);
+            final int read = readMessage(this.in, buffer);
             if (read > 0) {
                 buffer.flip();
-                webSocket.send(ByteString.of(buffer));
-            } else if (read == 0) {
-                Thread.sleep(50L);
+                socket.send(ByteString.of(buffer));
+            } else if (read < 0 && this.alive.get()) {
+                this.closeWebSocket(socket, 1000, "Client closed");
+            }
+        } catch (final IOException e) {
+            if (this.alive.get()) {
+                this.closeWebSocket(socket, 1001, "Client error");
+                AzureMessager.getMessager().error(e, "Error while forwarding data from client to remote.");
+            }
+        }
+    }
+
+    /**
+     * writes the pending data from remote to local, called by the relay once the local connection is writable.
+     */
+    void onWritable() {
+        final ByteBuffer buffer = this.pending;
+        if (this.out == null || buffer == null) {
+            return;
+        }
+        try {
+            this.out.write(buffer);
+            if (!buffer.hasRemaining()) {
+                this.pending = null;
+                this.request();
             }
-        } while (isAlive.getAsBoolean() && read >= 0);
+        } catch (final IOException e) {
+            if (this.alive.get()) {
+                this.closeWebSocket(this.webSocket, 1002, "Protocol error");
+                AzureMessager.getMessager().error(e, "Error while forwarding data from remote to client.");
+            }
+        }
+    }
+
+    int getInterestOps() {
+        if (!this.alive.get()) {
+            return 0;
+        }
+        return (this.webSocket != null && this.in != null ? SelectionKey.OP_READ : 0) | (this.pending != null ? SelectionKey.OP_WRITE : 0);
+    }
+
+    boolean isSendQueueFull() {
+        final WebSocket socket = this.webSocket;
+        return socket != null && socket.queueSize() > MAX_QUEUED_BYTES;
     }
 
     protected int readMessage(@NotNull ReadableByteChannel channel, @NotNull final ByteBuffer buffer) throws IOException {
@@ -195,29 +238,15 @@ public class PortForwarderWebSocketListener extends WebSocketListener {
     }
 
     protected void writeMessage(WebSocket webSocket, ByteString bytes) {
+        if (this.out == null) {
+            return;
+        }
         final ByteBuffer buffer = bytes.asByteBuffer();
-        if (this.out != null) {
-            while (true) {
-                try {
-                    if (buffer.hasRemaining()) {
-                        final int written = this.out.write(buffer);
-                        if (written == 0) {
-                            Thread.sleep(50L);
-                        }
-                        continue;
-                    }
-                    this.request();
-                } catch (final InterruptedException | IOException e) {
-                    if (e instanceof InterruptedException) {
-                        Thread.currentThread().interrupt();
-                    }
-                    if (this.alive.get()) {
-                        this.closeWebSocket(webSocket, 1002, "Protocol error");
-                        AzureMessager.getMessager().error(e, "Error while forwarding data from remote to client.");
-                    }
-                }
-                return;
-            }
+        if (!buffer.hasRemaining() || !this.alive.get()) {
+            this.request();
+            return;
         }
+        this.pending = buffer;
+        this.forwarder.getRelay().ifPresentOrElse(r -> r.update(this), () -> this.closeWebSocket(webSocket, 1001, "Forwarder stopped"));
     }
 }
@@ -20,6 +20,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -61,12 +63,23 @@ public class ContainerRegistryNodeProvider implements IExplorerNodeProvider {
                 .addChildren(r -> r.getRepositoryModule().list(), ((repository, registryNode) -> this.createNode(repository, registryNode, manager)))
                 .withMoreChildren(c -> c.getRepositoryModule().hasMoreResources(), c -> c.getRepositoryModule().loadMoreResources());
         } else if (data instanceof Repository) {
-            return new AzResourceNode<>((Repository) data)
+            final AtomicReference<Node<?>> nodeRef = new AtomicReference<>();
+            // tags are listed per artifact, show them as they arrive rather than after all are listed
+            final RepositoryTagLoader tags = new RepositoryTagLoader((Repository) data, () -> Optional.ofNullable(nodeRef.get()).ifPresent(n -> n.refreshChildrenLater(true)));
+            final AzResourceNode<Repository> repositoryNode = new AzResourceNode<>((Repository) data) {
+                @Override
+                public void dispose() {
+                    super.dispose();
+                    tags.dispose();
+                }
+            };
+            nodeRef.set(repositoryNode);
+            return repositoryNode
                 .withDescription(r -> "")
                 .addInlineAction(ResourceCommonActionsContributor.PIN)
                 .withActions(ContainerRegistryActionsContributor.REPOSITORY_ACTIONS)
-                .addChildren(r -> r.getArtifactModule().list().stream().flatMap(i -> i.getTagModule().list().stream()).collect(Collectors.toList()), ((tag, repositoryNode) -> this.createNode(tag, repositoryNode, manager)))
-                .withMoreChildren(c -> c.getArtifactModule().hasMoreResources(), c -> c.getArtifactModule().loadMoreResources());
+                .addChildren(r -> tags.list(), ((tag, parent) -> this.createNode(tag, parent, manager)))
+                .withMoreChildren(c -> tags.isLoading() || c.getArtifactModule().hasMoreResources(), c -> c.getArtifactModule().loadMoreResources());
         } else if (data instanceof Tag) {
             return new AzResourceNode<>((Tag) data)
                 .withDescription(t -> t.getLastUpdatedOn().format(DateTimeFormatter.RFC_1123_DATE_TIME))
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.ide.containerregistry;
+
+import com.microsoft.azure.toolkit.lib.containerregistry.Artifact;
+import com.microsoft.azure.toolkit.lib.containerregistry.Repository;
+import com.microsoft.azure.toolkit.lib.containerregistry.Tag;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lists tags of the loaded artifacts (manifests) of a repository without waiting for all of them. Tags of artifacts
+ * not resolved yet are fetched in background with a bounded concurrency, and {@code onTagsArrived} is called (at most
+ * once per {@link #REFRESH_INTERVAL}) as they arrive, so that the caller (e.g. the repository node) can list again to
+ * show them.
+ */
+@Slf4j
+class RepositoryTagLoader {
+    static final int MAX_CONCURRENCY = 8;
+    static final Duration REFRESH_INTERVAL = Duration.ofMillis(500);
+
+    @Nonnull
+    private final Repository repository;
+    @Nonnull
+    private final Runnable onTagsArrived;
+    // artifacts are kept by identity, so that reloaded ones are resolved again
+    private final Set<Artifact> resolved = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private final Set<Artifact> resolving = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    // artifacts whose tags failed to list, they are not shown and not retried until artifacts are reloaded
+    private final Set<Artifact> failed = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    // fetching in progress, cancelled once the artifacts being fetched are reloaded or the loader is disposed
+    private Disposable.Composite fetching = Disposables.composite();
+
+    RepositoryTagLoader(@Nonnull Repository repository, @Nonnull Runnable onTagsArrived) {
+        this.repository = repository;
+        this.onTagsArrived = onTagsArrived;
+    }
+
+    /**
+     * @return tags of the artifacts resolved so far, in the order of the artifacts.
+     */
+    @Nonnull
+    public List<Tag> list() {
+        final List<Artifact> artifacts = this.repository.getArtifactModule().list();
+        // forget artifacts that are gone, e.g. replaced by reloading
+        final Set<Artifact> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        current.addAll(artifacts);
+        this.resolved.retainAll(current);
+        this.failed.retainAll(current);
+        final boolean stale;
+        synchronized (this.resolving) {
+            stale = !current.containsAll(this.resolving);
+        }
+        if (stale) {
+            // the artifacts are reloaded (e.g. the repository is refreshed), tags of the stale ones are not needed
+            this.cancel();
+        }
+        final List<Artifact> unresolved = artifacts.stream()
+            .filter(a -> !this.resolved.contains(a) && !this.failed.contains(a) && this.resolving.add(a))
+            .collect(Collectors.toList());
+        if (!unresolved.isEmpty()) {
+            this.resolve(unresolved);
+        }
+        // tag modules of resolved artifacts are loaded, so listing them doesn't call the registry again
+        return artifacts.stream().filter(this.resolved::contains)
+            .flatMap(a -> a.getTagModule().list().stream())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return true if tags of some artifacts are still being fetched
+     */
+    public boolean isLoading() {
+        return !this.resolving.isEmpty();
+    }
+
+    /**
+     * cancel fetching tags, e.g. when the repository node is disposed.
+     */
+    public synchronized void dispose() {
+        this.fetching.dispose();
+        this.resolving.clear();
+    }
+
+    private synchronized void cancel() {
+        this.fetching.dispose();
+        this.fetching = Disposables.composite();
+        this.resolving.clear();
+    }
+
+    private synchronized void resolve(@Nonnull final List<Artifact> artifacts) {
+        if (this.fetching.isDisposed()) {
+            this.resolving.clear();
+            return;
+        }
+        final Disposable subscription = Flux.fromIterable(artifacts)
+            .flatMap(a -> Mono.fromCallable(() -> a.getTagModule().list())
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(tags -> {
+                    this.resolved.add(a);
+                    this.resolving.remove(a);
+                })
+                .onErrorResume(e -> {
+                    log.warn("failed to list tags of {}", a.getName(), e);
+                    this.failed.add(a);
+                    this.resolving.remove(a);
+                    return Mono.just(Collections.<Tag>emptyList());
+                }), MAX_CONCURRENCY)
+            // coalesce the arrivals, so that the caller lists again once per interval rather than once per artifact
+            .buffer(REFRESH_INTERVAL)
+            .filter(arrived -> !arrived.isEmpty())
+            .doOnNext(arrived -> this.onTagsArrived.run())
+            .subscribe();
+        this.fetching.add(subscription);
+    }
+}
@@ -25,6 +25,8 @@ public class ContainerExplorerMvpModel {
     private static final String INVALID_URL = "The request URL is NULL.";
     private static final String BODY = "body";
     private static final String LINK_HEADER = "link";
+    private static final String KEY_LAST = "last";
+    private static final String FAKE_URL = "http://a";
     private static final String RESPONSE_FAIL_MSG = "Unexpected response %s. please make sure the admin user is " +
             "enabled and try again";
 
@@ -51,7 +53,7 @@ public class ContainerExplorerMvpModel {
         HttpUrl.Builder urlBuilder = new HttpUrl.Builder()
                 .scheme(URL_PREFIX)
                 .host(serverUrl)
-                .addPathSegment(REPOSITORY_PATH);
+                .addPathSegments(REPOSITORY_PATH);
         if (query != null) {
             for (String key : query.keySet()) {
                 urlBuilder.addQueryParameter(key, query.get(key));
@@ -69,7 +71,7 @@ public class ContainerExplorerMvpModel {
         HttpUrl.Builder urlBuilder = new HttpUrl.Builder()
                 .scheme(URL_PREFIX)
                 .host(serverUrl)
-                .addPathSegment(String.format(TAG_PATH, repo));
+                .addPathSegments(String.format(TAG_PATH, repo));
         if (query != null) {
             for (String key : query.keySet()) {
                 urlBuilder.addQueryParameter(key, query.get(key));
@@ -78,6 +80,23 @@ public class ContainerExplorerMvpModel {
         return getResponse(client, urlBuilder.build());
     }
 
+    /**
+     * @return the {@code last} parameter of the next page in the link header, null if there is no next page.
+     */
+    @Nullable
+    public static String parseLastFromLinkHeader(@Nonnull String header) {
+        int start = header.indexOf("<") + 1;
+        int end = header.lastIndexOf(">");
+        if (start <= 0 || end < 0 || start >= end) {
+            return null;
+        }
+        HttpUrl url = HttpUrl.parse(FAKE_URL + header.substring(start, end));
+        if (url == null) {
+            return null;
+        }
+        return url.queryParameter(KEY_LAST);
+    }
+
     @Nonnull
     private Map<String, String> getResponse(@Nonnull OkHttpClient client, HttpUrl url) throws Exception {
         if (url == null) {
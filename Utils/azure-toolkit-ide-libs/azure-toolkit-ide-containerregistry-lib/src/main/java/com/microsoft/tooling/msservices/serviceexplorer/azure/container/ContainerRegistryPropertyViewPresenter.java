@@ -18,7 +18,6 @@ import com.microsoft.azuretools.core.mvp.model.container.pojo.Tag;
 import com.microsoft.azuretools.core.mvp.model.webapp.PrivateRegistryImageSetting;
 import com.microsoft.azuretools.core.mvp.ui.base.MvpPresenter;
 import com.microsoft.azuretools.core.mvp.ui.containerregistry.ContainerRegistryProperty;
-import okhttp3.HttpUrl;
 import org.apache.commons.lang3.StringUtils;
 import rx.Observable;
 
@@ -43,7 +42,6 @@ public class ContainerRegistryPropertyViewPresenter<V extends ContainerRegistryP
     private static final String KEY_LAST = "last";
     private static final String KEY_PAGE_SIZE = "n";
     private static final String HEADER_LINK = "link";
-    private static final String FAKE_URL = "http://a";
     private final Stack<String> repoStack = new Stack<>();
     private final Stack<String> tagStack = new Stack<>();
     private String currentRepo;
@@ -283,16 +281,7 @@ public class ContainerRegistryPropertyViewPresenter<V extends ContainerRegistryP
 
     @Nullable
     private String parseLinkHeader(@Nonnull String header) {
-        int start = header.indexOf("<") + 1;
-        int end = header.lastIndexOf(">");
-        if (start <= 0 || end < 0 || end >= header.length() || start >= end) {
-            return null;
-        }
-        HttpUrl url = HttpUrl.parse(FAKE_URL + header.substring(start, end));
-        if (url == null) {
-            return null;
-        }
-        return url.queryParameter(KEY_LAST);
+        return ContainerExplorerMvpModel.parseLastFromLinkHeader(header);
     }
 
     private void errorHandler(String msg, Exception e) {
@@ -21,6 +21,7 @@ public class RedisActionsContributor implements IActionsContributor {
     public static final String SERVICE_ACTIONS = "actions.redis.service";
     public static final String REDIS_ACTIONS = "actions.redis.instance";
     public static final Action.Id<AzResource> OPEN_EXPLORER = RedisCache.OPEN_EXPLORER;
+    public static final Action.Id<RedisCache> ANALYZE_MEMORY = Action.Id.of("user/redis.analyze_memory.redis");
     public static final Action.Id<ResourceGroup> GROUP_CREATE_REDIS = Action.Id.of("user/redis.create_redis.group");
 
     @Override
@@ -33,6 +34,13 @@ public class RedisActionsContributor implements IActionsContributor {
             .enableWhen(s -> s.getFormalStatus().isRunning())
             .register(am);
 
+        new Action<>(ANALYZE_MEMORY)
+            .withLabel("Analyze Memory")
+            .withIdParam(AzResource::getName)
+            .visibleWhen(s -> s instanceof RedisCache)
+            .enableWhen(s -> s.getFormalStatus().isRunning())
+            .register(am);
+
         new Action<>(GROUP_CREATE_REDIS)
             .withLabel("Redis Cache")
             .withIdParam(AzResource::getName)
@@ -60,6 +68,7 @@ public class RedisActionsContributor implements IActionsContributor {
             ResourceCommonActionsContributor.BROWSE_SERVICE_AZURE_SAMPLES,
             ResourceCommonActionsContributor.OPEN_PORTAL_URL,
             RedisActionsContributor.OPEN_EXPLORER,
+            RedisActionsContributor.ANALYZE_MEMORY,
             ResourceCommonActionsContributor.SHOW_PROPERTIES,
             "---",
             ResourceCommonActionsContributor.CONNECT,